@@ -0,0 +1,26 @@
+package com.sendByOP.expedition.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Message pub/sub demandant aux autres nœuds de retirer une entrée de leur cache local
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheInvalidationMessage {
+
+    /**
+     * Identifiant du nœud émetteur (le message est ignoré par son émetteur)
+     */
+    private String origin;
+
+    private String cacheName;
+
+    /**
+     * Clé à retirer, ou null pour vider tout le cache
+     */
+    private Object key;
+}
@@ -0,0 +1,35 @@
+package com.sendByOP.expedition.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.UUID;
+
+/**
+ * Diffuse les invalidations de cache local aux autres nœuds (Redis pub/sub)
+ */
+@Slf4j
+public class CacheInvalidationPublisher {
+
+    public static final String CHANNEL = "cache:invalidation";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public CacheInvalidationPublisher(RedisTemplate<String, Object> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void publish(String cacheName, Object key) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, new CacheInvalidationMessage(nodeId, cacheName, key));
+        } catch (Exception e) {
+            // Les caches locaux des autres nœuds expirent d'eux-mêmes (near-ttl)
+            log.warn("Could not publish cache invalidation for {}: {}", cacheName, e.getMessage());
+        }
+    }
+}
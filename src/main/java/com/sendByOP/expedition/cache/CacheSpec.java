@@ -0,0 +1,34 @@
+package com.sendByOP.expedition.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * Durée de vie et taille maximale (par nœud) d'un cache applicatif
+ */
+@Value
+@AllArgsConstructor
+public class CacheSpec {
+
+    /**
+     * Durée de vie d'une entrée (Redis et cache local)
+     */
+    Duration ttl;
+
+    /**
+     * Nombre maximal d'entrées du cache local
+     */
+    long maxSize;
+
+    /**
+     * Cache local uniquement, jamais écrit dans Redis (valeurs contenant des données sensibles) :
+     * seules les invalidations sont diffusées aux autres nœuds
+     */
+    boolean localOnly;
+
+    public CacheSpec(Duration ttl, long maxSize) {
+        this(ttl, maxSize, false);
+    }
+}
@@ -0,0 +1,50 @@
+package com.sendByOP.expedition.cache;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.sendByOP.expedition.models.dto.CacheStatsDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Statistiques de hit/miss des caches applicatifs du nœud courant
+ */
+@Service
+@RequiredArgsConstructor
+public class CacheStatsService {
+
+    private final CacheManager cacheManager;
+
+    public List<CacheStatsDto> getStats() {
+        List<CacheStatsDto> stats = new ArrayList<>();
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache instanceof TwoLevelCache twoLevelCache) {
+                stats.add(toDto(name, twoLevelCache.getLocalHits(), twoLevelCache.getRemoteHits(),
+                        twoLevelCache.getMisses(), twoLevelCache.getLocalSize()));
+            } else if (cache instanceof CaffeineCache caffeineCache) {
+                CacheStats caffeineStats = caffeineCache.getNativeCache().stats();
+                stats.add(toDto(name, caffeineStats.hitCount(), 0L, caffeineStats.missCount(),
+                        caffeineCache.getNativeCache().estimatedSize()));
+            }
+        }
+        return stats;
+    }
+
+    private static CacheStatsDto toDto(String name, long localHits, long remoteHits, long misses, long localSize) {
+        long requests = localHits + remoteHits + misses;
+        return CacheStatsDto.builder()
+                .name(name)
+                .localHits(localHits)
+                .remoteHits(remoteHits)
+                .misses(misses)
+                .hitRatio(requests > 0 ? (double) (localHits + remoteHits) / requests : null)
+                .localSize(localSize)
+                .build();
+    }
+}
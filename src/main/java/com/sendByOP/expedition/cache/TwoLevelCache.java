@@ -0,0 +1,156 @@
+package com.sendByOP.expedition.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.data.redis.cache.RedisCache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache à deux niveaux : cache local borné (Caffeine) devant un cache Redis partagé
+ *
+ * Les lectures servent d'abord le cache local puis Redis ; toute écriture ou éviction
+ * est appliquée à Redis puis diffusée aux autres nœuds, qui retirent l'entrée de leur
+ * cache local. La durée de vie locale, plus courte, borne l'obsolescence si un message
+ * d'invalidation est perdu.
+ *
+ * Sans cache Redis (CacheSpec local uniquement), seul le cache local est utilisé ; les écritures
+ * et évictions restent diffusées aux autres nœuds.
+ */
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final Cache<Object, Object> localCache;
+    private final RedisCache redisCache;
+    private final CacheInvalidationPublisher invalidationPublisher;
+
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public TwoLevelCache(String name, Cache<Object, Object> localCache, RedisCache redisCache,
+                         CacheInvalidationPublisher invalidationPublisher) {
+        super(true);
+        this.name = name;
+        this.localCache = localCache;
+        this.redisCache = redisCache;
+        this.invalidationPublisher = invalidationPublisher;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return redisCache != null ? redisCache : localCache;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Object local = localCache.getIfPresent(key);
+        if (local != null) {
+            localHits.increment();
+            return local;
+        }
+
+        ValueWrapper remote = redisCache != null ? redisCache.get(key) : null;
+        if (remote != null) {
+            remoteHits.increment();
+            Object storeValue = toStoreValue(remote.get());
+            localCache.put(key, storeValue);
+            return storeValue;
+        }
+
+        misses.increment();
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (redisCache != null) {
+            redisCache.put(key, value);
+        }
+        localCache.put(key, toStoreValue(value));
+        invalidationPublisher.publish(name, key);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = redisCache != null
+                ? redisCache.putIfAbsent(key, value)
+                : toValueWrapper(localCache.asMap().putIfAbsent(key, toStoreValue(value)));
+        if (existing == null) {
+            localCache.put(key, toStoreValue(value));
+            invalidationPublisher.publish(name, key);
+        } else {
+            localCache.put(key, toStoreValue(existing.get()));
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        if (redisCache != null) {
+            redisCache.evict(key);
+        }
+        localCache.invalidate(key);
+        invalidationPublisher.publish(name, key);
+    }
+
+    @Override
+    public void clear() {
+        if (redisCache != null) {
+            redisCache.clear();
+        }
+        localCache.invalidateAll();
+        invalidationPublisher.publish(name, null);
+    }
+
+    /**
+     * Retire une entrée (ou tout le cache si key est null) du seul cache local,
+     * à la réception d'une invalidation émise par un autre nœud
+     */
+    void evictLocal(Object key) {
+        if (key == null) {
+            localCache.invalidateAll();
+        } else {
+            localCache.invalidate(key);
+        }
+    }
+
+    public long getLocalHits() {
+        return localHits.sum();
+    }
+
+    public long getRemoteHits() {
+        return remoteHits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getLocalSize() {
+        return localCache.estimatedSize();
+    }
+}
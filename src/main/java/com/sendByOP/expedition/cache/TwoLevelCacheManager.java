@@ -0,0 +1,78 @@
+package com.sendByOP.expedition.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractCacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gestionnaire des caches à deux niveaux (local + Redis), configurés par nom de cache
+ */
+public class TwoLevelCacheManager extends AbstractCacheManager {
+
+    private final RedisCacheManager redisCacheManager;
+    private final CacheInvalidationPublisher invalidationPublisher;
+    private final Map<String, CacheSpec> specs;
+    private final CacheSpec defaultSpec;
+    private final Duration nearTtl;
+
+    public TwoLevelCacheManager(RedisCacheManager redisCacheManager, CacheInvalidationPublisher invalidationPublisher,
+                                Map<String, CacheSpec> specs, CacheSpec defaultSpec, Duration nearTtl) {
+        this.redisCacheManager = redisCacheManager;
+        this.invalidationPublisher = invalidationPublisher;
+        this.specs = specs;
+        this.defaultSpec = defaultSpec;
+        this.nearTtl = nearTtl;
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        List<Cache> caches = new ArrayList<>();
+        for (String name : specs.keySet()) {
+            caches.add(createCache(name));
+        }
+        return caches;
+    }
+
+    @Override
+    protected Cache getMissingCache(String name) {
+        return createCache(name);
+    }
+
+    /**
+     * Applique une invalidation reçue d'un autre nœud au cache local concerné
+     */
+    public void onInvalidation(CacheInvalidationMessage message) {
+        if (invalidationPublisher.getNodeId().equals(message.getOrigin())) {
+            return;
+        }
+        Cache cache = lookupCache(message.getCacheName());
+        if (cache instanceof TwoLevelCache twoLevelCache) {
+            twoLevelCache.evictLocal(message.getKey());
+        }
+    }
+
+    private TwoLevelCache createCache(String name) {
+        CacheSpec spec = specs.getOrDefault(name, defaultSpec);
+        if (spec.isLocalOnly()) {
+            return new TwoLevelCache(name, Caffeine.newBuilder()
+                    .maximumSize(spec.getMaxSize())
+                    .expireAfterWrite(spec.getTtl())
+                    .build(), null, invalidationPublisher);
+        }
+        Duration localTtl = spec.getTtl().compareTo(nearTtl) < 0 ? spec.getTtl() : nearTtl;
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> localCache = Caffeine.newBuilder()
+                .maximumSize(spec.getMaxSize())
+                .expireAfterWrite(localTtl)
+                .build();
+        RedisCache redisCache = (RedisCache) redisCacheManager.getCache(name);
+        return new TwoLevelCache(name, localCache, redisCache, invalidationPublisher);
+    }
+}
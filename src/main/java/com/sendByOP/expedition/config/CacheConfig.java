@@ -0,0 +1,168 @@
+package com.sendByOP.expedition.config;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sendByOP.expedition.cache.CacheInvalidationMessage;
+import com.sendByOP.expedition.cache.CacheInvalidationPublisher;
+import com.sendByOP.expedition.cache.CacheSpec;
+import com.sendByOP.expedition.cache.TwoLevelCacheManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Configuration des caches applicatifs (@Cacheable)
+ *
+ * Chaque cache a sa durée de vie et sa taille maximale. Par défaut les caches sont locaux
+ * (Caffeine, bornés). Avec app.cache.redis.enabled=true (profil redis-cache), chaque cache
+ * devient un cache à deux niveaux : cache local court devant Redis, les @CacheEvict d'un
+ * nœud étant diffusés aux autres par Redis pub/sub.
+ */
+@Slf4j
+@Configuration
+public class CacheConfig {
+
+    @Value("${app.cache.default-ttl:10m}")
+    private Duration defaultTtl;
+
+    @Value("${app.cache.default-max-size:1000}")
+    private long defaultMaxSize;
+
+    @Value("${app.cache.near-ttl:30s}")
+    private Duration nearTtl;
+
+    /**
+     * Durée de vie et taille maximale par cache
+     */
+    private static Map<String, CacheSpec> cacheSpecs() {
+        Map<String, CacheSpec> specs = new LinkedHashMap<>();
+        specs.put("flights", new CacheSpec(Duration.ofMinutes(10), 5_000));
+        specs.put("flights:enriched", new CacheSpec(Duration.ofMinutes(10), 5_000));
+        specs.put("flights:public", new CacheSpec(Duration.ofMinutes(2), 5_000));
+        // Listes d'ids (par statut de validation, par trajet)
+        specs.put("flights:active", new CacheSpec(Duration.ofMinutes(2), 10));
+        specs.put("flights:route", new CacheSpec(Duration.ofMinutes(2), 500));
+        // Local uniquement : CustomerDto porte l'IBAN et les pièces d'identité, qui ne vont pas dans Redis
+        specs.put("customers:email", new CacheSpec(Duration.ofMinutes(10), 10_000, true));
+        return specs;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.redis.enabled", havingValue = "false", matchIfMissing = true)
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(defaultMaxSize)
+                .expireAfterWrite(defaultTtl)
+                .recordStats());
+        cacheSpecs().forEach((name, spec) -> cacheManager.registerCustomCache(name, Caffeine.newBuilder()
+                .maximumSize(spec.getMaxSize())
+                .expireAfterWrite(spec.getTtl())
+                .recordStats()
+                .build()));
+        return cacheManager;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.redis.enabled", havingValue = "true")
+    public RedisTemplate<String, Object> cacheRedisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, Object> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(cacheValueSerializer());
+        template.afterPropertiesSet();
+        return template;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.redis.enabled", havingValue = "true")
+    public CacheInvalidationPublisher cacheInvalidationPublisher(RedisTemplate<String, Object> cacheRedisTemplate) {
+        return new CacheInvalidationPublisher(cacheRedisTemplate);
+    }
+
+    @Bean(name = "cacheManager")
+    @ConditionalOnProperty(name = "app.cache.redis.enabled", havingValue = "true")
+    public TwoLevelCacheManager twoLevelCacheManager(RedisConnectionFactory connectionFactory,
+                                                     CacheInvalidationPublisher cacheInvalidationPublisher) {
+        RedisSerializationContext.SerializationPair<Object> values =
+                RedisSerializationContext.SerializationPair.fromSerializer(cacheValueSerializer());
+        RedisCacheConfiguration defaults = RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(defaultTtl)
+                .serializeValuesWith(values);
+
+        Map<String, RedisCacheConfiguration> redisConfigs = new HashMap<>();
+        cacheSpecs().forEach((name, spec) -> {
+            if (!spec.isLocalOnly()) {
+                redisConfigs.put(name, defaults.entryTtl(spec.getTtl()));
+            }
+        });
+
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(defaults)
+                .withInitialCacheConfigurations(redisConfigs)
+                .build();
+        redisCacheManager.afterPropertiesSet();
+
+        log.info("Two-level cache enabled (local near-cache {} in front of Redis)", nearTtl);
+        return new TwoLevelCacheManager(redisCacheManager, cacheInvalidationPublisher, cacheSpecs(),
+                new CacheSpec(defaultTtl, defaultMaxSize), nearTtl);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.redis.enabled", havingValue = "true")
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            TwoLevelCacheManager twoLevelCacheManager) {
+        GenericJackson2JsonRedisSerializer serializer = cacheValueSerializer();
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) -> {
+            Object payload = serializer.deserialize(message.getBody());
+            if (payload instanceof CacheInvalidationMessage invalidation) {
+                twoLevelCacheManager.onInvalidation(invalidation);
+            }
+        }, new ChannelTopic(CacheInvalidationPublisher.CHANNEL));
+        return container;
+    }
+
+    /**
+     * Sérialisation JSON typée des valeurs en cache
+     * Les annotations Jackson des DTO sont respectées : un champ @JsonIgnore n'est jamais écrit
+     * dans Redis. Les caches dont les valeurs en dépendent sont déclarés locaux (CacheSpec).
+     */
+    private static GenericJackson2JsonRedisSerializer cacheValueSerializer() {
+        ObjectMapper mapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .visibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE)
+                .visibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY)
+                .build();
+        mapper.activateDefaultTyping(LaissezFaireSubTypeValidator.instance,
+                ObjectMapper.DefaultTyping.NON_FINAL, JsonTypeInfo.As.PROPERTY);
+        GenericJackson2JsonRedisSerializer.registerNullValueSerializer(mapper, null);
+        return new GenericJackson2JsonRedisSerializer(mapper);
+    }
+}
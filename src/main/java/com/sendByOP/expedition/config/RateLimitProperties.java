@@ -0,0 +1,83 @@
+package com.sendByOP.expedition.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Limitation de débit (token bucket) des endpoints publics et d'authentification
+ * Les règles sont déclarées dans application.properties (app.rate-limit.rules[n].*)
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.rate-limit")
+@Getter
+@Setter
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Buckets partagés entre les nœuds via Redis (sinon en mémoire, par nœud)
+     */
+    private boolean redisEnabled = false;
+
+    /**
+     * Lire l'IP cliente dans X-Forwarded-For : uniquement si l'application n'est joignable
+     * qu'à travers un reverse proxy qui ajoute l'adresse de son client à l'en-tête
+     */
+    private boolean trustForwardedFor = false;
+
+    /**
+     * Nombre maximal de buckets conservés en mémoire (les moins récemment utilisés sont évincés)
+     */
+    private long maxLocalBuckets = 100_000;
+
+    private List<Rule> rules = new ArrayList<>();
+
+    /**
+     * Portée d'un bucket
+     */
+    public enum KeyScope {
+        /** Un bucket par adresse IP cliente */
+        IP,
+        /** Un bucket par utilisateur authentifié (par IP pour les requêtes anonymes) */
+        USER,
+        /** Un bucket par endpoint (méthode + chemin), partagé par tous les clients */
+        ENDPOINT
+    }
+
+    @Getter
+    @Setter
+    public static class Rule {
+
+        private String name;
+
+        /**
+         * Chemins concernés (motifs Ant) ; sans motif, la règle n'est appliquée que par le code
+         * (RateLimiterService.tryConsume)
+         */
+        private List<String> patterns = new ArrayList<>();
+
+        /**
+         * Méthodes HTTP concernées (toutes si vide)
+         */
+        private List<String> methods = new ArrayList<>();
+
+        private KeyScope scope = KeyScope.IP;
+
+        /**
+         * Nombre de requêtes autorisées par période (taille du bucket)
+         */
+        private long capacity;
+
+        /**
+         * Période de remplissage complet du bucket
+         */
+        private Duration period = Duration.ofMinutes(1);
+    }
+}
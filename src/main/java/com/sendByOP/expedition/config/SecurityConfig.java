@@ -2,6 +2,7 @@ package com.sendByOP.expedition.config;
 
 import com.sendByOP.expedition.security.jwt.JwtAuthEntryPoint;
 import com.sendByOP.expedition.security.jwt.JwtAuthTokenFilter;
+import com.sendByOP.expedition.security.ratelimit.RateLimitFilter;
 import com.sendByOP.expedition.security.service.UserDetailsServiceImpl;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -34,6 +35,7 @@ import java.util.List;
 public class SecurityConfig {
 
     private final JwtAuthTokenFilter authenticationJwtTokenFilter;
+    private final RateLimitFilter rateLimitFilter;
     
     @Value("${cors.allowed-origins:http://localhost:4200}")
     private String allowedOrigins;
@@ -72,6 +74,7 @@ public class SecurityConfig {
                         .authenticationEntryPoint(new JwtAuthEntryPoint()))
                 .authenticationProvider(authenticationProvider())
                 .addFilterBefore(authenticationJwtTokenFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(rateLimitFilter, JwtAuthTokenFilter.class)
                 .build();
     }
 
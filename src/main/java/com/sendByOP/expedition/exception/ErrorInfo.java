@@ -49,12 +49,16 @@ public enum ErrorInfo {
     // Parcel and shipping errors
     PARCEL_CREATION_FAILED("Failed to create parcel", HttpStatus.INTERNAL_SERVER_ERROR),
     INVALID_PARCEL_WEIGHT("Invalid parcel weight", HttpStatus.BAD_REQUEST),
+    INSUFFICIENT_FLIGHT_CAPACITY("Not enough capacity left on this flight", HttpStatus.CONFLICT),
     INVALID_SHIPPING_ADDRESS("Invalid shipping address", HttpStatus.BAD_REQUEST),
     SHIPPING_NOT_AVAILABLE("Shipping service not available for this destination", HttpStatus.BAD_REQUEST),
     
     // Fraud protection errors
     FRAUD_LIMIT_REACHED("Weekly limit reached for this action", HttpStatus.TOO_MANY_REQUESTS),
     FRAUD_SUSPICIOUS_ACTIVITY("Suspicious activity detected", HttpStatus.FORBIDDEN),
+
+    // Rate limiting
+    RATE_LIMITED("Too many requests, please retry later", HttpStatus.TOO_MANY_REQUESTS),
     
     // General errors
     INTERNAL_ERROR("An internal error occurred. Please try again later", HttpStatus.INTERNAL_SERVER_ERROR),
@@ -0,0 +1,100 @@
+package com.sendByOP.expedition.migration;
+
+import com.sendByOP.expedition.repositories.BankAccountRepository;
+import com.sendByOP.expedition.scheduling.SchedulerLockService;
+import com.sendByOP.expedition.security.encryption.BlindIndexService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Complète les index aveugles (iban_hash, bic_hash) des informations bancaires existantes
+ *
+ * Comme BankDataMigrationService, il s'agit d'une migration de données au démarrage, mais
+ * elle s'exécute en arrière-plan, par lots d'ids, avec une transaction par ligne : le démarrage
+ * n'est pas bloqué et une ligne en erreur (doublon d'IBAN/BIC déjà présent) n'interrompt pas
+ * les autres. Les hashes sont calculés par BankInfoBlindIndexListener à l'enregistrement.
+ * Désactivable avec app.migration.bank-blind-index=false
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.migration.bank-blind-index", havingValue = "true", matchIfMissing = true)
+public class BankBlindIndexBackfillService {
+
+    private final BankAccountRepository bankAccountRepository;
+    private final BlindIndexService blindIndexService;
+    private final SchedulerLockService schedulerLockService;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public BankBlindIndexBackfillService(BankAccountRepository bankAccountRepository,
+                                         BlindIndexService blindIndexService,
+                                         SchedulerLockService schedulerLockService,
+                                         PlatformTransactionManager transactionManager,
+                                         @Value("${app.migration.bank-blind-index.chunk-size:200}") int chunkSize) {
+        this.bankAccountRepository = bankAccountRepository;
+        this.blindIndexService = blindIndexService;
+        this.schedulerLockService = schedulerLockService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.chunkSize = chunkSize;
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        schedulerLockService.runExclusively("bankBlindIndexBackfill", Duration.ofHours(1), this::backfill);
+    }
+
+    /**
+     * Calcule les index aveugles manquants, lot par lot
+     */
+    public void backfill() {
+        int processed = 0;
+        int errors = 0;
+        Integer afterId = 0;
+
+        List<Integer> ids = bankAccountRepository.findIdsWithoutBlindIndex(afterId, PageRequest.of(0, chunkSize));
+        while (!ids.isEmpty()) {
+            for (Integer id : ids) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> indexRow(id));
+                    processed++;
+                } catch (DataIntegrityViolationException e) {
+                    // Doublon d'IBAN/BIC antérieur à la contrainte : laissé sans index, à traiter manuellement
+                    errors++;
+                    log.warn("Bank info {} shares its IBAN or BIC with another record, blind index not set", id);
+                } catch (Exception e) {
+                    errors++;
+                    log.error("Blind index backfill failed for bank info {}: {}", id, e.getMessage());
+                }
+            }
+            afterId = ids.get(ids.size() - 1);
+            ids = bankAccountRepository.findIdsWithoutBlindIndex(afterId, PageRequest.of(0, chunkSize));
+        }
+
+        if (processed > 0 || errors > 0) {
+            log.info("Bank info blind index backfill done: {} indexed, {} error(s)", processed, errors);
+        }
+    }
+
+    private void indexRow(Integer id) {
+        bankAccountRepository.findById(id).ifPresent(bankInfo -> {
+            bankInfo.setIbanHash(blindIndexService.index(bankInfo.getIban()));
+            bankInfo.setBicHash(blindIndexService.index(bankInfo.getBic()));
+            bankAccountRepository.saveAndFlush(bankInfo);
+        });
+    }
+}
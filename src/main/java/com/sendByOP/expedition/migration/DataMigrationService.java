@@ -0,0 +1,64 @@
+package com.sendByOP.expedition.migration;
+
+import com.sendByOP.expedition.models.entities.DataMigration;
+import com.sendByOP.expedition.repositories.DataMigrationRepository;
+import com.sendByOP.expedition.scheduling.SchedulerLockService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Exécution unique des migrations de données au démarrage (table data_migration)
+ *
+ * La migration s'exécute sous verrou distribué : un seul nœud la fait, les autres la
+ * sautent. Elle n'est marquée terminée qu'après son succès ; une migration interrompue ou
+ * en échec est relancée au démarrage suivant (elle doit donc pouvoir être rejouée).
+ */
+@Slf4j
+@Service
+public class DataMigrationService {
+
+    private final DataMigrationRepository dataMigrationRepository;
+    private final SchedulerLockService schedulerLockService;
+
+    public DataMigrationService(DataMigrationRepository dataMigrationRepository,
+                                SchedulerLockService schedulerLockService) {
+        this.dataMigrationRepository = dataMigrationRepository;
+        this.schedulerLockService = schedulerLockService;
+    }
+
+    public boolean isDone(String name) {
+        return dataMigrationRepository.existsById(name);
+    }
+
+    /**
+     * Exécute la migration si elle n'a pas encore été faite
+     *
+     * @param name          nom unique de la migration
+     * @param lockAtMostFor durée maximale du verrou
+     * @param migration     migration à exécuter (rejouable)
+     * @return true si la migration a été exécutée par ce nœud
+     */
+    public boolean runOnce(String name, Duration lockAtMostFor, Runnable migration) {
+        if (isDone(name)) {
+            return false;
+        }
+        boolean[] executed = {false};
+        schedulerLockService.runExclusively("migration:" + name, lockAtMostFor, () -> {
+            // Terminée par un autre nœud entre la vérification et l'obtention du verrou
+            if (isDone(name)) {
+                return;
+            }
+            migration.run();
+            dataMigrationRepository.save(DataMigration.builder()
+                    .name(name)
+                    .completedAt(LocalDateTime.now())
+                    .build());
+            executed[0] = true;
+            log.info("Data migration {} completed", name);
+        });
+        return executed[0];
+    }
+}
@@ -0,0 +1,85 @@
+package com.sendByOP.expedition.migration;
+
+import com.sendByOP.expedition.models.enums.BookingStatus;
+import com.sendByOP.expedition.repositories.FlightRepository;
+import com.sendByOP.expedition.repositories.ParcelRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Initialise le registre de capacité des vols (flight.reserved_kg) depuis les réservations existantes
+ *
+ * Avec ddl-auto=update, la colonne est créée à 0 : sans cette initialisation, les réservations
+ * antérieures au registre ne seraient pas comptées et FlightRepository.reserveKg accepterait des
+ * kilos au-delà de la capacité. Exécutée une seule fois (migration de données
+ * "flight-reserved-kg"), avant que le nœud ne reçoive des requêtes.
+ *
+ * Chaque vol est recalculé dans sa propre transaction, sous le verrou de sa ligne : une
+ * réservation ou une annulation en cours sur un autre nœud est validée avant le calcul (le
+ * verrou l'attend), une réservation suivante s'ajoute au résultat. Voir
+ * V24__Add_Flight_Capacity_Ledger.sql pour l'équivalent SQL.
+ */
+@Slf4j
+@Component
+public class FlightCapacitySeeder {
+
+    /**
+     * Statuts dont le poids n'est plus retenu sur le vol (libéré à l'annulation)
+     */
+    static final Set<BookingStatus> RELEASED_STATUSES = EnumSet.of(BookingStatus.CANCELLED_BY_CLIENT,
+            BookingStatus.CANCELLED_BY_TRAVELER, BookingStatus.CANCELLED_PAYMENT_TIMEOUT, BookingStatus.REFUNDED);
+
+    private final FlightRepository flightRepository;
+    private final ParcelRepository parcelRepository;
+    private final DataMigrationService dataMigrationService;
+    private final TransactionTemplate transactionTemplate;
+
+    public FlightCapacitySeeder(FlightRepository flightRepository,
+                                ParcelRepository parcelRepository,
+                                DataMigrationService dataMigrationService,
+                                PlatformTransactionManager transactionManager) {
+        this.flightRepository = flightRepository;
+        this.parcelRepository = parcelRepository;
+        this.dataMigrationService = dataMigrationService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // La somme lue après le verrou du vol voit les réservations validées par les transactions attendues
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+    }
+
+    @PostConstruct
+    public void seedOnce() {
+        dataMigrationService.runOnce("flight-reserved-kg", Duration.ofMinutes(30), this::seed);
+    }
+
+    /**
+     * Recalcule les kilos réservés de chaque vol ayant des réservations actives
+     */
+    public void seed() {
+        List<Integer> flightIds = parcelRepository.findFlightIdsWithActiveParcels(RELEASED_STATUSES);
+        for (Integer flightId : flightIds) {
+            transactionTemplate.executeWithoutResult(status -> seedFlight(flightId));
+        }
+        log.info("Flight capacity ledger initialised for {} flight(s)", flightIds.size());
+    }
+
+    private void seedFlight(Integer flightId) {
+        if (flightRepository.findForUpdate(flightId).isEmpty()) {
+            return;
+        }
+        Double weight = parcelRepository.sumActiveWeightForFlight(flightId, RELEASED_STATUSES);
+        BigDecimal reservedKg = BigDecimal.valueOf(weight != null ? weight : 0.0).setScale(2, RoundingMode.HALF_UP);
+        flightRepository.setReservedKg(flightId, reservedKg);
+    }
+}
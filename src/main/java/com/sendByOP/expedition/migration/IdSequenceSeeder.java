@@ -0,0 +1,118 @@
+package com.sendByOP.expedition.migration;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.Column;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.metamodel.EntityType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Aligne les séquences d'identifiants sur les lignes existantes, au démarrage
+ *
+ * Les entités à séquence ({@code @SequenceGenerator}, optimiseur pooled) étaient en IDENTITY :
+ * avec ddl-auto=update, Hibernate crée leurs séquences à 1 et les premiers ids alloués
+ * rentreraient en collision avec les lignes déjà présentes. Avant toute écriture (le bean est
+ * initialisé avec le contexte, avant les requêtes et les tâches planifiées), chaque séquence en
+ * retard est avancée à MAX(id) + allocationSize : le prochain bloc commence après la dernière
+ * ligne. Une séquence déjà en avance n'est pas modifiée (redémarrage, plusieurs nœuds).
+ *
+ * Les séquences et entités sont découvertes dans le modèle JPA. PostgreSQL utilise des séquences
+ * natives, MySQL la table d'une ligne que Hibernate crée par séquence (colonne next_val).
+ * Voir V30__Create_Pooled_Id_Sequences.sql pour l'équivalent SQL.
+ */
+@Slf4j
+@Component
+public class IdSequenceSeeder {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * EntityManagerFactory injecté pour que le schéma (ddl-auto) soit à jour avant l'alignement
+     */
+    public IdSequenceSeeder(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @PostConstruct
+    public void seedSequences() {
+        String database = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        for (SequencedTable table : discoverSequencedTables()) {
+            long maxId = jdbcTemplate.queryForObject(
+                    "SELECT COALESCE(MAX(" + table.idColumn + "), 0) FROM " + table.name, Long.class);
+            if (maxId == 0) {
+                continue;
+            }
+            long next = maxId + table.allocationSize;
+            boolean seeded;
+            if ("PostgreSQL".equalsIgnoreCase(database)) {
+                // last_value : valeur du dernier bloc alloué (ou valeur initiale si jamais appelée)
+                seeded = !jdbcTemplate.queryForList("SELECT setval('" + table.sequence + "', ?, false) WHERE "
+                        + "(SELECT last_value FROM " + table.sequence + ") < ?", Long.class, next, maxId).isEmpty();
+            } else if ("MySQL".equalsIgnoreCase(database) || "MariaDB".equalsIgnoreCase(database)) {
+                seeded = jdbcTemplate.update("UPDATE " + table.sequence + " SET next_val = ? WHERE next_val < ?",
+                        next, next) > 0;
+            } else {
+                log.warn("Id sequence {} not checked: unsupported database {}", table.sequence, database);
+                continue;
+            }
+            if (seeded) {
+                log.info("Id sequence {} moved past the existing rows of {} (max id {})",
+                        table.sequence, table.name, maxId);
+            }
+        }
+    }
+
+    /**
+     * Tables dont l'id est alloué par une séquence, déclarées dans le modèle JPA
+     */
+    private List<SequencedTable> discoverSequencedTables() {
+        List<SequencedTable> tables = new ArrayList<>();
+        for (EntityType<?> entity : entityManagerFactory.getMetamodel().getEntities()) {
+            Class<?> type = entity.getJavaType();
+            Table table = type.getAnnotation(Table.class);
+            if (table == null || table.name().isEmpty()) {
+                continue;
+            }
+            for (Field field : type.getDeclaredFields()) {
+                SequenceGenerator generator = field.getAnnotation(SequenceGenerator.class);
+                if (generator != null && field.isAnnotationPresent(Id.class)) {
+                    tables.add(new SequencedTable(table.name(), columnName(field),
+                            generator.sequenceName(), generator.allocationSize()));
+                }
+            }
+        }
+        return tables;
+    }
+
+    private static String columnName(Field field) {
+        Column column = field.getAnnotation(Column.class);
+        return column != null && !column.name().isEmpty() ? column.name() : field.getName();
+    }
+
+    private static final class SequencedTable {
+        private final String name;
+        private final String idColumn;
+        private final String sequence;
+        private final int allocationSize;
+
+        private SequencedTable(String name, String idColumn, String sequence, int allocationSize) {
+            this.name = name;
+            this.idColumn = idColumn;
+            this.sequence = sequence;
+            this.allocationSize = allocationSize;
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.sendByOP.expedition.migration;
+
+import com.sendByOP.expedition.models.entities.ReEncryptionProgress;
+import com.sendByOP.expedition.repositories.ReEncryptionProgressRepository;
+import com.sendByOP.expedition.scheduling.SchedulerLockService;
+import com.sendByOP.expedition.security.encryption.EncryptedStringConverter;
+import com.sendByOP.expedition.security.encryption.EncryptionService;
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.metamodel.EntityType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Field;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Re-chiffrement en arrière-plan des colonnes chiffrées vers la clé courante
+ *
+ * Les tables et colonnes sont découvertes dans le modèle JPA (champs annotés
+ * {@code @Convert(converter = EncryptedStringConverter.class)}) : une nouvelle colonne chiffrée
+ * est prise en charge sans modification de ce service. Chaque table est parcourue par lots
+ * d'ids (id > lastId) ; chaque lot est réécrit par des UPDATE groupés dans une transaction
+ * courte, avec son point de contrôle (reencryption_progress). L'UPDATE est conditionné à
+ * l'ancienne valeur chiffrée, pour ne jamais écraser une écriture concurrente de l'application.
+ *
+ * Comme EncryptionService lit toutes les clés configurées, l'application reste en service
+ * pendant la rotation, qui se fait en deux déploiements successifs (un nœud qui ne connaît pas
+ * une clé prend ses valeurs pour du texte en clair et les chiffre une seconde fois) :
+ * <ol>
+ *   <li>ajouter la nouvelle clé dans app.encryption.previous-keys sur tous les nœuds, sans
+ *   changer la clé courante ;</li>
+ *   <li>une fois ce déploiement terminé partout, en faire la clé courante (secret-key et
+ *   key-id, l'ancienne clé passant dans previous-keys) et activer ce service
+ *   (app.encryption.reencrypt.enabled=true) le temps du re-chiffrement.</li>
+ * </ol>
+ * Le service est désactivé par défaut et ne tourne qu'avec app.encryption.write-key-id activé.
+ * Les index aveugles (iban_hash, bic_hash) ne sont pas recalculés : leur clé
+ * (app.encryption.blind-index-key) est distincte et ne change jamais avec la rotation.
+ * Les valeurs encore en clair sont chiffrées au passage (comme le fait BankDataMigrationService).
+ * Une table dont certaines valeurs n'ont pu être réécrites n'est pas marquée terminée : elle est
+ * reparcourue depuis le début au démarrage suivant (les valeurs déjà à jour sont ignorées).
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.encryption.reencrypt.enabled", havingValue = "true")
+public class ReEncryptionService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final EncryptionService encryptionService;
+    private final ReEncryptionProgressRepository progressRepository;
+    private final SchedulerLockService schedulerLockService;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final long pauseMillis;
+
+    public ReEncryptionService(JdbcTemplate jdbcTemplate,
+                               EntityManagerFactory entityManagerFactory,
+                               EncryptionService encryptionService,
+                               ReEncryptionProgressRepository progressRepository,
+                               SchedulerLockService schedulerLockService,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app.encryption.reencrypt.chunk-size:500}") int chunkSize,
+                               @Value("${app.encryption.reencrypt.pause-ms:100}") long pauseMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.encryptionService = encryptionService;
+        this.progressRepository = progressRepository;
+        this.schedulerLockService = schedulerLockService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.chunkSize = chunkSize;
+        this.pauseMillis = pauseMillis;
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void reEncryptOnStartup() {
+        if (!encryptionService.isWritingKeyId()) {
+            // Sans préfixe, une valeur déjà réécrite ne se distingue pas d'une ancienne
+            log.info("Re-encryption skipped: app.encryption.write-key-id is disabled");
+            return;
+        }
+        schedulerLockService.runExclusively("reEncryption", Duration.ofHours(6), this::reEncryptAll);
+    }
+
+    /**
+     * Re-chiffre toutes les colonnes chiffrées qui ne le sont pas encore avec la clé courante
+     */
+    public void reEncryptAll() {
+        for (EncryptedTable table : discoverEncryptedTables()) {
+            try {
+                reEncryptTable(table);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Re-encryption interrupted, will resume from the last checkpoint");
+                return;
+            }
+        }
+    }
+
+    private void reEncryptTable(EncryptedTable table) throws InterruptedException {
+        String keyId = encryptionService.getCurrentKeyId();
+        ReEncryptionProgress progress = progressRepository.findById(table.name)
+                .filter(existing -> keyId.equals(existing.getKeyId()))
+                .orElse(null);
+        if (progress != null && progress.getFinishedAt() != null) {
+            return;
+        }
+        if (progress == null) {
+            progress = ReEncryptionProgress.builder()
+                    .tableName(table.name)
+                    .keyId(keyId)
+                    .startedAt(LocalDateTime.now())
+                    .build();
+        } else {
+            log.info("Resuming re-encryption of {} after id {}", table.name, progress.getLastId());
+        }
+
+        String selectSql = "SELECT " + table.idColumn + ", " + String.join(", ", table.columns)
+                + " FROM " + table.name + " WHERE " + table.idColumn + " > ? ORDER BY " + table.idColumn + " ASC LIMIT ?";
+
+        long startedAt = System.currentTimeMillis();
+        while (true) {
+            List<Object[]> rows = jdbcTemplate.query(selectSql, (rs, rowNum) -> {
+                Object[] row = new Object[table.columns.size() + 1];
+                row[0] = rs.getLong(1);
+                for (int i = 0; i < table.columns.size(); i++) {
+                    row[i + 1] = rs.getString(i + 2);
+                }
+                return row;
+            }, progress.getLastId(), chunkSize);
+            if (rows.isEmpty()) {
+                break;
+            }
+
+            ReEncryptionProgress checkpoint = progress;
+            Map<String, List<Object[]>> updatesByColumn = new LinkedHashMap<>();
+            for (Object[] row : rows) {
+                for (int i = 0; i < table.columns.size(); i++) {
+                    String value = (String) row[i + 1];
+                    String rewritten = reEncrypt(table, row[0], value, checkpoint);
+                    if (rewritten != null) {
+                        updatesByColumn.computeIfAbsent(table.columns.get(i), column -> new ArrayList<>())
+                                .add(new Object[]{rewritten, row[0], value});
+                    }
+                }
+            }
+
+            long lastId = (Long) rows.get(rows.size() - 1)[0];
+            progress = transactionTemplate.execute(status -> {
+                long updated = 0;
+                for (Map.Entry<String, List<Object[]>> entry : updatesByColumn.entrySet()) {
+                    String column = entry.getKey();
+                    // Condition sur l'ancienne valeur : une ligne modifiée entre-temps par l'application est ignorée
+                    int[] counts = jdbcTemplate.batchUpdate("UPDATE " + table.name + " SET " + column + " = ? WHERE "
+                            + table.idColumn + " = ? AND " + column + " = ?", entry.getValue());
+                    for (int count : counts) {
+                        // SUCCESS_NO_INFO (-2) : le pilote ne renvoie pas le détail par ligne
+                        updated += count == Statement.SUCCESS_NO_INFO ? 1 : count;
+                    }
+                }
+                checkpoint.setLastId(lastId);
+                checkpoint.setProcessedCount(checkpoint.getProcessedCount() + rows.size());
+                checkpoint.setUpdatedCount(checkpoint.getUpdatedCount() + updated);
+                checkpoint.setCheckpointAt(LocalDateTime.now());
+                return progressRepository.save(checkpoint);
+            });
+
+            if (rows.size() < chunkSize) {
+                break;
+            }
+            // Limite la charge imposée à la base pendant la rotation
+            if (pauseMillis > 0) {
+                Thread.sleep(pauseMillis);
+            }
+        }
+
+        long elapsed = System.currentTimeMillis() - startedAt;
+        if (progress.getFailedCount() > 0) {
+            // Table non terminée : nouveau passage complet au prochain démarrage
+            log.warn("Re-encryption of {} to key {}: {} value(s) could not be rewritten, the table will be rescanned"
+                    + " on the next start", table.name, keyId, progress.getFailedCount());
+            progress.setLastId(0L);
+            progress.setFailedCount(0L);
+            progressRepository.save(progress);
+            return;
+        }
+
+        progress.setFinishedAt(LocalDateTime.now());
+        progressRepository.save(progress);
+
+        log.info("Re-encryption of {} to key {} done: {} row(s), {} value(s) rewritten, {} failure(s) in {} ms",
+                table.name, keyId, progress.getProcessedCount(), progress.getUpdatedCount(),
+                progress.getFailedCount(), elapsed);
+    }
+
+    /**
+     * Nouvelle valeur chiffrée avec la clé courante, ou null si la valeur n'a pas à être réécrite
+     */
+    private String reEncrypt(EncryptedTable table, Object id, String value, ReEncryptionProgress progress) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            if (!encryptionService.isEncrypted(value)) {
+                // Valeur antérieure au chiffrement des colonnes
+                return encryptionService.encrypt(value);
+            }
+            if (encryptionService.getCurrentKeyId().equals(encryptionService.getKeyId(value))) {
+                return null;
+            }
+            return encryptionService.encrypt(encryptionService.decrypt(value));
+        } catch (Exception e) {
+            progress.setFailedCount(progress.getFailedCount() + 1);
+            log.error("Re-encryption failed for {} id {}: {}", table.name, id, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Tables et colonnes chiffrées déclarées dans le modèle JPA
+     */
+    private List<EncryptedTable> discoverEncryptedTables() {
+        List<EncryptedTable> tables = new ArrayList<>();
+        for (EntityType<?> entity : entityManagerFactory.getMetamodel().getEntities()) {
+            Class<?> type = entity.getJavaType();
+            Table table = type.getAnnotation(Table.class);
+            if (table == null || table.name().isEmpty()) {
+                continue;
+            }
+
+            String idColumn = null;
+            List<String> columns = new ArrayList<>();
+            for (Field field : type.getDeclaredFields()) {
+                if (field.isAnnotationPresent(Id.class)) {
+                    idColumn = columnName(field);
+                }
+                Convert convert = field.getAnnotation(Convert.class);
+                if (convert != null && convert.converter() == EncryptedStringConverter.class) {
+                    columns.add(columnName(field));
+                }
+            }
+
+            if (!columns.isEmpty() && idColumn != null) {
+                tables.add(new EncryptedTable(table.name(), idColumn, columns));
+            }
+        }
+        return tables;
+    }
+
+    private static String columnName(Field field) {
+        Column column = field.getAnnotation(Column.class);
+        return column != null && !column.name().isEmpty() ? column.name() : field.getName();
+    }
+
+    private static final class EncryptedTable {
+        private final String name;
+        private final String idColumn;
+        private final List<String> columns;
+
+        private EncryptedTable(String name, String idColumn, List<String> columns) {
+            this.name = name;
+            this.idColumn = idColumn;
+            this.columns = columns;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.sendByOP.expedition.migration;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Reprend l'historique de la table visites (plus alimentée) dans visit_daily_count
+ *
+ * Sans cette reprise, le total servi par /visitors/count repartirait de zéro. Exécutée une
+ * seule fois (migration de données "visit-history"), avant que VisiteService ne charge le
+ * total au démarrage. L'historique est écrit par jour sous une page dédiée, supprimée puis
+ * réécrite dans la même transaction : la reprise peut être rejouée sans doublon et ne touche
+ * pas les lignes déjà écrites par les flushs. Voir V31__Create_Visit_Daily_Tables.sql.
+ */
+@Slf4j
+@Component
+public class VisitHistoryMigration {
+
+    /**
+     * Page sous laquelle l'historique est repris (pas de détail par page avant les compteurs)
+     */
+    static final String LEGACY_PAGE = "(legacy)";
+
+    private final DataMigrationService dataMigrationService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public VisitHistoryMigration(DataMigrationService dataMigrationService,
+                                 JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager) {
+        this.dataMigrationService = dataMigrationService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void migrateOnce() {
+        dataMigrationService.runOnce("visit-history", Duration.ofMinutes(30), this::migrate);
+    }
+
+    /**
+     * Une ligne par jour de visites, sans visiteurs uniques pour le passé
+     */
+    public void migrate() {
+        Integer days = transactionTemplate.execute(status -> {
+            jdbcTemplate.update("DELETE FROM visit_daily_count WHERE page = ?", LEGACY_PAGE);
+            return jdbcTemplate.update("INSERT INTO visit_daily_count (visit_date, page, views, updated_at) " +
+                            "SELECT CAST(date_v AS DATE), ?, COUNT(*), ? FROM visites " +
+                            "WHERE date_v IS NOT NULL GROUP BY CAST(date_v AS DATE)",
+                    LEGACY_PAGE, Timestamp.valueOf(LocalDateTime.now()));
+        });
+        log.info("Visit history copied into visit_daily_count for {} day(s)", days);
+    }
+}
@@ -2,11 +2,15 @@ package com.sendByOP.expedition.models.dto;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 @Schema(description = "DTO for airport information")  
 public class AirportDto {
     @Schema(description = "Unique identifier for the airport", example = "1")
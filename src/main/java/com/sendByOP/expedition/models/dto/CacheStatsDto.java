@@ -0,0 +1,31 @@
+package com.sendByOP.expedition.models.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+@Schema(description = "DTO for the hit/miss statistics of an application cache on this node")
+public class CacheStatsDto {
+
+    @Schema(description = "Cache name", example = "flights")
+    private String name;
+
+    @Schema(description = "Hits served by the local (in-memory) cache", example = "1520")
+    private Long localHits;
+
+    @Schema(description = "Hits served by Redis (0 when Redis is disabled)", example = "87")
+    private Long remoteHits;
+
+    @Schema(description = "Misses (value loaded from the database)", example = "42")
+    private Long misses;
+
+    @Schema(description = "Hit ratio between 0 and 1, null when the cache was never read", example = "0.97")
+    private Double hitRatio;
+
+    @Schema(description = "Estimated number of entries in the local cache", example = "310")
+    private Long localSize;
+}
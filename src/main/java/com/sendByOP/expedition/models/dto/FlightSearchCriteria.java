@@ -0,0 +1,54 @@
+package com.sendByOP.expedition.models.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+@Schema(description = "Filters for the public flight search (all optional)")
+public class FlightSearchCriteria {
+
+    @Schema(description = "Departure airport identifier", example = "12")
+    private Integer departureAirportId;
+
+    @Schema(description = "Arrival airport identifier", example = "34")
+    private Integer arrivalAirportId;
+
+    @Schema(description = "Departure city identifier", example = "5")
+    private Integer departureCityId;
+
+    @Schema(description = "Arrival city identifier", example = "8")
+    private Integer arrivalCityId;
+
+    @Schema(description = "Departure country identifier", example = "1")
+    private Integer departureCountryId;
+
+    @Schema(description = "Arrival country identifier", example = "2")
+    private Integer arrivalCountryId;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    @Schema(description = "Earliest departure date (inclusive)", example = "2024-07-01")
+    private LocalDate departureFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    @Schema(description = "Latest departure date (inclusive)", example = "2024-07-31")
+    private LocalDate departureTo;
+
+    @Schema(description = "Minimum available capacity in kilograms", example = "5")
+    private Integer minAvailableKg;
+
+    @Schema(description = "Maximum price per kilogram", example = "15")
+    private Integer maxPricePerKg;
+
+    @Schema(description = "Opaque cursor returned by the previous page (nextCursor)")
+    private String cursor;
+
+    @Schema(description = "Number of flights per page (1 to 50)", example = "20")
+    private Integer size;
+}
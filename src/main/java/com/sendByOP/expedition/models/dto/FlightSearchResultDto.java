@@ -0,0 +1,24 @@
+package com.sendByOP.expedition.models.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+@Schema(description = "Page of the public flight search, ordered by departure date then id")
+public class FlightSearchResultDto {
+
+    @Schema(description = "Flights of this page")
+    private List<PublicFlightDto> flights;
+
+    @Schema(description = "Cursor to pass to get the next page, null on the last page")
+    private String nextCursor;
+
+    @Schema(description = "Whether more flights match the filters")
+    private boolean hasMore;
+}
@@ -0,0 +1,31 @@
+package com.sendByOP.expedition.models.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+@Schema(description = "DTO for the allowed/rejected request counters of a rate limit rule on this node")
+public class RateLimitStatsDto {
+
+    @Schema(description = "Rule name", example = "login")
+    private String rule;
+
+    @Schema(description = "Bucket scope (IP, USER or ENDPOINT)", example = "IP")
+    private String scope;
+
+    @Schema(description = "Requests allowed per period", example = "10")
+    private Long capacity;
+
+    @Schema(description = "Refill period in seconds", example = "60")
+    private Long periodSeconds;
+
+    @Schema(description = "Requests allowed since startup", example = "1520")
+    private Long allowed;
+
+    @Schema(description = "Requests rejected with 429 since startup", example = "37")
+    private Long rejected;
+}
@@ -0,0 +1,27 @@
+package com.sendByOP.expedition.models.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.util.Map;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+@Schema(description = "DTO for the rating summary of a traveler")
+public class TravelerRatingSummaryDto {
+
+    @Schema(description = "Traveler (customer) identifier", example = "1")
+    private Integer travelerId;
+
+    @Schema(description = "Average rating rounded to one decimal, null when no review", example = "4.5")
+    private Double averageRating;
+
+    @Schema(description = "Number of booking reviews received", example = "12")
+    private Integer reviewCount;
+
+    @Schema(description = "Number of reviews per star (1 to 5)")
+    private Map<Integer, Long> distribution;
+}
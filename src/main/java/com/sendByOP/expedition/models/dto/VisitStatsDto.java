@@ -0,0 +1,24 @@
+package com.sendByOP.expedition.models.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.time.LocalDate;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+@Schema(description = "DTO for the page views and estimated unique visitors of a day")
+public class VisitStatsDto {
+
+    @Schema(description = "Day", example = "2024-03-15")
+    private LocalDate date;
+
+    @Schema(description = "Page views", example = "1520")
+    private Long views;
+
+    @Schema(description = "Estimated unique visitors (HyperLogLog, about 1.6% standard error)", example = "412")
+    private Long uniqueVisitors;
+}
@@ -30,4 +30,7 @@ public class VisitorDto {
     
     @Schema(description = "Referrer URL of the visit", example = "https://example.com")
     private String referrer;
+
+    @Schema(description = "Path of the visited page (query string ignored)", example = "/flights")
+    private String page;
 }
\ No newline at end of file
@@ -10,7 +10,7 @@ import java.io.Serializable;
 @ToString
 @Builder
 @Entity
-@Table(name = "airport")
+@Table(name = "airport", uniqueConstraints = @UniqueConstraint(name = "uk_airport_iata", columnNames = "iata"))
 @AllArgsConstructor
 @NoArgsConstructor
 public class Airport extends BaseEntity implements Serializable {
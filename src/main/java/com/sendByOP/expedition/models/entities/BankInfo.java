@@ -11,7 +11,11 @@ import java.io.Serializable;
 @Getter
 @Setter
 @Entity
-@Table(name = "bank_info")
+@Table(name = "bank_info", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_bank_info_iban_hash", columnNames = "iban_hash"),
+    @UniqueConstraint(name = "uk_bank_info_bic_hash", columnNames = "bic_hash")
+})
+@EntityListeners(BankInfoBlindIndexListener.class)
 public class BankInfo extends BaseEntity implements Serializable {
 
     @Id
@@ -44,4 +48,16 @@ public class BankInfo extends BaseEntity implements Serializable {
     @Column(name = "account_holder", nullable = false)
     @Convert(converter = EncryptedStringConverter.class)
     private String accountHolder;
+
+    /**
+     * Index aveugle de l'IBAN (HMAC), pour les recherches et l'unicité
+     */
+    @Column(name = "iban_hash", length = 64)
+    private String ibanHash;
+
+    /**
+     * Index aveugle du BIC (HMAC), pour les recherches et l'unicité
+     */
+    @Column(name = "bic_hash", length = 64)
+    private String bicHash;
 }
@@ -0,0 +1,25 @@
+package com.sendByOP.expedition.models.entities;
+
+import com.sendByOP.expedition.security.encryption.BlindIndexService;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Listener JPA tenant à jour les index aveugles de l'IBAN et du BIC
+ * avant chaque écriture d'une information bancaire
+ */
+@Component
+@RequiredArgsConstructor
+public class BankInfoBlindIndexListener {
+
+    private final BlindIndexService blindIndexService;
+
+    @PrePersist
+    @PreUpdate
+    public void beforeWrite(BankInfo bankInfo) {
+        bankInfo.setIbanHash(blindIndexService.index(bankInfo.getIban()));
+        bankInfo.setBicHash(blindIndexService.index(bankInfo.getBic()));
+    }
+}
@@ -24,12 +24,16 @@ import java.util.List;
     @Index(name = "idx_booking_status", columnList = "status"),
     @Index(name = "idx_booking_customer", columnList = "customer_id"),
     @Index(name = "idx_booking_flight", columnList = "flight_id"),
-    @Index(name = "idx_booking_date", columnList = "booking_date")
+    @Index(name = "idx_booking_date", columnList = "booking_date"),
+    @Index(name = "idx_booking_status_updated", columnList = "status, updated_at, id"),
+    @Index(name = "idx_booking_status_deadline", columnList = "status, payment_deadline")
 })
+@EntityListeners(DailyStatsListener.class)
 public class Booking extends BaseEntity implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_seq")
+    @SequenceGenerator(name = "booking_seq", sequenceName = "booking_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Integer id;
 
@@ -148,6 +152,22 @@ public class Booking extends BaseEntity implements Serializable {
 
     @Column(name = "transporter_payment_status")
     private int transporterPaymentStatus;
+
+    // ==========================================
+    // ÉTAT CHARGÉ (agrégats journaliers)
+    // ==========================================
+
+    /**
+     * Statut et montant tels que lus en base, pour calculer les variations
+     * des agrégats journaliers (voir DailyStatsListener)
+     */
+    @Transient
+    @Setter(AccessLevel.NONE)
+    private BookingStatus loadedStatus;
+
+    @Transient
+    @Setter(AccessLevel.NONE)
+    private BigDecimal loadedTotalPrice;
     
     // ==========================================
     // MÉTHODES UTILITAIRES
@@ -163,6 +183,14 @@ public class Booking extends BaseEntity implements Serializable {
         }
     }
     
+    /**
+     * Mémorise l'état courant comme état de référence pour les agrégats
+     */
+    void snapshotStatsState() {
+        this.loadedStatus = status;
+        this.loadedTotalPrice = totalPrice;
+    }
+    
     /**
      * Vérifie si la réservation peut être annulée
      */
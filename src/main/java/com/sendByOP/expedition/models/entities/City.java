@@ -15,7 +15,7 @@ import java.io.Serializable;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "city")
+@Table(name = "city", uniqueConstraints = @UniqueConstraint(name = "uk_city_country_name", columnNames = {"country_id", "name"}))
 public class City extends BaseEntity implements Serializable {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
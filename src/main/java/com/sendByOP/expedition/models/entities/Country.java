@@ -10,7 +10,7 @@ import java.io.Serializable;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "country")
+@Table(name = "country", uniqueConstraints = @UniqueConstraint(name = "uk_country_name", columnNames = "name"))
 public class Country extends BaseEntity implements Serializable {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,53 @@
+package com.sendByOP.expedition.models.entities;
+
+import com.sendByOP.expedition.models.enums.BookingStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Agrégat journalier des réservations par statut
+ * Une ligne par (jour de réservation, statut courant) : nombre de réservations et montant cumulé
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "daily_booking_stats", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_daily_booking_stats_date_status", columnNames = {"stat_date", "status"})
+})
+public class DailyBookingStats implements Serializable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 50)
+    private BookingStatus status;
+
+    @Builder.Default
+    @Column(name = "booking_count", nullable = false)
+    private Long bookingCount = 0L;
+
+    @Builder.Default
+    @Column(name = "total_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,47 @@
+package com.sendByOP.expedition.models.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Agrégat journalier de la plateforme (nouveaux utilisateurs, nouveaux vols)
+ * Maintenu incrémentalement et réconcilié chaque nuit par DailyStatsService
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "daily_stats", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_daily_stats_date", columnNames = "stat_date")
+})
+public class DailyStats implements Serializable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+
+    @Builder.Default
+    @Column(name = "new_users", nullable = false)
+    private Long newUsers = 0L;
+
+    @Builder.Default
+    @Column(name = "new_flights", nullable = false)
+    private Long newFlights = 0L;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
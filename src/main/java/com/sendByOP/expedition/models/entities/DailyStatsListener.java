@@ -0,0 +1,104 @@
+package com.sendByOP.expedition.models.entities;
+
+import com.sendByOP.expedition.models.enums.BookingStatus;
+import com.sendByOP.expedition.models.events.DailyStatsDeltaEvent;
+import com.sendByOP.expedition.utils.DateTimeUtils;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.Objects;
+
+/**
+ * Listener JPA publiant les variations des agrégats journaliers
+ * - Booking : création, changement de statut ou de montant, suppression
+ * - User / Flight : création
+ * Les événements sont appliqués après commit par DailyStatsService.
+ */
+@Component
+@RequiredArgsConstructor
+public class DailyStatsListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostLoad
+    public void afterLoad(Object entity) {
+        if (entity instanceof Booking booking) {
+            booking.snapshotStatsState();
+        }
+    }
+
+    @PostPersist
+    public void afterInsert(Object entity) {
+        if (entity instanceof Booking booking) {
+            publishBooking(booking, booking.getStatus(), 1L, amountOf(booking.getTotalPrice()));
+            booking.snapshotStatsState();
+        } else if (entity instanceof User user) {
+            eventPublisher.publishEvent(DailyStatsDeltaEvent.builder()
+                    .statDate(dayOf(user.getCreatedAt()))
+                    .newUsersDelta(1L)
+                    .build());
+        } else if (entity instanceof Flight flight) {
+            eventPublisher.publishEvent(DailyStatsDeltaEvent.builder()
+                    .statDate(dayOf(flight.getCreatedAt()))
+                    .newFlightsDelta(1L)
+                    .build());
+        }
+    }
+
+    @PostUpdate
+    public void afterUpdate(Object entity) {
+        if (!(entity instanceof Booking booking)) {
+            return;
+        }
+        BookingStatus previousStatus = booking.getLoadedStatus();
+        BigDecimal previousAmount = amountOf(booking.getLoadedTotalPrice());
+        BigDecimal currentAmount = amountOf(booking.getTotalPrice());
+
+        if (previousStatus == booking.getStatus() && previousAmount.compareTo(currentAmount) == 0) {
+            return;
+        }
+        if (!Objects.equals(previousStatus, booking.getStatus())) {
+            publishBooking(booking, previousStatus, -1L, previousAmount.negate());
+            publishBooking(booking, booking.getStatus(), 1L, currentAmount);
+        } else {
+            publishBooking(booking, booking.getStatus(), 0L, currentAmount.subtract(previousAmount));
+        }
+        booking.snapshotStatsState();
+    }
+
+    @PostRemove
+    public void afterDelete(Object entity) {
+        if (entity instanceof Booking booking) {
+            publishBooking(booking, booking.getLoadedStatus(), -1L, amountOf(booking.getLoadedTotalPrice()).negate());
+        }
+    }
+
+    private void publishBooking(Booking booking, BookingStatus status, long countDelta, BigDecimal amountDelta) {
+        // Les anciennes réservations sans statut ne sont pas suivies dans les agrégats
+        if (status == null) {
+            return;
+        }
+        eventPublisher.publishEvent(DailyStatsDeltaEvent.builder()
+                .statDate(dayOf(booking.getBookingDate()))
+                .status(status)
+                .bookingCountDelta(countDelta)
+                .amountDelta(amountDelta)
+                .build());
+    }
+
+    private static BigDecimal amountOf(BigDecimal amount) {
+        return amount != null ? amount : BigDecimal.ZERO;
+    }
+
+    private static LocalDate dayOf(Date date) {
+        return date != null ? DateTimeUtils.dateToLocalDateTime(date).toLocalDate() : LocalDate.now();
+    }
+}
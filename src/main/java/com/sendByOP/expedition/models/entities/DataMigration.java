@@ -0,0 +1,33 @@
+package com.sendByOP.expedition.models.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Migration de données exécutée au démarrage (une ligne par migration terminée)
+ * Les fichiers db/migration ne sont pas exécutés : les copies et recalculs de données
+ * sont faits par l'application, une seule fois, et enregistrés ici.
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "data_migration")
+public class DataMigration implements Serializable {
+
+    @Id
+    @Column(name = "name", nullable = false, length = 100)
+    private String name;
+
+    @Column(name = "completed_at", nullable = false)
+    private LocalDateTime completedAt;
+}
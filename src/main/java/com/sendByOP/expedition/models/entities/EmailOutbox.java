@@ -0,0 +1,97 @@
+package com.sendByOP.expedition.models.entities;
+
+import com.sendByOP.expedition.models.enums.EmailOutboxStatus;
+import com.sendByOP.expedition.models.enums.NotificationType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Email en attente d'envoi (outbox transactionnelle)
+ * Enregistré dans la transaction de l'appelant par EmailOutboxService, puis envoyé
+ * par EmailOutboxDispatcher hors des requêtes, avec nouvelles tentatives espacées.
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "email_outbox", indexes = {
+    @Index(name = "idx_email_outbox_status_next_attempt", columnList = "status, next_attempt_at, id"),
+    @Index(name = "idx_email_outbox_dedup", columnList = "dedup_key, created_at")
+})
+public class EmailOutbox implements Serializable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    @Column(name = "recipient", nullable = false)
+    private String recipient;
+
+    @Column(name = "subject", nullable = false, length = 500)
+    private String subject;
+
+    @Column(name = "body", nullable = false, columnDefinition = "TEXT")
+    private String body;
+
+    /**
+     * Corps HTML (sinon texte brut)
+     */
+    @Builder.Default
+    @Column(name = "html", nullable = false)
+    private Boolean html = true;
+
+    // Longueur élevée : LONGBLOB (MySQL) / BYTEA (PostgreSQL)
+    @Column(name = "attachment", length = 16_777_216)
+    private byte[] attachment;
+
+    @Column(name = "attachment_name")
+    private String attachmentName;
+
+    /**
+     * Empreinte destinataire + sujet + corps : un même email n'est mis en file qu'une fois
+     * par fenêtre de déduplication
+     */
+    @Column(name = "dedup_key", nullable = false, length = 64)
+    private String dedupKey;
+
+    @Builder.Default
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private EmailOutboxStatus status = EmailOutboxStatus.PENDING;
+
+    @Builder.Default
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    /**
+     * Réservation concernée : l'issue de l'envoi est tracée dans notification_log
+     */
+    @Column(name = "booking_id")
+    private Integer bookingId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "notification_type", length = 50)
+    private NotificationType notificationType;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+}
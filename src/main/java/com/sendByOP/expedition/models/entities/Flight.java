@@ -6,6 +6,7 @@ import jakarta.persistence.*;
 import lombok.*;
 
 import java.io.Serializable;
+import java.math.BigDecimal;
 import java.util.Date;
 
 @Getter
@@ -14,7 +15,12 @@ import java.util.Date;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "flight")
+@Table(name = "flight", indexes = {
+    @Index(name = "idx_flight_status_arrival", columnList = "status, arrival_date, id"),
+    @Index(name = "idx_flight_status_departure", columnList = "status, departure_date, id"),
+    @Index(name = "idx_flight_route_departure", columnList = "departure_airport_id, arrival_airport_id, departure_date, id")
+})
+@EntityListeners(DailyStatsListener.class)
 public class Flight extends BaseEntity implements Serializable {
         @Id
         @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -42,12 +48,21 @@ public class Flight extends BaseEntity implements Serializable {
         @Column(name = "kg_count")
         private Integer kgCount;
 
+        /**
+         * Kilos retenus par les réservations actives (registre de capacité)
+         * Modifié uniquement par les UPDATE conditionnels de FlightCapacityService
+         */
+        @Column(name = "reserved_kg", precision = 10, scale = 2, insertable = false, updatable = false,
+                columnDefinition = "DECIMAL(10,2) NOT NULL DEFAULT 0")
+        private BigDecimal reservedKg;
+
+        // Aéroports chargés à la demande : noms, villes et pays sont lus dans ReferenceDataService
         @JoinColumn(name = "departure_airport_id", referencedColumnName = "airport_id")
-        @ManyToOne(optional = false)
+        @ManyToOne(optional = false, fetch = FetchType.LAZY)
         private Airport departureAirport;
 
         @JoinColumn(name = "arrival_airport_id", referencedColumnName = "airport_id")
-        @ManyToOne(optional = false)
+        @ManyToOne(optional = false, fetch = FetchType.LAZY)
         private Airport arrivalAirport;
 
         @JoinColumn(name = "customer_id", referencedColumnName = "id")
@@ -27,7 +27,8 @@ import java.time.LocalDateTime;
 public class NotificationLog extends BaseEntity implements Serializable {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_log_seq")
+    @SequenceGenerator(name = "notification_log_seq", sequenceName = "notification_log_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
     
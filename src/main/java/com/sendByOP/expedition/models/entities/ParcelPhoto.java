@@ -22,7 +22,8 @@ import java.io.Serializable;
 public class ParcelPhoto extends BaseEntity implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "parcel_photo_seq")
+    @SequenceGenerator(name = "parcel_photo_seq", sequenceName = "parcel_photo_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Integer id;
 
@@ -0,0 +1,78 @@
+package com.sendByOP.expedition.models.entities;
+
+import com.sendByOP.expedition.models.enums.PaymentMethod;
+import com.sendByOP.expedition.models.enums.WebhookEventStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Notification webhook de paiement reçue, telle qu'envoyée par le provider
+ * Enregistrée par PaymentWebhookIntakeService avant l'acquittement, puis appliquée
+ * par PaymentWebhookDispatcher dans l'ordre de réception pour chaque transaction.
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "payment_webhook_event",
+    uniqueConstraints = @UniqueConstraint(name = "uk_payment_webhook_event", columnNames = {"provider", "event_id"}),
+    indexes = {
+        @Index(name = "idx_payment_webhook_event_status_ref", columnList = "status, transaction_reference, id")
+    })
+public class PaymentWebhookEvent implements Serializable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "provider", nullable = false, length = 30)
+    private PaymentMethod provider;
+
+    /**
+     * Identifiant de l'événement : empreinte référence + id externe + statut + code d'erreur,
+     * identique pour les renvois d'une même notification par le provider
+     */
+    @Column(name = "event_id", nullable = false, length = 64)
+    private String eventId;
+
+    @Column(name = "transaction_reference", nullable = false, length = 100)
+    private String transactionReference;
+
+    /**
+     * Notification JSON (WebhookPaymentNotification)
+     */
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Builder.Default
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private WebhookEventStatus status = WebhookEventStatus.PENDING;
+
+    @Builder.Default
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(name = "received_at", nullable = false)
+    private LocalDateTime receivedAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+}
@@ -25,11 +25,14 @@ import java.time.LocalDateTime;
     @Index(name = "idx_payout_traveler", columnList = "traveler_id"),
     @Index(name = "idx_payout_status", columnList = "status"),
     @Index(name = "idx_payout_created_at", columnList = "created_at")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = "uk_payout_idempotency_key", columnNames = "idempotency_key")
 })
 public class Payout extends BaseEntity implements Serializable {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payout_seq")
+    @SequenceGenerator(name = "payout_seq", sequenceName = "payout_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
     
@@ -75,6 +78,12 @@ public class Payout extends BaseEntity implements Serializable {
     @Column(name = "payment_method")
     private String paymentMethod;
     
+    /**
+     * Clé d'idempotence (une par réservation) transmise au prestataire de versement
+     */
+    @Column(name = "idempotency_key", length = 64)
+    private String idempotencyKey;
+    
     @Column(name = "error_message", columnDefinition = "TEXT")
     private String errorMessage;
 
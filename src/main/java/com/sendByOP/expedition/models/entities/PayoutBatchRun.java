@@ -0,0 +1,59 @@
+package com.sendByOP.expedition.models.entities;
+
+import com.sendByOP.expedition.models.enums.PayoutBatchStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Point de contrôle d'une exécution du traitement automatique des payouts
+ * Le curseur lastBookingId avance à chaque lot terminé ; une exécution interrompue
+ * reprend à partir de ce curseur au lieu de repartir du début
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "payout_batch_run", indexes = {
+    @Index(name = "idx_payout_batch_run_status", columnList = "status")
+})
+public class PayoutBatchRun implements Serializable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private PayoutBatchStatus status;
+
+    @Builder.Default
+    @Column(name = "last_booking_id", nullable = false)
+    private Integer lastBookingId = 0;
+
+    @Builder.Default
+    @Column(name = "processed_count", nullable = false)
+    private Integer processedCount = 0;
+
+    @Builder.Default
+    @Column(name = "failed_count", nullable = false)
+    private Integer failedCount = 0;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "checkpoint_at")
+    private LocalDateTime checkpointAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,67 @@
+package com.sendByOP.expedition.models.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Avancement du re-chiffrement d'une table vers la clé courante (une ligne par table)
+ * Le curseur lastId avance à chaque lot validé ; un re-chiffrement interrompu reprend
+ * à partir de ce curseur. Un changement de clé courante repart du début de la table.
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "reencryption_progress")
+public class ReEncryptionProgress implements Serializable {
+
+    @Id
+    @Column(name = "table_name", nullable = false, length = 100)
+    private String tableName;
+
+    /**
+     * Clé cible du re-chiffrement
+     */
+    @Column(name = "key_id", nullable = false, length = 50)
+    private String keyId;
+
+    @Builder.Default
+    @Column(name = "last_id", nullable = false)
+    private Long lastId = 0L;
+
+    /**
+     * Lignes parcourues
+     */
+    @Builder.Default
+    @Column(name = "processed_count", nullable = false)
+    private Long processedCount = 0L;
+
+    /**
+     * Valeurs réécrites avec la clé cible
+     */
+    @Builder.Default
+    @Column(name = "updated_count", nullable = false)
+    private Long updatedCount = 0L;
+
+    @Builder.Default
+    @Column(name = "failed_count", nullable = false)
+    private Long failedCount = 0L;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "checkpoint_at")
+    private LocalDateTime checkpointAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+}
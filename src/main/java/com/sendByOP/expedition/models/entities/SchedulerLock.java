@@ -0,0 +1,45 @@
+package com.sendByOP.expedition.models.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Bail (lease) d'exécution d'une tâche planifiée
+ * Garantit qu'un seul nœud exécute une tâche (ou un shard de tâche) à un instant donné
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "scheduler_lock")
+public class SchedulerLock implements Serializable {
+
+    /**
+     * Nom de la tâche (suffixé par ":<shard>" en mode réparti)
+     */
+    @Id
+    @Column(name = "name", length = 100, nullable = false)
+    private String name;
+
+    /**
+     * Fin du bail : le verrou est libre dès que cette date est passée
+     */
+    @Column(name = "locked_until", nullable = false)
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "locked_at", nullable = false)
+    private LocalDateTime lockedAt;
+
+    /**
+     * Nœud détenteur du bail (hostname + identifiant d'instance)
+     */
+    @Column(name = "locked_by", nullable = false)
+    private String lockedBy;
+}
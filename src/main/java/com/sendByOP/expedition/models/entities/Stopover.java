@@ -27,8 +27,9 @@ public class Stopover extends BaseEntity implements Serializable {
     @Column(name = "hour")
     private String hour;
 
+    // Chargé à la demande : noms, ville et pays sont lus dans ReferenceDataService
     @JoinColumn(name = "airport_id", referencedColumnName = "airport_id")
-    @ManyToOne(optional = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     private Airport airport;
 
     @JoinColumn(name = "flight_id", referencedColumnName = "id")
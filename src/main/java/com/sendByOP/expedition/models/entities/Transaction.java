@@ -19,7 +19,8 @@ import java.time.LocalDateTime;
 public class Transaction extends BaseEntity implements Serializable {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50)
     private Integer id;
     
     @Column(name = "transaction_reference", unique = true, nullable = false, length = 100)
@@ -0,0 +1,66 @@
+package com.sendByOP.expedition.models.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Résumé des notes reçues par un voyageur (avis de réservation)
+ * Mis à jour à chaque écriture d'avis par TravelerRatingService ; la moyenne
+ * affichée est ratingSum / reviewCount
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "traveler_rating_summary")
+public class TravelerRatingSummary implements Serializable {
+
+    /**
+     * Identifiant du voyageur (customer.id)
+     */
+    @Id
+    @Column(name = "traveler_id", nullable = false)
+    private Integer travelerId;
+
+    @Builder.Default
+    @Column(name = "rating_sum", nullable = false, precision = 12, scale = 2)
+    private BigDecimal ratingSum = BigDecimal.ZERO;
+
+    @Builder.Default
+    @Column(name = "review_count", nullable = false)
+    private Long reviewCount = 0L;
+
+    // Répartition par nombre d'étoiles (note arrondie)
+    @Builder.Default
+    @Column(name = "star1_count", nullable = false)
+    private Long star1Count = 0L;
+
+    @Builder.Default
+    @Column(name = "star2_count", nullable = false)
+    private Long star2Count = 0L;
+
+    @Builder.Default
+    @Column(name = "star3_count", nullable = false)
+    private Long star3Count = 0L;
+
+    @Builder.Default
+    @Column(name = "star4_count", nullable = false)
+    private Long star4Count = 0L;
+
+    @Builder.Default
+    @Column(name = "star5_count", nullable = false)
+    private Long star5Count = 0L;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
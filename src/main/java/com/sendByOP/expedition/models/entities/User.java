@@ -11,6 +11,7 @@ import java.util.Date;
 @Setter
 @Entity
 @Table(name = "users")
+@EntityListeners({DailyStatsListener.class, UserSecurityListener.class})
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
@@ -56,4 +57,29 @@ public class User extends BaseEntity implements Serializable {
     @Column(name = "otp_sent_at")
     @Temporal(TemporalType.TIMESTAMP)
     private Date otpSentAt;
+
+    /**
+     * Mot de passe, rôle et statut tels que lus en base, pour détecter les changements
+     * qui invalident les principals JWT en cache (voir UserSecurityListener)
+     */
+    @Transient
+    @Setter(AccessLevel.NONE)
+    private String loadedPassword;
+
+    @Transient
+    @Setter(AccessLevel.NONE)
+    private String loadedRole;
+
+    @Transient
+    @Setter(AccessLevel.NONE)
+    private AccountStatus loadedStatus;
+
+    /**
+     * Mémorise l'état de sécurité courant comme état de référence
+     */
+    void snapshotSecurityState() {
+        this.loadedPassword = password;
+        this.loadedRole = role;
+        this.loadedStatus = status;
+    }
 }
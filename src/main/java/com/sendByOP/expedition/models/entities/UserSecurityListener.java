@@ -0,0 +1,43 @@
+package com.sendByOP.expedition.models.entities;
+
+import com.sendByOP.expedition.models.events.UserSecurityChangedEvent;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+
+/**
+ * Listener JPA signalant les changements de mot de passe, de rôle ou de statut
+ * d'un utilisateur, pour invalider les principals mis en cache par le filtre JWT
+ */
+@Component
+@RequiredArgsConstructor
+public class UserSecurityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostLoad
+    public void afterLoad(User user) {
+        user.snapshotSecurityState();
+    }
+
+    @PostUpdate
+    public void afterUpdate(User user) {
+        if (Objects.equals(user.getLoadedPassword(), user.getPassword())
+                && Objects.equals(user.getLoadedRole(), user.getRole())
+                && user.getLoadedStatus() == user.getStatus()) {
+            return;
+        }
+        eventPublisher.publishEvent(new UserSecurityChangedEvent(user.getUsername()));
+        user.snapshotSecurityState();
+    }
+
+    @PostRemove
+    public void afterDelete(User user) {
+        eventPublisher.publishEvent(new UserSecurityChangedEvent(user.getUsername()));
+    }
+}
@@ -0,0 +1,46 @@
+package com.sendByOP.expedition.models.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Nombre de pages vues par jour et par page
+ * Incrémenté par lots depuis les compteurs en mémoire de VisiteService (une ligne par
+ * jour et par page, quel que soit le trafic)
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "visit_daily_count", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_visit_daily_count_day_page", columnNames = {"visit_date", "page"})
+})
+public class VisitDailyCount implements Serializable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    @Column(name = "visit_date", nullable = false)
+    private LocalDate visitDate;
+
+    @Column(name = "page", nullable = false)
+    private String page;
+
+    @Column(name = "views", nullable = false)
+    private Long views;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,41 @@
+package com.sendByOP.expedition.models.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Visiteurs uniques estimés d'une journée (sketch HyperLogLog fusionné par tous les nœuds)
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "visit_daily_unique")
+public class VisitDailyUnique implements Serializable {
+
+    @Id
+    @Column(name = "visit_date", nullable = false)
+    private LocalDate visitDate;
+
+    /**
+     * Registres HyperLogLog (voir utils.HyperLogLog)
+     */
+    @Column(name = "sketch", nullable = false, length = 4096)
+    private byte[] sketch;
+
+    @Column(name = "unique_visitors", nullable = false)
+    private Long uniqueVisitors;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
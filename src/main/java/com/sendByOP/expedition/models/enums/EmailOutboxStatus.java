@@ -0,0 +1,21 @@
+package com.sendByOP.expedition.models.enums;
+
+/**
+ * Statut d'un email de la file d'envoi (email_outbox)
+ */
+public enum EmailOutboxStatus {
+    /**
+     * À envoyer (premier envoi ou nouvelle tentative à partir de nextAttemptAt)
+     */
+    PENDING,
+
+    /**
+     * Accepté par le fournisseur d'envoi
+     */
+    SENT,
+
+    /**
+     * Abandonné après le nombre maximal de tentatives
+     */
+    DEAD
+}
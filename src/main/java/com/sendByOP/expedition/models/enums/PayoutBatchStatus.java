@@ -0,0 +1,16 @@
+package com.sendByOP.expedition.models.enums;
+
+/**
+ * Statut d'une exécution du traitement automatique des payouts
+ */
+public enum PayoutBatchStatus {
+    /**
+     * Exécution en cours (ou interrompue : reprise au dernier point de contrôle)
+     */
+    RUNNING,
+
+    /**
+     * Toutes les réservations éligibles ont été parcourues
+     */
+    COMPLETED
+}
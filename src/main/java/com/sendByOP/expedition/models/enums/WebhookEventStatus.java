@@ -0,0 +1,21 @@
+package com.sendByOP.expedition.models.enums;
+
+/**
+ * Statut d'une notification webhook de paiement reçue (payment_webhook_event)
+ */
+public enum WebhookEventStatus {
+    /**
+     * À traiter (premier passage ou nouvelle tentative à partir de nextAttemptAt)
+     */
+    PENDING,
+
+    /**
+     * Appliquée à la transaction (et facture mise en file si le paiement est complété)
+     */
+    PROCESSED,
+
+    /**
+     * Abandonnée après le nombre maximal de tentatives
+     */
+    DEAD
+}
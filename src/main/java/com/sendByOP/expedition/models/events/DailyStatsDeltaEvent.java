@@ -0,0 +1,39 @@
+package com.sendByOP.expedition.models.events;
+
+import com.sendByOP.expedition.models.enums.BookingStatus;
+import lombok.Builder;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Variation à appliquer aux agrégats journaliers (daily_stats / daily_booking_stats)
+ * Publiée par DailyStatsListener et appliquée après commit par DailyStatsService
+ */
+@Value
+@Builder
+public class DailyStatsDeltaEvent {
+
+    /**
+     * Jour concerné (date de réservation, d'inscription ou de création du vol)
+     */
+    LocalDate statDate;
+
+    /**
+     * Statut de réservation impacté (null si la variation ne concerne pas une réservation)
+     */
+    BookingStatus status;
+
+    @Builder.Default
+    long bookingCountDelta = 0L;
+
+    @Builder.Default
+    BigDecimal amountDelta = BigDecimal.ZERO;
+
+    @Builder.Default
+    long newUsersDelta = 0L;
+
+    @Builder.Default
+    long newFlightsDelta = 0L;
+}
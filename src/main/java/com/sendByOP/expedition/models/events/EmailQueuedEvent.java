@@ -0,0 +1,13 @@
+package com.sendByOP.expedition.models.events;
+
+import lombok.Value;
+
+/**
+ * Email mis en file d'envoi
+ * Déclenche l'envoi dès la validation de la transaction (voir EmailOutboxDispatcher)
+ */
+@Value
+public class EmailQueuedEvent {
+
+    Long outboxId;
+}
@@ -0,0 +1,28 @@
+package com.sendByOP.expedition.models.events;
+
+import lombok.Value;
+
+import java.util.Set;
+
+/**
+ * Modification de vols à répercuter sur les caches de vols
+ * Publiée par FlightCacheService et appliquée après commit
+ */
+@Value
+public class FlightChangedEvent {
+
+    /**
+     * Vols dont les entrées par id sont à retirer
+     */
+    Set<Integer> flightIds;
+
+    /**
+     * Listes par statut de validation impactées
+     */
+    Set<Integer> validationStatuses;
+
+    /**
+     * Listes par trajet impactées (voir FlightCacheService.routeKey)
+     */
+    Set<String> routes;
+}
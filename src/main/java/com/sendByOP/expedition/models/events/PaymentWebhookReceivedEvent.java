@@ -0,0 +1,13 @@
+package com.sendByOP.expedition.models.events;
+
+import lombok.Value;
+
+/**
+ * Notification webhook de paiement enregistrée
+ * Déclenche son traitement dès la validation de la transaction (voir PaymentWebhookDispatcher)
+ */
+@Value
+public class PaymentWebhookReceivedEvent {
+
+    Long webhookEventId;
+}
@@ -0,0 +1,16 @@
+package com.sendByOP.expedition.models.events;
+
+import lombok.Value;
+
+/**
+ * Modification des pays, villes ou aéroports
+ * Le référentiel en mémoire est rechargé après commit (voir ReferenceDataService)
+ */
+@Value
+public class ReferenceDataChangedEvent {
+
+    /**
+     * Type de donnée modifiée (country, city, airport), pour les logs
+     */
+    String source;
+}
@@ -0,0 +1,16 @@
+package com.sendByOP.expedition.models.events;
+
+import lombok.Value;
+
+/**
+ * Changement d'un attribut de sécurité d'un utilisateur (mot de passe, rôle ou statut)
+ * Publié par UserSecurityListener et appliqué après commit par JwtPrincipalCache
+ */
+@Value
+public class UserSecurityChangedEvent {
+
+    /**
+     * Nom d'utilisateur (sujet des jetons JWT)
+     */
+    String username;
+}
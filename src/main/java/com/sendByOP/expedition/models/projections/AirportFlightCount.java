@@ -0,0 +1,12 @@
+package com.sendByOP.expedition.models.projections;
+
+/**
+ * Nombre de vols par aéroport
+ * Retourné par une requête GROUP BY sur l'aéroport de départ ou d'arrivée
+ */
+public interface AirportFlightCount {
+
+    Integer getAirportId();
+
+    Long getFlightCount();
+}
@@ -0,0 +1,27 @@
+package com.sendByOP.expedition.models.projections;
+
+import com.sendByOP.expedition.models.enums.BookingStatus;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection d'agrégat des réservations groupées par statut
+ * Retournée par les requêtes GROUP BY pour éviter de charger les entités
+ */
+public interface BookingStatusAggregate {
+
+    /**
+     * Statut de réservation (peut être null pour les anciennes réservations)
+     */
+    BookingStatus getStatus();
+
+    /**
+     * Nombre de réservations ayant ce statut
+     */
+    Long getBookingCount();
+
+    /**
+     * Somme des montants (total_price) pour ce statut
+     */
+    BigDecimal getTotalAmount();
+}
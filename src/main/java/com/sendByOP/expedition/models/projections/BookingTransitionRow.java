@@ -0,0 +1,17 @@
+package com.sendByOP.expedition.models.projections;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * Projection minimale d'une réservation pour les transitions de statut en masse
+ * (id pour l'UPDATE et les notifications, date et montant pour les agrégats journaliers)
+ */
+public interface BookingTransitionRow {
+
+    Integer getId();
+
+    Date getBookingDate();
+
+    BigDecimal getTotalPrice();
+}
@@ -0,0 +1,15 @@
+package com.sendByOP.expedition.models.projections;
+
+/**
+ * Poids total des colis par vol
+ * Retourné par une requête GROUP BY sur un ensemble de réservations
+ */
+public interface FlightBookedWeight {
+
+    Integer getFlightId();
+
+    /**
+     * Somme des poids (SUM sur un float : Double selon le fournisseur JPA)
+     */
+    Number getTotalWeight();
+}
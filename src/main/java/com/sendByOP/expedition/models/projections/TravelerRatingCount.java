@@ -0,0 +1,14 @@
+package com.sendByOP.expedition.models.projections;
+
+/**
+ * Nombre d'avis par voyageur et par valeur de note
+ * Utilisé pour reconstruire les résumés de notes depuis la table review
+ */
+public interface TravelerRatingCount {
+
+    Integer getTravelerId();
+
+    String getRating();
+
+    Long getReviewCount();
+}
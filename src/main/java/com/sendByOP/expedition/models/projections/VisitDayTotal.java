@@ -0,0 +1,13 @@
+package com.sendByOP.expedition.models.projections;
+
+import java.time.LocalDate;
+
+/**
+ * Pages vues d'une journée, toutes pages confondues
+ */
+public interface VisitDayTotal {
+
+    LocalDate getVisitDate();
+
+    Long getViews();
+}
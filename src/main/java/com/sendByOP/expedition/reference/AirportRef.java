@@ -0,0 +1,32 @@
+package com.sendByOP.expedition.reference;
+
+import lombok.Value;
+
+/**
+ * Aéroport du référentiel en mémoire, avec sa ville et son pays (immuable)
+ */
+@Value
+public class AirportRef {
+
+    Integer airportId;
+
+    String name;
+
+    String iataCode;
+
+    Integer cityId;
+
+    String cityName;
+
+    Integer countryId;
+
+    String countryName;
+
+    /**
+     * Aéroport absent du référentiel (supprimé, ou créé sur un autre nœud depuis le dernier
+     * rechargement) : seul l'id est connu
+     */
+    public static AirportRef unknown(Integer airportId) {
+        return new AirportRef(airportId, null, null, null, null, null, null);
+    }
+}
@@ -0,0 +1,93 @@
+package com.sendByOP.expedition.reference;
+
+import com.sendByOP.expedition.models.projections.AirportFlightCount;
+import com.sendByOP.expedition.repositories.FlightRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Autocomplétion des aéroports (code IATA, nom de l'aéroport, nom de la ville)
+ *
+ * Servie entièrement depuis le référentiel en mémoire : recherche par préfixe sans
+ * accents dans l'index trié de ReferenceData, en ne gardant pendant le parcours que les
+ * meilleurs résultats selon la popularité (nombre de vols publiés récemment au départ
+ * ou à l'arrivée de l'aéroport).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AirportSearchService {
+
+    private final ReferenceDataService referenceDataService;
+    private final FlightRepository flightRepository;
+
+    /**
+     * Période prise en compte pour la popularité
+     */
+    @Value("${app.airport-search.popularity-days:180}")
+    private int popularityDays;
+
+    private volatile Map<Integer, Long> popularity = Map.of();
+
+    /**
+     * Aéroports correspondant au préfixe, les plus populaires d'abord
+     * Un code IATA saisi en entier passe devant les autres correspondances
+     */
+    public List<AirportRef> search(String query, int limit) {
+        String prefix = PrefixIndex.normalize(query);
+        if (prefix.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Integer, Long> flightCounts = popularity;
+        Comparator<AirportRef> ranking = Comparator
+                .comparing((AirportRef airport) -> !prefix.equals(PrefixIndex.normalize(airport.getIataCode())))
+                .thenComparing(airport -> flightCounts.getOrDefault(airport.getAirportId(), 0L), Comparator.<Long>reverseOrder())
+                .thenComparing(AirportRef::getName, String.CASE_INSENSITIVE_ORDER);
+
+        return referenceDataService.get().findTopAirports(prefix, limit, ranking);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        refreshPopularity();
+    }
+
+    /**
+     * Recalcule la popularité des aéroports (deux requêtes GROUP BY)
+     */
+    @Scheduled(cron = "${app.airport-search.popularity-cron:0 15 * * * *}")
+    public void refreshPopularity() {
+        try {
+            Date since = Date.from(Instant.now().minus(Duration.ofDays(popularityDays)));
+            Map<Integer, Long> counts = new HashMap<>();
+            addCounts(counts, flightRepository.countByDepartureAirportSince(since));
+            addCounts(counts, flightRepository.countByArrivalAirportSince(since));
+            popularity = Map.copyOf(counts);
+            log.debug("Airport popularity refreshed for {} airport(s)", counts.size());
+        } catch (Exception e) {
+            log.error("Airport popularity refresh failed, keeping previous ranking: {}", e.getMessage(), e);
+        }
+    }
+
+    private static void addCounts(Map<Integer, Long> counts, List<AirportFlightCount> rows) {
+        for (AirportFlightCount row : rows) {
+            if (row.getAirportId() != null && row.getFlightCount() != null) {
+                counts.merge(row.getAirportId(), row.getFlightCount(), Long::sum);
+            }
+        }
+    }
+}
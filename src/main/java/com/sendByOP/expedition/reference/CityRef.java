@@ -0,0 +1,18 @@
+package com.sendByOP.expedition.reference;
+
+import lombok.Value;
+
+/**
+ * Ville du référentiel en mémoire, avec le nom de son pays (immuable)
+ */
+@Value
+public class CityRef {
+
+    Integer cityId;
+
+    String name;
+
+    Integer countryId;
+
+    String countryName;
+}
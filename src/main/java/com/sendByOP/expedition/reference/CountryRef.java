@@ -0,0 +1,14 @@
+package com.sendByOP.expedition.reference;
+
+import lombok.Value;
+
+/**
+ * Pays du référentiel en mémoire (immuable)
+ */
+@Value
+public class CountryRef {
+
+    Integer countryId;
+
+    String name;
+}
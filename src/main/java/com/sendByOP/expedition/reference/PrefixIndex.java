@@ -0,0 +1,146 @@
+package com.sendByOP.expedition.reference;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Index de recherche par préfixe sur des clés normalisées (minuscules, sans accents)
+ *
+ * Les clés sont triées dans un tableau : une recherche est une recherche dichotomique
+ * du premier candidat suivie d'un parcours des clés qui commencent par le préfixe.
+ * Une valeur peut être indexée sous plusieurs clés (code IATA, nom, ville).
+ */
+public final class PrefixIndex<T> {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private final String[] keys;
+    private final Object[] values;
+
+    private PrefixIndex(String[] keys, Object[] values) {
+        this.keys = keys;
+        this.values = values;
+    }
+
+    /**
+     * Valeurs dont une clé commence par le préfixe, dans l'ordre des clés, sans doublon
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> find(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        int index = Arrays.binarySearch(keys, normalized);
+        if (index < 0) {
+            index = -index - 1;
+        }
+
+        Set<T> found = new LinkedHashSet<>();
+        for (int i = index; i < keys.length && found.size() < limit && keys[i].startsWith(normalized); i++) {
+            found.add((T) values[i]);
+        }
+        return List.copyOf(found);
+    }
+
+    /**
+     * Les meilleures valeurs selon le classement parmi celles dont une clé commence par le
+     * préfixe, sans doublon
+     * Le parcours ne garde que les limit meilleures (tas borné) : ni collecte ni tri de
+     * toutes les correspondances
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> findTop(String prefix, int limit, Comparator<? super T> ranking) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        int index = Arrays.binarySearch(keys, normalized);
+        if (index < 0) {
+            index = -index - 1;
+        }
+
+        // Tête du tas : la moins bonne des valeurs retenues
+        Comparator<? super T> worstFirst = ranking.reversed();
+        PriorityQueue<T> top = new PriorityQueue<>(limit, worstFirst);
+        for (int i = index; i < keys.length && keys[i].startsWith(normalized); i++) {
+            T value = (T) values[i];
+            // Une valeur écartée ne peut pas revenir : elle n'est pas meilleure que la tête
+            if (top.contains(value)) {
+                continue;
+            }
+            if (top.size() < limit) {
+                top.add(value);
+            } else if (ranking.compare(value, top.peek()) < 0) {
+                top.poll();
+                top.add(value);
+            }
+        }
+
+        List<T> sorted = new ArrayList<>(top);
+        sorted.sort(ranking);
+        return List.copyOf(sorted);
+    }
+
+    /**
+     * Forme normalisée d'un texte pour l'indexation et la recherche
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text.trim(), Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    public static final class Builder<T> {
+
+        private final List<String> keys = new ArrayList<>();
+        private final List<T> values = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Indexe la valeur sous la clé (ignorée si vide)
+         */
+        public Builder<T> add(String key, T value) {
+            String normalized = normalize(key);
+            if (!normalized.isEmpty()) {
+                keys.add(normalized);
+                values.add(value);
+            }
+            return this;
+        }
+
+        public PrefixIndex<T> build() {
+            Integer[] order = new Integer[keys.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparing(keys::get));
+
+            String[] sortedKeys = new String[order.length];
+            Object[] sortedValues = new Object[order.length];
+            for (int i = 0; i < order.length; i++) {
+                sortedKeys[i] = keys.get(order[i]);
+                sortedValues[i] = values.get(order[i]);
+            }
+            return new PrefixIndex<>(sortedKeys, sortedValues);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.sendByOP.expedition.reference;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Instantané immuable du référentiel pays / villes / aéroports
+ *
+ * Construit en une fois par ReferenceDataService puis remplacé en bloc à chaque
+ * rechargement : les lecteurs voient toujours un référentiel complet et cohérent.
+ */
+public final class ReferenceData {
+
+    private static final Comparator<String> BY_NAME = Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER);
+
+    private final Map<Integer, CountryRef> countries;
+    private final Map<Integer, CityRef> cities;
+    private final Map<Integer, AirportRef> airports;
+    private final Map<Integer, Set<Integer>> airportIdsByCity;
+    private final Map<Integer, Set<Integer>> airportIdsByCountry;
+    private final PrefixIndex<AirportRef> airportIndex;
+    private final PrefixIndex<CityRef> cityIndex;
+
+    ReferenceData(Collection<CountryRef> countries, Collection<CityRef> cities, Collection<AirportRef> airports) {
+        this.countries = sortedById(countries, CountryRef::getCountryId, CountryRef::getName);
+        this.cities = sortedById(cities, CityRef::getCityId, CityRef::getName);
+        this.airports = sortedById(airports, AirportRef::getAirportId, AirportRef::getName);
+
+        Map<Integer, Set<Integer>> byCity = new HashMap<>();
+        Map<Integer, Set<Integer>> byCountry = new HashMap<>();
+        PrefixIndex.Builder<AirportRef> airportIndexBuilder = PrefixIndex.builder();
+        for (AirportRef airport : this.airports.values()) {
+            if (airport.getCityId() != null) {
+                byCity.computeIfAbsent(airport.getCityId(), id -> new HashSet<>()).add(airport.getAirportId());
+            }
+            if (airport.getCountryId() != null) {
+                byCountry.computeIfAbsent(airport.getCountryId(), id -> new HashSet<>()).add(airport.getAirportId());
+            }
+            airportIndexBuilder.add(airport.getIataCode(), airport)
+                    .add(airport.getName(), airport)
+                    .add(airport.getCityName(), airport);
+        }
+        this.airportIdsByCity = copyOfSets(byCity);
+        this.airportIdsByCountry = copyOfSets(byCountry);
+        this.airportIndex = airportIndexBuilder.build();
+
+        PrefixIndex.Builder<CityRef> cityIndexBuilder = PrefixIndex.builder();
+        this.cities.values().forEach(city -> cityIndexBuilder.add(city.getName(), city));
+        this.cityIndex = cityIndexBuilder.build();
+    }
+
+    public CountryRef getCountry(Integer countryId) {
+        return countryId != null ? countries.get(countryId) : null;
+    }
+
+    public CityRef getCity(Integer cityId) {
+        return cityId != null ? cities.get(cityId) : null;
+    }
+
+    public AirportRef getAirport(Integer airportId) {
+        return airportId != null ? airports.get(airportId) : null;
+    }
+
+    /**
+     * Pays triés par nom
+     */
+    public Collection<CountryRef> getCountries() {
+        return countries.values();
+    }
+
+    /**
+     * Villes triées par nom
+     */
+    public Collection<CityRef> getCities() {
+        return cities.values();
+    }
+
+    /**
+     * Aéroports triés par nom
+     */
+    public Collection<AirportRef> getAirports() {
+        return airports.values();
+    }
+
+    /**
+     * Ids des aéroports d'une ville (vide si inconnue)
+     */
+    public Set<Integer> getAirportIdsByCity(Integer cityId) {
+        return airportIdsByCity.getOrDefault(cityId, Set.of());
+    }
+
+    /**
+     * Ids des aéroports d'un pays (vide si inconnu)
+     */
+    public Set<Integer> getAirportIdsByCountry(Integer countryId) {
+        return airportIdsByCountry.getOrDefault(countryId, Set.of());
+    }
+
+    /**
+     * Aéroports dont le code IATA, le nom ou la ville commence par le préfixe
+     */
+    public List<AirportRef> findAirports(String prefix, int limit) {
+        return airportIndex.find(prefix, limit);
+    }
+
+    /**
+     * Les limit premiers aéroports selon le classement parmi ceux qui correspondent au préfixe
+     */
+    public List<AirportRef> findTopAirports(String prefix, int limit, Comparator<? super AirportRef> ranking) {
+        return airportIndex.findTop(prefix, limit, ranking);
+    }
+
+    /**
+     * Villes dont le nom commence par le préfixe
+     */
+    public List<CityRef> findCities(String prefix, int limit) {
+        return cityIndex.find(prefix, limit);
+    }
+
+    private static <T> Map<Integer, T> sortedById(Collection<T> values,
+                                                  Function<T, Integer> id,
+                                                  Function<T, String> name) {
+        List<T> sorted = new ArrayList<>(values);
+        sorted.sort(Comparator.comparing(name, BY_NAME));
+        Map<Integer, T> byId = new LinkedHashMap<>();
+        sorted.forEach(value -> byId.put(id.apply(value), value));
+        return Collections.unmodifiableMap(byId);
+    }
+
+    private static Map<Integer, Set<Integer>> copyOfSets(Map<Integer, Set<Integer>> sets) {
+        Map<Integer, Set<Integer>> copy = new HashMap<>();
+        sets.forEach((key, value) -> copy.put(key, Set.copyOf(value)));
+        return Map.copyOf(copy);
+    }
+}
@@ -0,0 +1,179 @@
+package com.sendByOP.expedition.reference;
+
+import com.sendByOP.expedition.models.entities.Airport;
+import com.sendByOP.expedition.models.entities.City;
+import com.sendByOP.expedition.models.entities.Country;
+import com.sendByOP.expedition.models.events.ReferenceDataChangedEvent;
+import com.sendByOP.expedition.repositories.AirPortRepository;
+import com.sendByOP.expedition.repositories.CityRepository;
+import com.sendByOP.expedition.repositories.CountryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Référentiel pays / villes / aéroports en mémoire
+ *
+ * Chargé au démarrage puis remplacé en bloc après chaque modification (événement
+ * ReferenceDataChangedEvent) et périodiquement, pour reprendre les modifications faites
+ * sur un autre nœud. Les vols et escales ne chargent plus leurs aéroports par jointure :
+ * les noms, villes et pays sont lus ici à partir de l'id de l'aéroport.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReferenceDataService {
+
+    private final CountryRepository countryRepository;
+    private final CityRepository cityRepository;
+    private final AirPortRepository airportRepository;
+
+    /**
+     * Intervalle minimal entre deux rechargements provoqués par un id inconnu
+     * (ces ids arrivent aussi des requêtes publiques, ex. GET /public/airport/{id})
+     */
+    @Value("${app.reference-data.miss-reload-interval:30s}")
+    private Duration missReloadInterval;
+
+    private final AtomicLong lastMissReload = new AtomicLong();
+
+    private volatile ReferenceData current;
+
+    /**
+     * Instantané courant (chargé au premier appel s'il ne l'est pas encore)
+     */
+    public ReferenceData get() {
+        ReferenceData data = current;
+        if (data == null) {
+            synchronized (this) {
+                data = current;
+                if (data == null) {
+                    data = reload();
+                }
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Aéroport par id (null si inconnu)
+     * Un id absent de l'instantané provoque un rechargement, au plus un par
+     * app.reference-data.miss-reload-interval : l'aéroport a pu être créé sur un autre nœud
+     */
+    public AirportRef getAirport(Integer airportId) {
+        if (airportId == null) {
+            return null;
+        }
+        AirportRef airport = get().getAirport(airportId);
+        if (airport == null && reloadAfterMiss()) {
+            airport = current.getAirport(airportId);
+        }
+        return airport;
+    }
+
+    /**
+     * Aéroport d'une association (proxy non initialisé accepté : seul l'id est lu)
+     * Un aéroport absent du référentiel est rendu sous forme de {@link AirportRef#unknown}
+     * (noms null) : les vols et réservations restent affichables
+     */
+    public AirportRef getAirport(Airport airport) {
+        if (airport == null) {
+            return null;
+        }
+        AirportRef ref = getAirport(airport.getAirportId());
+        return ref != null ? ref : AirportRef.unknown(airport.getAirportId());
+    }
+
+    /**
+     * Recharge le référentiel depuis la base et remplace l'instantané courant
+     */
+    public synchronized ReferenceData reload() {
+        long start = System.currentTimeMillis();
+
+        List<CountryRef> countries = countryRepository.findAll().stream()
+                .map(country -> new CountryRef(country.getCountryId(), country.getName()))
+                .collect(Collectors.toList());
+        List<CityRef> cities = cityRepository.findAllWithCountry().stream()
+                .map(ReferenceDataService::toCityRef)
+                .collect(Collectors.toList());
+        List<AirportRef> airports = airportRepository.findAllWithCityAndCountry().stream()
+                .map(ReferenceDataService::toAirportRef)
+                .collect(Collectors.toList());
+
+        ReferenceData data = new ReferenceData(countries, cities, airports);
+        current = data;
+        log.info("Reference data loaded: {} countries, {} cities, {} airports in {} ms",
+                countries.size(), cities.size(), airports.size(), System.currentTimeMillis() - start);
+        return data;
+    }
+
+    /**
+     * Rechargement après un id inconnu, sans attente : un seul appelant par intervalle recharge,
+     * les autres gardent l'instantané courant
+     */
+    private boolean reloadAfterMiss() {
+        long now = System.currentTimeMillis();
+        long last = lastMissReload.get();
+        if (now - last < missReloadInterval.toMillis() || !lastMissReload.compareAndSet(last, now)) {
+            return false;
+        }
+        try {
+            reload();
+            return true;
+        } catch (Exception e) {
+            log.error("Reference data reload after unknown id failed, keeping previous snapshot: {}", e.getMessage(), e);
+            return false;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        get();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onReferenceDataChanged(ReferenceDataChangedEvent event) {
+        log.debug("Reference data changed ({}), reloading", event.getSource());
+        reload();
+    }
+
+    /**
+     * Rechargement périodique (modifications faites sur un autre nœud)
+     */
+    @Scheduled(cron = "${app.reference-data.refresh-cron:0 */15 * * * *}")
+    public void refresh() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.error("Reference data refresh failed, keeping previous snapshot: {}", e.getMessage(), e);
+        }
+    }
+
+    private static CityRef toCityRef(City city) {
+        Country country = city.getCountry();
+        return new CityRef(city.getCityId(), city.getName(),
+                country != null ? country.getCountryId() : null,
+                country != null ? country.getName() : null);
+    }
+
+    private static AirportRef toAirportRef(Airport airport) {
+        City city = airport.getCity();
+        Country country = city != null ? city.getCountry() : null;
+        return new AirportRef(airport.getAirportId(), airport.getName(), airport.getIataCode(),
+                city != null ? city.getCityId() : null,
+                city != null ? city.getName() : null,
+                country != null ? country.getCountryId() : null,
+                country != null ? country.getName() : null);
+    }
+}
@@ -2,13 +2,35 @@ package com.sendByOP.expedition.repositories;
 
 import com.sendByOP.expedition.models.entities.Customer;
 import com.sendByOP.expedition.models.entities.BankInfo;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface BankAccountRepository extends JpaRepository<BankInfo, Integer> {
 
     public Optional<BankInfo> findByCustomer(Customer customer);
+
+    Optional<BankInfo> findFirstByIbanHash(String ibanHash);
+
+    Optional<BankInfo> findFirstByBicHash(String bicHash);
+
+    boolean existsByIbanHash(String ibanHash);
+
+    boolean existsByIbanHashAndIdNot(String ibanHash, Integer id);
+
+    boolean existsByBicHash(String bicHash);
+
+    boolean existsByBicHashAndIdNot(String bicHash, Integer id);
+
+    /**
+     * Lot d'ids des enregistrements dont les index aveugles ne sont pas encore calculés
+     */
+    @Query("SELECT b.id FROM BankInfo b WHERE (b.ibanHash IS NULL OR b.bicHash IS NULL) AND b.id > :afterId ORDER BY b.id ASC")
+    List<Integer> findIdsWithoutBlindIndex(@Param("afterId") Integer afterId, Pageable pageable);
 }
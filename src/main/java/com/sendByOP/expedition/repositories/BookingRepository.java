@@ -2,15 +2,20 @@ package com.sendByOP.expedition.repositories;
 
 import com.sendByOP.expedition.models.entities.Booking;
 import com.sendByOP.expedition.models.enums.BookingStatus;
+import com.sendByOP.expedition.models.projections.BookingStatusAggregate;
+import com.sendByOP.expedition.models.projections.BookingTransitionRow;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.sql.Date;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -77,6 +82,40 @@ public interface BookingRepository extends JpaRepository<Booking, Integer> {
             @Param("status") BookingStatus status
     );
 
+    // ==========================================
+    // LISTES PAGINÉES (page d'ids puis chargement groupé)
+    // ==========================================
+
+    /**
+     * Page d'ids des réservations d'un client
+     */
+    @Query(value = "SELECT b.id FROM Booking b WHERE b.customer.email = :email ORDER BY b.bookingDate DESC, b.id DESC",
+           countQuery = "SELECT COUNT(b) FROM Booking b WHERE b.customer.email = :email")
+    Page<Integer> findIdsByCustomerEmail(@Param("email") String email, Pageable pageable);
+
+    /**
+     * Page d'ids des réservations faites sur les vols d'un voyageur
+     */
+    @Query(value = "SELECT b.id FROM Booking b WHERE b.flight.customer.email = :travelerEmail " +
+                   "ORDER BY b.bookingDate DESC, b.id DESC",
+           countQuery = "SELECT COUNT(b) FROM Booking b WHERE b.flight.customer.email = :travelerEmail")
+    Page<Integer> findIdsByFlightCustomerEmail(@Param("travelerEmail") String travelerEmail, Pageable pageable);
+
+    /**
+     * Charge des réservations par id avec tout ce qu'affiche la vue liste, sauf les photos :
+     * client, destinataire, vol, voyageur et colis dans la même requête
+     */
+    @EntityGraph(attributePaths = {"customer", "receiver", "flight", "flight.customer", "parcels"})
+    @Query("SELECT b FROM Booking b WHERE b.id IN :ids")
+    List<Booking> findListViewByIdIn(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Initialise les photos des réservations données (déjà chargées dans la transaction)
+     * Requête séparée : deux collections ne peuvent pas être jointes dans la même requête
+     */
+    @Query("SELECT DISTINCT b FROM Booking b LEFT JOIN FETCH b.parcelPhotos WHERE b.id IN :ids")
+    List<Booking> fetchParcelPhotosByIdIn(@Param("ids") Collection<Integer> ids);
+
     /**
      * Récupère toutes les réservations avec pagination (pour admin)
      */
@@ -116,4 +155,105 @@ public interface BookingRepository extends JpaRepository<Booking, Integer> {
            "AND b.bookingDate >= :startDate " +
            "AND (b.status IS NULL OR b.status NOT IN ('CANCELLED_BY_CLIENT', 'CANCELLED_BY_TRAVELER', 'CANCELLED_NO_PAYMENT', 'CANCELLED_BY_ADMIN'))")
     long countBookingsByEmailInPeriod(@Param("email") String email, @Param("startDate") java.util.Date startDate);
+
+    /**
+     * Agrège les réservations par statut sur une période (COUNT et SUM calculés en base)
+     * Utilisé par les statistiques du dashboard admin
+     */
+    @Query("SELECT b.status AS status, COUNT(b) AS bookingCount, COALESCE(SUM(b.totalPrice), 0) AS totalAmount " +
+           "FROM Booking b WHERE b.bookingDate >= :from AND b.bookingDate < :to GROUP BY b.status")
+    List<BookingStatusAggregate> aggregateByStatusBetween(@Param("from") java.util.Date from, @Param("to") java.util.Date to);
+
+    /**
+     * Compte les clients distincts ayant au moins une réservation (expéditeurs)
+     */
+    @Query("SELECT COUNT(DISTINCT b.customer.id) FROM Booking b")
+    long countDistinctCustomers();
+
+    /**
+     * Récupère les réservations les plus récentes (client chargé dans la même requête)
+     */
+    @EntityGraph(attributePaths = "customer")
+    List<Booking> findAllByOrderByCreatedAtDesc(Pageable pageable);
+
+    // ==========================================
+    // TÂCHES PLANIFIÉES (pagination par clé sur l'id)
+    // ==========================================
+
+    /**
+     * Réservations dans l'un des statuts donnés, non modifiées depuis la date limite
+     * Pagination par clé : id > afterId, trié par id, taille fixée par le Pageable
+     * Restreint au shard MOD(id, shardCount) = shardIndex (voir SchedulerLockService)
+     */
+    @Query("SELECT b FROM Booking b WHERE b.status IN :statuses AND b.updatedAt < :deadline " +
+           "AND b.id > :afterId AND MOD(b.id, :shardCount) = :shardIndex ORDER BY b.id ASC")
+    List<Booking> findChunkByStatusInAndUpdatedAtBefore(@Param("statuses") Collection<BookingStatus> statuses,
+                                                        @Param("deadline") java.util.Date deadline,
+                                                        @Param("afterId") Integer afterId,
+                                                        @Param("shardIndex") int shardIndex,
+                                                        @Param("shardCount") int shardCount,
+                                                        Pageable pageable);
+
+    /**
+     * Variante de la requête précédente restreinte aux réservations sans avis
+     */
+    @Query("SELECT b FROM Booking b WHERE b.status IN :statuses AND b.updatedAt < :deadline " +
+           "AND b.id > :afterId AND MOD(b.id, :shardCount) = :shardIndex " +
+           "AND NOT EXISTS (SELECT r.id FROM Review r WHERE r.booking = b) ORDER BY b.id ASC")
+    List<Booking> findChunkWithoutReviewByStatusInAndUpdatedAtBefore(@Param("statuses") Collection<BookingStatus> statuses,
+                                                                     @Param("deadline") java.util.Date deadline,
+                                                                     @Param("afterId") Integer afterId,
+                                                                     @Param("shardIndex") int shardIndex,
+                                                                     @Param("shardCount") int shardCount,
+                                                                     Pageable pageable);
+
+    /**
+     * Lot d'ids de réservations d'un statut donné qui n'ont pas encore de payout
+     */
+    @Query("SELECT b.id FROM Booking b WHERE b.status = :status AND b.id > :afterId " +
+           "AND NOT EXISTS (SELECT p.id FROM Payout p WHERE p.booking = b) ORDER BY b.id ASC")
+    List<Integer> findIdsWithoutPayoutByStatus(@Param("status") BookingStatus status,
+                                               @Param("afterId") Integer afterId,
+                                               Pageable pageable);
+
+    // ==========================================
+    // TRANSITIONS EN MASSE (UPDATE ensembliste)
+    // ==========================================
+
+    /**
+     * Lot de réservations non payées dont la deadline est dépassée (projection, sans charger les entités)
+     */
+    @Query("SELECT b.id AS id, b.bookingDate AS bookingDate, b.totalPrice AS totalPrice FROM Booking b " +
+           "WHERE b.status = :status AND b.paymentDeadline < :now " +
+           "AND MOD(b.id, :shardCount) = :shardIndex ORDER BY b.id ASC")
+    List<BookingTransitionRow> findTransitionRowsWithExpiredDeadline(@Param("status") BookingStatus status,
+                                                                     @Param("now") LocalDateTime now,
+                                                                     @Param("shardIndex") int shardIndex,
+                                                                     @Param("shardCount") int shardCount,
+                                                                     Pageable pageable);
+
+    /**
+     * Annule en une seule requête les réservations données encore dans le statut attendu
+     * La condition sur le statut ignore les réservations payées entre la lecture et l'UPDATE
+     */
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = :to, b.cancelled = 1, b.cancelledAt = :now, b.updatedAt = :updatedAt " +
+           "WHERE b.id IN :ids AND b.status = :from")
+    int bulkCancel(@Param("ids") Collection<Integer> ids,
+                   @Param("from") BookingStatus from,
+                   @Param("to") BookingStatus to,
+                   @Param("now") LocalDateTime now,
+                   @Param("updatedAt") java.util.Date updatedAt);
+
+    /**
+     * Parmi les ids donnés, ceux qui sont dans le statut indiqué
+     */
+    @Query("SELECT b.id FROM Booking b WHERE b.id IN :ids AND b.status = :status")
+    List<Integer> findIdsByIdInAndStatus(@Param("ids") Collection<Integer> ids, @Param("status") BookingStatus status);
+
+    /**
+     * Charge des réservations par id avec leur client (envoi des notifications)
+     */
+    @EntityGraph(attributePaths = "customer")
+    List<Booking> findByIdIn(Collection<Integer> ids);
 }
@@ -3,11 +3,19 @@ package com.sendByOP.expedition.repositories;
 import com.sendByOP.expedition.models.entities.City;
 import com.sendByOP.expedition.models.entities.Country;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CityRepository extends JpaRepository<City, Integer> {
     Optional<City> findByNameAndCountry(String name, Country country);
+
+    /**
+     * Récupère toutes les villes avec leur pays en une seule requête (chargement du référentiel)
+     */
+    @Query("SELECT c FROM City c JOIN FETCH c.country")
+    List<City> findAllWithCountry();
 }
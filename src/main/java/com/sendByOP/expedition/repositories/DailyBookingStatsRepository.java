@@ -0,0 +1,45 @@
+package com.sendByOP.expedition.repositories;
+
+import com.sendByOP.expedition.models.entities.DailyBookingStats;
+import com.sendByOP.expedition.models.enums.BookingStatus;
+import com.sendByOP.expedition.models.projections.BookingStatusAggregate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface DailyBookingStatsRepository extends JpaRepository<DailyBookingStats, Long> {
+
+    /**
+     * Incrémente atomiquement les compteurs d'un jour et d'un statut
+     * Retourne 0 si la ligne n'existe pas encore
+     */
+    @Modifying
+    @Query("UPDATE DailyBookingStats d SET d.bookingCount = d.bookingCount + :countDelta, " +
+           "d.totalAmount = d.totalAmount + :amountDelta, d.updatedAt = :now " +
+           "WHERE d.statDate = :statDate AND d.status = :status")
+    int increment(@Param("statDate") LocalDate statDate,
+                  @Param("status") BookingStatus status,
+                  @Param("countDelta") long countDelta,
+                  @Param("amountDelta") BigDecimal amountDelta,
+                  @Param("now") LocalDateTime now);
+
+    /**
+     * Cumule les agrégats par statut sur une période (bornes incluses)
+     * Coût proportionnel au nombre de jours, pas au nombre de réservations
+     */
+    @Query("SELECT d.status AS status, SUM(d.bookingCount) AS bookingCount, SUM(d.totalAmount) AS totalAmount " +
+           "FROM DailyBookingStats d WHERE d.statDate >= :from AND d.statDate <= :to GROUP BY d.status")
+    List<BookingStatusAggregate> sumByStatusBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Modifying
+    @Query("DELETE FROM DailyBookingStats d WHERE d.statDate = :statDate")
+    void deleteByStatDate(@Param("statDate") LocalDate statDate);
+}
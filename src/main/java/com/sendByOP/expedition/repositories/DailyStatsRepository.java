@@ -0,0 +1,37 @@
+package com.sendByOP.expedition.repositories;
+
+import com.sendByOP.expedition.models.entities.DailyStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface DailyStatsRepository extends JpaRepository<DailyStats, Long> {
+
+    Optional<DailyStats> findByStatDate(LocalDate statDate);
+
+    /**
+     * Incrémente atomiquement les compteurs d'un jour
+     * Retourne 0 si la ligne n'existe pas encore
+     */
+    @Modifying
+    @Query("UPDATE DailyStats d SET d.newUsers = d.newUsers + :usersDelta, " +
+           "d.newFlights = d.newFlights + :flightsDelta, d.updatedAt = :now " +
+           "WHERE d.statDate = :statDate")
+    int increment(@Param("statDate") LocalDate statDate,
+                  @Param("usersDelta") long usersDelta,
+                  @Param("flightsDelta") long flightsDelta,
+                  @Param("now") LocalDateTime now);
+
+    /**
+     * Nombre de nouveaux utilisateurs sur une période (bornes incluses)
+     */
+    @Query("SELECT COALESCE(SUM(d.newUsers), 0) FROM DailyStats d WHERE d.statDate >= :from AND d.statDate <= :to")
+    long sumNewUsersBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
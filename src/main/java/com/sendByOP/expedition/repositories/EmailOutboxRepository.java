@@ -0,0 +1,62 @@
+package com.sendByOP.expedition.repositories;
+
+import com.sendByOP.expedition.models.entities.EmailOutbox;
+import com.sendByOP.expedition.models.enums.EmailOutboxStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    /**
+     * Lot d'emails à envoyer maintenant, dans l'ordre de mise en file
+     */
+    @Query("SELECT e FROM EmailOutbox e WHERE e.status = :status AND e.nextAttemptAt <= :now ORDER BY e.nextAttemptAt ASC, e.id ASC")
+    List<EmailOutbox> findDue(@Param("status") EmailOutboxStatus status,
+                              @Param("now") LocalDateTime now,
+                              Pageable pageable);
+
+    /**
+     * Un email identique a-t-il été mis en file depuis la date donnée (hors abandons)
+     */
+    boolean existsByDedupKeyAndCreatedAtAfterAndStatusNot(String dedupKey, LocalDateTime since, EmailOutboxStatus status);
+
+    long countByStatus(EmailOutboxStatus status);
+
+    /**
+     * Marque en une requête les emails donnés comme envoyés
+     */
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = :status, e.sentAt = :sentAt, e.attempts = e.attempts + 1, " +
+           "e.lastError = NULL WHERE e.id IN :ids")
+    int markSent(@Param("ids") Collection<Long> ids,
+                 @Param("status") EmailOutboxStatus status,
+                 @Param("sentAt") LocalDateTime sentAt);
+
+    /**
+     * Enregistre l'échec d'une tentative (nouvelle tentative planifiée ou abandon)
+     */
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = :status, e.attempts = :attempts, e.nextAttemptAt = :nextAttemptAt, " +
+           "e.lastError = :error WHERE e.id = :id")
+    int markFailed(@Param("id") Long id,
+                   @Param("status") EmailOutboxStatus status,
+                   @Param("attempts") Integer attempts,
+                   @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                   @Param("error") String error);
+
+    /**
+     * Purge des emails envoyés avant la date donnée
+     */
+    @Modifying
+    @Query("DELETE FROM EmailOutbox e WHERE e.status = :status AND e.sentAt < :before")
+    int deleteByStatusAndSentAtBefore(@Param("status") EmailOutboxStatus status, @Param("before") LocalDateTime before);
+}
@@ -2,18 +2,26 @@ package com.sendByOP.expedition.repositories;
 
 import com.sendByOP.expedition.models.entities.Customer;
 import com.sendByOP.expedition.models.entities.Flight;
+import com.sendByOP.expedition.models.enums.FlightStatus;
+import com.sendByOP.expedition.models.projections.AirportFlightCount;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface FlightRepository extends JpaRepository<Flight, Integer> {
+public interface FlightRepository extends JpaRepository<Flight, Integer>, FlightSearchRepository {
 
     public List<Flight> findAllByOrderByDepartureDateDesc();
 
@@ -23,8 +31,36 @@ public interface FlightRepository extends JpaRepository<Flight, Integer> {
 
     public Optional<Flight> findByFlightId(int id);
 
+    /**
+     * Nombre de vols publiés depuis la date donnée, par aéroport de départ (popularité des aéroports)
+     */
+    @Query("SELECT f.departureAirport.airportId AS airportId, COUNT(f) AS flightCount FROM Flight f " +
+           "WHERE f.publicationDate >= :since GROUP BY f.departureAirport.airportId")
+    List<AirportFlightCount> countByDepartureAirportSince(@Param("since") java.util.Date since);
+
+    /**
+     * Nombre de vols publiés depuis la date donnée, par aéroport d'arrivée
+     */
+    @Query("SELECT f.arrivalAirport.airportId AS airportId, COUNT(f) AS flightCount FROM Flight f " +
+           "WHERE f.publicationDate >= :since GROUP BY f.arrivalAirport.airportId")
+    List<AirportFlightCount> countByArrivalAirportSince(@Param("since") java.util.Date since);
+
+    /**
+     * Ids des vols d'un statut de validation (listes mises en cache, voir FlightCacheService)
+     */
+    @Query("SELECT f.flightId FROM Flight f WHERE f.validationStatus = :status ORDER BY f.flightId ASC")
+    List<Integer> findIdsByValidationStatus(@Param("status") int status);
+
+    /**
+     * Charge des vols par id avec leur voyageur (résolution des caches par id)
+     */
+    @EntityGraph(attributePaths = "customer")
+    List<Flight> findByFlightIdIn(Collection<Integer> flightIds);
+
+    @EntityGraph(attributePaths = "customer")
     public List<Flight> findByValidationStatusAndCancelledOrderByDepartureDateDesc(int validationStatus, int cancelled);
 
+    @EntityGraph(attributePaths = "customer")
     @Query("SELECT f FROM Flight f WHERE f.validationStatus = :validationStatus AND f.cancelled = :cancelled AND f.departureDate > CURRENT_TIMESTAMP ORDER BY f.departureDate DESC")
     public Page<Flight> findByValidationStatusAndCancelledAndDepartureDateAfterOrderByDepartureDateDesc(@Param("validationStatus") int validationStatus, @Param("cancelled") int cancelled, Pageable pageable);
 
@@ -48,7 +84,76 @@ public interface FlightRepository extends JpaRepository<Flight, Integer> {
     /**
      * Récupère les vols par statut triés par date de publication décroissante
      */
-    List<Flight> findByStatusOrderByPublicationDateDesc(com.sendByOP.expedition.models.enums.FlightStatus status);
+    List<Flight> findByStatusOrderByPublicationDateDesc(FlightStatus status);
 
-}
+    /**
+     * Compte les voyageurs distincts ayant publié au moins un vol
+     */
+    @Query("SELECT COUNT(DISTINCT f.customer.id) FROM Flight f WHERE f.customer IS NOT NULL")
+    long countDistinctTravelers();
+
+    /**
+     * Récupère les vols les plus récemment créés
+     */
+    List<Flight> findAllByOrderByCreatedAtDesc(Pageable pageable);
+
+    /**
+     * Compte les créations sur un intervalle [start, end[ (réconciliation des agrégats journaliers)
+     */
+    long countByCreatedAtGreaterThanEqualAndCreatedAtLessThan(java.util.Date start, java.util.Date end);
+
+    /**
+     * Ids des vols d'un statut donné dont la date d'arrivée est passée (expiration planifiée)
+     * Lot trié par id, taille fixée par le Pageable, restreint au shard MOD(id, shardCount) = shardIndex
+     */
+    @Query("SELECT f.flightId FROM Flight f WHERE f.status = :status AND f.arrivalDate < :now " +
+           "AND MOD(f.flightId, :shardCount) = :shardIndex ORDER BY f.flightId ASC")
+    List<Integer> findIdsByStatusAndArrivalDateBefore(@Param("status") FlightStatus status,
+                                                      @Param("now") java.util.Date now,
+                                                      @Param("shardIndex") int shardIndex,
+                                                      @Param("shardCount") int shardCount,
+                                                      Pageable pageable);
+
+    /**
+     * Change en une seule requête le statut des vols donnés encore dans le statut attendu
+     */
+    @Modifying
+    @Query("UPDATE Flight f SET f.status = :to, f.updatedAt = :now WHERE f.flightId IN :ids AND f.status = :from")
+    int bulkUpdateStatus(@Param("ids") Collection<Integer> ids,
+                         @Param("from") FlightStatus from,
+                         @Param("to") FlightStatus to,
+                         @Param("now") java.util.Date now);
+
+
+    /**
+     * Réserve des kilos sur le vol si la capacité restante le permet (UPDATE conditionnel atomique)
+     * Retourne 0 si la capacité est insuffisante
+     */
+    @Modifying
+    @Query("UPDATE Flight f SET f.reservedKg = f.reservedKg + :kg " +
+           "WHERE f.flightId = :flightId AND f.reservedKg + :kg <= f.kgCount")
+    int reserveKg(@Param("flightId") Integer flightId, @Param("kg") BigDecimal kg);
+
+    /**
+     * Vol verrouillé jusqu'à la fin de la transaction : les réservations et annulations
+     * concurrentes attendent (recalcul du registre de capacité)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT f FROM Flight f WHERE f.flightId = :flightId")
+    Optional<Flight> findForUpdate(@Param("flightId") Integer flightId);
+
+    /**
+     * Fixe les kilos réservés du vol (recalcul du registre de capacité, vol verrouillé)
+     */
+    @Modifying
+    @Query("UPDATE Flight f SET f.reservedKg = :kg WHERE f.flightId = :flightId")
+    int setReservedKg(@Param("flightId") Integer flightId, @Param("kg") BigDecimal kg);
 
+    /**
+     * Libère des kilos réservés sur le vol (jamais en dessous de zéro)
+     */
+    @Modifying
+    @Query("UPDATE Flight f SET f.reservedKg = CASE WHEN f.reservedKg > :kg THEN f.reservedKg - :kg ELSE 0 END " +
+           "WHERE f.flightId = :flightId")
+    int releaseKg(@Param("flightId") Integer flightId, @Param("kg") BigDecimal kg);
+}
@@ -0,0 +1,23 @@
+package com.sendByOP.expedition.repositories;
+
+import com.sendByOP.expedition.models.dto.FlightSearchCriteria;
+import com.sendByOP.expedition.models.entities.Flight;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Recherche publique de vols (requête construite selon les filtres renseignés)
+ */
+public interface FlightSearchRepository {
+
+    /**
+     * Vols publiés et actifs correspondant aux filtres, triés par (departureDate, id),
+     * situés strictement après la position (afterDate, afterId) lorsqu'elle est fournie
+     *
+     * @param afterDate date de départ du dernier vol de la page précédente (null pour la première page)
+     * @param afterId   id du dernier vol de la page précédente
+     * @param limit     nombre maximal de vols retournés
+     */
+    List<Flight> searchPublicFlights(FlightSearchCriteria criteria, Date afterDate, Integer afterId, int limit);
+}
@@ -0,0 +1,123 @@
+package com.sendByOP.expedition.repositories;
+
+import com.sendByOP.expedition.models.dto.FlightSearchCriteria;
+import com.sendByOP.expedition.models.entities.Flight;
+import com.sendByOP.expedition.models.enums.FlightStatus;
+import com.sendByOP.expedition.reference.ReferenceData;
+import com.sendByOP.expedition.reference.ReferenceDataService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Implémentation Criteria de la recherche publique de vols
+ *
+ * Seuls les filtres renseignés sont ajoutés à la requête, pour que la base puisse
+ * utiliser les index composites (statut / trajet + departure_date, id). La pagination
+ * par position (keyset) évite le OFFSET : le coût d'une page ne dépend pas de sa profondeur.
+ */
+public class FlightSearchRepositoryImpl implements FlightSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ReferenceDataService referenceDataService;
+
+    public FlightSearchRepositoryImpl(ReferenceDataService referenceDataService) {
+        this.referenceDataService = referenceDataService;
+    }
+
+    @Override
+    public List<Flight> searchPublicFlights(FlightSearchCriteria criteria, Date afterDate, Integer afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Flight> query = cb.createQuery(Flight.class);
+        Root<Flight> flight = query.from(Flight.class);
+
+        // Chargement du voyageur dans la même requête ; les lieux sont lus dans le référentiel en mémoire
+        flight.fetch("customer", JoinType.INNER);
+
+        Path<Date> departureDate = flight.get("departureDate");
+        Path<Integer> id = flight.get("flightId");
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(flight.get("status"), FlightStatus.ACTIVE));
+        predicates.add(cb.equal(flight.get("validationStatus"), 1));
+        predicates.add(cb.equal(flight.get("cancelled"), 0));
+        predicates.add(cb.greaterThan(departureDate, new Date()));
+
+        // Filtres ville / pays traduits en ids d'aéroports : la clé étrangère du vol suffit, sans jointure
+        Path<Integer> departureAirportId = flight.get("departureAirport").get("airportId");
+        Path<Integer> arrivalAirportId = flight.get("arrivalAirport").get("airportId");
+        ReferenceData referenceData = referenceDataService.get();
+
+        if (criteria.getDepartureAirportId() != null) {
+            predicates.add(cb.equal(departureAirportId, criteria.getDepartureAirportId()));
+        }
+        if (criteria.getArrivalAirportId() != null) {
+            predicates.add(cb.equal(arrivalAirportId, criteria.getArrivalAirportId()));
+        }
+        if (criteria.getDepartureCityId() != null) {
+            predicates.add(airportIn(cb, departureAirportId, referenceData.getAirportIdsByCity(criteria.getDepartureCityId())));
+        }
+        if (criteria.getArrivalCityId() != null) {
+            predicates.add(airportIn(cb, arrivalAirportId, referenceData.getAirportIdsByCity(criteria.getArrivalCityId())));
+        }
+        if (criteria.getDepartureCountryId() != null) {
+            predicates.add(airportIn(cb, departureAirportId, referenceData.getAirportIdsByCountry(criteria.getDepartureCountryId())));
+        }
+        if (criteria.getArrivalCountryId() != null) {
+            predicates.add(airportIn(cb, arrivalAirportId, referenceData.getAirportIdsByCountry(criteria.getArrivalCountryId())));
+        }
+        if (criteria.getDepartureFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(departureDate, startOfDay(criteria.getDepartureFrom())));
+        }
+        if (criteria.getDepartureTo() != null) {
+            predicates.add(cb.lessThan(departureDate, startOfDay(criteria.getDepartureTo().plusDays(1))));
+        }
+        if (criteria.getMinAvailableKg() != null) {
+            predicates.add(cb.ge(cb.diff(flight.<Number>get("kgCount"), flight.<Number>get("reservedKg")),
+                    criteria.getMinAvailableKg()));
+        }
+        if (criteria.getMaxPricePerKg() != null) {
+            predicates.add(cb.le(flight.<Integer>get("amountPerKg"), criteria.getMaxPricePerKg()));
+        }
+
+        // Position : (departureDate, id) > (afterDate, afterId)
+        if (afterDate != null && afterId != null) {
+            predicates.add(cb.or(
+                    cb.greaterThan(departureDate, afterDate),
+                    cb.and(cb.equal(departureDate, afterDate), cb.greaterThan(id, afterId))));
+        }
+
+        query.select(flight)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.asc(departureDate), cb.asc(id));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Aéroport parmi les ids donnés (aucun vol si la ville ou le pays n'a pas d'aéroport)
+     */
+    private static Predicate airportIn(CriteriaBuilder cb, Path<Integer> airportId, Set<Integer> airportIds) {
+        return airportIds.isEmpty() ? cb.disjunction() : airportId.in(airportIds);
+    }
+
+    private static Date startOfDay(LocalDate day) {
+        return Date.from(day.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+}
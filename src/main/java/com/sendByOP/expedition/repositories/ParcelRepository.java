@@ -2,11 +2,14 @@ package com.sendByOP.expedition.repositories;
 
 import com.sendByOP.expedition.models.entities.Parcel;
 import com.sendByOP.expedition.models.entities.Booking;
+import com.sendByOP.expedition.models.enums.BookingStatus;
+import com.sendByOP.expedition.models.projections.FlightBookedWeight;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -15,4 +18,27 @@ public interface ParcelRepository extends JpaRepository<Parcel, Integer> {
     
     @Query("SELECT SUM(p.weightKg) FROM Parcel p WHERE p.reservation.flight.flightId = :flightId AND p.reservation.paymentStatus = 1")
     Float getTotalWeightByFlightId(@Param("flightId") Integer flightId);
+
+    /**
+     * Poids des colis des réservations données, regroupé par vol
+     */
+    @Query("SELECT p.reservation.flight.flightId AS flightId, SUM(p.weightKg) AS totalWeight FROM Parcel p " +
+           "WHERE p.reservation.id IN :bookingIds GROUP BY p.reservation.flight.flightId")
+    List<FlightBookedWeight> sumWeightByFlightForBookings(@Param("bookingIds") Collection<Integer> bookingIds);
+
+    /**
+     * Vols ayant des colis de réservations actives (hors statuts donnés et réservations annulées)
+     */
+    @Query("SELECT DISTINCT p.reservation.flight.flightId FROM Parcel p WHERE p.reservation.cancelled = 0 " +
+           "AND (p.reservation.status IS NULL OR p.reservation.status NOT IN :releasedStatuses)")
+    List<Integer> findFlightIdsWithActiveParcels(@Param("releasedStatuses") Collection<BookingStatus> releasedStatuses);
+
+    /**
+     * Poids des colis des réservations actives d'un vol (null si aucun)
+     */
+    @Query("SELECT SUM(p.weightKg) FROM Parcel p WHERE p.reservation.flight.flightId = :flightId " +
+           "AND p.reservation.cancelled = 0 " +
+           "AND (p.reservation.status IS NULL OR p.reservation.status NOT IN :releasedStatuses)")
+    Double sumActiveWeightForFlight(@Param("flightId") Integer flightId,
+                                    @Param("releasedStatuses") Collection<BookingStatus> releasedStatuses);
 }
@@ -0,0 +1,63 @@
+package com.sendByOP.expedition.repositories;
+
+import com.sendByOP.expedition.models.entities.PaymentWebhookEvent;
+import com.sendByOP.expedition.models.enums.PaymentMethod;
+import com.sendByOP.expedition.models.enums.WebhookEventStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface PaymentWebhookEventRepository extends JpaRepository<PaymentWebhookEvent, Long> {
+
+    boolean existsByProviderAndEventId(PaymentMethod provider, String eventId);
+
+    /**
+     * Lot de notifications à traiter maintenant, dans l'ordre de réception ; une notification
+     * attend tant qu'une notification antérieure de la même transaction est en attente de
+     * nouvelle tentative
+     */
+    @Query("SELECT e FROM PaymentWebhookEvent e WHERE e.status = :status AND e.nextAttemptAt <= :now " +
+           "AND NOT EXISTS (SELECT p.id FROM PaymentWebhookEvent p WHERE p.transactionReference = e.transactionReference " +
+           "AND p.status = :status AND p.id < e.id AND p.nextAttemptAt > :now) " +
+           "ORDER BY e.id ASC")
+    List<PaymentWebhookEvent> findDue(@Param("status") WebhookEventStatus status,
+                                      @Param("now") LocalDateTime now,
+                                      Pageable pageable);
+
+    long countByStatus(WebhookEventStatus status);
+
+    @Modifying
+    @Query("UPDATE PaymentWebhookEvent e SET e.status = :status, e.processedAt = :processedAt, " +
+           "e.attempts = e.attempts + 1, e.lastError = NULL WHERE e.id = :id")
+    int markProcessed(@Param("id") Long id,
+                      @Param("status") WebhookEventStatus status,
+                      @Param("processedAt") LocalDateTime processedAt);
+
+    /**
+     * Enregistre l'échec d'une tentative (nouvelle tentative planifiée ou abandon)
+     */
+    @Modifying
+    @Query("UPDATE PaymentWebhookEvent e SET e.status = :status, e.attempts = :attempts, " +
+           "e.nextAttemptAt = :nextAttemptAt, e.lastError = :error WHERE e.id = :id")
+    int markFailed(@Param("id") Long id,
+                   @Param("status") WebhookEventStatus status,
+                   @Param("attempts") Integer attempts,
+                   @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                   @Param("error") String error);
+
+    /**
+     * Purge des notifications traitées avant la date donnée (la clé de déduplication
+     * n'est plus nécessaire une fois les renvois du provider terminés)
+     */
+    @Modifying
+    @Query("DELETE FROM PaymentWebhookEvent e WHERE e.status = :status AND e.processedAt < :before")
+    int deleteByStatusAndProcessedAtBefore(@Param("status") WebhookEventStatus status,
+                                           @Param("before") LocalDateTime before);
+}
@@ -0,0 +1,17 @@
+package com.sendByOP.expedition.repositories;
+
+import com.sendByOP.expedition.models.entities.PayoutBatchRun;
+import com.sendByOP.expedition.models.enums.PayoutBatchStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface PayoutBatchRunRepository extends JpaRepository<PayoutBatchRun, Long> {
+
+    /**
+     * Dernière exécution dans le statut donné (RUNNING : exécution interrompue à reprendre)
+     */
+    Optional<PayoutBatchRun> findFirstByStatusOrderByIdDesc(PayoutBatchStatus status);
+}
@@ -0,0 +1,9 @@
+package com.sendByOP.expedition.repositories;
+
+import com.sendByOP.expedition.models.entities.ReEncryptionProgress;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReEncryptionProgressRepository extends JpaRepository<ReEncryptionProgress, String> {
+}
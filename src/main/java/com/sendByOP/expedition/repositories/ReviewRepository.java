@@ -2,7 +2,10 @@ package com.sendByOP.expedition.repositories;
 
 import com.sendByOP.expedition.models.entities.Review;
 import com.sendByOP.expedition.models.entities.Customer;
+import com.sendByOP.expedition.models.projections.TravelerRatingCount;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -21,4 +24,17 @@ public interface ReviewRepository extends JpaRepository<Review, Integer> {
     List<Review> findByTransporterIdAndBookingIsNotNull(Integer transporterId);
     
     List<Review> findByShipperIdAndBookingIsNotNull(Integer shipperId);
+    
+    /**
+     * Voyageurs ayant reçu au moins un avis de réservation (reconstruction des résumés de notes)
+     */
+    @Query("SELECT DISTINCT r.transporter.id FROM Review r WHERE r.booking IS NOT NULL")
+    List<Integer> findReviewedTravelerIds();
+
+    /**
+     * Nombre d'avis de réservation d'un voyageur par note (reconstruction de son résumé)
+     */
+    @Query("SELECT r.transporter.id AS travelerId, r.rating AS rating, COUNT(r) AS reviewCount FROM Review r " +
+           "WHERE r.booking IS NOT NULL AND r.transporter.id = :travelerId GROUP BY r.transporter.id, r.rating")
+    List<TravelerRatingCount> countRatingsOfTraveler(@Param("travelerId") Integer travelerId);
 }
@@ -0,0 +1,47 @@
+package com.sendByOP.expedition.repositories;
+
+import com.sendByOP.expedition.models.entities.SchedulerLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface SchedulerLockRepository extends JpaRepository<SchedulerLock, String> {
+
+    /**
+     * Prend le bail s'il est expiré (UPDATE conditionnel atomique)
+     * Retourne 0 si le verrou est détenu par un autre nœud ou n'existe pas encore
+     */
+    @Modifying
+    @Query("UPDATE SchedulerLock l SET l.lockedUntil = :until, l.lockedAt = :now, l.lockedBy = :owner " +
+           "WHERE l.name = :name AND l.lockedUntil <= :now")
+    int tryAcquire(@Param("name") String name,
+                   @Param("until") LocalDateTime until,
+                   @Param("now") LocalDateTime now,
+                   @Param("owner") String owner);
+
+    /**
+     * Crée le verrou lors de sa première utilisation
+     * Échoue (clé primaire) si un autre nœud l'a créé en même temps
+     */
+    @Modifying
+    @Query(value = "INSERT INTO scheduler_lock (name, locked_until, locked_at, locked_by) " +
+                   "VALUES (:name, :until, :now, :owner)", nativeQuery = true)
+    int insert(@Param("name") String name,
+               @Param("until") LocalDateTime until,
+               @Param("now") LocalDateTime now,
+               @Param("owner") String owner);
+
+    /**
+     * Raccourcit le bail détenu par ce nœud à la fin de la tâche
+     */
+    @Modifying
+    @Query("UPDATE SchedulerLock l SET l.lockedUntil = :until WHERE l.name = :name AND l.lockedBy = :owner")
+    int release(@Param("name") String name,
+                @Param("until") LocalDateTime until,
+                @Param("owner") String owner);
+}
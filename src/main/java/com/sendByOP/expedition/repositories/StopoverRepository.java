@@ -2,9 +2,12 @@ package com.sendByOP.expedition.repositories;
 
 import com.sendByOP.expedition.models.entities.Stopover;
 import com.sendByOP.expedition.models.entities.Flight;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -12,5 +15,10 @@ public interface StopoverRepository extends CrudRepository<Stopover, Integer> {
 
     public List<Stopover> findByFlight(Flight flight);
 
+    /**
+     * Escales de plusieurs vols en une seule requête (aéroports lus dans ReferenceDataService)
+     */
+    @Query("SELECT s FROM Stopover s WHERE s.flight.flightId IN :flightIds ORDER BY s.id ASC")
+    List<Stopover> findByFlightIds(@Param("flightIds") Collection<Integer> flightIds);
 
 }
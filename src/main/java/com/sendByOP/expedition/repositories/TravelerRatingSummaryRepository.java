@@ -0,0 +1,50 @@
+package com.sendByOP.expedition.repositories;
+
+import com.sendByOP.expedition.models.entities.TravelerRatingSummary;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TravelerRatingSummaryRepository extends JpaRepository<TravelerRatingSummary, Integer> {
+
+    /**
+     * Résumé verrouillé jusqu'à la fin de la transaction : les avis enregistrés pendant
+     * la reconstruction attendent pour incrémenter le résumé
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM TravelerRatingSummary s WHERE s.travelerId = :travelerId")
+    Optional<TravelerRatingSummary> findForUpdate(@Param("travelerId") Integer travelerId);
+
+    @Query("SELECT s.travelerId FROM TravelerRatingSummary s")
+    List<Integer> findAllTravelerIds();
+
+    /**
+     * Ajoute un avis au résumé en une seule instruction (pas de lecture-modification-écriture)
+     * Retourne 0 si le résumé du voyageur n'existe pas encore
+     */
+    @Modifying
+    @Query("UPDATE TravelerRatingSummary s SET s.ratingSum = s.ratingSum + :rating, " +
+           "s.reviewCount = s.reviewCount + 1, " +
+           "s.star1Count = s.star1Count + :star1, s.star2Count = s.star2Count + :star2, " +
+           "s.star3Count = s.star3Count + :star3, s.star4Count = s.star4Count + :star4, " +
+           "s.star5Count = s.star5Count + :star5, s.updatedAt = :now " +
+           "WHERE s.travelerId = :travelerId")
+    int addReview(@Param("travelerId") Integer travelerId,
+                  @Param("rating") BigDecimal rating,
+                  @Param("star1") long star1,
+                  @Param("star2") long star2,
+                  @Param("star3") long star3,
+                  @Param("star4") long star4,
+                  @Param("star5") long star5,
+                  @Param("now") LocalDateTime now);
+}
@@ -1,8 +1,11 @@
 package com.sendByOP.expedition.repositories;
 
 import com.sendByOP.expedition.models.entities.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -13,4 +16,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     public Optional<User> findByEmail(String email);
 
+    /**
+     * Récupère les utilisateurs les plus récemment inscrits
+     */
+    List<User> findAllByOrderByCreatedAtDesc(Pageable pageable);
+
+    /**
+     * Compte les créations sur un intervalle [start, end[ (réconciliation des agrégats journaliers)
+     */
+    long countByCreatedAtGreaterThanEqualAndCreatedAtLessThan(Date start, Date end);
+
 }
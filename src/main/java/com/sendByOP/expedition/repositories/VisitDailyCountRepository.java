@@ -0,0 +1,28 @@
+package com.sendByOP.expedition.repositories;
+
+import com.sendByOP.expedition.models.entities.VisitDailyCount;
+import com.sendByOP.expedition.models.projections.VisitDayTotal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface VisitDailyCountRepository extends JpaRepository<VisitDailyCount, Long> {
+
+    /**
+     * Total des pages vues enregistrées
+     */
+    @Query("SELECT COALESCE(SUM(v.views), 0) FROM VisitDailyCount v")
+    long sumViews();
+
+    /**
+     * Pages vues par jour sur une période (toutes pages confondues)
+     */
+    @Query("SELECT v.visitDate AS visitDate, SUM(v.views) AS views FROM VisitDailyCount v " +
+           "WHERE v.visitDate BETWEEN :from AND :to GROUP BY v.visitDate ORDER BY v.visitDate ASC")
+    List<VisitDayTotal> sumViewsByDay(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -0,0 +1,26 @@
+package com.sendByOP.expedition.repositories;
+
+import com.sendByOP.expedition.models.entities.VisitDailyUnique;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface VisitDailyUniqueRepository extends JpaRepository<VisitDailyUnique, LocalDate> {
+
+    /**
+     * Sketch du jour verrouillé jusqu'à la fin de la transaction (fusion par un seul nœud à la fois)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM VisitDailyUnique u WHERE u.visitDate = :day")
+    Optional<VisitDailyUnique> findForUpdate(@Param("day") LocalDate day);
+
+    List<VisitDailyUnique> findByVisitDateBetween(LocalDate from, LocalDate to);
+}
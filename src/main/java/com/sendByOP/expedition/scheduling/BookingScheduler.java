@@ -7,6 +7,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Scheduler pour les tâches automatisées liées aux réservations
  */
@@ -17,6 +20,7 @@ public class BookingScheduler {
 
     private final IBookingService bookingService;
     private final IPayoutService payoutService;
+    private final SchedulerLockService schedulerLockService;
 
     /**
      * Annule automatiquement les réservations non payées dont la deadline est dépassée
@@ -28,7 +32,10 @@ public class BookingScheduler {
         log.info("Starting auto-cancellation job for unpaid bookings");
         
         try {
-            int cancelledCount = bookingService.autoCancelUnpaidBookings();
+            AtomicInteger cancelled = new AtomicInteger();
+            schedulerLockService.runSharded("autoCancelUnpaidBookings", Duration.ofMinutes(9),
+                    shard -> cancelled.addAndGet(bookingService.autoCancelUnpaidBookings(shard)));
+            int cancelledCount = cancelled.get();
             
             if (cancelledCount > 0) {
                 log.warn("Auto-cancelled {} unpaid booking(s) with expired deadline", cancelledCount);
@@ -53,7 +60,13 @@ public class BookingScheduler {
         log.info("Starting auto-payout job for completed bookings");
         
         try {
-            int payoutCount = payoutService.processAutomaticPayouts();
+            AtomicInteger payouts = new AtomicInteger();
+            if (!schedulerLockService.runExclusively("autoPayoutToTravelers", Duration.ofHours(1),
+                    () -> payouts.set(payoutService.processAutomaticPayouts()))) {
+                log.debug("Auto-payout job already running on another node");
+                return;
+            }
+            int payoutCount = payouts.get();
             
             if (payoutCount > 0) {
                 log.info("Processed {} automatic payout(s)", payoutCount);
@@ -0,0 +1,171 @@
+package com.sendByOP.expedition.scheduling;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Traitement d'une file persistée avec nouvelles tentatives (outbox email, webhooks de paiement)
+ *
+ * Un passage lit les éléments dus par lots et les confie à {@link #processBatch}, sous un
+ * verrou distribué : un seul nœud vide la file à la fois. Le verrou est rendu à mi-bail, le
+ * passage suivant reprenant la file ; un appel reçu pendant un passage en relance un à la fin.
+ * Chaque échec est replanifié avec un délai exponentiel jusqu'au nombre maximal de tentatives.
+ * Les sous-classes déclenchent {@link #dispatch()} (événement après commit, polling) et
+ * planifient leur purge.
+ *
+ * @param <T> élément de la file
+ */
+@Slf4j
+public abstract class RetryingQueueDispatcher<T> {
+
+    private static final Duration LOCK_DURATION = Duration.ofMinutes(5);
+    private static final Duration PURGE_LOCK_DURATION = Duration.ofMinutes(30);
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    protected final SchedulerLockService schedulerLockService;
+    protected final TransactionTemplate transactionTemplate;
+    protected final ExecutorService workers;
+
+    private final String lockName;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicBoolean wakeUp = new AtomicBoolean();
+
+    /**
+     * @param lockName nom du verrou distribué, aussi préfixe des threads du pool
+     */
+    protected RetryingQueueDispatcher(String lockName,
+                                      SchedulerLockService schedulerLockService,
+                                      PlatformTransactionManager transactionManager,
+                                      int poolSize,
+                                      int batchSize,
+                                      int maxAttempts,
+                                      Duration initialBackoff,
+                                      Duration maxBackoff) {
+        this.lockName = lockName;
+        this.schedulerLockService = schedulerLockService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.workers = Executors.newFixedThreadPool(poolSize, workerThreadFactory(lockName));
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    /**
+     * Éléments dus (prochaine tentative passée), au plus un lot
+     */
+    protected abstract List<T> findDue(Pageable batch);
+
+    /**
+     * Traite un lot et enregistre l'issue de chaque élément (succès, nouvelle tentative, abandon)
+     */
+    protected abstract void processBatch(List<T> items);
+
+    /**
+     * Vide la file ; un appel reçu pendant un passage en cours relance un passage à la fin de celui-ci
+     */
+    public void dispatch() {
+        wakeUp.set(true);
+        while (wakeUp.get() && running.compareAndSet(false, true)) {
+            try {
+                wakeUp.set(false);
+                schedulerLockService.runExclusively(lockName, LOCK_DURATION, this::dispatchDue);
+            } catch (Exception e) {
+                log.error("Dispatch of {} failed: {}", lockName, e.getMessage(), e);
+            } finally {
+                running.set(false);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    /**
+     * true si la tentative numéro attempts était la dernière autorisée
+     */
+    protected boolean isLastAttempt(int attempts) {
+        return attempts >= maxAttempts;
+    }
+
+    /**
+     * Échéance de la tentative suivante : initialBackoff * 2^(tentatives - 1), plafonné à maxBackoff
+     */
+    protected LocalDateTime nextAttemptAt(LocalDateTime now, int attempts) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return now.plus(delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay);
+    }
+
+    /**
+     * Message d'erreur enregistré avec l'élément (tronqué à la taille de la colonne)
+     */
+    protected static String errorMessage(Exception e) {
+        String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+
+    /**
+     * Purge sous verrou distribué, dans une transaction
+     *
+     * @param purgeLockName nom du verrou de la purge
+     * @param delete        suppression, retourne le nombre de lignes supprimées
+     * @param description   éléments supprimés, pour le journal
+     */
+    protected void purge(String purgeLockName, Supplier<Integer> delete, String description) {
+        schedulerLockService.runExclusively(purgeLockName, PURGE_LOCK_DURATION, () -> {
+            int deleted = transactionTemplate.execute(status -> delete.get());
+            log.info("Purged {} {}", deleted, description);
+        });
+    }
+
+    /**
+     * Traite les éléments dus lot par lot ; rend le verrou avant l'expiration du bail
+     * (le passage suivant reprend la file)
+     */
+    private void dispatchDue() {
+        long deadline = System.currentTimeMillis() + LOCK_DURATION.toMillis() / 2;
+        Pageable batch = PageRequest.of(0, batchSize);
+        List<T> items;
+        do {
+            if (System.currentTimeMillis() > deadline) {
+                wakeUp.set(true);
+                return;
+            }
+            items = findDue(batch);
+            if (items.isEmpty()) {
+                return;
+            }
+            processBatch(items);
+        } while (items.size() == batchSize);
+    }
+
+    private static ThreadFactory workerThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,147 @@
+package com.sendByOP.expedition.scheduling;
+
+import com.sendByOP.expedition.repositories.SchedulerLockRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * Verrous distribués des tâches planifiées, basés sur la table scheduler_lock
+ *
+ * Chaque instance exécute les mêmes @Scheduled ; seule celle qui obtient le bail
+ * exécute réellement la tâche. En mode réparti (app.scheduling.shards > 1), la tâche est
+ * découpée en shards (MOD(id, shards)) verrouillés séparément : chaque nœud prend les
+ * shards libres, ce qui permet de vider un gros volume en parallèle sur plusieurs nœuds.
+ */
+@Slf4j
+@Service
+public class SchedulerLockService {
+
+    /**
+     * Durée minimale du bail : évite qu'un nœud dont l'horloge est légèrement décalée
+     * rejoue la même occurrence d'une tâche courte juste après sa libération
+     */
+    private static final Duration LOCK_AT_LEAST_FOR = Duration.ofSeconds(30);
+
+    private final SchedulerLockRepository schedulerLockRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String owner;
+
+    @Value("${app.scheduling.lock.enabled:true}")
+    private boolean lockEnabled;
+
+    @Value("${app.scheduling.shards:1}")
+    private int shardCount;
+
+    public SchedulerLockService(SchedulerLockRepository schedulerLockRepository,
+                                PlatformTransactionManager transactionManager) {
+        this.schedulerLockRepository = schedulerLockRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.owner = resolveHostName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /**
+     * Exécute la tâche si ce nœud obtient le verrou
+     *
+     * @param lockName      nom du verrou
+     * @param lockAtMostFor durée maximale du bail (libéré automatiquement si le nœud meurt)
+     * @param task          tâche à exécuter
+     * @return true si la tâche a été exécutée par ce nœud
+     */
+    public boolean runExclusively(String lockName, Duration lockAtMostFor, Runnable task) {
+        if (!lockEnabled) {
+            task.run();
+            return true;
+        }
+
+        LocalDateTime lockedAt = LocalDateTime.now();
+        if (!tryAcquire(lockName, lockedAt, lockAtMostFor)) {
+            log.debug("Lock {} held by another node, skipping", lockName);
+            return false;
+        }
+
+        try {
+            task.run();
+            return true;
+        } finally {
+            release(lockName, lockedAt, lockAtMostFor);
+        }
+    }
+
+    /**
+     * Exécute la tâche pour chaque shard dont ce nœud obtient le verrou
+     * Avec app.scheduling.shards = 1, équivaut à runExclusively sur un shard unique.
+     *
+     * @return nombre de shards traités par ce nœud
+     */
+    public int runSharded(String jobName, Duration lockAtMostFor, Consumer<Shard> task) {
+        if (shardCount <= 1) {
+            return runExclusively(jobName, lockAtMostFor, () -> task.accept(Shard.ALL)) ? 1 : 0;
+        }
+
+        // Départ aléatoire : les nœuds ne se disputent pas tous le shard 0 en même temps
+        int start = ThreadLocalRandom.current().nextInt(shardCount);
+        int processed = 0;
+        for (int i = 0; i < shardCount; i++) {
+            Shard shard = new Shard((start + i) % shardCount, shardCount);
+            if (runExclusively(jobName + ":" + shard.getIndex(), lockAtMostFor, () -> task.accept(shard))) {
+                processed++;
+            }
+        }
+        log.debug("Job {}: {} of {} shard(s) processed by {}", jobName, processed, shardCount, owner);
+        return processed;
+    }
+
+    private boolean tryAcquire(String lockName, LocalDateTime now, Duration lockAtMostFor) {
+        LocalDateTime until = now.plus(lockAtMostFor);
+        try {
+            Integer acquired = transactionTemplate.execute(status -> {
+                if (schedulerLockRepository.tryAcquire(lockName, until, now, owner) > 0) {
+                    return 1;
+                }
+                // Première exécution de cette tâche : la ligne n'existe pas encore
+                return schedulerLockRepository.existsById(lockName)
+                        ? 0
+                        : schedulerLockRepository.insert(lockName, until, now, owner);
+            });
+            return acquired != null && acquired > 0;
+        } catch (DataIntegrityViolationException e) {
+            // Un autre nœud a créé le verrou en même temps et le détient
+            return false;
+        }
+    }
+
+    private void release(String lockName, LocalDateTime lockedAt, Duration lockAtMostFor) {
+        Duration atLeast = LOCK_AT_LEAST_FOR.compareTo(lockAtMostFor) < 0 ? LOCK_AT_LEAST_FOR : lockAtMostFor;
+        LocalDateTime minUntil = lockedAt.plus(atLeast);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = now.isAfter(minUntil) ? now : minUntil;
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    schedulerLockRepository.release(lockName, until, owner));
+        } catch (Exception e) {
+            // Le bail expirera de lui-même à lockedAt + lockAtMostFor
+            log.error("Failed to release lock {}: {}", lockName, e.getMessage());
+        }
+    }
+
+    private static String resolveHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "unknown-host";
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.sendByOP.expedition.scheduling;
+
+import lombok.Value;
+
+/**
+ * Portion d'une tâche planifiée répartie entre les nœuds :
+ * une ligne appartient au shard si MOD(id, count) = index
+ */
+@Value
+public class Shard {
+
+    /**
+     * Shard unique couvrant toutes les lignes (mode non réparti)
+     */
+    public static final Shard ALL = new Shard(0, 1);
+
+    int index;
+
+    int count;
+}
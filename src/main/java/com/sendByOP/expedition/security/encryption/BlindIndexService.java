@@ -0,0 +1,68 @@
+package com.sendByOP.expedition.security.encryption;
+
+import com.sendByOP.expedition.utils.HashUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Index aveugles (blind index) des champs chiffrés
+ *
+ * Le chiffrement AES-GCM utilise un IV aléatoire : deux chiffrements d'une même valeur
+ * diffèrent et ne peuvent être ni comparés ni indexés. L'index aveugle est un HMAC-SHA256
+ * déterministe de la valeur normalisée, calculé avec une clé dédiée : il permet les
+ * recherches par égalité et les contraintes d'unicité sans révéler la valeur.
+ *
+ * La clé (app.encryption.blind-index-key) est distincte de la clé de chiffrement et ne change
+ * jamais : la rotation des clés de chiffrement ne recalcule pas les index enregistrés
+ * (iban_hash, bic_hash), qui ne seraient plus retrouvés avec une autre clé.
+ */
+@Slf4j
+@Service
+public class BlindIndexService {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final String KEY_DERIVATION_LABEL = "sendbyop-blind-index-v1";
+
+    private final SecretKeySpec indexKey;
+
+    public BlindIndexService(@Value("${app.encryption.blind-index-key:}") String keyString) {
+        if (keyString == null || keyString.trim().isEmpty()) {
+            throw new IllegalStateException("Blind index key not configured. Please set "
+                    + "app.encryption.blind-index-key (BLIND_INDEX_KEY), distinct from the encryption key.");
+        }
+        // Sous-clé dédiée : la clé configurée n'est jamais utilisée telle quelle pour le HMAC
+        byte[] masterKey = Base64.getDecoder().decode(keyString);
+        this.indexKey = new SecretKeySpec(hmac(new SecretKeySpec(masterKey, HMAC_ALGORITHM),
+                KEY_DERIVATION_LABEL.getBytes(StandardCharsets.UTF_8)), HMAC_ALGORITHM);
+    }
+
+    /**
+     * Calcule l'index aveugle d'une valeur (espaces supprimés, majuscules)
+     * @param value La valeur en clair
+     * @return Le HMAC en hexadécimal (64 caractères), ou null si la valeur est null/vide
+     */
+    public String index(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        String normalized = value.replaceAll("\\s+", "").toUpperCase();
+        return HashUtils.toHex(hmac(indexKey, normalized.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static byte[] hmac(SecretKeySpec key, byte[] data) {
+        try {
+            // Mac n'est pas thread-safe : une instance par appel
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(data);
+        } catch (Exception e) {
+            throw new IllegalStateException("Blind index computation failed", e);
+        }
+    }
+}
@@ -11,11 +11,41 @@ import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
 import java.security.SecureRandom;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Service de chiffrement AES-GCM pour les données sensibles comme les coordonnées bancaires
  * Utilise AES-256-GCM pour un chiffrement sécurisé avec authentification
+ *
+ * Les clés sont décodées une seule fois au démarrage, chaque thread réutilise son propre
+ * Cipher et les IV sont tirés d'un SecureRandom partagé : le coût d'un appel se limite
+ * à l'opération AES elle-même (chaque chargement de BankInfo déchiffre quatre colonnes).
+ *
+ * Format : "<keyId>:" + Base64(IV + données chiffrées). Le préfixe désigne la clé utilisée,
+ * ce qui permet la rotation : les nouvelles valeurs sont chiffrées avec la clé courante
+ * (app.encryption.key-id) et les anciennes restent lisibles tant que leur clé figure dans
+ * app.encryption.previous-keys ("id:cléBase64,id:cléBase64"). Les valeurs sans préfixe,
+ * écrites avant la rotation, sont déchiffrées avec la clé app.encryption.legacy-key-id
+ * (obligatoire dès que previous-keys est renseigné, la clé courante sinon).
+ *
+ * Un nœud d'une version précédente prend une valeur préfixée ou chiffrée avec une clé qu'il ne
+ * connaît pas pour du texte en clair, et la chiffre une seconde fois à la prochaine écriture.
+ * Chaque changement de format ou de clé se déploie donc en deux temps :
+ * <ol>
+ *   <li>Préfixe : déployer cette version avec app.encryption.write-key-id=false (valeur par
+ *   défaut, écritures sans préfixe avec la clé historique), puis passer write-key-id à true
+ *   une fois tous les nœuds à jour.</li>
+ *   <li>Nouvelle clé : l'ajouter d'abord dans app.encryption.previous-keys sur tous les nœuds
+ *   (lisible, pas encore utilisée), puis seulement en faire la clé courante (secret-key et
+ *   key-id, l'ancienne clé passant dans previous-keys).</li>
+ * </ol>
+ * La clé des index aveugles (app.encryption.blind-index-key, BlindIndexService) n'est pas
+ * concernée : elle est distincte et ne doit jamais être changée.
  */
 @Slf4j
 @Service
@@ -26,14 +56,68 @@ public class EncryptionService {
     private static final int GCM_IV_LENGTH = 12; // 96 bits
     private static final int GCM_TAG_LENGTH = 16; // 128 bits
     private static final int KEY_LENGTH = 256; // 256 bits
+    private static final char KEY_ID_SEPARATOR = ':';
 
-    @Value("${app.encryption.secret-key}")
-    private String secretKeyString;
+    private final String currentKeyId;
+    private final SecretKey currentKey;
+    private final boolean writeKeyId;
+    private final SecretKey legacyKey;
+    private final Map<String, SecretKey> keysById;
+
+    private final SecureRandom secureRandom = new SecureRandom();
 
     /**
-     * Chiffre une chaîne de caractères
+     * Cipher réutilisé par thread (Cipher n'est pas thread-safe, Cipher.getInstance est coûteux)
+     */
+    private final ThreadLocal<Cipher> ciphers = ThreadLocal.withInitial(EncryptionService::newCipher);
+
+    public EncryptionService(@Value("${app.encryption.secret-key}") String secretKeyString,
+                             @Value("${app.encryption.key-id:k1}") String keyId,
+                             @Value("${app.encryption.previous-keys:}") String previousKeys,
+                             @Value("${app.encryption.legacy-key-id:}") String legacyKeyId,
+                             @Value("${app.encryption.write-key-id:false}") boolean writeKeyId) {
+        Map<String, SecretKey> keys = new HashMap<>();
+        for (String entry : previousKeys.split(",")) {
+            if (entry.trim().isEmpty()) {
+                continue;
+            }
+            int separator = entry.indexOf(KEY_ID_SEPARATOR);
+            if (separator <= 0) {
+                throw new IllegalStateException("Invalid app.encryption.previous-keys entry, expected id:base64Key");
+            }
+            keys.put(entry.substring(0, separator).trim(), toSecretKey(entry.substring(separator + 1).trim()));
+        }
+
+        boolean hasPreviousKeys = !keys.isEmpty();
+        this.currentKeyId = keyId.trim();
+        this.currentKey = toSecretKey(secretKeyString);
+        keys.put(currentKeyId, currentKey);
+        this.keysById = Map.copyOf(keys);
+
+        // Avec d'anciennes clés, celle des valeurs sans préfixe ne se devine pas
+        if (legacyKeyId.trim().isEmpty()) {
+            if (hasPreviousKeys) {
+                throw new IllegalStateException(
+                        "app.encryption.legacy-key-id must be set when app.encryption.previous-keys is configured");
+            }
+            legacyKeyId = currentKeyId;
+        }
+        this.legacyKey = keysById.get(legacyKeyId.trim());
+        if (legacyKey == null) {
+            throw new IllegalStateException("Unknown app.encryption.legacy-key-id: " + legacyKeyId);
+        }
+        this.writeKeyId = writeKeyId;
+        if (!writeKeyId && legacyKey != currentKey) {
+            log.warn("app.encryption.write-key-id=false: new values are still encrypted with the legacy key {}",
+                    legacyKeyId.trim());
+        }
+    }
+
+    /**
+     * Chiffre une chaîne de caractères avec la clé courante (clé historique, sans préfixe, tant
+     * que app.encryption.write-key-id est désactivé)
      * @param plainText Le texte en clair à chiffrer
-     * @return Le texte chiffré encodé en Base64, ou null si l'entrée est null/vide
+     * @return Le texte chiffré, préfixé par l'identifiant de clé, ou null si l'entrée est null/vide
      */
     public String encrypt(String plainText) {
         if (plainText == null || plainText.trim().isEmpty()) {
@@ -41,23 +125,23 @@ public class EncryptionService {
         }
 
         try {
-            SecretKey secretKey = getSecretKey();
-            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            Cipher cipher = ciphers.get();
 
             // Génération d'un IV aléatoire pour chaque chiffrement
             byte[] iv = new byte[GCM_IV_LENGTH];
-            new SecureRandom().nextBytes(iv);
+            secureRandom.nextBytes(iv);
             GCMParameterSpec parameterSpec = new GCMParameterSpec(GCM_TAG_LENGTH * 8, iv);
 
-            cipher.init(Cipher.ENCRYPT_MODE, secretKey, parameterSpec);
-            byte[] encryptedData = cipher.doFinal(plainText.getBytes(StandardCharsets.UTF_8));
+            cipher.init(Cipher.ENCRYPT_MODE, writeKeyId ? currentKey : legacyKey, parameterSpec);
+            byte[] plainData = plainText.getBytes(StandardCharsets.UTF_8);
 
-            // Concaténer IV + données chiffrées
-            byte[] encryptedWithIv = new byte[GCM_IV_LENGTH + encryptedData.length];
+            // IV + données chiffrées dans un seul tableau, sans copie intermédiaire
+            byte[] encryptedWithIv = new byte[GCM_IV_LENGTH + cipher.getOutputSize(plainData.length)];
             System.arraycopy(iv, 0, encryptedWithIv, 0, GCM_IV_LENGTH);
-            System.arraycopy(encryptedData, 0, encryptedWithIv, GCM_IV_LENGTH, encryptedData.length);
+            cipher.doFinal(plainData, 0, plainData.length, encryptedWithIv, GCM_IV_LENGTH);
 
-            String result = Base64.getEncoder().encodeToString(encryptedWithIv);
+            String encoded = Base64.getEncoder().encodeToString(encryptedWithIv);
+            String result = writeKeyId ? currentKeyId + KEY_ID_SEPARATOR + encoded : encoded;
             log.debug("Successfully encrypted data of length: {}", plainText.length());
             return result;
 
@@ -69,30 +153,80 @@ public class EncryptionService {
 
     /**
      * Déchiffre une chaîne de caractères
-     * @param encryptedText Le texte chiffré encodé en Base64
+     * @param encryptedText Le texte chiffré (avec ou sans préfixe d'identifiant de clé)
      * @return Le texte en clair déchiffré, ou null si l'entrée est null/vide
      */
     public String decrypt(String encryptedText) {
         if (encryptedText == null || encryptedText.trim().isEmpty()) {
             return encryptedText;
         }
+        return decrypt(encryptedText, ciphers.get());
+    }
 
-        try {
-            SecretKey secretKey = getSecretKey();
-            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+    /**
+     * Déchiffre un lot de valeurs (chargements en masse) avec un seul Cipher
+     * Chaque valeur est déchiffrée avec la clé de son préfixe (clé historique sans préfixe)
+     * @param encryptedTexts Les textes chiffrés
+     * @return Les textes en clair, dans le même ordre (null/vide conservés tels quels)
+     */
+    public List<String> decryptAll(Collection<String> encryptedTexts) {
+        Cipher cipher = ciphers.get();
+        List<String> result = new ArrayList<>(encryptedTexts.size());
+        for (String encryptedText : encryptedTexts) {
+            if (encryptedText == null || encryptedText.trim().isEmpty()) {
+                result.add(encryptedText);
+            } else {
+                result.add(decrypt(encryptedText, cipher));
+            }
+        }
+        return result;
+    }
 
-            byte[] encryptedWithIv = Base64.getDecoder().decode(encryptedText);
+    /**
+     * Identifiant de la clé utilisée pour les nouveaux chiffrements
+     */
+    public String getCurrentKeyId() {
+        return currentKeyId;
+    }
 
-            // Extraire l'IV et les données chiffrées
-            byte[] iv = new byte[GCM_IV_LENGTH];
-            byte[] encryptedData = new byte[encryptedWithIv.length - GCM_IV_LENGTH];
-            System.arraycopy(encryptedWithIv, 0, iv, 0, GCM_IV_LENGTH);
-            System.arraycopy(encryptedWithIv, GCM_IV_LENGTH, encryptedData, 0, encryptedData.length);
+    /**
+     * true si les nouvelles valeurs portent le préfixe de la clé courante (app.encryption.write-key-id)
+     */
+    public boolean isWritingKeyId() {
+        return writeKeyId;
+    }
 
-            GCMParameterSpec parameterSpec = new GCMParameterSpec(GCM_TAG_LENGTH * 8, iv);
-            cipher.init(Cipher.DECRYPT_MODE, secretKey, parameterSpec);
+    /**
+     * Identifiant de la clé ayant chiffré une valeur (null si la valeur n'a pas de préfixe)
+     */
+    public String getKeyId(String encryptedText) {
+        if (encryptedText == null) {
+            return null;
+        }
+        int separator = encryptedText.indexOf(KEY_ID_SEPARATOR);
+        return separator > 0 ? encryptedText.substring(0, separator) : null;
+    }
+
+    private String decrypt(String encryptedText, Cipher cipher) {
+        try {
+            SecretKey key = legacyKey;
+            String payload = encryptedText;
+            String keyId = getKeyId(encryptedText);
+            if (keyId != null) {
+                key = keysById.get(keyId);
+                if (key == null) {
+                    throw new IllegalStateException("Unknown encryption key id: " + keyId);
+                }
+                payload = encryptedText.substring(keyId.length() + 1);
+            }
+
+            byte[] encryptedWithIv = Base64.getDecoder().decode(payload);
+
+            // L'IV est lu en place dans le tableau décodé
+            GCMParameterSpec parameterSpec = new GCMParameterSpec(GCM_TAG_LENGTH * 8, encryptedWithIv, 0, GCM_IV_LENGTH);
+            cipher.init(Cipher.DECRYPT_MODE, key, parameterSpec);
 
-            byte[] decryptedData = cipher.doFinal(encryptedData);
+            byte[] decryptedData = cipher.doFinal(encryptedWithIv, GCM_IV_LENGTH, encryptedWithIv.length - GCM_IV_LENGTH);
             String result = new String(decryptedData, StandardCharsets.UTF_8);
             log.debug("Successfully decrypted data");
             return result;
@@ -118,17 +252,25 @@ public class EncryptionService {
         }
     }
 
+    private static Cipher newCipher() {
+        try {
+            return Cipher.getInstance(TRANSFORMATION);
+        } catch (Exception e) {
+            throw new IllegalStateException("Cipher " + TRANSFORMATION + " not available", e);
+        }
+    }
+
     /**
-     * Récupère la clé secrète à partir de la configuration
+     * Décode une clé secrète de la configuration
      * @return La clé secrète
      */
-    private SecretKey getSecretKey() {
-        if (secretKeyString == null || secretKeyString.trim().isEmpty()) {
+    private static SecretKey toSecretKey(String keyString) {
+        if (keyString == null || keyString.trim().isEmpty()) {
             throw new IllegalStateException("Encryption secret key not configured. Please set app.encryption.secret-key property.");
         }
 
         try {
-            byte[] decodedKey = Base64.getDecoder().decode(secretKeyString);
+            byte[] decodedKey = Base64.getDecoder().decode(keyString.trim());
             return new SecretKeySpec(decodedKey, ALGORITHM);
         } catch (Exception e) {
             throw new IllegalStateException("Invalid encryption secret key format", e);
@@ -136,7 +278,7 @@ public class EncryptionService {
     }
 
     /**
-     * Vérifie si une chaîne semble être chiffrée (format Base64 valide)
+     * Vérifie si une chaîne semble être chiffrée (préfixe de clé connu et/ou format Base64 valide)
      * @param text La chaîne à vérifier
      * @return true si la chaîne semble chiffrée
      */
@@ -145,8 +287,17 @@ public class EncryptionService {
             return false;
         }
 
+        String payload = text;
+        String keyId = getKeyId(text);
+        if (keyId != null) {
+            if (!keysById.containsKey(keyId)) {
+                return false;
+            }
+            payload = text.substring(keyId.length() + 1);
+        }
+
         try {
-            byte[] decoded = Base64.getDecoder().decode(text);
+            byte[] decoded = Base64.getDecoder().decode(payload);
             // Vérifier que la longueur est au moins IV + tag minimum
             return decoded.length >= (GCM_IV_LENGTH + GCM_TAG_LENGTH);
         } catch (IllegalArgumentException e) {
@@ -1,6 +1,9 @@
 package com.sendByOP.expedition.security.jwt;
 
+import com.sendByOP.expedition.models.enums.AccountStatus;
 import com.sendByOP.expedition.security.service.UserDetailsServiceImpl;
+import com.sendByOP.expedition.security.service.UserPrinciple;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -25,6 +28,8 @@ public class JwtAuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private JwtPrincipalCache principalCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -32,15 +37,17 @@ public class JwtAuthTokenFilter extends OncePerRequestFilter {
         try {
 
             String jwt = getJwt(request);
-            if (jwt != null && tokenProvider.validateJwtToken(jwt)) {
-                String username = tokenProvider.getUserNameFromJwtToken(jwt);
-
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            Claims claims = jwt != null ? tokenProvider.parseClaims(jwt) : null;
+            if (claims != null) {
+                UserDetails userDetails = principalCache.getOrLoad(claims.getSubject(), claims.getIssuedAt(),
+                        stale -> loadPrincipal(claims, stale));
+                if (userDetails != null) {
+                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                            userDetails, null, userDetails.getAuthorities());
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
             }
         } catch (Exception e) {
             logger.error("Can NOT set user authentication -> Message: {}", e);
@@ -49,6 +56,26 @@ public class JwtAuthTokenFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Principal d'un jeton absent du cache : depuis ses claims si possible, sinon depuis la base
+     * (jeton sans claims ou utilisateur modifié depuis l'émission du jeton)
+     */
+    private UserDetails loadPrincipal(Claims claims, boolean stale) {
+        if (!stale) {
+            UserPrinciple principal = tokenProvider.getPrincipalFromClaims(claims);
+            if (principal != null) {
+                return principal;
+            }
+        }
+
+        UserDetails userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+        if (userDetails instanceof UserPrinciple principle && principle.getStatus() == AccountStatus.BLOCKED) {
+            log.warn("JWT rejected for blocked account {}", claims.getSubject());
+            return null;
+        }
+        return userDetails;
+    }
+
     private String getJwt(HttpServletRequest request) {
         String authHeader = request.getHeader("Authorization");
 
@@ -0,0 +1,138 @@
+package com.sendByOP.expedition.security.jwt;
+
+import com.sendByOP.expedition.models.events.UserSecurityChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache des principals authentifiés par le filtre JWT
+ *
+ * Clé : sujet du jeton + date d'émission, pour qu'un nouveau jeton (nouvelle connexion)
+ * ne réutilise jamais le principal d'un ancien. Les entrées expirent après une courte durée
+ * et le cache est borné en taille.
+ *
+ * Un changement de mot de passe, de rôle ou de statut (UserSecurityChangedEvent) supprime
+ * les entrées du sujet et mémorise la date du changement : les jetons émis avant cette date
+ * sont alors revérifiés en base au lieu d'être crus sur leurs claims. Cette mémoire est
+ * locale à l'instance ; sur les autres instances, l'obsolescence est bornée par la durée
+ * de vie du jeton d'accès.
+ */
+@Slf4j
+@Component
+public class JwtPrincipalCache {
+
+    private static final char KEY_SEPARATOR = '|';
+
+    /**
+     * Charge le principal d'un jeton absent du cache
+     */
+    @FunctionalInterface
+    public interface PrincipalLoader {
+        /**
+         * @param stale true si l'utilisateur a changé depuis l'émission du jeton (relecture en base requise)
+         * @return le principal, ou null si le jeton ne doit pas authentifier la requête
+         */
+        UserDetails load(boolean stale);
+    }
+
+    private final long ttlMillis;
+    private final int maxSize;
+    private final long changeRetentionMillis;
+
+    private final Map<String, CachedPrincipal> principals = new ConcurrentHashMap<>();
+    private final Map<String, Long> changedAt = new ConcurrentHashMap<>();
+
+    public JwtPrincipalCache(@Value("${app.jwt.principal-cache.ttl-seconds:60}") long ttlSeconds,
+                             @Value("${app.jwt.principal-cache.max-size:10000}") int maxSize,
+                             @Value("${app.jwt.expiration}") int jwtExpiration) {
+        this.ttlMillis = ttlSeconds * 1000L;
+        this.maxSize = maxSize;
+        // Au-delà de la durée de vie du jeton d'accès, aucun jeton antérieur au changement n'est encore valide
+        this.changeRetentionMillis = jwtExpiration * 1000L;
+    }
+
+    /**
+     * Retourne le principal en cache pour ce jeton, ou le charge et le met en cache
+     *
+     * @return le principal, ou null si le chargeur n'en a pas fourni
+     */
+    public UserDetails getOrLoad(String subject, Date issuedAt, PrincipalLoader loader) {
+        long now = System.currentTimeMillis();
+        String key = keyOf(subject, issuedAt);
+
+        CachedPrincipal cached = principals.get(key);
+        if (cached != null && cached.expiresAt > now) {
+            return cached.principal;
+        }
+
+        UserDetails principal = loader.load(isChangedSince(subject, issuedAt));
+        if (principal == null || ttlMillis <= 0) {
+            return principal;
+        }
+
+        // Ne pas mettre en cache un principal lu avant un changement concurrent
+        Long changed = changedAt.get(subject);
+        if (changed == null || changed < now) {
+            if (principals.size() >= maxSize) {
+                evictExpired(now);
+            }
+            principals.put(key, new CachedPrincipal(principal, now + ttlMillis));
+        }
+        return principal;
+    }
+
+    /**
+     * Supprime les principals d'un utilisateur et marque ses jetons existants comme à revérifier
+     */
+    public void invalidate(String subject) {
+        if (subject == null) {
+            return;
+        }
+        changedAt.put(subject, System.currentTimeMillis());
+        String prefix = subject + KEY_SEPARATOR;
+        principals.keySet().removeIf(key -> key.startsWith(prefix));
+        log.debug("JWT principal cache invalidated for {}", subject);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserSecurityChanged(UserSecurityChangedEvent event) {
+        invalidate(event.getUsername());
+    }
+
+    private boolean isChangedSince(String subject, Date issuedAt) {
+        Long changed = changedAt.get(subject);
+        // iat est tronqué à la seconde : un jeton émis dans la seconde du changement est revérifié
+        return changed != null && (issuedAt == null || issuedAt.getTime() <= changed);
+    }
+
+    private void evictExpired(long now) {
+        principals.values().removeIf(entry -> entry.expiresAt <= now);
+        changedAt.values().removeIf(changed -> changed + changeRetentionMillis <= now);
+        if (principals.size() >= maxSize) {
+            // Cache saturé de principals encore valides : repartir d'un cache vide
+            principals.clear();
+        }
+    }
+
+    private static String keyOf(String subject, Date issuedAt) {
+        return subject + KEY_SEPARATOR + (issuedAt != null ? issuedAt.getTime() : 0L);
+    }
+
+    private static final class CachedPrincipal {
+        private final UserDetails principal;
+        private final long expiresAt;
+
+        private CachedPrincipal(UserDetails principal, long expiresAt) {
+            this.principal = principal;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
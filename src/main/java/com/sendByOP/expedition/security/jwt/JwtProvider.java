@@ -1,10 +1,16 @@
 package com.sendByOP.expedition.security.jwt;
 
 import com.sendByOP.expedition.security.service.UserPrinciple;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import io.jsonwebtoken.*;
 import org.springframework.beans.factory.annotation.Value;
@@ -14,6 +20,12 @@ import org.springframework.security.core.Authentication;
 @Slf4j
 public class JwtProvider {
 
+    /**
+     * Claims portés par le jeton d'accès : identifiant (email) et rôles de l'utilisateur,
+     * pour authentifier les requêtes sans relire l'utilisateur en base
+     */
+    static final String CLAIM_USER_ID = "uid";
+    static final String CLAIM_ROLES = "roles";
 
     @Value("${app.jwt.secret}")
     private String jwtSecret;
@@ -24,9 +36,29 @@ public class JwtProvider {
     @Value("${app.jwt.refreshExpiration}")
     private int refreshTokenExpiration;
 
+    /**
+     * Parser construit une seule fois (thread-safe) au lieu d'un parser par appel
+     */
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void initParser() {
+        jwtParser = Jwts.parserBuilder().setSigningKey(jwtSecret).build();
+    }
+
     public String generateJwtToken(Authentication authentication) {
         UserPrinciple userPrincipal = (UserPrinciple) authentication.getPrincipal();
-        return generateTokenFromUsername(userPrincipal.getUsername());
+        List<String> roles = userPrincipal.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toList());
+        return Jwts.builder()
+                .setSubject(userPrincipal.getUsername())
+                .claim(CLAIM_USER_ID, userPrincipal.getId())
+                .claim(CLAIM_ROLES, roles)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date((new Date()).getTime() + jwtExpiration * 1000))
+                .signWith(SignatureAlgorithm.HS512, jwtSecret)
+                .compact();
     }
 
     public String generateTokenFromUsername(String username) {
@@ -48,11 +80,15 @@ public class JwtProvider {
                 .compact();
     }
 
-
-    public boolean validateJwtToken(String authToken) {
+    /**
+     * Vérifie la signature et l'expiration du jeton et retourne ses claims
+     * (une seule vérification HS512 par requête)
+     *
+     * @return les claims, ou null si le jeton est invalide
+     */
+    public Claims parseClaims(String authToken) {
         try {
-            Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(authToken);
-            return true;
+            return jwtParser.parseClaimsJws(authToken).getBody();
         } catch (SignatureException e) {
             log.error("Invalid JWT signature -> Message: {} ", e);
         } catch (MalformedJwtException e) {
@@ -65,13 +101,32 @@ public class JwtProvider {
             log.error("JWT claims string is empty -> Message: {}", e);
         }
 
-        return false;
+        return null;
+    }
+
+    public boolean validateJwtToken(String authToken) {
+        return parseClaims(authToken) != null;
     }
 
     public String getUserNameFromJwtToken(String token) {
-        return Jwts.parser()
-                .setSigningKey(jwtSecret)
-                .parseClaimsJws(token)
-                .getBody().getSubject();
+        return jwtParser.parseClaimsJws(token).getBody().getSubject();
+    }
+
+    /**
+     * Reconstruit le principal depuis les claims d'un jeton d'accès
+     *
+     * @return le principal, ou null si le jeton ne porte pas l'identifiant et les rôles
+     *         (jetons de rafraîchissement, jetons émis avant l'ajout des claims)
+     */
+    public UserPrinciple getPrincipalFromClaims(Claims claims) {
+        String userId = claims.get(CLAIM_USER_ID, String.class);
+        Object roles = claims.get(CLAIM_ROLES);
+        if (userId == null || !(roles instanceof Collection<?> roleNames)) {
+            return null;
+        }
+        List<GrantedAuthority> authorities = roleNames.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(String.valueOf(role)))
+                .collect(Collectors.toList());
+        return new UserPrinciple(userId, claims.getSubject(), null, authorities);
     }
 }
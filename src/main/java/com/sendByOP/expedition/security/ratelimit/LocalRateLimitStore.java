@@ -0,0 +1,49 @@
+package com.sendByOP.expedition.security.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sendByOP.expedition.config.RateLimitProperties;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.Refill;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Buckets bucket4j en mémoire (par nœud), bornés en nombre
+ * Un bucket inutilisé pendant la plus longue période des règles est de nouveau plein :
+ * il peut être évincé sans changer le résultat.
+ */
+@Component
+public class LocalRateLimitStore implements RateLimitStore {
+
+    private final Cache<String, Bucket> buckets;
+
+    public LocalRateLimitStore(RateLimitProperties properties) {
+        Duration idle = properties.getRules().stream()
+                .map(RateLimitProperties.Rule::getPeriod)
+                .max(Duration::compareTo)
+                .orElse(Duration.ofHours(1));
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxLocalBuckets())
+                .expireAfterAccess(idle)
+                .build();
+    }
+
+    @Override
+    public RateLimitDecision tryConsume(String key, RateLimitProperties.Rule rule) {
+        Bucket bucket = buckets.get(key, k -> newBucket(rule));
+        ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(1);
+        return new RateLimitDecision(probe.isConsumed(), probe.getRemainingTokens(),
+                probe.isConsumed() ? 0L : TimeUnit.NANOSECONDS.toMillis(probe.getNanosToWaitForRefill()));
+    }
+
+    private static Bucket newBucket(RateLimitProperties.Rule rule) {
+        return Bucket.builder()
+                .addLimit(Bandwidth.classic(rule.getCapacity(), Refill.greedy(rule.getCapacity(), rule.getPeriod())))
+                .build();
+    }
+}
@@ -0,0 +1,35 @@
+package com.sendByOP.expedition.security.ratelimit;
+
+import lombok.Value;
+
+/**
+ * Résultat de la consommation d'un jeton
+ */
+@Value
+public class RateLimitDecision {
+
+    private static final RateLimitDecision UNLIMITED = new RateLimitDecision(true, Long.MAX_VALUE, 0L);
+
+    boolean allowed;
+
+    /**
+     * Jetons restants dans le bucket
+     */
+    long remaining;
+
+    /**
+     * Attente avant qu'un jeton soit disponible (0 si la requête est autorisée)
+     */
+    long retryAfterMillis;
+
+    public static RateLimitDecision unlimited() {
+        return UNLIMITED;
+    }
+
+    /**
+     * Valeur de l'en-tête Retry-After (secondes, arrondi au supérieur)
+     */
+    public long getRetryAfterSeconds() {
+        return Math.max(1, (retryAfterMillis + 999) / 1000);
+    }
+}
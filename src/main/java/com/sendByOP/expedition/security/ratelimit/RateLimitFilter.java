@@ -0,0 +1,102 @@
+package com.sendByOP.expedition.security.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sendByOP.expedition.config.RateLimitProperties;
+import com.sendByOP.expedition.exception.ErrorInfo;
+import com.sendByOP.expedition.reponse.ResponseMessage;
+import com.sendByOP.expedition.utils.RequestUtils;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Limitation de débit des requêtes HTTP selon les règles app.rate-limit.rules
+ *
+ * Placé après JwtAuthTokenFilter pour connaître l'utilisateur (portée USER). Toutes les
+ * règles correspondant à la requête sont appliquées ; si l'une est épuisée, la requête est
+ * rejetée en 429 avec l'en-tête Retry-After.
+ */
+@Component
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+
+    private final RateLimiterService rateLimiterService;
+    private final RateLimitProperties properties;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || HttpMethod.OPTIONS.matches(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        List<RateLimitProperties.Rule> rules = rateLimiterService.matchingRules(request.getMethod(), path);
+        if (rules.isEmpty()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long remaining = Long.MAX_VALUE;
+        RateLimitDecision rejected = null;
+        for (RateLimitProperties.Rule rule : rules) {
+            RateLimitDecision decision = rateLimiterService.tryConsume(rule, key(rule, request, path));
+            remaining = Math.min(remaining, decision.getRemaining());
+            if (!decision.isAllowed()
+                    && (rejected == null || decision.getRetryAfterMillis() > rejected.getRetryAfterMillis())) {
+                rejected = decision;
+            }
+        }
+
+        response.setHeader(REMAINING_HEADER, String.valueOf(remaining));
+        if (rejected != null) {
+            response.setStatus(ErrorInfo.RATE_LIMITED.getHttpStatus().value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(rejected.getRetryAfterSeconds()));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), new ResponseMessage(ErrorInfo.RATE_LIMITED.getMessage()));
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private String key(RateLimitProperties.Rule rule, HttpServletRequest request, String path) {
+        return switch (rule.getScope()) {
+            case ENDPOINT -> request.getMethod() + " " + path;
+            case USER -> userKey(request);
+            case IP -> "ip:" + clientIp(request);
+        };
+    }
+
+    /**
+     * Utilisateur authentifié, ou IP pour les requêtes anonymes
+     */
+    private String userKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        return "ip:" + clientIp(request);
+    }
+
+    private String clientIp(HttpServletRequest request) {
+        return RequestUtils.clientIp(request, properties.isTrustForwardedFor());
+    }
+}
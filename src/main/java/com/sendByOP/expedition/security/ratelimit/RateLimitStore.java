@@ -0,0 +1,14 @@
+package com.sendByOP.expedition.security.ratelimit;
+
+import com.sendByOP.expedition.config.RateLimitProperties;
+
+/**
+ * Stockage des buckets (mémoire locale ou Redis)
+ */
+public interface RateLimitStore {
+
+    /**
+     * Consomme un jeton du bucket de la clé, créé plein à la première utilisation
+     */
+    RateLimitDecision tryConsume(String key, RateLimitProperties.Rule rule);
+}
@@ -0,0 +1,125 @@
+package com.sendByOP.expedition.security.ratelimit;
+
+import com.sendByOP.expedition.config.RateLimitProperties;
+import com.sendByOP.expedition.models.dto.RateLimitStatsDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Application des règles de limitation de débit et compteurs par règle
+ *
+ * Les buckets sont dans Redis si app.rate-limit.redis-enabled=true, sinon en mémoire.
+ * Si Redis ne répond pas, le bucket local du nœud est utilisé pour la requête.
+ */
+@Slf4j
+@Service
+public class RateLimiterService {
+
+    /**
+     * Règle appliquée par le code à l'envoi des codes OTP, par adresse email
+     */
+    public static final String OTP_EMAIL_RULE = "otp-email";
+
+    private final RateLimitProperties properties;
+    private final LocalRateLimitStore localStore;
+    private final RateLimitStore store;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<String, RuleCounters> counters = new ConcurrentHashMap<>();
+
+    public RateLimiterService(RateLimitProperties properties,
+                              LocalRateLimitStore localStore,
+                              Optional<RedisRateLimitStore> redisStore) {
+        this.properties = properties;
+        this.localStore = localStore;
+        this.store = redisStore.<RateLimitStore>map(redis -> redis).orElse(localStore);
+        log.info("Rate limiting {} with {} rule(s), {} buckets", properties.isEnabled() ? "enabled" : "disabled",
+                properties.getRules().size(), redisStore.isPresent() ? "Redis" : "in-memory");
+    }
+
+    /**
+     * Règles dont un motif correspond à la requête
+     */
+    public List<RateLimitProperties.Rule> matchingRules(String method, String path) {
+        List<RateLimitProperties.Rule> rules = new ArrayList<>();
+        for (RateLimitProperties.Rule rule : properties.getRules()) {
+            boolean methodMatches = rule.getMethods().isEmpty()
+                    || rule.getMethods().stream().anyMatch(method::equalsIgnoreCase);
+            if (methodMatches && rule.getPatterns().stream().anyMatch(pattern -> pathMatcher.match(pattern, path))) {
+                rules.add(rule);
+            }
+        }
+        return rules;
+    }
+
+    /**
+     * Consomme un jeton de la règle nommée pour la clé donnée (email, téléphone...)
+     * Toujours autorisé si la limitation est désactivée ou si la règle n'est pas configurée
+     */
+    public RateLimitDecision tryConsume(String ruleName, String key) {
+        if (!properties.isEnabled()) {
+            return RateLimitDecision.unlimited();
+        }
+        return properties.getRules().stream()
+                .filter(rule -> rule.getName().equals(ruleName))
+                .findFirst()
+                .map(rule -> tryConsume(rule, key))
+                .orElse(RateLimitDecision.unlimited());
+    }
+
+    /**
+     * Consomme un jeton du bucket (règle, clé)
+     */
+    public RateLimitDecision tryConsume(RateLimitProperties.Rule rule, String key) {
+        String bucketKey = rule.getName() + ":" + key;
+        RateLimitDecision decision;
+        try {
+            decision = store.tryConsume(bucketKey, rule);
+        } catch (RuntimeException e) {
+            log.warn("Rate limit store unavailable, using local bucket for {}: {}", bucketKey, e.getMessage());
+            decision = localStore.tryConsume(bucketKey, rule);
+        }
+
+        RuleCounters ruleCounters = counters.computeIfAbsent(rule.getName(), name -> new RuleCounters());
+        if (decision.isAllowed()) {
+            ruleCounters.allowed.increment();
+        } else {
+            ruleCounters.rejected.increment();
+            log.debug("Rate limit {} exceeded for {} (retry after {} ms)", rule.getName(), key,
+                    decision.getRetryAfterMillis());
+        }
+        return decision;
+    }
+
+    /**
+     * Requêtes autorisées et rejetées par règle depuis le démarrage du nœud
+     */
+    public List<RateLimitStatsDto> getStats() {
+        Map<String, RateLimitStatsDto> stats = new LinkedHashMap<>();
+        for (RateLimitProperties.Rule rule : properties.getRules()) {
+            RuleCounters ruleCounters = counters.getOrDefault(rule.getName(), new RuleCounters());
+            stats.put(rule.getName(), RateLimitStatsDto.builder()
+                    .rule(rule.getName())
+                    .scope(rule.getScope().name())
+                    .capacity(rule.getCapacity())
+                    .periodSeconds(rule.getPeriod().getSeconds())
+                    .allowed(ruleCounters.allowed.sum())
+                    .rejected(ruleCounters.rejected.sum())
+                    .build());
+        }
+        return new ArrayList<>(stats.values());
+    }
+
+    private static class RuleCounters {
+        private final LongAdder allowed = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+    }
+}
@@ -0,0 +1,66 @@
+package com.sendByOP.expedition.security.ratelimit;
+
+import com.sendByOP.expedition.config.RateLimitProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Buckets partagés entre les nœuds dans Redis
+ *
+ * Même algorithme que le store local (remplissage continu de capacity jetons par période) :
+ * un script Lua lit le bucket, le remplit selon le temps écoulé et consomme un jeton en une
+ * seule opération atomique. La clé expire quand le bucket serait de nouveau plein.
+ */
+@Component
+@ConditionalOnProperty(name = "app.rate-limit.redis-enabled", havingValue = "true")
+public class RedisRateLimitStore implements RateLimitStore {
+
+    private static final String KEY_PREFIX = "rate-limit:";
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> TOKEN_BUCKET = new DefaultRedisScript<>(
+            "local capacity = tonumber(ARGV[1])\n" +
+            "local period = tonumber(ARGV[2])\n" +
+            "local now = tonumber(ARGV[3])\n" +
+            "local state = redis.call('HMGET', KEYS[1], 'tokens', 'ts')\n" +
+            "local tokens = tonumber(state[1]) or capacity\n" +
+            "local ts = tonumber(state[2]) or now\n" +
+            "tokens = math.min(capacity, tokens + math.max(0, now - ts) * capacity / period)\n" +
+            "local allowed = 0\n" +
+            "local wait = 0\n" +
+            "if tokens >= 1 then\n" +
+            "  tokens = tokens - 1\n" +
+            "  allowed = 1\n" +
+            "else\n" +
+            "  wait = math.ceil((1 - tokens) * period / capacity)\n" +
+            "end\n" +
+            "redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', tostring(now))\n" +
+            "redis.call('PEXPIRE', KEYS[1], period)\n" +
+            "return {allowed, math.floor(tokens), wait}\n",
+            List.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisRateLimitStore(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public RateLimitDecision tryConsume(String key, RateLimitProperties.Rule rule) {
+        List<?> result = redisTemplate.execute(TOKEN_BUCKET, List.of(KEY_PREFIX + key),
+                String.valueOf(rule.getCapacity()),
+                String.valueOf(rule.getPeriod().toMillis()),
+                String.valueOf(System.currentTimeMillis()));
+        if (result == null || result.size() < 3) {
+            throw new IllegalStateException("Unexpected rate limit script result: " + result);
+        }
+        return new RateLimitDecision(((Number) result.get(0)).longValue() == 1,
+                ((Number) result.get(1)).longValue(),
+                ((Number) result.get(2)).longValue());
+    }
+}
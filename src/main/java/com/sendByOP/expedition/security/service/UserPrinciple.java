@@ -3,6 +3,7 @@ package com.sendByOP.expedition.security.service;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.sendByOP.expedition.models.entities.Role;
 import com.sendByOP.expedition.models.entities.User;
+import com.sendByOP.expedition.models.enums.AccountStatus;
 import lombok.Data;
 import lombok.Getter;
 import org.springframework.security.core.GrantedAuthority;
@@ -23,6 +24,12 @@ public class UserPrinciple implements UserDetails {
 
     private Collection<GrantedAuthority> authorities;
 
+    /**
+     * Statut du compte (null pour un principal reconstruit depuis les claims du jeton)
+     */
+    @JsonIgnore
+    private AccountStatus status;
+
     public UserPrinciple(String id, String name, String password, Collection<GrantedAuthority> authorities) {
         this.id = id;
         this.username = name;
@@ -39,12 +46,14 @@ public class UserPrinciple implements UserDetails {
                 .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
                 .collect(Collectors.toList());
 
-        return new UserPrinciple(
+        UserPrinciple principle = new UserPrinciple(
                 user.getEmail(),
                 user.getUsername(),
                 user.getPassword(),
                 authorities
         );
+        principle.setStatus(user.getStatus());
+        return principle;
     }
 
     @Override
@@ -4,16 +4,17 @@ import com.sendByOP.expedition.exception.ErrorInfo;
 import com.sendByOP.expedition.exception.SendByOpException;
 import com.sendByOP.expedition.models.entities.BankInfo;
 import com.sendByOP.expedition.repositories.BankAccountRepository;
+import com.sendByOP.expedition.security.encryption.BlindIndexService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
 import java.util.Optional;
 
 /**
  * Service de validation pour les informations bancaires
- * Gère l'unicité des champs chiffrés (IBAN, BIC) au niveau applicatif
+ * Gère l'unicité des champs chiffrés (IBAN, BIC) via leurs index aveugles (HMAC) :
+ * une requête indexée au lieu de déchiffrer tous les comptes
  */
 @Slf4j
 @Service
@@ -21,6 +22,7 @@ import java.util.Optional;
 public class BankInfoValidationService {
 
     private final BankAccountRepository bankAccountRepository;
+    private final BlindIndexService blindIndexService;
 
     /**
      * Valide l'unicité de l'IBAN
@@ -34,29 +36,17 @@ public class BankInfoValidationService {
         }
 
         log.debug("Validation de l'unicité de l'IBAN");
-        
-        List<BankInfo> allBankInfos = bankAccountRepository.findAll();
-        
-        for (BankInfo bankInfo : allBankInfos) {
-            // Exclure l'enregistrement actuel lors des mises à jour
-            if (excludeId != null && bankInfo.getId().equals(excludeId)) {
-                continue;
-            }
-            
-            try {
-                String existingIban = bankInfo.getIban();
-                if (existingIban != null && iban.equals(existingIban)) {
-                    log.warn("IBAN déjà existant détecté");
-                    throw new SendByOpException(ErrorInfo.RESOURCE_ALREADY_EXISTS, 
-                        "Cet IBAN est déjà enregistré dans le système");
-                }
-            } catch (Exception e) {
-                // Erreur de déchiffrement - continuer avec les autres enregistrements
-                log.warn("Erreur lors du déchiffrement de l'IBAN pour l'ID {}: {}", 
-                    bankInfo.getId(), e.getMessage());
-            }
+
+        String ibanHash = blindIndexService.index(iban);
+        boolean exists = excludeId != null
+                ? bankAccountRepository.existsByIbanHashAndIdNot(ibanHash, excludeId)
+                : bankAccountRepository.existsByIbanHash(ibanHash);
+        if (exists) {
+            log.warn("IBAN déjà existant détecté");
+            throw new SendByOpException(ErrorInfo.RESOURCE_ALREADY_EXISTS,
+                "Cet IBAN est déjà enregistré dans le système");
         }
-        
+
         log.debug("Validation de l'unicité de l'IBAN réussie");
     }
 
@@ -72,29 +62,17 @@ public class BankInfoValidationService {
         }
 
         log.debug("Validation de l'unicité du BIC");
-        
-        List<BankInfo> allBankInfos = bankAccountRepository.findAll();
-        
-        for (BankInfo bankInfo : allBankInfos) {
-            // Exclure l'enregistrement actuel lors des mises à jour
-            if (excludeId != null && bankInfo.getId().equals(excludeId)) {
-                continue;
-            }
-            
-            try {
-                String existingBic = bankInfo.getBic();
-                if (existingBic != null && bic.equals(existingBic)) {
-                    log.warn("BIC déjà existant détecté");
-                    throw new SendByOpException(ErrorInfo.RESOURCE_ALREADY_EXISTS, 
-                        "Ce BIC est déjà enregistré dans le système");
-                }
-            } catch (Exception e) {
-                // Erreur de déchiffrement - continuer avec les autres enregistrements
-                log.warn("Erreur lors du déchiffrement du BIC pour l'ID {}: {}", 
-                    bankInfo.getId(), e.getMessage());
-            }
+
+        String bicHash = blindIndexService.index(bic);
+        boolean exists = excludeId != null
+                ? bankAccountRepository.existsByBicHashAndIdNot(bicHash, excludeId)
+                : bankAccountRepository.existsByBicHash(bicHash);
+        if (exists) {
+            log.warn("BIC déjà existant détecté");
+            throw new SendByOpException(ErrorInfo.RESOURCE_ALREADY_EXISTS,
+                "Ce BIC est déjà enregistré dans le système");
         }
-        
+
         log.debug("Validation de l'unicité du BIC réussie");
     }
 
@@ -119,24 +97,7 @@ public class BankInfoValidationService {
         }
 
         log.debug("Recherche d'information bancaire par IBAN");
-        
-        List<BankInfo> allBankInfos = bankAccountRepository.findAll();
-        
-        for (BankInfo bankInfo : allBankInfos) {
-            try {
-                String existingIban = bankInfo.getIban();
-                if (existingIban != null && iban.equals(existingIban)) {
-                    log.debug("Information bancaire trouvée pour l'IBAN");
-                    return Optional.of(bankInfo);
-                }
-            } catch (Exception e) {
-                log.warn("Erreur lors du déchiffrement de l'IBAN pour l'ID {}: {}", 
-                    bankInfo.getId(), e.getMessage());
-            }
-        }
-        
-        log.debug("Aucune information bancaire trouvée pour l'IBAN");
-        return Optional.empty();
+        return bankAccountRepository.findFirstByIbanHash(blindIndexService.index(iban));
     }
 
     /**
@@ -150,24 +111,7 @@ public class BankInfoValidationService {
         }
 
         log.debug("Recherche d'information bancaire par BIC");
-        
-        List<BankInfo> allBankInfos = bankAccountRepository.findAll();
-        
-        for (BankInfo bankInfo : allBankInfos) {
-            try {
-                String existingBic = bankInfo.getBic();
-                if (existingBic != null && bic.equals(existingBic)) {
-                    log.debug("Information bancaire trouvée pour le BIC");
-                    return Optional.of(bankInfo);
-                }
-            } catch (Exception e) {
-                log.warn("Erreur lors du déchiffrement du BIC pour l'ID {}: {}", 
-                    bankInfo.getId(), e.getMessage());
-            }
-        }
-        
-        log.debug("Aucune information bancaire trouvée pour le BIC");
-        return Optional.empty();
+        return bankAccountRepository.findFirstByBicHash(blindIndexService.index(bic));
     }
 
     /**
@@ -2,6 +2,7 @@ package com.sendByOP.expedition.services;
 
 import com.sendByOP.expedition.models.entities.User;
 import com.sendByOP.expedition.repositories.UserRepository;
+import com.sendByOP.expedition.security.ratelimit.RateLimiterService;
 import com.sendByOP.expedition.services.impl.SendMailService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -20,6 +21,7 @@ public class OtpService {
     
     private final UserRepository userRepository;
     private final SendMailService emailService;
+    private final RateLimiterService rateLimiterService;
     
     private static final int OTP_LENGTH = 6;
     private static final int OTP_VALIDITY_MINUTES = 10;
@@ -45,6 +47,12 @@ public class OtpService {
             User user = userRepository.findByEmail(email)
                     .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé"));
             
+            // Le code déjà envoyé reste valable : pas de nouvel envoi au-delà de la limite
+            if (!rateLimiterService.tryConsume(RateLimiterService.OTP_EMAIL_RULE, email).isAllowed()) {
+                log.warn("OTP non renvoyé à {} : limite d'envoi atteinte", email);
+                return false;
+            }
+            
             String otpCode = generateOtpCode();
             
             // Stocker le code OTP et la date d'envoi
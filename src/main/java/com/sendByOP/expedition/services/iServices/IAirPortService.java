@@ -9,4 +9,5 @@ public interface IAirPortService {
     public AirportDto saveAeroPort(AirportDto aeroport) throws SendByOpException;
     public List<AirportDto> getAllAirport();
     public AirportDto getAirport(int id) throws SendByOpException;
+    public List<AirportDto> searchAirports(String query, int limit);
 }
@@ -5,6 +5,7 @@ import com.sendByOP.expedition.models.dto.BookingResponseDto;
 import com.sendByOP.expedition.models.dto.CreateBookingRequest;
 import com.sendByOP.expedition.models.dto.CustomerBookingDto;
 import com.sendByOP.expedition.models.dto.PaymentRequest;
+import com.sendByOP.expedition.scheduling.Shard;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -134,9 +135,10 @@ public interface IBookingService {
      * 
      * Cette méthode est appelée par un job cron (@Scheduled)
      * 
+     * @param shard Sous-ensemble des réservations à traiter (Shard.ALL pour toutes)
      * @return Nombre de réservations annulées
      */
-    int autoCancelUnpaidBookings();
+    int autoCancelUnpaidBookings(Shard shard);
     
     /**
      * Marque une réservation comme livrée (action du voyageur)
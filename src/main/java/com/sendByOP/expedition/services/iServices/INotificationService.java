@@ -2,6 +2,8 @@ package com.sendByOP.expedition.services.iServices;
 
 import com.sendByOP.expedition.models.entities.Booking;
 
+import java.util.List;
+
 /**
  * Service de notification pour l'envoi d'emails aux clients et voyageurs
  */
@@ -44,6 +46,15 @@ public interface INotificationService {
      */
     void sendCancellationNotice(Booking booking, String reason);
     
+    /**
+     * Envoie, de manière asynchrone, une notification d'annulation pour chaque réservation
+     * (annulations en masse faites par UPDATE ensembliste)
+     *
+     * @param bookingIds Ids des réservations annulées
+     * @param reason Raison de l'annulation
+     */
+    void sendCancellationNotices(List<Integer> bookingIds, String reason);
+    
     /**
      * Envoie une confirmation de récupération au client et voyageur
      *
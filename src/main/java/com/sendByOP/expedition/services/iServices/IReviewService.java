@@ -3,6 +3,7 @@ package com.sendByOP.expedition.services.iServices;
 import com.sendByOP.expedition.exception.SendByOpException;
 import com.sendByOP.expedition.models.dto.ReviewDto;
 import com.sendByOP.expedition.models.dto.CustomerDto;
+import com.sendByOP.expedition.models.dto.TravelerRatingSummaryDto;
 
 import java.util.List;
 
@@ -15,6 +16,7 @@ public interface IReviewService {
     // Nouvelles méthodes pour les avis de réservation
     ReviewDto saveBookingReview(ReviewDto reviewDto) throws SendByOpException;
     List<ReviewDto> getTravelerReviews(Integer travelerId);
+    TravelerRatingSummaryDto getTravelerRatingSummary(Integer travelerId);
     List<ReviewDto> getCustomerGivenReviews(Integer customerId);
     ReviewDto respondToReview(Integer reviewId, String responseText, Integer travelerId) throws SendByOpException;
 }
\ No newline at end of file
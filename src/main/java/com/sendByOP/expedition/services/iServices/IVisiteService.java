@@ -1,8 +1,29 @@
 package com.sendByOP.expedition.services.iServices;
 
-import com.sendByOP.expedition.models.entities.Visite;
+import com.sendByOP.expedition.models.dto.VisitStatsDto;
+
+import java.time.LocalDate;
+import java.util.List;
 
 public interface IVisiteService {
-    Visite addVisitor(Visite visite);
-    int getVisitorCount();
-}
\ No newline at end of file
+
+    /**
+     * Compte une page vue (page et identifiant anonyme du visiteur : IP + user agent)
+     */
+    void recordVisit(String page, String visitorKey);
+
+    /**
+     * Total des pages vues
+     */
+    long getVisitorCount();
+
+    /**
+     * Visiteurs uniques estimés du jour
+     */
+    long getUniqueVisitorCountToday();
+
+    /**
+     * Pages vues et visiteurs uniques estimés par jour sur une période
+     */
+    List<VisitStatsDto> getDailyStats(LocalDate from, LocalDate to);
+}
@@ -4,6 +4,8 @@ package com.sendByOP.expedition.services.iServices;
 import com.sendByOP.expedition.exception.SendByOpException;
 import com.sendByOP.expedition.models.dto.CustomerDto;
 import com.sendByOP.expedition.models.dto.FlightDto;
+import com.sendByOP.expedition.models.dto.FlightSearchCriteria;
+import com.sendByOP.expedition.models.dto.FlightSearchResultDto;
 import com.sendByOP.expedition.models.dto.PublicFlightDto;
 import com.sendByOP.expedition.models.dto.VolEscaleDto;
 import org.springframework.data.domain.Page;
@@ -39,4 +41,6 @@ public interface IVolService {
     Page<PublicFlightDto> getPublicValidAndActiveFlights(Pageable pageable);
     
     PublicFlightDto getPublicFlightById(int id);
+
+    FlightSearchResultDto searchPublicFlights(FlightSearchCriteria criteria) throws SendByOpException;
 }
@@ -5,14 +5,17 @@ import com.sendByOP.expedition.exception.SendByOpException;
 import com.sendByOP.expedition.mappers.AirportMapper;
 import com.sendByOP.expedition.models.dto.AirportDto;
 import com.sendByOP.expedition.models.entities.Airport;
+import com.sendByOP.expedition.models.events.ReferenceDataChangedEvent;
+import com.sendByOP.expedition.reference.AirportRef;
+import com.sendByOP.expedition.reference.AirportSearchService;
+import com.sendByOP.expedition.reference.ReferenceDataService;
 import com.sendByOP.expedition.repositories.AirPortRepository;
 import com.sendByOP.expedition.services.iServices.IAirPortService;
 import com.sendByOP.expedition.utils.CHeckNull;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -24,58 +27,62 @@ import java.util.stream.Collectors;
 @Slf4j
 public class AirportService implements IAirPortService {
 
+    private static final int MAX_SEARCH_RESULTS = 20;
+
     private final AirPortRepository airportRepository;
     private final AirportMapper airportMapper;
+    private final ReferenceDataService referenceDataService;
+    private final AirportSearchService airportSearchService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
-    @CacheEvict(value = {"airports:all", "airports"}, allEntries = true)
     public AirportDto saveAeroPort(AirportDto airportDto) throws SendByOpException {
-        log.debug("Saving airport and invalidating cache");
+        log.debug("Saving airport, reference data reloaded after commit");
         CHeckNull.checkIntitule(airportDto.getName());
         Airport airportEntity = airportMapper.toEntity(airportDto);
         Airport savedAirport = airportRepository.save(airportEntity);
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent("airport"));
         return airportMapper.toDto(savedAirport);
     }
 
+    /**
+     * Aéroports triés par nom, lus dans le référentiel en mémoire
+     */
     @Override
-    @Cacheable(value = "airports:all")
     public List<AirportDto> getAllAirport() {
-        log.info("Fetching all airports from database (cache miss)");
-        // Utiliser findAllWithCityAndCountry pour charger toutes les relations en une seule requête
-        // et éviter les problèmes de lazy loading qui causent des connection leaks
-        List<Airport> airportEntities = airportRepository.findAllWithCityAndCountry();
-        log.info("Airport number {}", airportEntities.size());
-
-        return airportEntities.stream()
-                .map(airport -> {
-                    // Conversion de base
-                    AirportDto dto = airportMapper.toDto(airport);
-                    // Remplissage du nom de la ville (déjà chargé via fetch join)
-                    if (airport.getCity() != null) {
-                        dto.setCity(airport.getCity().getName());
-                        // Remplissage du nom du pays (déjà chargé via fetch join)
-                        if (airport.getCity().getCountry() != null) {
-                            dto.setCountry(airport.getCity().getCountry().getName());
-                        }
-                    }
-                    return dto;
-                })
+        return referenceDataService.get().getAirports().stream()
+                .map(AirportService::toDto)
                 .collect(Collectors.toList());
     }
 
     @Override
-    @Cacheable(value = "airports", key = "#id")
     public AirportDto getAirport(int id) throws SendByOpException {
-        log.debug("Fetching airport {} from database (cache miss)", id);
-        Airport airport = airportRepository.findById(id)
-                .orElseThrow(() -> new SendByOpException(ErrorInfo.RESOURCE_NOT_FOUND));
-        AirportDto dto = airportMapper.toDto(airport);
-        if (airport.getCity() != null) {
-            dto.setCity(airport.getCity().getName());
-            if (airport.getCity().getCountry() != null) {
-                dto.setCountry(airport.getCity().getCountry().getName());
-            }
+        AirportRef airport = referenceDataService.getAirport(id);
+        if (airport == null) {
+            throw new SendByOpException(ErrorInfo.RESOURCE_NOT_FOUND);
         }
-        return dto;
+        return toDto(airport);
+    }
+
+    /**
+     * Autocomplétion : préfixe du code IATA, du nom de l'aéroport ou de la ville
+     */
+    @Override
+    public List<AirportDto> searchAirports(String query, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS));
+        return airportSearchService.search(query, size).stream()
+                .map(AirportService::toDto)
+                .collect(Collectors.toList());
+    }
+
+    private static AirportDto toDto(AirportRef airport) {
+        return AirportDto.builder()
+                .airportId(airport.getAirportId())
+                .name(airport.getName())
+                .iataCode(airport.getIataCode())
+                .cityId(airport.getCityId())
+                .city(airport.getCityName())
+                .country(airport.getCountryName())
+                .build();
     }
 }
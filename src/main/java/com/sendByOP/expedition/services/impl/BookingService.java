@@ -5,18 +5,26 @@ import com.sendByOP.expedition.exception.SendByOpException;
 import com.sendByOP.expedition.models.dto.*;
 import com.sendByOP.expedition.models.entities.*;
 import com.sendByOP.expedition.models.enums.BookingStatus;
+import com.sendByOP.expedition.models.projections.BookingTransitionRow;
 import com.sendByOP.expedition.repositories.*;
+import com.sendByOP.expedition.scheduling.Shard;
 import com.sendByOP.expedition.services.FileStorageService;
 import com.sendByOP.expedition.services.iServices.IBookingService;
+import com.sendByOP.expedition.services.iServices.INotificationService;
 import com.sendByOP.expedition.services.iServices.IPlatformSettingsService;
 import com.sendByOP.expedition.services.iServices.IReceiverService;
+import com.sendByOP.expedition.reference.AirportRef;
+import com.sendByOP.expedition.reference.ReferenceDataService;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -45,6 +53,19 @@ public class BookingService implements IBookingService {
     private final IPlatformSettingsService platformSettingsService;
     private final FileStorageService fileStorageService;
     private final SendMailService sendMailService;
+    private final INotificationService notificationService;
+    private final DailyStatsService dailyStatsService;
+    private final FlightCapacityService flightCapacityService;
+    private final ReferenceDataService referenceDataService;
+    private final TransactionTemplate transactionTemplate;
+    
+    private static final String AUTO_CANCEL_REASON = "Délai de paiement dépassé";
+    
+    /**
+     * Taille des lots de l'annulation automatique
+     */
+    @Value("${app.scheduling.chunk-size:500}")
+    private int autoCancelChunkSize;
 
     @Override
     public BookingResponseDto createBooking(
@@ -174,6 +195,13 @@ public class BookingService implements IBookingService {
         // Associer les photos à la réservation (cascade sauvera automatiquement)
         booking.setParcelPhotos(parcelPhotoEntities);
         
+        // 7quater. Réserver le poids du colis sur le vol juste avant l'insertion : le verrou de ligne
+        // du vol n'est tenu que jusqu'au commit, pas pendant le destinataire et l'upload des photos
+        // (annulé avec la transaction en cas d'échec)
+        if (request.getParcelWeight() != null) {
+            flightCapacityService.reserve(flight.getFlightId(), request.getParcelWeight().floatValue());
+        }
+        
         // Sauvegarder (cascade sauvera le parcel et les photos automatiquement)
         Booking saved = bookingRepository.save(booking);
         log.info("Booking created successfully: {}", saved.getId());
@@ -328,6 +356,7 @@ public class BookingService implements IBookingService {
         
         // 4. Mettre à jour le statut vers CANCELLED_BY_TRAVELER
         booking.setStatus(BookingStatus.CANCELLED_BY_TRAVELER);
+        flightCapacityService.releaseBookings(List.of(booking.getId()));
         
         // 5. Enregistrer la raison du rejet
         if (reason != null && !reason.trim().isEmpty()) {
@@ -435,6 +464,7 @@ public class BookingService implements IBookingService {
         
         // 4. Mettre à jour le statut vers CANCELLED_BY_CLIENT
         booking.setStatus(BookingStatus.CANCELLED_BY_CLIENT);
+        flightCapacityService.releaseBookings(List.of(booking.getId()));
         
         // 5. Enregistrer la raison de l'annulation
         if (reason != null && !reason.trim().isEmpty()) {
@@ -449,29 +479,30 @@ public class BookingService implements IBookingService {
         return buildBookingResponse(saved);
     }
     
+    /**
+     * Annulation ensembliste : par lot, lecture des ids échus puis un seul UPDATE conditionné
+     * au statut, chaque lot dans sa propre transaction. Les notifications d'annulation sont
+     * envoyées de manière asynchrone après le commit de chaque lot.
+     */
     @Override
-    public int autoCancelUnpaidBookings() {
-        log.info("Running auto-cancellation of unpaid bookings");
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public int autoCancelUnpaidBookings(Shard shard) {
+        log.info("Running auto-cancellation of unpaid bookings (shard {}/{})", shard.getIndex(), shard.getCount());
         
         LocalDateTime now = LocalDateTime.now();
+        Pageable chunk = PageRequest.of(0, autoCancelChunkSize);
         int cancelledCount = 0;
         
         try {
-            // Utilise la requête optimisée du repository
-            List<Booking> expiredBookings = bookingRepository.findUnpaidWithExpiredDeadline(
-                    BookingStatus.CONFIRMED_UNPAID,
-                    now
-            );
-            
-            log.debug("Found {} bookings with expired deadline", expiredBookings.size());
-            
-            for (Booking booking : expiredBookings) {
-                booking.setStatus(BookingStatus.CANCELLED_PAYMENT_TIMEOUT);
-                bookingRepository.save(booking);
-                cancelledCount++;
-                log.debug("Auto-cancelled booking {} (deadline was {})", 
-                        booking.getId(), booking.getPaymentDeadline());
-            }
+            List<Integer> cancelledIds;
+            do {
+                cancelledIds = transactionTemplate.execute(status -> cancelExpiredChunk(now, shard, chunk));
+                if (cancelledIds == null || cancelledIds.isEmpty()) {
+                    break;
+                }
+                cancelledCount += cancelledIds.size();
+                notificationService.sendCancellationNotices(cancelledIds, AUTO_CANCEL_REASON);
+            } while (cancelledIds.size() == autoCancelChunkSize);
             
             if (cancelledCount > 0) {
                 log.warn("Auto-cancelled {} unpaid booking(s)", cancelledCount);
@@ -485,6 +516,34 @@ public class BookingService implements IBookingService {
         return cancelledCount;
     }
     
+    /**
+     * Annule un lot de réservations dont la deadline est dépassée
+     *
+     * @return ids effectivement annulés
+     */
+    private List<Integer> cancelExpiredChunk(LocalDateTime now, Shard shard, Pageable chunk) {
+        List<BookingTransitionRow> rows = bookingRepository.findTransitionRowsWithExpiredDeadline(
+                BookingStatus.CONFIRMED_UNPAID, now, shard.getIndex(), shard.getCount(), chunk);
+        if (rows.isEmpty()) {
+            return Collections.emptyList();
+        }
+        
+        List<Integer> ids = rows.stream().map(BookingTransitionRow::getId).collect(Collectors.toList());
+        bookingRepository.bulkCancel(ids, BookingStatus.CONFIRMED_UNPAID, BookingStatus.CANCELLED_PAYMENT_TIMEOUT,
+                now, new Date());
+        
+        // Les réservations payées entre la lecture et l'UPDATE sont restées CONFIRMED_PAID
+        Set<Integer> cancelled = new HashSet<>(
+                bookingRepository.findIdsByIdInAndStatus(ids, BookingStatus.CANCELLED_PAYMENT_TIMEOUT));
+        flightCapacityService.releaseBookings(cancelled);
+        dailyStatsService.publishBulkTransition(
+                rows.stream().filter(row -> cancelled.contains(row.getId())).collect(Collectors.toList()),
+                BookingStatus.CONFIRMED_UNPAID, BookingStatus.CANCELLED_PAYMENT_TIMEOUT);
+        
+        log.debug("Auto-cancelled bookings {}", cancelled);
+        return new ArrayList<>(cancelled);
+    }
+    
     @Override
     public BookingResponseDto markAsDelivered(Integer bookingId, Integer travelerId) throws SendByOpException {
         log.info("Marking booking {} as delivered by traveler {}", bookingId, travelerId);
@@ -632,9 +691,8 @@ public class BookingService implements IBookingService {
                 email, pageable.getPageNumber(), pageable.getPageSize());
         
         try {
-            Page<Booking> bookingsPage = bookingRepository.findByCustomerEmailOrderByBookingDateDesc(email, pageable);
-            
-            Page<CustomerBookingDto> customerBookingsPage = bookingsPage.map(this::convertToCustomerBookingDto);
+            Page<CustomerBookingDto> customerBookingsPage =
+                    loadBookingPage(bookingRepository.findIdsByCustomerEmail(email, pageable));
             
             log.info("Successfully fetched {} bookings (page {} of {}) for customer: {}", 
                     customerBookingsPage.getNumberOfElements(),
@@ -651,6 +709,21 @@ public class BookingService implements IBookingService {
         }
     }
     
+    /**
+     * Convertit une page d'ids en page de réservations, en un nombre de requêtes fixe quelle que
+     * soit la taille de la page : réservations avec client, destinataire, vol, voyageur et colis,
+     * puis photos. Les aéroports sont lus dans le référentiel en mémoire.
+     */
+    private Page<CustomerBookingDto> loadBookingPage(Page<Integer> idPage) {
+        Map<Integer, Booking> bookings = new HashMap<>();
+        if (idPage.hasContent()) {
+            bookingRepository.findListViewByIdIn(idPage.getContent())
+                    .forEach(booking -> bookings.put(booking.getId(), booking));
+            bookingRepository.fetchParcelPhotosByIdIn(idPage.getContent());
+        }
+        return idPage.map(id -> convertToCustomerBookingDto(bookings.get(id)));
+    }
+
     /**
      * Convertit une entité Booking en CustomerBookingDto
      */
@@ -658,7 +731,9 @@ public class BookingService implements IBookingService {
         Flight flight = booking.getFlight();
         Receiver receiver = booking.getReceiver();
         
-        // Construire FlightSummaryDto
+        // Construire FlightSummaryDto (aéroports lus dans le référentiel en mémoire)
+        AirportRef departure = referenceDataService.getAirport(flight.getDepartureAirport());
+        AirportRef arrival = referenceDataService.getAirport(flight.getArrivalAirport());
         CustomerBookingDto.FlightSummaryDto flightSummary = CustomerBookingDto.FlightSummaryDto.builder()
                 .id(flight.getFlightId())
                 .departureDate(flight.getDepartureDate())
@@ -667,20 +742,14 @@ public class BookingService implements IBookingService {
                 .arrivalTime(flight.getArrivalTime())
                 .availableWeight(flight.getKgCount() != null ? flight.getKgCount().doubleValue() : null)
                 .pricePerKg(flight.getAmountPerKg() != null ? flight.getAmountPerKg().doubleValue() : null)
-                .departureAirportName(flight.getDepartureAirport() != null ? flight.getDepartureAirport().getName() : null)
-                .departureAirportCode(flight.getDepartureAirport() != null ? flight.getDepartureAirport().getIataCode() : null)
-                .departureCityName(flight.getDepartureAirport() != null && flight.getDepartureAirport().getCity() != null ? 
-                        flight.getDepartureAirport().getCity().getName() : null)
-                .departureCountryName(flight.getDepartureAirport() != null && flight.getDepartureAirport().getCity() != null && 
-                        flight.getDepartureAirport().getCity().getCountry() != null ? 
-                        flight.getDepartureAirport().getCity().getCountry().getName() : null)
-                .arrivalAirportName(flight.getArrivalAirport() != null ? flight.getArrivalAirport().getName() : null)
-                .arrivalAirportCode(flight.getArrivalAirport() != null ? flight.getArrivalAirport().getIataCode() : null)
-                .arrivalCityName(flight.getArrivalAirport() != null && flight.getArrivalAirport().getCity() != null ? 
-                        flight.getArrivalAirport().getCity().getName() : null)
-                .arrivalCountryName(flight.getArrivalAirport() != null && flight.getArrivalAirport().getCity() != null && 
-                        flight.getArrivalAirport().getCity().getCountry() != null ? 
-                        flight.getArrivalAirport().getCity().getCountry().getName() : null)
+                .departureAirportName(departure != null ? departure.getName() : null)
+                .departureAirportCode(departure != null ? departure.getIataCode() : null)
+                .departureCityName(departure != null ? departure.getCityName() : null)
+                .departureCountryName(departure != null ? departure.getCountryName() : null)
+                .arrivalAirportName(arrival != null ? arrival.getName() : null)
+                .arrivalAirportCode(arrival != null ? arrival.getIataCode() : null)
+                .arrivalCityName(arrival != null ? arrival.getCityName() : null)
+                .arrivalCountryName(arrival != null ? arrival.getCountryName() : null)
                 .travelerFirstName(flight.getCustomer() != null ? flight.getCustomer().getFirstName() : null)
                 .travelerLastName(flight.getCustomer() != null ? flight.getCustomer().getLastName() : null)
                 .build();
@@ -840,9 +909,8 @@ public class BookingService implements IBookingService {
                 travelerEmail, pageable.getPageNumber(), pageable.getPageSize());
         
         try {
-            Page<Booking> bookingsPage = bookingRepository.findByFlightCustomerEmailOrderByBookingDateDesc(travelerEmail, pageable);
-            
-            Page<CustomerBookingDto> bookingDtosPage = bookingsPage.map(this::convertToCustomerBookingDto);
+            Page<CustomerBookingDto> bookingDtosPage =
+                    loadBookingPage(bookingRepository.findIdsByFlightCustomerEmail(travelerEmail, pageable));
             
             log.info("Found {} bookings (page {} of {}) on flights for traveler: {}", 
                     bookingDtosPage.getNumberOfElements(),
@@ -1082,8 +1150,8 @@ public class BookingService implements IBookingService {
     // ===========================
     
     private String buildBookingConfirmedEmailTemplate(String customerName, String travelerName, Booking booking) {
-        String flightInfo = booking.getFlight().getDepartureAirport().getCity() + " → " + 
-                          booking.getFlight().getArrivalAirport().getCity();
+        String flightInfo = referenceDataService.getAirport(booking.getFlight().getDepartureAirport()).getCityName() + " → " + 
+                          referenceDataService.getAirport(booking.getFlight().getArrivalAirport()).getCityName();
         
         return "<!DOCTYPE html>" +
             "<html>" +
@@ -4,10 +4,14 @@ import com.sendByOP.expedition.mappers.CityMapper;
 import com.sendByOP.expedition.models.dto.CityDto;
 import com.sendByOP.expedition.models.entities.City;
 import com.sendByOP.expedition.models.entities.Country;
+import com.sendByOP.expedition.models.events.ReferenceDataChangedEvent;
+import com.sendByOP.expedition.reference.CityRef;
+import com.sendByOP.expedition.reference.ReferenceDataService;
 import com.sendByOP.expedition.repositories.CityRepository;
 import com.sendByOP.expedition.repositories.CountryRepository;
 import com.sendByOP.expedition.services.iServices.ICityService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -19,21 +23,27 @@ public class CityServiceImpl implements ICityService {
     private final CityRepository cityRepository;
     private final CountryRepository countryRepository; // Nécessaire pour récupérer un pays
     private final CityMapper cityMapper;
+    private final ReferenceDataService referenceDataService;
+    private final ApplicationEventPublisher eventPublisher;
 
 
+    /**
+     * Villes triées par nom, lues dans le référentiel en mémoire
+     */
     @Override
     public List<CityDto> getAllCities() {
-        return cityRepository.findAll()
-                .stream()
-                .map(cityMapper::toDto)
+        return referenceDataService.get().getCities().stream()
+                .map(CityServiceImpl::toDto)
                 .collect(Collectors.toList());
     }
 
     @Override
     public CityDto getCityById(Integer id) {
-        City city = cityRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("City not found with id " + id));
-        return cityMapper.toDto(city);
+        CityRef city = referenceDataService.get().getCity(id);
+        if (city == null) {
+            throw new RuntimeException("City not found with id " + id);
+        }
+        return toDto(city);
     }
 
     @Override
@@ -47,6 +57,7 @@ public class CityServiceImpl implements ICityService {
         city.setCountry(country);
 
         City savedCity = cityRepository.save(city);
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent("city"));
         return cityMapper.toDto(savedCity);
     }
 
@@ -63,6 +74,7 @@ public class CityServiceImpl implements ICityService {
         existingCity.setUpdatedBy(cityDto.getUpdatedBy());
 
         City updatedCity = cityRepository.save(existingCity);
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent("city"));
         return cityMapper.toDto(updatedCity);
     }
 
@@ -72,5 +84,14 @@ public class CityServiceImpl implements ICityService {
             throw new RuntimeException("City not found with id " + id);
         }
         cityRepository.deleteById(id);
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent("city"));
+    }
+
+    private static CityDto toDto(CityRef city) {
+        return CityDto.builder()
+                .cityId(city.getCityId())
+                .name(city.getName())
+                .countryId(city.getCountryId())
+                .build();
     }
 }
@@ -3,13 +3,17 @@ package com.sendByOP.expedition.services.impl;
 import com.sendByOP.expedition.mappers.CountryMapper;
 import com.sendByOP.expedition.models.dto.CountryDto;
 import com.sendByOP.expedition.models.entities.Country;
+import com.sendByOP.expedition.models.events.ReferenceDataChangedEvent;
+import com.sendByOP.expedition.reference.ReferenceDataService;
 import com.sendByOP.expedition.repositories.CountryRepository;
 import com.sendByOP.expedition.services.iServices.ICountryService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -17,16 +21,26 @@ import java.util.List;
 public class CountryService implements ICountryService {
     private final CountryRepository paysRepository;
     private final CountryMapper countryMapper;
+    private final ReferenceDataService referenceDataService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public CountryDto saveCountry(CountryDto countryDto) {
         Country country = countryMapper.toEntity(countryDto);
         Country savedCountry = paysRepository.save(country);
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent("country"));
         return countryMapper.toDto(savedCountry);
     }
 
+    /**
+     * Pays triés par nom, lus dans le référentiel en mémoire
+     */
     public List<CountryDto> getCountry() {
-        List<Country> countries = paysRepository.findAll();
-        return countryMapper.toDtoList(countries);
+        return referenceDataService.get().getCountries().stream()
+                .map(country -> CountryDto.builder()
+                        .countryId(country.getCountryId())
+                        .name(country.getName())
+                        .build())
+                .collect(Collectors.toList());
     }
 
 }
@@ -0,0 +1,222 @@
+package com.sendByOP.expedition.services.impl;
+
+import com.sendByOP.expedition.models.entities.DailyBookingStats;
+import com.sendByOP.expedition.models.entities.DailyStats;
+import com.sendByOP.expedition.models.enums.BookingStatus;
+import com.sendByOP.expedition.models.events.DailyStatsDeltaEvent;
+import com.sendByOP.expedition.models.projections.BookingStatusAggregate;
+import com.sendByOP.expedition.models.projections.BookingTransitionRow;
+import com.sendByOP.expedition.repositories.BookingRepository;
+import com.sendByOP.expedition.repositories.DailyBookingStatsRepository;
+import com.sendByOP.expedition.repositories.DailyStatsRepository;
+import com.sendByOP.expedition.repositories.FlightRepository;
+import com.sendByOP.expedition.repositories.UserRepository;
+import com.sendByOP.expedition.scheduling.SchedulerLockService;
+import com.sendByOP.expedition.utils.DateTimeUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.IntSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Service de maintenance des agrégats journaliers du dashboard
+ * - Application incrémentale des variations après commit (DailyStatsListener)
+ * - Réconciliation nocturne des derniers jours depuis les tables sources
+ */
+@Slf4j
+@Service
+public class DailyStatsService {
+
+    private final DailyStatsRepository dailyStatsRepository;
+    private final DailyBookingStatsRepository dailyBookingStatsRepository;
+    private final BookingRepository bookingRepository;
+    private final UserRepository userRepository;
+    private final FlightRepository flightRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final SchedulerLockService schedulerLockService;
+
+    /**
+     * Nombre de jours recalculés chaque nuit (une réservation peut changer de statut
+     * plusieurs semaines après sa création)
+     */
+    @Value("${app.stats.reconcile-days:90}")
+    private int reconcileDays;
+
+    public DailyStatsService(DailyStatsRepository dailyStatsRepository,
+                             DailyBookingStatsRepository dailyBookingStatsRepository,
+                             BookingRepository bookingRepository,
+                             UserRepository userRepository,
+                             FlightRepository flightRepository,
+                             ApplicationEventPublisher eventPublisher,
+                             PlatformTransactionManager transactionManager,
+                             SchedulerLockService schedulerLockService) {
+        this.dailyStatsRepository = dailyStatsRepository;
+        this.dailyBookingStatsRepository = dailyBookingStatsRepository;
+        this.bookingRepository = bookingRepository;
+        this.userRepository = userRepository;
+        this.flightRepository = flightRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.schedulerLockService = schedulerLockService;
+    }
+
+    /**
+     * Applique une variation une fois la transaction métier validée.
+     * Une erreur ici ne doit jamais impacter la requête : la réconciliation nocturne corrige les écarts.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDelta(DailyStatsDeltaEvent event) {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            if (event.getStatus() != null) {
+                upsert(() -> dailyBookingStatsRepository.increment(event.getStatDate(), event.getStatus(),
+                                event.getBookingCountDelta(), event.getAmountDelta(), now),
+                        () -> dailyBookingStatsRepository.saveAndFlush(DailyBookingStats.builder()
+                                .statDate(event.getStatDate())
+                                .status(event.getStatus())
+                                .bookingCount(event.getBookingCountDelta())
+                                .totalAmount(event.getAmountDelta())
+                                .updatedAt(now)
+                                .build()));
+            }
+            if (event.getNewUsersDelta() != 0 || event.getNewFlightsDelta() != 0) {
+                upsert(() -> dailyStatsRepository.increment(event.getStatDate(),
+                                event.getNewUsersDelta(), event.getNewFlightsDelta(), now),
+                        () -> dailyStatsRepository.saveAndFlush(DailyStats.builder()
+                                .statDate(event.getStatDate())
+                                .newUsers(event.getNewUsersDelta())
+                                .newFlights(event.getNewFlightsDelta())
+                                .updatedAt(now)
+                                .build()));
+            }
+        } catch (Exception e) {
+            log.error("Failed to apply daily stats delta {}: {}", event, e.getMessage());
+        }
+    }
+
+    /**
+     * Publie les variations d'une transition de statut faite par UPDATE ensembliste,
+     * qui ne passe pas par DailyStatsListener. Appliquées après commit, comme les autres.
+     */
+    public void publishBulkTransition(Collection<BookingTransitionRow> rows, BookingStatus from, BookingStatus to) {
+        Map<LocalDate, List<BookingTransitionRow>> rowsByDay = rows.stream()
+                .filter(row -> row.getBookingDate() != null)
+                .collect(Collectors.groupingBy(row -> DateTimeUtils.dateToLocalDateTime(row.getBookingDate()).toLocalDate()));
+
+        rowsByDay.forEach((day, dayRows) -> {
+            BigDecimal amount = dayRows.stream()
+                    .map(BookingTransitionRow::getTotalPrice)
+                    .filter(Objects::nonNull)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            eventPublisher.publishEvent(DailyStatsDeltaEvent.builder()
+                    .statDate(day).status(from)
+                    .bookingCountDelta(-dayRows.size()).amountDelta(amount.negate())
+                    .build());
+            eventPublisher.publishEvent(DailyStatsDeltaEvent.builder()
+                    .statDate(day).status(to)
+                    .bookingCountDelta(dayRows.size()).amountDelta(amount)
+                    .build());
+        });
+    }
+
+    /**
+     * Réconciliation nocturne : recalcule les derniers jours depuis les tables sources
+     *
+     * Exécution: Tous les jours à 1h30
+     */
+    @Scheduled(cron = "0 30 1 * * *")
+    public void reconcile() {
+        schedulerLockService.runExclusively("reconcileDailyStats", Duration.ofHours(1), this::reconcileRecentDays);
+    }
+
+    private void reconcileRecentDays() {
+        LocalDate today = LocalDate.now();
+        log.info("Starting daily stats reconciliation for the last {} day(s)", reconcileDays);
+        int rebuilt = rebuild(today.minusDays(reconcileDays), today);
+        log.info("Daily stats reconciliation completed: {} day(s) rebuilt", rebuilt);
+    }
+
+    /**
+     * Recalcule les agrégats de chaque jour de la période (bornes incluses), un jour par transaction
+     *
+     * @return nombre de jours recalculés
+     */
+    public int rebuild(LocalDate from, LocalDate to) {
+        int rebuilt = 0;
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            LocalDate statDate = day;
+            try {
+                transactionTemplate.executeWithoutResult(status -> rebuildDay(statDate));
+                rebuilt++;
+            } catch (Exception e) {
+                log.error("Failed to rebuild daily stats for {}: {}", statDate, e.getMessage(), e);
+            }
+        }
+        return rebuilt;
+    }
+
+    private void rebuildDay(LocalDate day) {
+        Date start = Date.from(day.atStartOfDay(ZoneId.systemDefault()).toInstant());
+        Date end = Date.from(day.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant());
+        LocalDateTime now = LocalDateTime.now();
+
+        dailyBookingStatsRepository.deleteByStatDate(day);
+        for (BookingStatusAggregate aggregate : bookingRepository.aggregateByStatusBetween(start, end)) {
+            if (aggregate.getStatus() == null) {
+                continue;
+            }
+            dailyBookingStatsRepository.save(DailyBookingStats.builder()
+                    .statDate(day)
+                    .status(aggregate.getStatus())
+                    .bookingCount(aggregate.getBookingCount())
+                    .totalAmount(aggregate.getTotalAmount() != null ? aggregate.getTotalAmount() : BigDecimal.ZERO)
+                    .updatedAt(now)
+                    .build());
+        }
+
+        DailyStats stats = dailyStatsRepository.findByStatDate(day)
+                .orElseGet(() -> DailyStats.builder().statDate(day).build());
+        stats.setNewUsers(userRepository.countByCreatedAtGreaterThanEqualAndCreatedAtLessThan(start, end));
+        stats.setNewFlights(flightRepository.countByCreatedAtGreaterThanEqualAndCreatedAtLessThan(start, end));
+        stats.setUpdatedAt(now);
+        dailyStatsRepository.save(stats);
+    }
+
+    /**
+     * UPDATE atomique, puis INSERT si la ligne du jour n'existe pas encore.
+     * Si un autre nœud a créé la ligne entre-temps, l'incrément est rejoué.
+     */
+    private void upsert(IntSupplier increment, Runnable insert) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (increment.getAsInt() == 0) {
+                    insert.run();
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            transactionTemplate.executeWithoutResult(status -> increment.getAsInt());
+        }
+    }
+}
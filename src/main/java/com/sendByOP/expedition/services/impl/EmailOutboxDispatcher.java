@@ -0,0 +1,178 @@
+package com.sendByOP.expedition.services.impl;
+
+import com.sendByOP.expedition.models.entities.EmailOutbox;
+import com.sendByOP.expedition.models.entities.NotificationLog;
+import com.sendByOP.expedition.models.enums.EmailOutboxStatus;
+import com.sendByOP.expedition.models.events.EmailQueuedEvent;
+import com.sendByOP.expedition.repositories.BookingRepository;
+import com.sendByOP.expedition.repositories.EmailOutboxRepository;
+import com.sendByOP.expedition.repositories.NotificationLogRepository;
+import com.sendByOP.expedition.scheduling.RetryingQueueDispatcher;
+import com.sendByOP.expedition.scheduling.SchedulerLockService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Envoi des emails de l'outbox (email_outbox)
+ *
+ * Déclenché après la validation de chaque mise en file et, en filet de sécurité, par un
+ * polling régulier. Les emails dus sont lus par lots et envoyés en parallèle sur un pool
+ * borné ; chaque échec replanifie l'email avec un délai exponentiel, jusqu'à l'abandon
+ * (statut DEAD) après le nombre maximal de tentatives. Un seul nœud envoie à la fois
+ * (boucle, verrou et délais communs : RetryingQueueDispatcher).
+ */
+@Slf4j
+@Component
+public class EmailOutboxDispatcher extends RetryingQueueDispatcher<EmailOutbox> {
+
+    private final EmailOutboxRepository outboxRepository;
+    private final NotificationLogRepository notificationLogRepository;
+    private final BookingRepository bookingRepository;
+    private final SendMailService sendMailService;
+    private final Duration retention;
+
+    public EmailOutboxDispatcher(EmailOutboxRepository outboxRepository,
+                                 NotificationLogRepository notificationLogRepository,
+                                 BookingRepository bookingRepository,
+                                 SendMailService sendMailService,
+                                 SchedulerLockService schedulerLockService,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${app.email.outbox.pool-size:4}") int poolSize,
+                                 @Value("${app.email.outbox.batch-size:50}") int batchSize,
+                                 @Value("${app.email.outbox.max-attempts:8}") int maxAttempts,
+                                 @Value("${app.email.outbox.initial-backoff:30s}") Duration initialBackoff,
+                                 @Value("${app.email.outbox.max-backoff:1h}") Duration maxBackoff,
+                                 @Value("${app.email.outbox.retention:7d}") Duration retention) {
+        super("emailOutbox", schedulerLockService, transactionManager,
+                poolSize, batchSize, maxAttempts, initialBackoff, maxBackoff);
+        this.outboxRepository = outboxRepository;
+        this.notificationLogRepository = notificationLogRepository;
+        this.bookingRepository = bookingRepository;
+        this.sendMailService = sendMailService;
+        this.retention = retention;
+    }
+
+    /**
+     * Envoi immédiat après la validation de la transaction qui a mis l'email en file
+     */
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEmailQueued(EmailQueuedEvent event) {
+        dispatch();
+    }
+
+    /**
+     * Polling : nouvelles tentatives arrivées à échéance et emails manqués (redémarrage, autre nœud)
+     */
+    @Scheduled(fixedDelayString = "${app.email.outbox.poll-interval-ms:5000}")
+    public void poll() {
+        dispatch();
+    }
+
+    /**
+     * Purge quotidienne des emails envoyés (les abandons sont conservés pour analyse)
+     */
+    @Scheduled(cron = "0 30 3 * * *")
+    public void purgeSent() {
+        purge("emailOutboxPurge", () -> outboxRepository.deleteByStatusAndSentAtBefore(
+                EmailOutboxStatus.SENT, LocalDateTime.now().minus(retention)), "sent email(s) from the outbox");
+    }
+
+    @Override
+    protected List<EmailOutbox> findDue(Pageable batch) {
+        return outboxRepository.findDue(EmailOutboxStatus.PENDING, LocalDateTime.now(), batch);
+    }
+
+    /**
+     * Envoie un lot en parallèle puis enregistre toutes les issues dans une seule transaction
+     */
+    @Override
+    protected void processBatch(List<EmailOutbox> emails) {
+        long start = System.currentTimeMillis();
+        List<CompletableFuture<String>> futures = emails.stream()
+                .map(email -> CompletableFuture.supplyAsync(() -> send(email), workers))
+                .collect(Collectors.toList());
+        List<String> errors = futures.stream()
+                .map(CompletableFuture::join)
+                .collect(Collectors.toList());
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> sentIds = new ArrayList<>();
+        List<NotificationLog> notificationLogs = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < emails.size(); i++) {
+                EmailOutbox email = emails.get(i);
+                String error = errors.get(i);
+                int attempts = email.getAttempts() + 1;
+                if (error == null) {
+                    sentIds.add(email.getId());
+                    addNotificationLog(notificationLogs, email, attempts, true, now, null);
+                } else if (isLastAttempt(attempts)) {
+                    log.error("Email {} to {} abandoned after {} attempt(s): {}",
+                            email.getId(), email.getRecipient(), attempts, error);
+                    outboxRepository.markFailed(email.getId(), EmailOutboxStatus.DEAD, attempts, now, error);
+                    addNotificationLog(notificationLogs, email, attempts, false, null, error);
+                } else {
+                    LocalDateTime nextAttemptAt = nextAttemptAt(now, attempts);
+                    log.warn("Email {} to {} failed (attempt {}), retry at {}: {}",
+                            email.getId(), email.getRecipient(), attempts, nextAttemptAt, error);
+                    outboxRepository.markFailed(email.getId(), EmailOutboxStatus.PENDING, attempts, nextAttemptAt, error);
+                }
+            }
+            if (!sentIds.isEmpty()) {
+                outboxRepository.markSent(sentIds, EmailOutboxStatus.SENT, now);
+            }
+            notificationLogRepository.saveAll(notificationLogs);
+        });
+
+        log.info("Email outbox batch: {} sent, {} failed in {} ms",
+                sentIds.size(), emails.size() - sentIds.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Envoie un email et retourne null en cas de succès, le message d'erreur sinon
+     */
+    private String send(EmailOutbox email) {
+        try {
+            sendMailService.deliver(email);
+            return null;
+        } catch (Exception e) {
+            return errorMessage(e);
+        }
+    }
+
+    /**
+     * Trace l'issue définitive d'un email de réservation dans notification_log
+     */
+    private void addNotificationLog(List<NotificationLog> notificationLogs, EmailOutbox email, int attempts,
+                                    boolean sent, LocalDateTime sentAt, String error) {
+        if (email.getBookingId() == null || email.getNotificationType() == null) {
+            return;
+        }
+        NotificationLog notificationLog = new NotificationLog();
+        notificationLog.setType(email.getNotificationType());
+        notificationLog.setBooking(bookingRepository.getReferenceById(email.getBookingId()));
+        notificationLog.setRecipientEmail(email.getRecipient());
+        notificationLog.setSubject(email.getSubject());
+        notificationLog.setContent(email.getBody());
+        notificationLog.setSent(sent);
+        notificationLog.setSentAt(sentAt);
+        notificationLog.setErrorMessage(error);
+        notificationLog.setRetryCount(attempts - 1);
+        notificationLogs.add(notificationLog);
+    }
+}
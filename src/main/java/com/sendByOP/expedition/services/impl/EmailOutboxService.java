@@ -0,0 +1,69 @@
+package com.sendByOP.expedition.services.impl;
+
+import com.sendByOP.expedition.models.entities.EmailOutbox;
+import com.sendByOP.expedition.models.enums.EmailOutboxStatus;
+import com.sendByOP.expedition.models.events.EmailQueuedEvent;
+import com.sendByOP.expedition.repositories.EmailOutboxRepository;
+import com.sendByOP.expedition.utils.HashUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Mise en file des emails sortants (table email_outbox)
+ *
+ * L'email est enregistré dans la transaction de l'appelant : il n'est envoyé que si
+ * cette transaction est validée, et la requête n'attend jamais le fournisseur d'envoi.
+ * L'envoi, les nouvelles tentatives et l'abandon sont gérés par EmailOutboxDispatcher.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EmailOutboxService {
+
+    private final EmailOutboxRepository outboxRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Fenêtre pendant laquelle un email identique (destinataire, sujet, corps) n'est pas remis en file
+     */
+    @Value("${app.email.outbox.dedup-window:10m}")
+    private Duration dedupWindow;
+
+    /**
+     * Met un email en file (destinataire, sujet et corps renseignés par l'appelant)
+     *
+     * @return false si un email identique a déjà été mis en file dans la fenêtre de déduplication
+     */
+    @Transactional
+    public boolean enqueue(EmailOutbox email) {
+        LocalDateTime now = LocalDateTime.now();
+        String dedupKey = dedupKey(email);
+        if (outboxRepository.existsByDedupKeyAndCreatedAtAfterAndStatusNot(dedupKey, now.minus(dedupWindow),
+                EmailOutboxStatus.DEAD)) {
+            log.info("Duplicate email to {} ({}) already queued, skipped", email.getRecipient(), email.getSubject());
+            return false;
+        }
+
+        email.setDedupKey(dedupKey);
+        email.setStatus(EmailOutboxStatus.PENDING);
+        email.setAttempts(0);
+        email.setCreatedAt(now);
+        email.setNextAttemptAt(now);
+        EmailOutbox saved = outboxRepository.save(email);
+        eventPublisher.publishEvent(new EmailQueuedEvent(saved.getId()));
+        log.debug("Email {} to {} queued", saved.getId(), email.getRecipient());
+        return true;
+    }
+
+    private static String dedupKey(EmailOutbox email) {
+        return HashUtils.sha256Hex(email.getRecipient(), email.getSubject(), email.getBody(),
+                email.getAttachmentName());
+    }
+}
@@ -0,0 +1,153 @@
+package com.sendByOP.expedition.services.impl;
+
+import com.sendByOP.expedition.models.entities.Flight;
+import com.sendByOP.expedition.models.events.FlightChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Caches des vols avec invalidation par clé
+ *
+ * Les listes (par statut de validation, par trajet) sont mises en cache sous forme de listes
+ * d'ids ; les DTO sont résolus depuis les caches par id, les absents étant chargés en une
+ * requête. La modification d'un vol ne retire que ses entrées par id et les listes de son
+ * statut et de son trajet (avant et après modification), après commit.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FlightCacheService {
+
+    /** FlightDto par id */
+    public static final String FLIGHTS = "flights";
+    /** FlightDto enrichi (aéroports, voyageur) par id */
+    public static final String FLIGHTS_ENRICHED = "flights:enriched";
+    /** PublicFlightDto par id */
+    public static final String FLIGHTS_PUBLIC = "flights:public";
+    /** Ids des vols par statut de validation */
+    public static final String FLIGHTS_ACTIVE = "flights:active";
+    /** Ids des premiers vols publics par trajet */
+    public static final String FLIGHTS_ROUTE = "flights:route";
+
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Liste d'ids en cache, chargée à la première lecture
+     */
+    public List<Integer> getIds(String cacheName, Object key, Supplier<List<Integer>> loader) {
+        List<Integer> ids = cache(cacheName).get(key, loader::get);
+        return ids != null ? ids : List.of();
+    }
+
+    /**
+     * Résout des DTO depuis le cache par id, dans l'ordre des ids
+     * Les ids absents du cache sont chargés en un seul appel ; les ids que le chargeur
+     * ne retourne pas sont ignorés.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> resolve(String cacheName, List<Integer> ids, Function<Collection<Integer>, Map<Integer, T>> loader) {
+        Cache cache = cache(cacheName);
+        Map<Integer, T> found = new HashMap<>();
+        List<Integer> missing = new ArrayList<>();
+        for (Integer id : ids) {
+            Cache.ValueWrapper cached = cache.get(id);
+            if (cached != null && cached.get() != null) {
+                found.put(id, (T) cached.get());
+            } else {
+                missing.add(id);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            loader.apply(missing).forEach((id, value) -> {
+                cache.put(id, value);
+                found.put(id, value);
+            });
+        }
+
+        return ids.stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Signale la modification de vols : entrées par id, listes de leur statut et de leur trajet
+     * A appeler avec l'état avant et/ou après modification ; appliqué après commit
+     */
+    public void flightChanged(Flight... flights) {
+        Set<Integer> flightIds = new HashSet<>();
+        Set<Integer> statuses = new HashSet<>();
+        Set<String> routes = new HashSet<>();
+        for (Flight flight : flights) {
+            if (flight == null) {
+                continue;
+            }
+            if (flight.getFlightId() != null) {
+                flightIds.add(flight.getFlightId());
+            }
+            statuses.add(flight.getValidationStatus());
+            if (flight.getDepartureAirport() != null && flight.getArrivalAirport() != null) {
+                routes.add(routeKey(flight.getDepartureAirport().getAirportId(), flight.getArrivalAirport().getAirportId()));
+            }
+        }
+        eventPublisher.publishEvent(new FlightChangedEvent(flightIds, statuses, routes));
+    }
+
+    /**
+     * Signale une modification qui ne change ni le statut de validation ni le trajet des vols
+     * (capacité réservée, expiration) : seules les entrées par id sont retirées
+     */
+    public void flightsChanged(Collection<Integer> flightIds) {
+        if (!flightIds.isEmpty()) {
+            eventPublisher.publishEvent(new FlightChangedEvent(new HashSet<>(flightIds), Set.of(), Set.of()));
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onFlightChanged(FlightChangedEvent event) {
+        for (Integer flightId : event.getFlightIds()) {
+            cache(FLIGHTS).evict(flightId);
+            cache(FLIGHTS_ENRICHED).evict(flightId);
+            cache(FLIGHTS_PUBLIC).evict(flightId);
+        }
+        for (Integer status : event.getValidationStatuses()) {
+            cache(FLIGHTS_ACTIVE).evict(status);
+        }
+        for (String route : event.getRoutes()) {
+            cache(FLIGHTS_ROUTE).evict(route);
+        }
+        log.debug("Flight caches invalidated: flights {}, statuses {}, routes {}",
+                event.getFlightIds(), event.getValidationStatuses(), event.getRoutes());
+    }
+
+    /**
+     * Clé d'un trajet dans le cache flights:route
+     */
+    public static String routeKey(Integer departureAirportId, Integer arrivalAirportId) {
+        return departureAirportId + "-" + arrivalAirportId;
+    }
+
+    private Cache cache(String name) {
+        return Objects.requireNonNull(cacheManager.getCache(name), name);
+    }
+}
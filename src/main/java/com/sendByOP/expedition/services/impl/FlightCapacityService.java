@@ -0,0 +1,70 @@
+package com.sendByOP.expedition.services.impl;
+
+import com.sendByOP.expedition.exception.ErrorInfo;
+import com.sendByOP.expedition.exception.SendByOpException;
+import com.sendByOP.expedition.models.projections.FlightBookedWeight;
+import com.sendByOP.expedition.repositories.FlightRepository;
+import com.sendByOP.expedition.repositories.ParcelRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Registre de capacité des vols (flight.reserved_kg)
+ *
+ * La réservation de kilos est un UPDATE conditionnel : deux réservations concurrentes
+ * sur le même vol sont sérialisées par le verrou de ligne et la seconde échoue si la
+ * capacité restante ne suffit plus. Les méthodes doivent être appelées dans la
+ * transaction qui crée ou annule la réservation.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FlightCapacityService {
+
+    private final FlightRepository flightRepository;
+    private final ParcelRepository parcelRepository;
+    private final FlightCacheService flightCacheService;
+
+    /**
+     * Réserve le poids d'un colis sur le vol
+     *
+     * @throws SendByOpException si la capacité restante du vol est insuffisante
+     */
+    public void reserve(Integer flightId, float weightKg) throws SendByOpException {
+        if (flightRepository.reserveKg(flightId, toKg(weightKg)) == 0) {
+            log.warn("Not enough capacity on flight {} for {} kg", flightId, weightKg);
+            throw new SendByOpException(ErrorInfo.INSUFFICIENT_FLIGHT_CAPACITY,
+                    "Capacité restante du vol insuffisante pour " + weightKg + " kg");
+        }
+        flightCacheService.flightsChanged(List.of(flightId));
+    }
+
+    /**
+     * Libère le poids des colis des réservations annulées, vol par vol
+     */
+    public void releaseBookings(Collection<Integer> bookingIds) {
+        if (bookingIds.isEmpty()) {
+            return;
+        }
+        List<FlightBookedWeight> weights = parcelRepository.sumWeightByFlightForBookings(bookingIds);
+        List<Integer> releasedFlightIds = new ArrayList<>();
+        for (FlightBookedWeight weight : weights) {
+            if (weight.getTotalWeight() != null) {
+                flightRepository.releaseKg(weight.getFlightId(), toKg(weight.getTotalWeight().floatValue()));
+                releasedFlightIds.add(weight.getFlightId());
+            }
+        }
+        flightCacheService.flightsChanged(releasedFlightIds);
+    }
+
+    private static BigDecimal toKg(float weightKg) {
+        return BigDecimal.valueOf(weightKg).setScale(2, RoundingMode.HALF_UP);
+    }
+}
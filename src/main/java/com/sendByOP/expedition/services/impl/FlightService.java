@@ -8,31 +8,39 @@ import com.sendByOP.expedition.mappers.FlightMapper;
 import com.sendByOP.expedition.models.dto.AirportDto;
 import com.sendByOP.expedition.models.dto.CustomerDto;
 import com.sendByOP.expedition.models.dto.FlightDto;
+import com.sendByOP.expedition.models.dto.FlightSearchCriteria;
+import com.sendByOP.expedition.models.dto.FlightSearchResultDto;
 import com.sendByOP.expedition.models.dto.PublicFlightDto;
 import com.sendByOP.expedition.models.dto.PublicStopoverDto;
+import com.sendByOP.expedition.models.dto.TravelerRatingSummaryDto;
 import com.sendByOP.expedition.models.dto.VolEscaleDto;
 import com.sendByOP.expedition.models.entities.Flight;
-import com.sendByOP.expedition.models.entities.Review;
 import com.sendByOP.expedition.models.entities.Stopover;
 import com.sendByOP.expedition.models.enums.FlightStatus;
+import com.sendByOP.expedition.reference.AirportRef;
+import com.sendByOP.expedition.reference.ReferenceDataService;
 import com.sendByOP.expedition.repositories.FlightRepository;
-import com.sendByOP.expedition.repositories.ParcelRepository;
-import com.sendByOP.expedition.repositories.ReviewRepository;
 import com.sendByOP.expedition.repositories.StopoverRepository;
 import com.sendByOP.expedition.services.iServices.IVolService;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -42,9 +50,8 @@ import java.util.stream.Collectors;
 public class FlightService implements IVolService {
     private final FlightRepository flightRepository;
     private final FlightMapper flightMapper;
-    private final ParcelRepository parcelRepository;
     private final StopoverRepository stopoverRepository;
-    private final ReviewRepository reviewRepository;
+    private final TravelerRatingService travelerRatingService;
     private final StopoverService stopoverService;
     private final AirportService airportService;
     private final AirportMapper airportMapper;
@@ -52,6 +59,11 @@ public class FlightService implements IVolService {
     private final CustomerMapper customerMapper;
     private final FraudGuardService fraudGuardService;
     private final SendMailService sendMailService;
+    private final FlightCacheService flightCacheService;
+    private final ReferenceDataService referenceDataService;
+
+    private static final int DEFAULT_SEARCH_PAGE_SIZE = 20;
+    private static final int MAX_SEARCH_PAGE_SIZE = 50;
 
     @Override
     @Cacheable(value = "flights", key = "#id")
@@ -74,26 +86,30 @@ public class FlightService implements IVolService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Liste mise en cache sous forme d'ids ; les DTO enrichis sont résolus depuis le cache par id
+     */
     @Override
-    @Cacheable(value = "flights:active", key = "#status")
     public List<FlightDto> getAllVolValid(int status) {
-        log.debug("Fetching flights with status {} from database (cache miss)", status);
-        return flightRepository.findByValidationStatus(status).stream()
-                .map(this::enrichFlightDto)
-                .collect(Collectors.toList());
+        List<Integer> flightIds = flightCacheService.getIds(FlightCacheService.FLIGHTS_ACTIVE, status, () -> {
+            log.debug("Fetching flight ids with status {} from database (cache miss)", status);
+            return flightRepository.findIdsByValidationStatus(status);
+        });
+        return flightCacheService.resolve(FlightCacheService.FLIGHTS_ENRICHED, flightIds,
+                missing -> flightRepository.findByFlightIdIn(missing).stream()
+                        .collect(Collectors.toMap(Flight::getFlightId, this::enrichFlightDto)));
     }
 
     @Override
-    @CacheEvict(value = {"flights:active", "flights:public", "flights"}, allEntries = true)
     public FlightDto saveVol(FlightDto flightDto) {
         log.debug("Saving flight and invalidating cache: {}", flightDto);
         Flight flight = flightMapper.toEntity(flightDto);
         Flight savedFlight = flightRepository.save(flight);
+        flightCacheService.flightChanged(savedFlight);
         return flightMapper.toDto(savedFlight);
     }
 
     @Override
-    @CacheEvict(value = {"flights:active", "flights:public", "flights"}, allEntries = true)
     public FlightDto saveVolWithEscales(VolEscaleDto flightWithStopoversDto) throws SendByOpException {
         log.info("Saving flight with stopovers and invalidating cache: {}", flightWithStopoversDto);
         try {
@@ -134,6 +150,7 @@ public class FlightService implements IVolService {
             
             // Sauvegarde directe de l'entité avec les aéroports assignés
             Flight savedFlight = flightRepository.save(flightEntity);
+            flightCacheService.flightChanged(savedFlight);
             FlightDto savedFlightDto = flightMapper.toDto(savedFlight);
             
             // Envoyer un email de confirmation au voyageur
@@ -160,6 +177,7 @@ public class FlightService implements IVolService {
     public void deleteVol(int id) throws SendByOpException {
         log.debug("Deleting flight with id: {}", id);
         try {
+            flightRepository.findById(id).ifPresent(flightCacheService::flightChanged);
             flightRepository.deleteById(id);
             log.info("Successfully deleted flight with id: {}", id);
         } catch (Exception e) {
@@ -172,8 +190,11 @@ public class FlightService implements IVolService {
     public FlightDto updateVol(FlightDto flightDto) throws SendByOpException {
         log.debug("Updating flight: {}", flightDto);
         try {
+            // Listes de l'ancien statut et de l'ancien trajet
+            flightRepository.findById(flightDto.getFlightId()).ifPresent(flightCacheService::flightChanged);
             Flight flight = flightMapper.toEntity(flightDto);
             Flight updatedFlight = flightRepository.save(flight);
+            flightCacheService.flightChanged(updatedFlight);
             log.info("Successfully updated flight with id: {}", flightDto.getFlightId());
             return flightMapper.toDto(updatedFlight);
         } catch (Exception e) {
@@ -245,9 +266,7 @@ public class FlightService implements IVolService {
         
         log.info("Found {} valid and active flights for public API", activeFuture.size());
         
-        return activeFuture.stream()
-                .map(this::convertToPublicFlightDto)
-                .collect(Collectors.toList());
+        return convertToPublicFlightDtos(activeFuture);
     }
 
     @Override
@@ -258,7 +277,10 @@ public class FlightService implements IVolService {
         Page<Flight> flightsPage = flightRepository.findByValidationStatusAndCancelledAndDepartureDateAfterOrderByDepartureDateDesc(1, 0, pageable);
         
         // Convert to DTO directly (filtering is done at repository level for better performance)
-        Page<PublicFlightDto> publicFlightsPage = flightsPage.map(this::convertToPublicFlightDto);
+        Page<PublicFlightDto> publicFlightsPage = new PageImpl<>(
+                convertToPublicFlightDtos(flightsPage.getContent()),
+                flightsPage.getPageable(),
+                flightsPage.getTotalElements());
         
         log.info("Found {} valid and active flights for public API (page {} of {})", 
                 publicFlightsPage.getNumberOfElements(), 
@@ -271,58 +293,185 @@ public class FlightService implements IVolService {
     @Override
     public PublicFlightDto getPublicFlightById(int id) {
         log.debug("Fetching public flight details for flight id: {}", id);
+        List<PublicFlightDto> found = flightCacheService.resolve(FlightCacheService.FLIGHTS_PUBLIC, List.of(id),
+                this::loadPublicFlightDtos);
+        if (!found.isEmpty()) {
+            return found.get(0);
+        }
+        
+        // Vol absent ou expiré (les vols expirés ne sont pas mis en cache)
         Flight flight = flightRepository.findByFlightId(id)
                 .orElseThrow(() -> {
                     log.error("Flight not found with flight id: {}", id);
                     return new EntityNotFoundException("Flight not found with flight id: " + id);
                 });
+        log.warn("Attempt to access expired flight: {}", flight.getFlightId());
+        throw new EntityNotFoundException("Ce vol n'est plus disponible (expiré)");
+    }
+
+    /**
+     * DTO publics des vols donnés, par id (vols expirés exclus)
+     */
+    private Map<Integer, PublicFlightDto> loadPublicFlightDtos(Collection<Integer> flightIds) {
+        List<Flight> flights = flightRepository.findByFlightIdIn(flightIds).stream()
+                .filter(flight -> flight.getStatus() != FlightStatus.EXPIRED)
+                .collect(Collectors.toList());
+        return convertToPublicFlightDtos(flights).stream()
+                .collect(Collectors.toMap(PublicFlightDto::getFlightId, Function.identity()));
+    }
+
+    /**
+     * Recherche publique paginée par position (departureDate, id) : le curseur encode
+     * la position du dernier vol de la page, la page suivante reprend strictement après
+     */
+    @Override
+    public FlightSearchResultDto searchPublicFlights(FlightSearchCriteria criteria) throws SendByOpException {
+        int size = criteria.getSize() == null ? DEFAULT_SEARCH_PAGE_SIZE
+                : Math.max(1, Math.min(criteria.getSize(), MAX_SEARCH_PAGE_SIZE));
+        
+        Date afterDate = null;
+        Integer afterId = null;
+        if (criteria.getCursor() != null && !criteria.getCursor().isBlank()) {
+            String[] position = criteria.getCursor().split("_");
+            try {
+                if (position.length != 2) {
+                    throw new NumberFormatException(criteria.getCursor());
+                }
+                afterDate = new Date(Long.parseLong(position[0]));
+                afterId = Integer.valueOf(position[1]);
+            } catch (NumberFormatException e) {
+                throw new SendByOpException(ErrorInfo.INVALID_DATA, "Curseur de recherche invalide");
+            }
+        }
         
-        // Vérifier que le vol n'est pas expiré
-        if (flight.getStatus() == FlightStatus.EXPIRED) {
-            log.warn("Attempt to access expired flight: {}", id);
-            throw new EntityNotFoundException("Ce vol n'est plus disponible (expiré)");
+        // Première page d'un trajet sans autre filtre : liste d'ids en cache par trajet
+        if (afterId == null && isRouteOnly(criteria)) {
+            FlightSearchResultDto cached = searchRouteFromCache(criteria, size);
+            if (cached != null) {
+                return cached;
+            }
         }
         
-        PublicFlightDto publicFlightDto = convertToPublicFlightDto(flight);
-        log.info("Successfully retrieved public flight details for flight id: {}", id);
-        return publicFlightDto;
+        // Un vol de plus que la page pour savoir s'il reste des résultats
+        List<Flight> flights = flightRepository.searchPublicFlights(criteria, afterDate, afterId, size + 1);
+        boolean hasMore = flights.size() > size;
+        if (hasMore) {
+            flights = flights.subList(0, size);
+        }
+        
+        String nextCursor = null;
+        if (hasMore) {
+            Flight last = flights.get(flights.size() - 1);
+            nextCursor = last.getDepartureDate().getTime() + "_" + last.getFlightId();
+        }
+        
+        log.debug("Public flight search returned {} flight(s), hasMore={}", flights.size(), hasMore);
+        
+        return FlightSearchResultDto.builder()
+                .flights(convertToPublicFlightDtos(flights))
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
     }
 
-    private PublicFlightDto convertToPublicFlightDto(Flight flight) {
-        // Calculate available weight
-        Float totalBookedWeight = parcelRepository.getTotalWeightByFlightId(flight.getFlightId());
-        if (totalBookedWeight == null) {
-            totalBookedWeight = 0.0f;
-        } 
-        float availableWeight = flight.getKgCount() - totalBookedWeight;
-        
-        // Get stopovers for this flight
-        List<Stopover> stopovers = stopoverRepository.findByFlight(flight);
+    /**
+     * Première page d'une recherche par trajet depuis le cache flights:route
+     * La liste en cache contient les MAX_SEARCH_PAGE_SIZE + 1 premiers vols du trajet ; les vols
+     * partis depuis sa mise en cache sont écartés. Retourne null si, après ce filtrage, la liste
+     * ne suffit plus à remplir la page (recherche en base).
+     */
+    private FlightSearchResultDto searchRouteFromCache(FlightSearchCriteria criteria, int size) {
+        String route = FlightCacheService.routeKey(criteria.getDepartureAirportId(), criteria.getArrivalAirportId());
+        List<Integer> flightIds = flightCacheService.getIds(FlightCacheService.FLIGHTS_ROUTE, route, () -> {
+            FlightSearchCriteria routeCriteria = FlightSearchCriteria.builder()
+                    .departureAirportId(criteria.getDepartureAirportId())
+                    .arrivalAirportId(criteria.getArrivalAirportId())
+                    .build();
+            return flightRepository.searchPublicFlights(routeCriteria, null, null, MAX_SEARCH_PAGE_SIZE + 1).stream()
+                    .map(Flight::getFlightId)
+                    .collect(Collectors.toList());
+        });
+        
+        Date now = new Date();
+        List<PublicFlightDto> flights = flightCacheService.resolve(FlightCacheService.FLIGHTS_PUBLIC, flightIds,
+                        this::loadPublicFlightDtos).stream()
+                .filter(flight -> flight.getDepartureDate().after(now))
+                .collect(Collectors.toList());
+        
+        boolean hasMore = flights.size() > size;
+        if (!hasMore && flightIds.size() > MAX_SEARCH_PAGE_SIZE) {
+            return null;
+        }
+        if (hasMore) {
+            flights = flights.subList(0, size);
+        }
+        
+        String nextCursor = null;
+        if (hasMore) {
+            PublicFlightDto last = flights.get(flights.size() - 1);
+            nextCursor = last.getDepartureDate().getTime() + "_" + last.getFlightId();
+        }
+        
+        return FlightSearchResultDto.builder()
+                .flights(new ArrayList<>(flights))
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+    
+    private static boolean isRouteOnly(FlightSearchCriteria criteria) {
+        return criteria.getDepartureAirportId() != null && criteria.getArrivalAirportId() != null
+                && criteria.getDepartureCityId() == null && criteria.getArrivalCityId() == null
+                && criteria.getDepartureCountryId() == null && criteria.getArrivalCountryId() == null
+                && criteria.getDepartureFrom() == null && criteria.getDepartureTo() == null
+                && criteria.getMinAvailableKg() == null && criteria.getMaxPricePerKg() == null;
+    }
+
+    /**
+     * Convertit une liste de vols en DTO publics avec un nombre fixe de requêtes :
+     * escales et résumés de notes des voyageurs sont chargés pour toute la liste,
+     * le poids réservé est lu sur le vol (registre de capacité)
+     */
+    private List<PublicFlightDto> convertToPublicFlightDtos(List<Flight> flights) {
+        if (flights.isEmpty()) {
+            return Collections.emptyList();
+        }
+        
+        Set<Integer> flightIds = flights.stream()
+                .map(Flight::getFlightId)
+                .collect(Collectors.toSet());
+        Set<Integer> travelerIds = flights.stream()
+                .map(flight -> flight.getCustomer().getId())
+                .collect(Collectors.toSet());
+        
+        Map<Integer, List<Stopover>> stopoversByFlight = stopoverRepository.findByFlightIds(flightIds).stream()
+                .collect(Collectors.groupingBy(stopover -> stopover.getFlight().getFlightId()));
+        
+        Map<Integer, TravelerRatingSummaryDto> ratingsByTraveler = travelerRatingService.getSummaries(travelerIds);
+        
+        return flights.stream()
+                .map(flight -> convertToPublicFlightDto(flight,
+                        stopoversByFlight.getOrDefault(flight.getFlightId(), Collections.emptyList()),
+                        ratingsByTraveler.get(flight.getCustomer().getId())))
+                .collect(Collectors.toList());
+    }
+
+    private PublicFlightDto convertToPublicFlightDto(Flight flight,
+                                                     List<Stopover> stopovers,
+                                                     TravelerRatingSummaryDto travelerRating) {
+        // Available weight from the capacity ledger (kilos held by active bookings)
+        float reservedKg = flight.getReservedKg() != null ? flight.getReservedKg().floatValue() : 0.0f;
+        float availableWeight = flight.getKgCount() - reservedKg;
+        
+        AirportRef departure = referenceDataService.getAirport(flight.getDepartureAirport());
+        AirportRef arrival = referenceDataService.getAirport(flight.getArrivalAirport());
         List<PublicStopoverDto> stopoverDtos = stopovers.stream()
                 .map(this::convertToPublicStopoverDto)
                 .collect(Collectors.toList());
         
-        // Calculate traveler average rating and review count
-        List<Review> travelerReviews = reviewRepository.findByTransporterIdAndBookingIsNotNull(flight.getCustomer().getId());
-        Double averageRating = null;
-        Integer reviewCount = travelerReviews.size();
-        
-        if (!travelerReviews.isEmpty()) {
-            double sum = travelerReviews.stream()
-                    .mapToDouble(review -> {
-                        try {
-                            // Convertir String rating en double
-                            return review.getRating() != null ? Double.parseDouble(review.getRating()) : 0.0;
-                        } catch (NumberFormatException e) {
-                            log.warn("Invalid rating format for review id {}: {}", review.getId(), review.getRating());
-                            return 0.0;
-                        }
-                    })
-                    .sum();
-            averageRating = sum / travelerReviews.size();
-            // Arrondir à 1 décimale
-            averageRating = Math.round(averageRating * 10.0) / 10.0;
-        }
+        // Traveler average rating and review count (precomputed summary, absent if no review)
+        Double averageRating = travelerRating != null ? travelerRating.getAverageRating() : null;
+        int reviewCount = travelerRating != null ? travelerRating.getReviewCount() : 0;
         
         // Get traveler profile picture URL
         String profilePictureUrl = null;
@@ -344,14 +493,14 @@ public class FlightService implements IVolService {
                 .image(flight.getImage())
                 .depositLocation(flight.getDepositLocation())
                 .receptionLocation(flight.getReceptionLocation())
-                .departureAirportName(flight.getDepartureAirport().getName())
-                .departureAirportCode(flight.getDepartureAirport().getIataCode())
-                .departureCityName(flight.getDepartureAirport().getCity().getName())
-                .departureCountryName(flight.getDepartureAirport().getCity().getCountry().getName())
-                .arrivalAirportName(flight.getArrivalAirport().getName())
-                .arrivalAirportCode(flight.getArrivalAirport().getIataCode())
-                .arrivalCityName(flight.getArrivalAirport().getCity().getName())
-                .arrivalCountryName(flight.getArrivalAirport().getCity().getCountry().getName())
+                .departureAirportName(departure.getName())
+                .departureAirportCode(departure.getIataCode())
+                .departureCityName(departure.getCityName())
+                .departureCountryName(departure.getCountryName())
+                .arrivalAirportName(arrival.getName())
+                .arrivalAirportCode(arrival.getIataCode())
+                .arrivalCityName(arrival.getCityName())
+                .arrivalCountryName(arrival.getCountryName())
                 .customerFirstName(flight.getCustomer().getFirstName())
                 .customerLastName(flight.getCustomer().getLastName())
                 .travelerProfilePictureUrl(profilePictureUrl)
@@ -362,14 +511,15 @@ public class FlightService implements IVolService {
     }
 
     private PublicStopoverDto convertToPublicStopoverDto(Stopover stopover) {
+        AirportRef airport = referenceDataService.getAirport(stopover.getAirport());
         return PublicStopoverDto.builder()
                 .id(stopover.getId())
                 .date(stopover.getDate())
                 .hour(stopover.getHour())
-                .airportName(stopover.getAirport().getName())
-                .airportCode(stopover.getAirport().getIataCode())
-                .cityName(stopover.getAirport().getCity().getName())
-                .countryName(stopover.getAirport().getCity().getCountry().getName())
+                .airportName(airport.getName())
+                .airportCode(airport.getIataCode())
+                .cityName(airport.getCityName())
+                .countryName(airport.getCountryName())
                 .build();
     }
     
@@ -390,9 +540,11 @@ public class FlightService implements IVolService {
         }
         
         // Changer le statut à ACTIVE
+        flightCacheService.flightChanged(flight);
         flight.setStatus(FlightStatus.ACTIVE);
         flight.setValidationStatus(1); // Pour compatibilité avec l'ancien système
         Flight validatedFlight = flightRepository.save(flight);
+        flightCacheService.flightChanged(validatedFlight);
         
         // Envoyer un email de validation au voyageur
         sendFlightValidationEmail(validatedFlight);
@@ -418,9 +570,11 @@ public class FlightService implements IVolService {
         }
         
         // Changer le statut à REJECTED
+        flightCacheService.flightChanged(flight);
         flight.setStatus(FlightStatus.REJECTED);
         flight.setValidationStatus(0); // Pour compatibilité avec l'ancien système
         Flight rejectedFlight = flightRepository.save(flight);
+        flightCacheService.flightChanged(rejectedFlight);
         
         // Envoyer un email de rejet au voyageur
         sendFlightRejectionEmail(rejectedFlight, reason);
@@ -448,6 +602,8 @@ public class FlightService implements IVolService {
     private void sendFlightCreationEmail(Flight flight) {
         try {
             String toEmail = flight.getCustomer().getEmail();
+            AirportRef departure = referenceDataService.getAirport(flight.getDepartureAirport());
+            AirportRef arrival = referenceDataService.getAirport(flight.getArrivalAirport());
             String subject = "Votre vol a été publié avec succès";
             
             String htmlContent = String.format("""
@@ -479,11 +635,11 @@ public class FlightService implements IVolService {
                 </html>
                 """,
                 flight.getCustomer().getFirstName(),
-                flight.getDepartureAirport().getCity().getName(),
-                flight.getDepartureAirport().getIataCode(),
+                departure.getCityName(),
+                departure.getIataCode(),
                 flight.getDepartureDate(),
-                flight.getArrivalAirport().getCity().getName(),
-                flight.getArrivalAirport().getIataCode(),
+                arrival.getCityName(),
+                arrival.getIataCode(),
                 flight.getArrivalDate(),
                 flight.getKgCount(),
                 flight.getAmountPerKg()
@@ -502,6 +658,8 @@ public class FlightService implements IVolService {
     private void sendFlightValidationEmail(Flight flight) {
         try {
             String toEmail = flight.getCustomer().getEmail();
+            AirportRef departure = referenceDataService.getAirport(flight.getDepartureAirport());
+            AirportRef arrival = referenceDataService.getAirport(flight.getArrivalAirport());
             String subject = "✅ Votre vol a été validé !";
             
             String htmlContent = String.format("""
@@ -533,11 +691,11 @@ public class FlightService implements IVolService {
                 </html>
                 """,
                 flight.getCustomer().getFirstName(),
-                flight.getDepartureAirport().getCity().getName(),
-                flight.getDepartureAirport().getIataCode(),
+                departure.getCityName(),
+                departure.getIataCode(),
                 flight.getDepartureDate(),
-                flight.getArrivalAirport().getCity().getName(),
-                flight.getArrivalAirport().getIataCode(),
+                arrival.getCityName(),
+                arrival.getIataCode(),
                 flight.getArrivalDate(),
                 flight.getKgCount(),
                 flight.getAmountPerKg()
@@ -556,6 +714,8 @@ public class FlightService implements IVolService {
     private void sendFlightRejectionEmail(Flight flight, String reason) {
         try {
             String toEmail = flight.getCustomer().getEmail();
+            AirportRef departure = referenceDataService.getAirport(flight.getDepartureAirport());
+            AirportRef arrival = referenceDataService.getAirport(flight.getArrivalAirport());
             String subject = "❌ Votre vol n'a pas été validé";
             
             String htmlContent = String.format("""
@@ -585,11 +745,11 @@ public class FlightService implements IVolService {
                 </html>
                 """,
                 flight.getCustomer().getFirstName(),
-                flight.getDepartureAirport().getCity().getName(),
-                flight.getDepartureAirport().getIataCode(),
+                departure.getCityName(),
+                departure.getIataCode(),
                 flight.getDepartureDate(),
-                flight.getArrivalAirport().getCity().getName(),
-                flight.getArrivalAirport().getIataCode(),
+                arrival.getCityName(),
+                arrival.getIataCode(),
                 flight.getArrivalDate(),
                 reason != null ? reason : "Informations du billet d'avion non conformes ou incomplètes."
             );
@@ -609,27 +769,21 @@ public class FlightService implements IVolService {
         FlightDto dto = flightMapper.toDto(flight);
         
         // Enrichir avec les informations de l'aéroport de départ
-        if (flight.getDepartureAirport() != null) {
-            dto.setDepartureAirportName(flight.getDepartureAirport().getName());
-            dto.setDepartureAirportCode(flight.getDepartureAirport().getIataCode());
-            if (flight.getDepartureAirport().getCity() != null) {
-                dto.setDepartureCityName(flight.getDepartureAirport().getCity().getName());
-                if (flight.getDepartureAirport().getCity().getCountry() != null) {
-                    dto.setDepartureCountryName(flight.getDepartureAirport().getCity().getCountry().getName());
-                }
-            }
+        AirportRef departure = referenceDataService.getAirport(flight.getDepartureAirport());
+        if (departure != null) {
+            dto.setDepartureAirportName(departure.getName());
+            dto.setDepartureAirportCode(departure.getIataCode());
+            dto.setDepartureCityName(departure.getCityName());
+            dto.setDepartureCountryName(departure.getCountryName());
         }
         
         // Enrichir avec les informations de l'aéroport d'arrivée
-        if (flight.getArrivalAirport() != null) {
-            dto.setArrivalAirportName(flight.getArrivalAirport().getName());
-            dto.setArrivalAirportCode(flight.getArrivalAirport().getIataCode());
-            if (flight.getArrivalAirport().getCity() != null) {
-                dto.setArrivalCityName(flight.getArrivalAirport().getCity().getName());
-                if (flight.getArrivalAirport().getCity().getCountry() != null) {
-                    dto.setArrivalCountryName(flight.getArrivalAirport().getCity().getCountry().getName());
-                }
-            }
+        AirportRef arrival = referenceDataService.getAirport(flight.getArrivalAirport());
+        if (arrival != null) {
+            dto.setArrivalAirportName(arrival.getName());
+            dto.setArrivalAirportCode(arrival.getIataCode());
+            dto.setArrivalCityName(arrival.getCityName());
+            dto.setArrivalCountryName(arrival.getCountryName());
         }
         
         // Enrichir avec les informations du client
@@ -1,73 +1,265 @@
 package com.sendByOP.expedition.services.impl;
 
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.sendByOP.expedition.models.dto.AirportDto;
-import com.sendByOP.expedition.models.dto.CityDto;
-import com.sendByOP.expedition.models.dto.CountryDto;
-import com.sendByOP.expedition.services.iServices.ICityService;
-import lombok.RequiredArgsConstructor;
-import org.springframework.boot.context.event.ApplicationReadyEvent;
-import org.springframework.context.event.EventListener;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
+/**
+ * Import des pays, villes et aéroports depuis un fichier JSON (liste de pays → villes → aéroports)
+ *
+ * Le fichier est lu en flux (un pays à la fois) et traité par lots : pour chaque lot, les
+ * lignes absentes de la base sont insérées par INSERT JDBC groupés, triées par clé naturelle
+ * (nom du pays, pays + nom de la ville, code IATA). Les lignes déjà présentes sont ignorées :
+ * l'import peut être relancé à chaque démarrage sans créer de doublon.
+ */
+@Slf4j
 @Component
-@RequiredArgsConstructor
 public class InternationalAirportDataLoader {
 
-    private final CountryService countryService;
-    private final ICityService cityService;
-    private final AirportService airportService;
+    private static final String SYSTEM_USER = "system";
+
+    private final JdbcTemplate jdbcTemplate;
     private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public InternationalAirportDataLoader(JdbcTemplate jdbcTemplate,
+                                          ObjectMapper objectMapper,
+                                          PlatformTransactionManager transactionManager,
+                                          @Value("${app.data.init.airports.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Importe le fichier et retourne le nombre de lignes insérées (pays, villes et aéroports)
+     */
+    public int importAirports(Resource resource) throws IOException {
+        long start = System.currentTimeMillis();
+        ImportState state = loadExistingKeys();
+        int airportsRead = 0;
+
+        try (InputStream inputStream = resource.getInputStream();
+             JsonParser parser = objectMapper.getFactory().createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Expected a JSON array of countries in " + resource.getDescription());
+            }
+
+            List<CountryJson> chunk = new ArrayList<>();
+            int chunkAirports = 0;
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                CountryJson country = objectMapper.readValue(parser, CountryJson.class);
+                chunk.add(country);
+                int airports = country.airportCount();
+                chunkAirports += airports;
+                airportsRead += airports;
+                if (chunkAirports >= batchSize) {
+                    importChunk(chunk, state);
+                    chunk = new ArrayList<>();
+                    chunkAirports = 0;
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(chunk, state);
+            }
+        }
+
+        long elapsed = Math.max(1, System.currentTimeMillis() - start);
+        int inserted = state.countriesInserted + state.citiesInserted + state.airportsInserted;
+        log.info("Airport import from {}: {} airport(s) read, inserted {} countries, {} cities, {} airports " +
+                        "in {} ms ({} rows/s)",
+                resource.getFilename(), airportsRead, state.countriesInserted, state.citiesInserted,
+                state.airportsInserted, elapsed, airportsRead * 1000L / elapsed);
+        return inserted;
+    }
 
-    /*@EventListener(ApplicationReadyEvent.class)
-    @Transactional
-    public void loadInternationalAirports() throws Exception {
-        // Charge le JSON des aéroports internationaux
-        try (InputStream is = Thread.currentThread()
-                .getContextClassLoader()
-                .getResourceAsStream("international-airports.json");
-        ) {
-            if (is == null) {
-                throw new IllegalStateException("Le fichier international-airports.json est introuvable");
+    /**
+     * Clés naturelles déjà en base (tables de référence : quelques milliers de lignes au plus)
+     */
+    private ImportState loadExistingKeys() {
+        ImportState state = new ImportState();
+        jdbcTemplate.query("SELECT country_id, name FROM country", rs -> {
+            state.countryIds.put(rs.getString("name"), rs.getInt("country_id"));
+        });
+        jdbcTemplate.query("SELECT city_id, name, country_id FROM city", rs -> {
+            state.cityIds.put(cityKey(rs.getInt("country_id"), rs.getString("name")), rs.getInt("city_id"));
+        });
+        jdbcTemplate.query("SELECT iata FROM airport", rs -> {
+            state.iataCodes.add(normalizeIata(rs.getString("iata")));
+        });
+        return state;
+    }
+
+    private void importChunk(List<CountryJson> chunk, ImportState state) {
+        transactionTemplate.executeWithoutResult(status -> {
+            insertCountries(chunk, state);
+            insertCities(chunk, state);
+            insertAirports(chunk, state);
+        });
+    }
+
+    private void insertCountries(List<CountryJson> chunk, ImportState state) {
+        Set<String> missing = new HashSet<>();
+        for (CountryJson country : chunk) {
+            if (country.country != null && !state.countryIds.containsKey(country.country)) {
+                missing.add(country.country);
             }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
 
-            List<CountryJson> countries = objectMapper.readValue(is, new TypeReference<>() {});
-
-            for (CountryJson countryJson : countries) {
-                // Enregistre le pays
-                CountryDto countryDto = CountryDto.builder()
-                        .name(countryJson.getCountry())
-                        .build();
-                countryDto = countryService.saveCountry(countryDto);
-
-                for (CityJson cityJson : countryJson.getCities()) {
-                    // Enregistre la ville
-                    CityDto cityDto = CityDto.builder()
-                            .name(cityJson.getCity())
-                            .countryId(countryDto.getCountryId())
-                            .build();
-                    cityDto = cityService.createCity(cityDto);
-
-                    for (AirportJson airportJson : cityJson.getAirports()) {
-                        // Enregistre l'aéroport
-                        AirportDto airportDto = AirportDto.builder()
-                                .name(airportJson.getName())
-                                .cityId(cityDto.getCityId())
-                                .iataCode(airportJson.getIataCode())
-                                .createdBy("system")
-                                .updatedBy("system")
-                                .build();
-                        airportService.saveAeroPort(airportDto);
+        List<String> names = new ArrayList<>(missing);
+        Collections.sort(names);
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO country (name, created_at, updated_at, created_by, updated_by) VALUES (?, ?, ?, ?, ?)",
+                names, batchSize, (ps, name) -> {
+                    ps.setString(1, name);
+                    ps.setTimestamp(2, now);
+                    ps.setTimestamp(3, now);
+                    ps.setString(4, SYSTEM_USER);
+                    ps.setString(5, SYSTEM_USER);
+                });
+        jdbcTemplate.query("SELECT country_id, name FROM country WHERE name IN (" + placeholders(names) + ")",
+                rs -> {
+                    state.countryIds.put(rs.getString("name"), rs.getInt("country_id"));
+                }, names.toArray());
+        state.countriesInserted += names.size();
+    }
+
+    private void insertCities(List<CountryJson> chunk, ImportState state) {
+        // Clé naturelle "countryId|nom" → (countryId, nom), triée
+        Map<String, Object[]> missing = new TreeMap<>();
+        for (CountryJson country : chunk) {
+            Integer countryId = state.countryIds.get(country.country);
+            if (countryId == null) {
+                continue;
+            }
+            for (CityJson city : country.cities()) {
+                String key = cityKey(countryId, city.city);
+                if (city.city != null && !state.cityIds.containsKey(key)) {
+                    missing.put(key, new Object[]{countryId, city.city});
+                }
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> rows = new ArrayList<>(missing.values());
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO city (name, country_id, created_at, updated_at, created_by, updated_by) VALUES (?, ?, ?, ?, ?, ?)",
+                rows, batchSize, (ps, row) -> {
+                    ps.setString(1, (String) row[1]);
+                    ps.setInt(2, (Integer) row[0]);
+                    ps.setTimestamp(3, now);
+                    ps.setTimestamp(4, now);
+                    ps.setString(5, SYSTEM_USER);
+                    ps.setString(6, SYSTEM_USER);
+                });
+
+        Set<Integer> countryIds = new HashSet<>();
+        rows.forEach(row -> countryIds.add((Integer) row[0]));
+        jdbcTemplate.query("SELECT city_id, name, country_id FROM city WHERE country_id IN (" + placeholders(countryIds) + ")",
+                rs -> {
+                    state.cityIds.put(cityKey(rs.getInt("country_id"), rs.getString("name")), rs.getInt("city_id"));
+                }, countryIds.toArray());
+        state.citiesInserted += rows.size();
+    }
+
+    private void insertAirports(List<CountryJson> chunk, ImportState state) {
+        List<AirportRow> rows = new ArrayList<>();
+        for (CountryJson country : chunk) {
+            Integer countryId = state.countryIds.get(country.country);
+            if (countryId == null) {
+                continue;
+            }
+            for (CityJson city : country.cities()) {
+                Integer cityId = state.cityIds.get(cityKey(countryId, city.city));
+                if (cityId == null) {
+                    continue;
+                }
+                for (AirportJson airport : city.airports()) {
+                    String iata = normalizeIata(airport.iataCode);
+                    // add() est faux si l'aéroport existe ou apparaît déjà dans le fichier
+                    if (!iata.isEmpty() && airport.name != null && state.iataCodes.add(iata)) {
+                        rows.add(new AirportRow(iata, airport.name, cityId));
                     }
                 }
             }
         }
-    }*/
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        rows.sort(Comparator.comparing(AirportRow::iata));
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO airport (name, iata, city_id, created_at, updated_at, created_by, updated_by) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                rows, batchSize, (ps, row) -> {
+                    ps.setString(1, row.name());
+                    ps.setString(2, row.iata());
+                    ps.setInt(3, row.cityId());
+                    ps.setTimestamp(4, now);
+                    ps.setTimestamp(5, now);
+                    ps.setString(6, SYSTEM_USER);
+                    ps.setString(7, SYSTEM_USER);
+                });
+        state.airportsInserted += rows.size();
+    }
+
+    private static String cityKey(Integer countryId, String name) {
+        return countryId + "|" + name;
+    }
+
+    private static String normalizeIata(String iata) {
+        return iata != null ? iata.trim().toUpperCase(Locale.ROOT) : "";
+    }
+
+    private static String placeholders(Collection<?> values) {
+        return String.join(", ", Collections.nCopies(values.size(), "?"));
+    }
+
+    /**
+     * Clés connues et compteurs d'un import
+     */
+    private static class ImportState {
+        private final Map<String, Integer> countryIds = new HashMap<>();
+        private final Map<String, Integer> cityIds = new HashMap<>();
+        private final Set<String> iataCodes = new HashSet<>();
+        private int countriesInserted;
+        private int citiesInserted;
+        private int airportsInserted;
+    }
+
+    private record AirportRow(String iata, String name, Integer cityId) {
+    }
 
     // Classes internes pour désérialisation
     private static class CountryJson {
@@ -78,6 +270,14 @@ public class InternationalAirportDataLoader {
         public void setCountry(String country) { this.country = country; }
         public List<CityJson> getCities() { return cities; }
         public void setCities(List<CityJson> cities) { this.cities = cities; }
+
+        List<CityJson> cities() {
+            return cities != null ? cities : List.of();
+        }
+
+        int airportCount() {
+            return cities().stream().mapToInt(city -> city.airports().size()).sum();
+        }
     }
 
     private static class CityJson {
@@ -88,6 +288,10 @@ public class InternationalAirportDataLoader {
         public void setCity(String city) { this.city = city; }
         public List<AirportJson> getAirports() { return airports; }
         public void setAirports(List<AirportJson> airports) { this.airports = airports; }
+
+        List<AirportJson> airports() {
+            return airports != null ? airports : List.of();
+        }
     }
 
     private static class AirportJson {
@@ -12,6 +12,8 @@ import com.itextpdf.layout.properties.TextAlignment;
 import com.itextpdf.layout.properties.UnitValue;
 import com.sendByOP.expedition.models.entities.Booking;
 import com.sendByOP.expedition.models.entities.Transaction;
+import com.sendByOP.expedition.reference.AirportRef;
+import com.sendByOP.expedition.reference.ReferenceDataService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -28,6 +30,8 @@ import java.time.format.DateTimeFormatter;
 @RequiredArgsConstructor
 public class InvoiceService {
     
+    private final ReferenceDataService referenceDataService;
+    
     /**
      * Génère une facture PDF pour une transaction
      * 
@@ -112,12 +116,10 @@ public class InvoiceService {
             
             addInfoRow(bookingTable, "Numéro de réservation:", "#" + transaction.getBooking().getId());
             
-            String departure = transaction.getBooking().getFlight().getDepartureAirport() != null && 
-                    transaction.getBooking().getFlight().getDepartureAirport().getCity() != null ? 
-                    transaction.getBooking().getFlight().getDepartureAirport().getCity().getName() : "N/A";
-            String arrival = transaction.getBooking().getFlight().getArrivalAirport() != null &&
-                    transaction.getBooking().getFlight().getArrivalAirport().getCity() != null ?
-                    transaction.getBooking().getFlight().getArrivalAirport().getCity().getName() : "N/A";
+            AirportRef departureAirport = referenceDataService.getAirport(transaction.getBooking().getFlight().getDepartureAirport());
+            AirportRef arrivalAirport = referenceDataService.getAirport(transaction.getBooking().getFlight().getArrivalAirport());
+            String departure = departureAirport != null ? departureAirport.getCityName() : "N/A";
+            String arrival = arrivalAirport != null ? arrivalAirport.getCityName() : "N/A";
             addInfoRow(bookingTable, "Itinéraire:", departure + " → " + arrival);
             
             if (transaction.getBooking().getFlight().getDepartureDate() != null) {
@@ -1,9 +1,13 @@
 package com.sendByOP.expedition.services.impl;
 
 import com.sendByOP.expedition.models.entities.Booking;
+import com.sendByOP.expedition.models.enums.NotificationType;
+import com.sendByOP.expedition.repositories.BookingRepository;
 import com.sendByOP.expedition.services.iServices.INotificationService;
+import com.sendByOP.expedition.reference.ReferenceDataService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import java.text.SimpleDateFormat;
@@ -12,6 +16,7 @@ import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -25,6 +30,8 @@ public class NotificationService implements INotificationService {
 
     private final SendMailService emailService;
     private final EmailTemplateService templateService;
+    private final BookingRepository bookingRepository;
+    private final ReferenceDataService referenceDataService;
     
     private static final SimpleDateFormat DATE_FORMAT = new SimpleDateFormat("dd/MM/yyyy");
     private static final SimpleDateFormat TIME_FORMAT = new SimpleDateFormat("HH:mm");
@@ -60,21 +67,23 @@ public class NotificationService implements INotificationService {
             Map<String, Object> variables = new HashMap<>();
             variables.put("customerName", booking.getCustomer().getFirstName() + " " + booking.getCustomer().getLastName());
             variables.put("bookingId", booking.getId());
-            variables.put("departureCity", booking.getFlight().getDepartureAirport().getCity().getName());
-            variables.put("arrivalCity", booking.getFlight().getArrivalAirport().getCity().getName());
+            variables.put("departureCity", referenceDataService.getAirport(booking.getFlight().getDepartureAirport()).getCityName());
+            variables.put("arrivalCity", referenceDataService.getAirport(booking.getFlight().getArrivalAirport()).getCityName());
             variables.put("departureDate", formatDate(booking.getFlight().getDepartureDate()));
             variables.put("totalPrice", booking.getTotalPrice());
             variables.put("status", booking.getStatus().getDisplayName());
             
             String htmlContent = templateService.generateBookingConfirmation(variables);
             
-            emailService.sendHtmlEmail(
+            emailService.sendBookingEmail(
+                    booking.getId(),
+                    NotificationType.BOOKING_CONFIRMED,
                     booking.getCustomer().getEmail(),
                     "Confirmation de réservation #" + booking.getId(),
                     htmlContent
             );
             
-            log.info("Booking confirmation email sent successfully");
+            log.info("Booking confirmation email queued");
         } catch (Exception e) {
             log.error("Failed to send booking confirmation email: {}", e.getMessage());
         }
@@ -91,19 +100,21 @@ public class NotificationService implements INotificationService {
             variables.put("customerName", booking.getCustomer().getFirstName() + " " + 
                                          booking.getCustomer().getLastName());
             variables.put("bookingId", booking.getId());
-            variables.put("departureCity", booking.getFlight().getDepartureAirport().getCity().getName());
-            variables.put("arrivalCity", booking.getFlight().getArrivalAirport().getCity().getName());
+            variables.put("departureCity", referenceDataService.getAirport(booking.getFlight().getDepartureAirport()).getCityName());
+            variables.put("arrivalCity", referenceDataService.getAirport(booking.getFlight().getArrivalAirport()).getCityName());
             variables.put("totalPrice", booking.getTotalPrice());
             
             String htmlContent = templateService.generateBookingPendingTraveler(variables);
             
-            emailService.sendHtmlEmail(
+            emailService.sendBookingEmail(
+                    booking.getId(),
+                    NotificationType.BOOKING_CREATED,
                     booking.getFlight().getCustomer().getEmail(),
                     "Nouvelle réservation #" + booking.getId(),
                     htmlContent
             );
             
-            log.info("Booking pending email sent successfully to traveler");
+            log.info("Booking pending email queued for traveler");
         } catch (Exception e) {
             log.error("Failed to send booking pending email: {}", e.getMessage());
         }
@@ -125,13 +136,15 @@ public class NotificationService implements INotificationService {
             
             String htmlContent = templateService.generatePaymentReminder(variables);
             
-            emailService.sendHtmlEmail(
+            emailService.sendBookingEmail(
+                    booking.getId(),
+                    NotificationType.PAYMENT_REMINDER,
                     booking.getCustomer().getEmail(),
                     "⚠️ Rappel de paiement - Réservation #" + booking.getId(),
                     htmlContent
             );
             
-            log.info("Payment reminder sent successfully");
+            log.info("Payment reminder queued");
         } catch (Exception e) {
             log.error("Failed to send payment reminder: {}", e.getMessage());
         }
@@ -151,13 +164,15 @@ public class NotificationService implements INotificationService {
             
             String htmlContent = templateService.generateDeliveryNotification(variables);
             
-            emailService.sendHtmlEmail(
+            emailService.sendBookingEmail(
+                    booking.getId(),
+                    NotificationType.DELIVERY_CONFIRMED,
                     booking.getCustomer().getEmail(),
                     "✓ Colis livré - Réservation #" + booking.getId(),
                     htmlContent
             );
             
-            log.info("Delivery notification sent successfully");
+            log.info("Delivery notification queued");
         } catch (Exception e) {
             log.error("Failed to send delivery notification: {}", e.getMessage());
         }
@@ -176,18 +191,31 @@ public class NotificationService implements INotificationService {
             
             String htmlContent = templateService.generateCancellationNotice(variables);
             
-            emailService.sendHtmlEmail(
+            emailService.sendBookingEmail(
+                    booking.getId(),
+                    NotificationType.BOOKING_CANCELLED,
                     booking.getCustomer().getEmail(),
                     "Annulation de réservation #" + booking.getId(),
                     htmlContent
             );
             
-            log.info("Cancellation notice sent successfully");
+            log.info("Cancellation notice queued");
         } catch (Exception e) {
             log.error("Failed to send cancellation notice: {}", e.getMessage());
         }
     }
 
+    @Override
+    @Async
+    public void sendCancellationNotices(List<Integer> bookingIds, String reason) {
+        log.info("Sending {} cancellation notice(s)", bookingIds.size());
+        
+        // Une requête pour charger les réservations et leurs clients, puis un email par réservation
+        for (Booking booking : bookingRepository.findByIdIn(bookingIds)) {
+            sendCancellationNotice(booking, reason);
+        }
+    }
+
     @Override
     public void sendPickupConfirmation(Booking booking) {
         log.info("Sending pickup confirmations");
@@ -202,13 +230,15 @@ public class NotificationService implements INotificationService {
             
             String customerHtml = templateService.generatePickupConfirmationCustomer(customerVariables);
             
-            emailService.sendHtmlEmail(
+            emailService.sendBookingEmail(
+                    booking.getId(),
+                    NotificationType.DELIVERY_CONFIRMED,
                     booking.getCustomer().getEmail(),
                     "✓ Colis récupéré - Réservation #" + booking.getId(),
                     customerHtml
             );
             
-            log.info("Pickup confirmation sent to customer");
+            log.info("Pickup confirmation queued for customer");
         } catch (Exception e) {
             log.error("Failed to send pickup confirmation to customer: {}", e.getMessage());
         }
@@ -225,13 +255,15 @@ public class NotificationService implements INotificationService {
             
             String travelerHtml = templateService.generatePickupConfirmationTraveler(travelerVariables);
             
-            emailService.sendHtmlEmail(
+            emailService.sendBookingEmail(
+                    booking.getId(),
+                    NotificationType.DELIVERY_CONFIRMED,
                     booking.getFlight().getCustomer().getEmail(),
                     "✓ Livraison confirmée - Réservation #" + booking.getId(),
                     travelerHtml
             );
             
-            log.info("Pickup confirmation sent to traveler");
+            log.info("Pickup confirmation queued for traveler");
         } catch (Exception e) {
             log.error("Failed to send pickup confirmation to traveler: {}", e.getMessage());
         }
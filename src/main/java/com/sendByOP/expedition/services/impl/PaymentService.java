@@ -14,6 +14,7 @@ import com.sendByOP.expedition.repositories.BookingRepository;
 import com.sendByOP.expedition.repositories.CustomerRepository;
 import com.sendByOP.expedition.repositories.TransactionRepository;
 import com.sendByOP.expedition.services.payment.*;
+import jakarta.mail.MessagingException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -23,10 +24,13 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.UnsupportedEncodingException;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 import com.sendByOP.expedition.utils.DateTimeUtils;
+import com.sendByOP.expedition.reference.AirportRef;
+import com.sendByOP.expedition.reference.ReferenceDataService;
 
 /**
  * Service principal de gestion des paiements
@@ -49,6 +53,7 @@ public class PaymentService {
     
     private final InvoiceService invoiceService;
     private final SendMailService emailService;
+    private final ReferenceDataService referenceDataService;
     
     /**
      * Initie un paiement de manière sécurisée avec idempotence
@@ -140,17 +145,11 @@ public class PaymentService {
     }
     
     /**
-     * Traite une notification webhook de paiement
+     * Vérifie la signature d'une notification webhook (à la réception, avant mise en file)
      */
-    @Transactional
-    public void processWebhookNotification(WebhookPaymentNotification notification, 
-                                          PaymentMethod paymentMethod, 
-                                          String signature) throws SendByOpException {
-        
-        log.info("Traitement webhook {} - Transaction: {}", 
-                paymentMethod, notification.getTransactionReference());
-        
-        // 1. Vérifier la signature du webhook
+    public void verifyWebhookSignature(WebhookPaymentNotification notification,
+                                       PaymentMethod paymentMethod,
+                                       String signature) throws SendByOpException {
         PaymentProvider provider = getProvider(paymentMethod);
         if (!provider.verifyWebhookSignature(notification, signature)) {
             log.error("Signature webhook invalide pour la transaction: {}", 
@@ -158,20 +157,35 @@ public class PaymentService {
             throw new SendByOpException(ErrorInfo.UNAUTHORIZED, 
                     "Signature webhook invalide");
         }
+    }
+    
+    /**
+     * Applique une notification webhook déjà vérifiée à la transaction et à la réservation
+     * Appelé par PaymentWebhookDispatcher ; la facture est générée ensuite par sendInvoiceIfDue
+     *
+     * @return référence de la transaction concernée
+     */
+    @Transactional
+    public String applyWebhookNotification(WebhookPaymentNotification notification, 
+                                         PaymentMethod paymentMethod) throws SendByOpException {
+        
+        log.info("Traitement webhook {} - Transaction: {}", 
+                paymentMethod, notification.getTransactionReference());
         
-        // 2. Récupérer la transaction
+        // 1. Récupérer la transaction
+        PaymentProvider provider = getProvider(paymentMethod);
         String transactionRef = provider.processWebhookNotification(notification);
         Transaction transaction = transactionRepository.findByTransactionReference(transactionRef)
                 .orElseThrow(() -> new SendByOpException(ErrorInfo.RESOURCE_NOT_FOUND, 
                         "Transaction non trouvée: " + transactionRef));
         
-        // 3. Vérifier que la transaction n'est pas déjà complétée
+        // 2. Vérifier que la transaction n'est pas déjà complétée
         if (transaction.getStatus() == TransactionStatus.COMPLETED) {
             log.warn("Transaction déjà complétée, webhook ignoré: {}", transactionRef);
-            return;
+            return transactionRef;
         }
         
-        // 4. Mettre à jour le statut de la transaction selon la notification
+        // 3. Mettre à jour le statut de la transaction selon la notification
         TransactionStatus newStatus = mapWebhookStatus(notification.getStatus());
         transaction.setStatus(newStatus);
         transaction.setExternalTransactionId(notification.getExternalTransactionId());
@@ -180,21 +194,13 @@ public class PaymentService {
         if ("SUCCESS".equals(notification.getStatus())) {
             transaction.setCompletedAt(LocalDateTime.now());
             
-            // 5. Mettre à jour le statut de la réservation
+            // 4. Mettre à jour le statut de la réservation
             Booking booking = transaction.getBooking();
             booking.setStatus(BookingStatus.CONFIRMED_PAID);
             bookingRepository.save(booking);
             
             log.info("Paiement complété avec succès - Transaction: {}", transactionRef);
             
-            // 6. Générer et envoyer la facture
-            try {
-                generateAndSendInvoice(transaction);
-            } catch (Exception e) {
-                log.error("Erreur lors de la génération de la facture: {}", e.getMessage());
-                // Ne pas faire échouer le webhook si la facture échoue
-            }
-            
         } else if ("FAILED".equals(notification.getStatus())) {
             transaction.setErrorMessage(notification.getMessage());
             transaction.setErrorCode(notification.getErrorCode());
@@ -203,6 +209,24 @@ public class PaymentService {
         }
         
         transactionRepository.save(transaction);
+        return transactionRef;
+    }
+    
+    /**
+     * Génère la facture d'une transaction complétée et la met en file d'envoi, une seule fois
+     * (l'email et le marqueur invoiceSent sont enregistrés dans la même transaction)
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public void sendInvoiceIfDue(String transactionReference)
+            throws SendByOpException, MessagingException, UnsupportedEncodingException {
+        Transaction transaction = transactionRepository.findByTransactionReference(transactionReference)
+                .orElseThrow(() -> new SendByOpException(ErrorInfo.RESOURCE_NOT_FOUND, 
+                        "Transaction non trouvée: " + transactionReference));
+        if (transaction.getStatus() != TransactionStatus.COMPLETED
+                || Boolean.TRUE.equals(transaction.getInvoiceSent())) {
+            return;
+        }
+        generateAndSendInvoice(transaction);
     }
     
     /**
@@ -249,38 +273,34 @@ public class PaymentService {
     }
     
     /**
-     * Génère et envoie la facture par email
+     * Génère la facture PDF et la met en file d'envoi par email
      */
-    private void generateAndSendInvoice(Transaction transaction) {
-        try {
-            log.info("Génération de la facture pour la transaction: {}", 
-                    transaction.getTransactionReference());
-            
-            // Générer la facture PDF
-            byte[] invoicePdf = invoiceService.generateInvoice(transaction);
-            
-            // Envoyer par email
-            String customerEmail = transaction.getCustomer().getEmail();
-            String subject = "Facture SendByOp - " + transaction.getTransactionReference();
-            String body = buildInvoiceEmailBody(transaction);
-            
-            emailService.sendEmailWithAttachment(
-                    customerEmail, 
-                    subject, 
-                    body, 
-                    invoicePdf, 
-                    "facture_" + transaction.getTransactionReference() + ".pdf"
-            );
-            
-            // Marquer la facture comme envoyée
-            transaction.setInvoiceSent(true);
-            transactionRepository.save(transaction);
-            
-            log.info("Facture envoyée avec succès à: {}", customerEmail);
-            
-        } catch (Exception e) {
-            log.error("Erreur lors de l'envoi de la facture: {}", e.getMessage());
-        }
+    private void generateAndSendInvoice(Transaction transaction)
+            throws MessagingException, UnsupportedEncodingException {
+        log.info("Génération de la facture pour la transaction: {}", 
+                transaction.getTransactionReference());
+        
+        // Générer la facture PDF
+        byte[] invoicePdf = invoiceService.generateInvoice(transaction);
+        
+        // Envoyer par email
+        String customerEmail = transaction.getCustomer().getEmail();
+        String subject = "Facture SendByOp - " + transaction.getTransactionReference();
+        String body = buildInvoiceEmailBody(transaction);
+        
+        emailService.sendEmailWithAttachment(
+                customerEmail, 
+                subject, 
+                body, 
+                invoicePdf, 
+                "facture_" + transaction.getTransactionReference() + ".pdf"
+        );
+        
+        // Marquer la facture comme envoyée
+        transaction.setInvoiceSent(true);
+        transactionRepository.save(transaction);
+        
+        log.info("Facture mise en file d'envoi pour: {}", customerEmail);
     }
     
     /**
@@ -475,17 +495,16 @@ public class PaymentService {
         Booking booking = transaction.getBooking();
         Flight flight = booking != null ? booking.getFlight() : null;
         
+        AirportRef departure = flight != null ? referenceDataService.getAirport(flight.getDepartureAirport()) : null;
+        AirportRef arrival = flight != null ? referenceDataService.getAirport(flight.getArrivalAirport()) : null;
+        
         PaymentHistoryDto.FlightInfoDto flightInfo = null;
         if (flight != null) {
             flightInfo = PaymentHistoryDto.FlightInfoDto.builder()
-                    .departureCityName(flight.getDepartureAirport() != null && flight.getDepartureAirport().getCity() != null ? 
-                            flight.getDepartureAirport().getCity().getName() : "N/A")
-                    .departureAirportCode(flight.getDepartureAirport() != null ? 
-                            flight.getDepartureAirport().getIataCode() : "N/A")
-                    .arrivalCityName(flight.getArrivalAirport() != null && flight.getArrivalAirport().getCity() != null ? 
-                            flight.getArrivalAirport().getCity().getName() : "N/A")
-                    .arrivalAirportCode(flight.getArrivalAirport() != null ? 
-                            flight.getArrivalAirport().getIataCode() : "N/A")
+                    .departureCityName(departure != null ? departure.getCityName() : "N/A")
+                    .departureAirportCode(departure != null ? departure.getIataCode() : "N/A")
+                    .arrivalCityName(arrival != null ? arrival.getCityName() : "N/A")
+                    .arrivalAirportCode(arrival != null ? arrival.getIataCode() : "N/A")
                     .departureDate(flight.getDepartureDate() != null ? flight.getDepartureDate().toString() : "N/A")
                     .build();
         }
@@ -504,10 +523,8 @@ public class PaymentService {
                 .paymentMethod(transaction.getPaymentMethod().getDisplayName())
                 .transactionReference(transaction.getTransactionReference())
                 .flightNumber(flight != null && flight.getFlightId() != null ? "VOL-" + flight.getFlightId() : "N/A")
-                .departureCity(flight != null && flight.getDepartureAirport() != null && flight.getDepartureAirport().getCity() != null ? 
-                        flight.getDepartureAirport().getCity().getName() : "N/A")
-                .arrivalCity(flight != null && flight.getArrivalAirport() != null && flight.getArrivalAirport().getCity() != null ? 
-                        flight.getArrivalAirport().getCity().getName() : "N/A")
+                .departureCity(departure != null ? departure.getCityName() : "N/A")
+                .arrivalCity(arrival != null ? arrival.getCityName() : "N/A")
                 .departureDate(flight != null && flight.getDepartureDate() != null ? flight.getDepartureDate().toString() : "N/A")
                 .flight(flightInfo)
                 .build();
@@ -0,0 +1,172 @@
+package com.sendByOP.expedition.services.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sendByOP.expedition.models.dto.WebhookPaymentNotification;
+import com.sendByOP.expedition.models.entities.PaymentWebhookEvent;
+import com.sendByOP.expedition.models.enums.WebhookEventStatus;
+import com.sendByOP.expedition.models.events.PaymentWebhookReceivedEvent;
+import com.sendByOP.expedition.repositories.PaymentWebhookEventRepository;
+import com.sendByOP.expedition.scheduling.RetryingQueueDispatcher;
+import com.sendByOP.expedition.scheduling.SchedulerLockService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Traitement des webhooks de paiement reçus (payment_webhook_event)
+ *
+ * Déclenché après l'enregistrement de chaque notification et, en filet de sécurité, par un
+ * polling régulier. Les notifications d'une même transaction sont appliquées une à une dans
+ * l'ordre de réception ; les transactions différentes sont traitées en parallèle sur un pool
+ * borné. La facture (PDF et email) est générée ici, hors de la requête du provider. Chaque
+ * échec replanifie la notification avec un délai exponentiel et retient les suivantes de la
+ * même transaction, jusqu'à l'abandon (statut DEAD). Un seul nœud traite la file à la fois
+ * (boucle, verrou et délais communs : RetryingQueueDispatcher).
+ */
+@Slf4j
+@Component
+public class PaymentWebhookDispatcher extends RetryingQueueDispatcher<PaymentWebhookEvent> {
+
+    private final PaymentWebhookEventRepository eventRepository;
+    private final PaymentService paymentService;
+    private final ObjectMapper objectMapper;
+    private final Duration retention;
+
+    public PaymentWebhookDispatcher(PaymentWebhookEventRepository eventRepository,
+                                    PaymentService paymentService,
+                                    ObjectMapper objectMapper,
+                                    SchedulerLockService schedulerLockService,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${app.payment.webhook.pool-size:4}") int poolSize,
+                                    @Value("${app.payment.webhook.batch-size:100}") int batchSize,
+                                    @Value("${app.payment.webhook.max-attempts:10}") int maxAttempts,
+                                    @Value("${app.payment.webhook.initial-backoff:10s}") Duration initialBackoff,
+                                    @Value("${app.payment.webhook.max-backoff:30m}") Duration maxBackoff,
+                                    @Value("${app.payment.webhook.retention:30d}") Duration retention) {
+        super("paymentWebhooks", schedulerLockService, transactionManager,
+                poolSize, batchSize, maxAttempts, initialBackoff, maxBackoff);
+        this.eventRepository = eventRepository;
+        this.paymentService = paymentService;
+        this.objectMapper = objectMapper;
+        this.retention = retention;
+    }
+
+    /**
+     * Traitement immédiat après la validation de l'enregistrement de la notification
+     */
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onWebhookReceived(PaymentWebhookReceivedEvent event) {
+        dispatch();
+    }
+
+    /**
+     * Polling : nouvelles tentatives arrivées à échéance et notifications manquées (redémarrage, autre nœud)
+     */
+    @Scheduled(fixedDelayString = "${app.payment.webhook.poll-interval-ms:5000}")
+    public void poll() {
+        dispatch();
+    }
+
+    /**
+     * Purge quotidienne des notifications traitées (les abandons sont conservés pour analyse)
+     */
+    @Scheduled(cron = "0 45 3 * * *")
+    public void purgeProcessed() {
+        purge("paymentWebhookPurge", () -> eventRepository.deleteByStatusAndProcessedAtBefore(
+                WebhookEventStatus.PROCESSED, LocalDateTime.now().minus(retention)), "processed payment webhook(s)");
+    }
+
+    @Override
+    protected List<PaymentWebhookEvent> findDue(Pageable batch) {
+        return eventRepository.findDue(WebhookEventStatus.PENDING, LocalDateTime.now(), batch);
+    }
+
+    /**
+     * Une tâche par transaction : ses notifications sont traitées en séquence, dans l'ordre du lot
+     */
+    @Override
+    protected void processBatch(List<PaymentWebhookEvent> events) {
+        long start = System.currentTimeMillis();
+        Map<String, List<PaymentWebhookEvent>> byTransaction = new LinkedHashMap<>();
+        for (PaymentWebhookEvent event : events) {
+            byTransaction.computeIfAbsent(event.getTransactionReference(), ref -> new ArrayList<>()).add(event);
+        }
+
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        byTransaction.values().forEach(transactionEvents ->
+                futures.add(CompletableFuture.supplyAsync(() -> processInOrder(transactionEvents), workers)));
+        int processed = futures.stream().mapToInt(CompletableFuture::join).sum();
+
+        log.info("Payment webhook batch: {} processed, {} deferred over {} transaction(s) in {} ms",
+                processed, events.size() - processed, byTransaction.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Traite les notifications d'une transaction ; s'arrête au premier échec pour que les
+     * suivantes ne soient pas appliquées avant elle
+     *
+     * @return nombre de notifications traitées
+     */
+    private int processInOrder(List<PaymentWebhookEvent> events) {
+        int processed = 0;
+        for (PaymentWebhookEvent event : events) {
+            String error = process(event);
+            LocalDateTime now = LocalDateTime.now();
+            int attempts = event.getAttempts() + 1;
+            if (error == null) {
+                transactionTemplate.executeWithoutResult(status ->
+                        eventRepository.markProcessed(event.getId(), WebhookEventStatus.PROCESSED, now));
+                processed++;
+                continue;
+            }
+            if (isLastAttempt(attempts)) {
+                log.error("Payment webhook {} for transaction {} abandoned after {} attempt(s): {}",
+                        event.getId(), event.getTransactionReference(), attempts, error);
+                transactionTemplate.executeWithoutResult(status -> eventRepository.markFailed(
+                        event.getId(), WebhookEventStatus.DEAD, attempts, now, error));
+            } else {
+                LocalDateTime nextAttemptAt = nextAttemptAt(now, attempts);
+                log.warn("Payment webhook {} for transaction {} failed (attempt {}), retry at {}: {}",
+                        event.getId(), event.getTransactionReference(), attempts, nextAttemptAt, error);
+                transactionTemplate.executeWithoutResult(status -> eventRepository.markFailed(
+                        event.getId(), WebhookEventStatus.PENDING, attempts, nextAttemptAt, error));
+            }
+            break;
+        }
+        return processed;
+    }
+
+    /**
+     * Applique une notification puis génère la facture si le paiement est complété ;
+     * retourne null en cas de succès, le message d'erreur sinon
+     *
+     * Les deux étapes sont idempotentes : une nouvelle tentative après l'échec de la facture
+     * ignore la transaction déjà complétée et ne génère la facture que si elle n'a pas été envoyée.
+     */
+    private String process(PaymentWebhookEvent event) {
+        try {
+            WebhookPaymentNotification notification =
+                    objectMapper.readValue(event.getPayload(), WebhookPaymentNotification.class);
+            String transactionReference = paymentService.applyWebhookNotification(notification, event.getProvider());
+            paymentService.sendInvoiceIfDue(transactionReference);
+            return null;
+        } catch (Exception e) {
+            return errorMessage(e);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.sendByOP.expedition.services.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sendByOP.expedition.exception.ErrorInfo;
+import com.sendByOP.expedition.exception.SendByOpException;
+import com.sendByOP.expedition.models.dto.WebhookPaymentNotification;
+import com.sendByOP.expedition.models.entities.PaymentWebhookEvent;
+import com.sendByOP.expedition.models.enums.PaymentMethod;
+import com.sendByOP.expedition.models.enums.WebhookEventStatus;
+import com.sendByOP.expedition.models.events.PaymentWebhookReceivedEvent;
+import com.sendByOP.expedition.repositories.PaymentWebhookEventRepository;
+import com.sendByOP.expedition.utils.HashUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+/**
+ * Réception des webhooks de paiement (table payment_webhook_event)
+ *
+ * La notification est vérifiée (signature) puis enregistrée telle quelle avant
+ * l'acquittement : le provider n'attend ni la mise à jour de la transaction, ni la facture.
+ * Un renvoi de la même notification (timeout côté provider) est reconnu par la clé unique
+ * (provider, event_id) et acquitté sans nouveau traitement. Le traitement est fait par
+ * PaymentWebhookDispatcher.
+ */
+@Slf4j
+@Service
+public class PaymentWebhookIntakeService {
+
+    private final PaymentWebhookEventRepository eventRepository;
+    private final PaymentService paymentService;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    public PaymentWebhookIntakeService(PaymentWebhookEventRepository eventRepository,
+                                       PaymentService paymentService,
+                                       ObjectMapper objectMapper,
+                                       ApplicationEventPublisher eventPublisher,
+                                       PlatformTransactionManager transactionManager) {
+        this.eventRepository = eventRepository;
+        this.paymentService = paymentService;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Enregistre une notification webhook pour traitement asynchrone
+     *
+     * @return false si la même notification a déjà été reçue (renvoi du provider)
+     * @throws SendByOpException si la signature est invalide
+     */
+    public boolean receive(WebhookPaymentNotification notification,
+                           PaymentMethod paymentMethod,
+                           String signature) throws SendByOpException {
+        paymentService.verifyWebhookSignature(notification, paymentMethod, signature);
+
+        String eventId = eventId(notification);
+        if (eventRepository.existsByProviderAndEventId(paymentMethod, eventId)) {
+            log.info("Duplicate {} webhook for transaction {} ignored", paymentMethod,
+                    notification.getTransactionReference());
+            return false;
+        }
+
+        String payload = toJson(notification);
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                PaymentWebhookEvent saved = eventRepository.saveAndFlush(PaymentWebhookEvent.builder()
+                        .provider(paymentMethod)
+                        .eventId(eventId)
+                        .transactionReference(notification.getTransactionReference())
+                        .payload(payload)
+                        .status(WebhookEventStatus.PENDING)
+                        .attempts(0)
+                        .nextAttemptAt(now)
+                        .receivedAt(now)
+                        .build());
+                eventPublisher.publishEvent(new PaymentWebhookReceivedEvent(saved.getId()));
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Renvoi reçu en même temps (autre requête ou autre nœud)
+            log.info("Duplicate {} webhook for transaction {} received concurrently", paymentMethod,
+                    notification.getTransactionReference());
+            return false;
+        }
+        return true;
+    }
+
+    private String toJson(WebhookPaymentNotification notification) throws SendByOpException {
+        try {
+            return objectMapper.writeValueAsString(notification);
+        } catch (JsonProcessingException e) {
+            throw new SendByOpException(ErrorInfo.INTERNAL_ERROR, "Notification webhook illisible");
+        }
+    }
+
+    /**
+     * Empreinte des champs qui identifient une notification (hors horodatage et message libre)
+     */
+    private static String eventId(WebhookPaymentNotification notification) {
+        return HashUtils.sha256Hex(notification.getTransactionReference(), notification.getExternalTransactionId(),
+                notification.getStatus(), notification.getErrorCode());
+    }
+}
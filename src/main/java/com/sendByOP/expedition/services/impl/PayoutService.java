@@ -5,20 +5,40 @@ import com.sendByOP.expedition.exception.SendByOpException;
 import com.sendByOP.expedition.models.dto.PayoutDto;
 import com.sendByOP.expedition.models.entities.Booking;
 import com.sendByOP.expedition.models.entities.Payout;
+import com.sendByOP.expedition.models.entities.PayoutBatchRun;
 import com.sendByOP.expedition.models.enums.BookingStatus;
+import com.sendByOP.expedition.models.enums.PayoutBatchStatus;
 import com.sendByOP.expedition.models.enums.PayoutStatus;
 import com.sendByOP.expedition.repositories.BookingRepository;
+import com.sendByOP.expedition.repositories.PayoutBatchRunRepository;
 import com.sendByOP.expedition.repositories.PayoutRepository;
 import com.sendByOP.expedition.repositories.PlatformSettingsRepository;
 import com.sendByOP.expedition.services.iServices.IPayoutService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -32,10 +52,46 @@ public class PayoutService implements IPayoutService {
     private final PayoutRepository payoutRepository;
     private final BookingRepository bookingRepository;
     private final PlatformSettingsRepository platformSettingsRepository;
+    private final PayoutBatchRunRepository payoutBatchRunRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Moyen de versement utilisé par défaut pour les payouts
+     */
+    private static final String DEFAULT_PAYOUT_METHOD = "BANK_TRANSFER";
+
+    /**
+     * Versements en cours par moyen de versement : chaque prestataire limite ses appels
+     * simultanés, indépendamment du nombre de workers du batch
+     */
+    private final Map<String, Semaphore> methodPermits = new ConcurrentHashMap<>();
+
+    @Value("${app.payout.parallelism:4}")
+    private int parallelism;
+
+    @Value("${app.payout.chunk-size:200}")
+    private int chunkSize;
+
+    @Value("${app.payout.max-concurrent-per-method:2}")
+    private int maxConcurrentPerMethod;
+
+    /**
+     * Résultat du traitement d'une réservation par le batch
+     */
+    private enum PayoutOutcome {
+        CREATED, SKIPPED, FAILED
+    }
 
     @Override
     @Transactional
     public PayoutDto processPayoutToTraveler(Integer bookingId) throws SendByOpException {
+        return convertToDto(createPayout(bookingId));
+    }
+
+    /**
+     * Crée le payout d'une réservation récupérée (doit être appelé dans une transaction)
+     */
+    private Payout createPayout(Integer bookingId) throws SendByOpException {
         log.info("Processing payout for booking {}", bookingId);
 
         // Vérifier que la réservation existe
@@ -95,16 +151,17 @@ public class PayoutService implements IPayoutService {
         payout.setPlatformPercentage(platformPercentage);
         payout.setVatPercentage(vatPercentage);
         payout.setStatus(PayoutStatus.PENDING);
-        payout.setPaymentMethod("BANK_TRANSFER"); // Par défaut
+        payout.setPaymentMethod(payoutMethod(bookingId));
+        payout.setIdempotencyKey(idempotencyKey(bookingId));
 
         // Sauvegarder
         Payout savedPayout = payoutRepository.save(payout);
         log.info("Payout {} created for booking {}", savedPayout.getId(), bookingId);
 
-        // TODO: Déclencher le processus de paiement réel
+        // TODO: Déclencher le processus de paiement réel avec payout.getIdempotencyKey()
         // processPayment(savedPayout);
 
-        return convertToDto(savedPayout);
+        return savedPayout;
     }
 
     @Override
@@ -126,41 +183,140 @@ public class PayoutService implements IPayoutService {
                 .orElse(null);
     }
 
+    /**
+     * Parcourt les réservations récupérées sans payout par lots (curseur sur l'id).
+     * Chaque lot est réparti sur un pool borné de workers, chaque payout dans sa propre
+     * transaction ; le curseur est enregistré après chaque lot pour qu'une exécution
+     * interrompue reprenne là où elle s'était arrêtée.
+     */
     @Override
-    @Transactional
     public int processAutomaticPayouts() {
-        log.info("Processing automatic payouts for completed bookings");
+        PayoutBatchRun run = resumeOrStartRun();
+        log.info("Processing automatic payouts for completed bookings (run {}, after booking {})",
+                run.getId(), run.getLastBookingId());
 
+        long start = System.nanoTime();
         int processedCount = 0;
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism, workerThreadFactory());
 
         try {
-            // Récupérer toutes les réservations PICKED_UP
-            List<Booking> completedBookings = bookingRepository.findByStatus(BookingStatus.PICKED_UP);
-
-            log.debug("Found {} completed bookings", completedBookings.size());
-
-            for (Booking booking : completedBookings) {
-                // Vérifier si payout existe déjà
-                if (!payoutRepository.existsByBookingId(booking.getId())) {
-                    try {
-                        processPayoutToTraveler(booking.getId());
-                        processedCount++;
-                        log.debug("Payout processed for booking {}", booking.getId());
-                    } catch (SendByOpException e) {
-                        log.error("Failed to process payout for booking {}: {}",
-                                booking.getId(), e.getMessage());
-                    }
+            Pageable chunk = PageRequest.of(0, chunkSize);
+            List<Integer> bookingIds;
+            do {
+                bookingIds = bookingRepository.findIdsWithoutPayoutByStatus(
+                        BookingStatus.PICKED_UP, run.getLastBookingId(), chunk);
+                if (bookingIds.isEmpty()) {
+                    break;
                 }
-            }
 
-            log.info("Processed {} automatic payouts", processedCount);
+                Map<PayoutOutcome, Long> outcomes = processChunk(workers, bookingIds);
+                int created = outcomes.getOrDefault(PayoutOutcome.CREATED, 0L).intValue();
+                int failed = outcomes.getOrDefault(PayoutOutcome.FAILED, 0L).intValue();
+                processedCount += created;
+
+                run.setLastBookingId(bookingIds.get(bookingIds.size() - 1));
+                run.setProcessedCount(run.getProcessedCount() + created);
+                run.setFailedCount(run.getFailedCount() + failed);
+                run.setCheckpointAt(LocalDateTime.now());
+                run = payoutBatchRunRepository.save(run);
+            } while (bookingIds.size() == chunkSize);
+
+            run.setStatus(PayoutBatchStatus.COMPLETED);
+            run.setFinishedAt(LocalDateTime.now());
+            payoutBatchRunRepository.save(run);
+
+            long elapsedMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            log.info("Processed {} automatic payouts in {} ms ({} payouts/s, {} failed in run {})",
+                    processedCount, elapsedMs, processedCount * 1000L / elapsedMs,
+                    run.getFailedCount(), run.getId());
         } catch (Exception e) {
-            log.error("Error during automatic payout processing", e);
+            log.error("Error during automatic payout processing (run {} resumable after booking {})",
+                    run.getId(), run.getLastBookingId(), e);
+        } finally {
+            workers.shutdown();
         }
 
         return processedCount;
     }
 
+    /**
+     * Reprend l'exécution interrompue la plus récente, ou en démarre une nouvelle
+     */
+    private PayoutBatchRun resumeOrStartRun() {
+        return payoutBatchRunRepository.findFirstByStatusOrderByIdDesc(PayoutBatchStatus.RUNNING)
+                .orElseGet(() -> payoutBatchRunRepository.save(PayoutBatchRun.builder()
+                        .status(PayoutBatchStatus.RUNNING)
+                        .startedAt(LocalDateTime.now())
+                        .build()));
+    }
+
+    /**
+     * Traite un lot en parallèle et attend la fin de tous ses payouts
+     */
+    private Map<PayoutOutcome, Long> processChunk(ExecutorService workers, List<Integer> bookingIds) {
+        List<CompletableFuture<PayoutOutcome>> futures = bookingIds.stream()
+                .map(bookingId -> CompletableFuture.supplyAsync(() -> payoutBooking(bookingId), workers))
+                .collect(Collectors.toList());
+
+        return futures.stream()
+                .map(CompletableFuture::join)
+                .collect(Collectors.groupingBy(Function.identity(), () -> new EnumMap<>(PayoutOutcome.class),
+                        Collectors.counting()));
+    }
+
+    /**
+     * Crée le payout d'une réservation dans sa propre transaction, dans la limite de
+     * versements simultanés de son moyen de versement (les autres moyens ne sont pas retenus)
+     */
+    private PayoutOutcome payoutBooking(Integer bookingId) {
+        Semaphore permits = methodPermits.computeIfAbsent(payoutMethod(bookingId),
+                method -> new Semaphore(maxConcurrentPerMethod));
+        permits.acquireUninterruptibly();
+        try {
+            transactionTemplate.executeWithoutResult(status -> createPayout(bookingId));
+            log.debug("Payout processed for booking {}", bookingId);
+            return PayoutOutcome.CREATED;
+        } catch (SendByOpException e) {
+            if (e.getErrorInfo() == ErrorInfo.DUPLICATE_ENTRY) {
+                return PayoutOutcome.SKIPPED;
+            }
+            log.error("Failed to process payout for booking {}: {}", bookingId, e.getMessages());
+            return PayoutOutcome.FAILED;
+        } catch (DataIntegrityViolationException e) {
+            // Clé d'idempotence déjà utilisée : payout créé entre-temps par un autre worker
+            log.debug("Payout for booking {} already created", bookingId);
+            return PayoutOutcome.SKIPPED;
+        } catch (Exception e) {
+            log.error("Failed to process payout for booking {}: {}", bookingId, e.getMessage());
+            return PayoutOutcome.FAILED;
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Moyen de versement du payout d'une réservation (un seul moyen pour l'instant)
+     */
+    private static String payoutMethod(Integer bookingId) {
+        return DEFAULT_PAYOUT_METHOD;
+    }
+
+    private static ThreadFactory workerThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, "payout-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Clé d'idempotence du payout d'une réservation, transmise au prestataire de versement
+     */
+    private static String idempotencyKey(Integer bookingId) {
+        return "PAYOUT-" + bookingId;
+    }
+
     /**
      * Convertit une entité Payout en DTO
      */
@@ -7,6 +7,8 @@ import com.sendByOP.expedition.services.iServices.IReservationService;
 import com.sendByOP.expedition.exception.ErrorInfo;
 import com.sendByOP.expedition.exception.SendByOpException;
 import com.sendByOP.expedition.repositories.BookingRepository;
+import com.sendByOP.expedition.reference.AirportRef;
+import com.sendByOP.expedition.reference.ReferenceDataService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -30,6 +32,7 @@ public class ReservationService implements IReservationService {
     private final BookingMapper bookingMapper;
     private final CustomerService customerService;
     private final FraudGuardService fraudGuardService;
+    private final ReferenceDataService referenceDataService;
 
 
     @Override
@@ -409,6 +412,8 @@ public class ReservationService implements IReservationService {
     }
 
     private CustomerBookingDto.FlightSummaryDto convertToFlightSummaryDto(com.sendByOP.expedition.models.entities.Flight flight) {
+        AirportRef departure = referenceDataService.getAirport(flight.getDepartureAirport());
+        AirportRef arrival = referenceDataService.getAirport(flight.getArrivalAirport());
         return CustomerBookingDto.FlightSummaryDto.builder()
                 .id(flight.getFlightId())
                 .departureDate(flight.getDepartureDate())
@@ -417,14 +422,14 @@ public class ReservationService implements IReservationService {
                 .arrivalTime(flight.getArrivalTime())
                 .availableWeight(flight.getKgCount() != null ? flight.getKgCount().doubleValue() : 0.0)
                 .pricePerKg(flight.getAmountPerKg() != null ? flight.getAmountPerKg().doubleValue() : 0.0)
-                .departureAirportName(flight.getDepartureAirport().getName())
-                .departureAirportCode(flight.getDepartureAirport().getIataCode())
-                .departureCityName(flight.getDepartureAirport().getCity().getName())
-                .departureCountryName(flight.getDepartureAirport().getCity().getCountry().getName())
-                .arrivalAirportName(flight.getArrivalAirport().getName())
-                .arrivalAirportCode(flight.getArrivalAirport().getIataCode())
-                .arrivalCityName(flight.getArrivalAirport().getCity().getName())
-                .arrivalCountryName(flight.getArrivalAirport().getCity().getCountry().getName())
+                .departureAirportName(departure.getName())
+                .departureAirportCode(departure.getIataCode())
+                .departureCityName(departure.getCityName())
+                .departureCountryName(departure.getCountryName())
+                .arrivalAirportName(arrival.getName())
+                .arrivalAirportCode(arrival.getIataCode())
+                .arrivalCityName(arrival.getCityName())
+                .arrivalCountryName(arrival.getCountryName())
                 .travelerFirstName(flight.getCustomer().getFirstName())
                 .travelerLastName(flight.getCustomer().getLastName())
                 .build();
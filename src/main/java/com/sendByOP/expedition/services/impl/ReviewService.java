@@ -6,6 +6,7 @@ import com.sendByOP.expedition.mappers.CustomerMapper;
 import com.sendByOP.expedition.mappers.ReviewMapper;
 import com.sendByOP.expedition.models.dto.CustomerDto;
 import com.sendByOP.expedition.models.dto.ReviewDto;
+import com.sendByOP.expedition.models.dto.TravelerRatingSummaryDto;
 import com.sendByOP.expedition.models.entities.Booking;
 import com.sendByOP.expedition.models.entities.Customer;
 import com.sendByOP.expedition.models.entities.Review;
@@ -13,6 +14,7 @@ import com.sendByOP.expedition.models.enums.BookingStatus;
 import com.sendByOP.expedition.repositories.BookingRepository;
 import com.sendByOP.expedition.repositories.ReviewRepository;
 import com.sendByOP.expedition.services.iServices.IReviewService;
+import com.sendByOP.expedition.reference.ReferenceDataService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -33,6 +35,8 @@ public class ReviewService implements IReviewService {
     private final BookingRepository bookingRepository;
     private final ReviewMapper reviewMapper;
     private final CustomerMapper customerMapper;
+    private final TravelerRatingService travelerRatingService;
+    private final ReferenceDataService referenceDataService;
 
     @Override
     public ReviewDto saveReview(ReviewDto reviewDto) {
@@ -42,6 +46,7 @@ public class ReviewService implements IReviewService {
 
         Review review = reviewMapper.toEntity(reviewDto);
         Review savedReview = reviewRepository.save(review);
+        travelerRatingService.recordReview(savedReview);
         return reviewMapper.toDto(savedReview);
     }
 
@@ -132,6 +137,7 @@ public class ReviewService implements IReviewService {
         review.setTransporter(booking.getFlight().getCustomer()); // Voyageur qui est noté
 
         Review savedReview = reviewRepository.save(review);
+        travelerRatingService.recordReview(savedReview);
 
         log.info("Review saved successfully for booking {}", booking.getId());
 
@@ -152,6 +158,14 @@ public class ReviewService implements IReviewService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Récupère le résumé des notes d'un voyageur (moyenne, nombre d'avis, répartition)
+     */
+    @Override
+    public TravelerRatingSummaryDto getTravelerRatingSummary(Integer travelerId) {
+        return travelerRatingService.getSummary(travelerId);
+    }
+
     /**
      * Récupère les avis donnés par un client sur ses réservations
      */
@@ -212,8 +226,8 @@ public class ReviewService implements IReviewService {
             dto.setReviewerName(review.getShipper().getFirstName() + " " + review.getShipper().getLastName());
             dto.setTravelerId(String.valueOf(review.getTransporter().getId())); // Ajouter le travelerId
             dto.setFlightInfo(
-                    review.getBooking().getFlight().getDepartureAirport().getCity().getName() + " → " +
-                            review.getBooking().getFlight().getArrivalAirport().getCity().getName()
+                    referenceDataService.getAirport(review.getBooking().getFlight().getDepartureAirport()).getCityName() + " → " +
+                            referenceDataService.getAirport(review.getBooking().getFlight().getArrivalAirport()).getCityName()
             );
         }
 
@@ -1,29 +1,46 @@
 package com.sendByOP.expedition.services.impl;
 
 import com.sendByOP.expedition.models.entities.Booking;
-import com.sendByOP.expedition.models.entities.Flight;
 import com.sendByOP.expedition.models.entities.PlatformSettings;
+import com.sendByOP.expedition.models.enums.BookingStatus;
 import com.sendByOP.expedition.models.enums.FlightStatus;
 import com.sendByOP.expedition.repositories.BookingRepository;
 import com.sendByOP.expedition.repositories.FlightRepository;
 import com.sendByOP.expedition.repositories.PlatformSettingsRepository;
 import com.sendByOP.expedition.repositories.ReviewRepository;
+import com.sendByOP.expedition.scheduling.SchedulerLockService;
+import com.sendByOP.expedition.scheduling.Shard;
+import com.sendByOP.expedition.utils.DateTimeUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.time.ZoneId;
 import java.util.Date;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
 
 /**
  * Service gérant les tâches planifiées (CRON jobs)
  * - Expiration des vols
  * - Confirmation automatique de réception
  * - Fermeture des avis
+ *
+ * L'annulation des réservations impayées (échéance payment_deadline) est faite par
+ * BookingScheduler via BookingService.autoCancelUnpaidBookings.
+ *
+ * Chaque job lit uniquement les lignes échues via une requête indexée (statut + échéance)
+ * et les traite par lots de taille fixe, chacun dans sa propre transaction.
+ * Un seul nœud exécute chaque tâche (ou chaque shard) grâce à SchedulerLockService.
  */
 @Service
 @Slf4j
@@ -34,6 +51,15 @@ public class ScheduledTasksService {
     private final BookingRepository bookingRepository;
     private final ReviewRepository reviewRepository;
     private final PlatformSettingsRepository platformSettingsRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final SchedulerLockService schedulerLockService;
+    private final FlightCacheService flightCacheService;
+    
+    /**
+     * Taille des lots traités par transaction
+     */
+    @Value("${app.scheduling.chunk-size:500}")
+    private int chunkSize;
     
     /**
      * CRON JOB 1: Marquer automatiquement les vols comme EXPIRED
@@ -42,34 +68,41 @@ public class ScheduledTasksService {
      * Exécuté toutes les heures
      */
     @Scheduled(cron = "0 0 * * * *") // Toutes les heures à la minute 0
-    @Transactional
     public void expireFlights() {
-        log.info("=== CRON: Vérification des vols expirés ===");
+        schedulerLockService.runSharded("expireFlights", Duration.ofMinutes(50), this::expireFlights);
+    }
+    
+    private void expireFlights(Shard shard) {
+        log.info("=== CRON: Vérification des vols expirés (shard {}/{}) ===", shard.getIndex(), shard.getCount());
         
         try {
             Date now = new Date();
             
-            // Trouver tous les vols actifs dont la date d'arrivée est passée
-            List<Flight> expiredFlights = flightRepository.findAll().stream()
-                    .filter(flight -> flight.getStatus() == FlightStatus.ACTIVE)
-                    .filter(flight -> flight.getArrivalDate() != null)
-                    .filter(flight -> flight.getArrivalDate().before(now))
-                    .toList();
+            // Marquer comme EXPIRED les vols actifs dont la date d'arrivée est passée :
+            // sélection d'un lot d'ids puis un seul UPDATE par lot, chaque lot dans sa transaction
+            Pageable chunk = PageRequest.of(0, chunkSize);
+            int expiredCount = 0;
+            List<Integer> flightIds;
+            do {
+                flightIds = transactionTemplate.execute(status -> {
+                    List<Integer> ids = flightRepository.findIdsByStatusAndArrivalDateBefore(
+                            FlightStatus.ACTIVE, now, shard.getIndex(), shard.getCount(), chunk);
+                    if (!ids.isEmpty()) {
+                        flightRepository.bulkUpdateStatus(ids, FlightStatus.ACTIVE, FlightStatus.EXPIRED, new Date());
+                        flightCacheService.flightsChanged(ids);
+                        log.info("Vols marqués comme EXPIRED: {}", ids);
+                    }
+                    return ids;
+                });
+                expiredCount += flightIds != null ? flightIds.size() : 0;
+            } while (flightIds != null && flightIds.size() == chunkSize);
             
-            if (expiredFlights.isEmpty()) {
+            if (expiredCount == 0) {
                 log.info("Aucun vol expiré trouvé");
                 return;
             }
             
-            // Marquer comme EXPIRED
-            expiredFlights.forEach(flight -> {
-                flight.setStatus(FlightStatus.EXPIRED);
-                flightRepository.save(flight);
-                log.info("Vol {} marqué comme EXPIRED (arrivée: {})", 
-                        flight.getFlightId(), flight.getArrivalDate());
-            });
-            
-            log.info("=== {} vol(s) marqué(s) comme EXPIRED ===", expiredFlights.size());
+            log.info("=== {} vol(s) marqué(s) comme EXPIRED ===", expiredCount);
             
         } catch (Exception e) {
             log.error("Erreur lors de l'expiration des vols: {}", e.getMessage(), e);
@@ -84,9 +117,12 @@ public class ScheduledTasksService {
      * Exécuté toutes les 6 heures
      */
     @Scheduled(cron = "0 0 */6 * * *") // Toutes les 6 heures
-    @Transactional
     public void autoConfirmReception() {
-        log.info("=== CRON: Confirmation automatique de réception ===");
+        schedulerLockService.runSharded("autoConfirmReception", Duration.ofHours(1), this::autoConfirmReception);
+    }
+    
+    private void autoConfirmReception(Shard shard) {
+        log.info("=== CRON: Confirmation automatique de réception (shard {}/{}) ===", shard.getIndex(), shard.getCount());
         
         try {
             PlatformSettings settings = platformSettingsRepository.findAll().stream()
@@ -102,40 +138,31 @@ public class ScheduledTasksService {
             LocalDateTime deadline = LocalDateTime.now()
                     .minusHours(settings.getReceptionConfirmationHours());
             
-            // Trouver toutes les réservations livrées mais non confirmées depuis plus de 72h
-            List<Booking> bookingsToConfirm = bookingRepository.findAll().stream()
-                    .filter(booking -> "PARCEL_DELIVERED_TO_RECEIVER".equals(booking.getStatus()) ||
-                                      "DELIVERED".equals(booking.getStatus()))
-                    .filter(booking -> booking.getUpdatedAt() != null)
-                    .filter(booking -> {
-                        LocalDateTime updatedAt = booking.getUpdatedAt()
-                                .toInstant()
-                                .atZone(ZoneId.systemDefault())
-                                .toLocalDateTime();
-                        return updatedAt.isBefore(deadline);
-                    })
-                    .toList();
+            // Trouver les réservations livrées mais non confirmées depuis plus de 72h et les confirmer
+            int confirmedCount = processInChunks(
+                    (afterId, chunk) -> bookingRepository.findChunkByStatusInAndUpdatedAtBefore(
+                            EnumSet.of(BookingStatus.PARCEL_DELIVERED_TO_RECEIVER, BookingStatus.DELIVERED),
+                            toDate(deadline), afterId, shard.getIndex(), shard.getCount(), chunk),
+                    Booking::getId,
+                    booking -> {
+                        booking.setStatus(BookingStatus.CONFIRMED_BY_RECEIVER);
+                        booking.setCustomerReceptionStatus(1); // Reçu
+                        bookingRepository.save(booking);
+                        
+                        log.info("Réservation {} confirmée automatiquement (présomption de bonne réception)", 
+                                booking.getId());
+                        
+                        // TODO: Déclencher le versement au voyageur
+                        // payoutService.initiatePayoutToTraveler(booking);
+                    });
             
-            if (bookingsToConfirm.isEmpty()) {
+            if (confirmedCount == 0) {
                 log.info("Aucune réservation à confirmer automatiquement");
                 return;
             }
             
-            // Confirmer automatiquement
-            bookingsToConfirm.forEach(booking -> {
-                booking.setStatus(com.sendByOP.expedition.models.enums.BookingStatus.CONFIRMED_BY_RECEIVER);
-                booking.setCustomerReceptionStatus(1); // Reçu
-                bookingRepository.save(booking);
-                
-                log.info("Réservation {} confirmée automatiquement (présomption de bonne réception)", 
-                        booking.getId());
-                
-                // TODO: Déclencher le versement au voyageur
-                // payoutService.initiatePayoutToTraveler(booking);
-            });
-            
             log.info("=== {} réservation(s) confirmée(s) automatiquement ===", 
-                    bookingsToConfirm.size());
+                    confirmedCount);
             
         } catch (Exception e) {
             log.error("Erreur lors de la confirmation automatique: {}", e.getMessage(), e);
@@ -149,9 +176,12 @@ public class ScheduledTasksService {
      * Exécuté tous les jours à minuit
      */
     @Scheduled(cron = "0 0 0 * * *") // Tous les jours à minuit
-    @Transactional
     public void closeExpiredReviews() {
-        log.info("=== CRON: Fermeture des périodes d'avis expirées ===");
+        schedulerLockService.runSharded("closeExpiredReviews", Duration.ofHours(1), this::closeExpiredReviews);
+    }
+    
+    private void closeExpiredReviews(Shard shard) {
+        log.info("=== CRON: Fermeture des périodes d'avis expirées (shard {}/{}) ===", shard.getIndex(), shard.getCount());
         
         try {
             PlatformSettings settings = platformSettingsRepository.findAll().stream()
@@ -167,38 +197,24 @@ public class ScheduledTasksService {
             LocalDateTime deadline = LocalDateTime.now()
                     .minusDays(settings.getReviewDeadlineDays());
             
-            // Trouver toutes les réservations confirmées depuis plus de 90 jours
-            // qui n'ont pas encore d'avis
-            List<Booking> expiredBookings = bookingRepository.findAll().stream()
-                    .filter(booking -> "CONFIRMED_BY_RECEIVER".equals(booking.getStatus()) ||
-                                      "PICKED_UP".equals(booking.getStatus()))
-                    .filter(booking -> booking.getUpdatedAt() != null)
-                    .filter(booking -> {
-                        LocalDateTime confirmedAt = booking.getUpdatedAt()
-                                .toInstant()
-                                .atZone(ZoneId.systemDefault())
-                                .toLocalDateTime();
-                        return confirmedAt.isBefore(deadline);
-                    })
-                    .filter(booking -> {
-                        // Vérifier qu'il n'y a pas déjà un avis
-                        return reviewRepository.findByBookingId(booking.getId()).isEmpty();
-                    })
-                    .toList();
+            // Trouver les réservations confirmées depuis plus de 90 jours
+            // qui n'ont pas encore d'avis (NOT EXISTS évalué en base)
+            int expiredCount = processInChunks(
+                    (afterId, chunk) -> bookingRepository.findChunkWithoutReviewByStatusInAndUpdatedAtBefore(
+                            EnumSet.of(BookingStatus.CONFIRMED_BY_RECEIVER, BookingStatus.PICKED_UP),
+                            toDate(deadline), afterId, shard.getIndex(), shard.getCount(), chunk),
+                    Booking::getId,
+                    // Marquer ces réservations (vous pouvez ajouter un flag si nécessaire)
+                    booking -> log.info("Réservation {} - Période d'avis expirée (confirmée le: {})", 
+                            booking.getId(), booking.getUpdatedAt()));
             
-            if (expiredBookings.isEmpty()) {
+            if (expiredCount == 0) {
                 log.info("Aucune période d'avis expirée");
                 return;
             }
             
-            // Marquer ces réservations (vous pouvez ajouter un flag si nécessaire)
             log.info("=== {} réservation(s) dont la période d'avis est expirée ===", 
-                    expiredBookings.size());
-            
-            expiredBookings.forEach(booking -> {
-                log.info("Réservation {} - Période d'avis expirée (confirmée le: {})", 
-                        booking.getId(), booking.getUpdatedAt());
-            });
+                    expiredCount);
             
         } catch (Exception e) {
             log.error("Erreur lors de la fermeture des avis: {}", e.getMessage(), e);
@@ -206,65 +222,43 @@ public class ScheduledTasksService {
     }
     
     /**
-     * CRON JOB 4: Vérifier et annuler les réservations dont le délai de paiement est expiré
-     * 
-     * Exécuté toutes les 30 minutes
+     * Parcourt les lignes échues par lots de taille fixe (pagination par clé sur l'id),
+     * chaque lot étant lu et traité dans sa propre transaction : mémoire bornée et
+     * aucune transaction longue, quel que soit le volume.
+     *
+     * @param fetch  requête d'un lot (dernier id traité, taille du lot)
+     * @param idOf   extraction de l'id servant de curseur
+     * @param action traitement d'une ligne
+     * @return nombre total de lignes traitées
      */
-    @Scheduled(cron = "0 */30 * * * *") // Toutes les 30 minutes
-    @Transactional
-    public void cancelUnpaidBookings() {
-        log.info("=== CRON: Vérification des réservations impayées ===");
+    private <T> int processInChunks(BiFunction<Integer, Pageable, List<T>> fetch,
+                                    ToIntFunction<T> idOf,
+                                    Consumer<T> action) {
+        Pageable chunk = PageRequest.of(0, chunkSize);
+        int processed = 0;
+        int afterId = 0;
         
-        try {
-            PlatformSettings settings = platformSettingsRepository.findAll().stream()
-                    .findFirst()
-                    .orElse(null);
+        while (true) {
+            int cursor = afterId;
+            List<T> rows = transactionTemplate.execute(status -> {
+                List<T> page = fetch.apply(cursor, chunk);
+                page.forEach(action);
+                return page;
+            });
             
-            if (settings == null) {
-                log.warn("Aucun paramètre de plateforme trouvé, utilisation valeur par défaut: 12h");
-                settings = new PlatformSettings();
-                settings.setPaymentTimeoutHours(12);
+            if (rows == null || rows.isEmpty()) {
+                return processed;
             }
+            processed += rows.size();
+            afterId = idOf.applyAsInt(rows.get(rows.size() - 1));
             
-            LocalDateTime deadline = LocalDateTime.now()
-                    .minusHours(settings.getPaymentTimeoutHours());
-            
-            // Trouver toutes les réservations confirmées mais non payées depuis plus de 12h
-            List<Booking> expiredBookings = bookingRepository.findAll().stream()
-                    .filter(booking -> "CONFIRMED_UNPAID".equals(booking.getStatus()))
-                    .filter(booking -> booking.getCreatedAt() != null)
-                    .filter(booking -> {
-                        LocalDateTime createdAt = booking.getCreatedAt()
-                                .toInstant()
-                                .atZone(ZoneId.systemDefault())
-                                .toLocalDateTime();
-                        return createdAt.isBefore(deadline);
-                    })
-                    .toList();
-            
-            if (expiredBookings.isEmpty()) {
-                log.info("Aucune réservation impayée à annuler");
-                return;
+            if (rows.size() < chunkSize) {
+                return processed;
             }
-            
-            // Annuler les réservations
-            expiredBookings.forEach(booking -> {
-                booking.setStatus(com.sendByOP.expedition.models.enums.BookingStatus.CANCELLED_PAYMENT_TIMEOUT);
-                booking.setCancelled(1);
-                bookingRepository.save(booking);
-                
-                log.info("Réservation {} annulée pour délai de paiement dépassé", 
-                        booking.getId());
-                
-                // TODO: Libérer le poids réservé sur le vol
-                // flightService.releaseWeight(booking.getFlight(), booking.getTotalWeight());
-            });
-            
-            log.info("=== {} réservation(s) annulée(s) pour délai de paiement dépassé ===", 
-                    expiredBookings.size());
-            
-        } catch (Exception e) {
-            log.error("Erreur lors de l'annulation des réservations impayées: {}", e.getMessage(), e);
         }
     }
+    
+    private static Date toDate(LocalDateTime dateTime) {
+        return DateTimeUtils.localDateTimeToDate(dateTime);
+    }
 }
@@ -5,6 +5,8 @@ import com.sendByOP.expedition.exception.SendByOpException;
 import com.sendByOP.expedition.models.dto.*;
 import com.sendByOP.expedition.models.entities.User;
 import com.sendByOP.expedition.repositories.UserRepository;
+import com.sendByOP.expedition.security.ratelimit.RateLimitDecision;
+import com.sendByOP.expedition.security.ratelimit.RateLimiterService;
 import com.sendByOP.expedition.services.iServices.ISecurityService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -23,6 +25,7 @@ public class SecurityService implements ISecurityService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final SendMailService sendMailService;
+    private final RateLimiterService rateLimiterService;
     
     private static final int OTP_LENGTH = 6;
     private static final long OTP_EXPIRATION_MINUTES = 10;
@@ -111,6 +114,13 @@ public class SecurityService implements ISecurityService {
                 "L'authentification à deux facteurs n'est pas activée pour cet utilisateur");
         }
         
+        // Limiter le nombre de codes envoyés par utilisateur (coût d'envoi, harcèlement)
+        RateLimitDecision decision = rateLimiterService.tryConsume(RateLimiterService.OTP_EMAIL_RULE, user.getEmail());
+        if (!decision.isAllowed()) {
+            throw new SendByOpException(ErrorInfo.RATE_LIMITED,
+                "Trop de codes demandés. Réessayez dans " + decision.getRetryAfterSeconds() + " secondes.");
+        }
+        
         // Générer un code OTP
         String otpCode = generateOTP();
         
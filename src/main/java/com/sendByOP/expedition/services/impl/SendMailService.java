@@ -2,6 +2,8 @@ package com.sendByOP.expedition.services.impl;
 
 import com.sendByOP.expedition.models.dto.CustomerDto;
 import com.sendByOP.expedition.models.dto.EmailDto;
+import com.sendByOP.expedition.models.entities.EmailOutbox;
+import com.sendByOP.expedition.models.enums.NotificationType;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import lombok.extern.slf4j.Slf4j;
@@ -17,11 +19,18 @@ import java.io.UnsupportedEncodingException;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 
+/**
+ * Envoi des emails de l'application
+ *
+ * Les méthodes publiques mettent l'email en file (outbox transactionnelle) et rendent la main
+ * immédiatement ; l'appel au fournisseur (API Mailgun ou SMTP) est fait par EmailOutboxDispatcher.
+ */
 @Service
 @Slf4j
 public class SendMailService {
     private final JavaMailSender javaMailSender;
     private final MailgunApiService mailgunApiService;
+    private final EmailOutboxService outboxService;
     
     @Value("${email.from}")
     private String emailFrom;
@@ -33,23 +42,26 @@ public class SendMailService {
     private boolean useApi;
     
     public SendMailService(@Autowired(required = false) JavaMailSender javaMailSender, 
-                          MailgunApiService mailgunApiService) {
+                          MailgunApiService mailgunApiService,
+                          EmailOutboxService outboxService) {
         this.javaMailSender = javaMailSender;
         this.mailgunApiService = mailgunApiService;
+        this.outboxService = outboxService;
         log.info("🔧 SendMailService initialisé");
         log.info("   - JavaMailSender (SMTP): {}", javaMailSender != null ? "DISPONIBLE" : "NULL");
         log.info("   - MailgunApiService (API): {}", mailgunApiService != null ? "DISPONIBLE" : "NULL");
     }
 
+    /**
+     * Met en file un email texte (envoyé par EmailOutboxDispatcher)
+     */
     public EmailDto sendEmail(@Validated EmailDto email) {
-        System.out.println("sending email");
-        SimpleMailMessage simpleMailMessage = new SimpleMailMessage();
-        simpleMailMessage.setFrom(emailFrom);
-        simpleMailMessage.setTo(email.getTo());
-        simpleMailMessage.setSubject(email.getTopic());
-        simpleMailMessage.setText(email.getBody());
-        javaMailSender.send(simpleMailMessage);
-        System.out.println("sent email");
+        outboxService.enqueue(EmailOutbox.builder()
+                .recipient(email.getTo())
+                .subject(email.getTopic())
+                .body(email.getBody())
+                .html(false)
+                .build());
         return email;
     }
 
@@ -61,8 +73,9 @@ public class SendMailService {
     }
 
     /**
-     * Envoie un email HTML
-     * Utilise l'API SendGrid en production, SMTP en développement
+     * Met en file un email HTML
+     * L'envoi (API Mailgun ou SMTP) est fait hors de la requête par EmailOutboxDispatcher,
+     * uniquement si la transaction de l'appelant est validée
      * 
      * @param toEmail Email du destinataire
      * @param subject Sujet de l'email
@@ -72,15 +85,83 @@ public class SendMailService {
      */
     public void sendHtmlEmail(String toEmail, String subject, String htmlContent)
             throws MessagingException, UnsupportedEncodingException {
+        outboxService.enqueue(EmailOutbox.builder()
+                .recipient(toEmail)
+                .subject(subject)
+                .body(htmlContent)
+                .build());
+    }
+
+    /**
+     * Met en file un email HTML lié à une réservation
+     * L'issue de l'envoi (succès ou abandon) est tracée dans notification_log
+     */
+    public void sendBookingEmail(Integer bookingId, NotificationType type, String toEmail, String subject,
+                                 String htmlContent) {
+        outboxService.enqueue(EmailOutbox.builder()
+                .recipient(toEmail)
+                .subject(subject)
+                .body(htmlContent)
+                .bookingId(bookingId)
+                .notificationType(type)
+                .build());
+    }
+    
+    /**
+     * Met en file un email HTML avec une pièce jointe
+     */
+    public void sendEmailWithAttachment(String toEmail, String subject, String htmlContent, 
+                                       byte[] attachment, String attachmentName) 
+            throws MessagingException, UnsupportedEncodingException {
+        outboxService.enqueue(EmailOutbox.builder()
+                .recipient(toEmail)
+                .subject(subject)
+                .body(htmlContent)
+                .attachment(attachment != null && attachment.length > 0 ? attachment : null)
+                .attachmentName(attachment != null && attachment.length > 0 ? attachmentName : null)
+                .build());
+    }
+
+    /**
+     * Envoie immédiatement un email de l'outbox (appelé par EmailOutboxDispatcher uniquement)
+     */
+    public void deliver(EmailOutbox email) throws MessagingException, UnsupportedEncodingException {
+        if (email.getAttachment() != null) {
+            deliverEmailWithAttachment(email.getRecipient(), email.getSubject(), email.getBody(),
+                    email.getAttachment(), email.getAttachmentName());
+        } else if (Boolean.FALSE.equals(email.getHtml())) {
+            deliverTextEmail(email.getRecipient(), email.getSubject(), email.getBody());
+        } else {
+            deliverHtmlEmail(email.getRecipient(), email.getSubject(), email.getBody());
+        }
+    }
+
+    private void deliverTextEmail(String toEmail, String subject, String text) throws MessagingException {
+        if (javaMailSender == null) {
+            throw new MessagingException("Aucun serveur SMTP configuré pour l'envoi d'emails texte.");
+        }
+        SimpleMailMessage simpleMailMessage = new SimpleMailMessage();
+        simpleMailMessage.setFrom(emailFrom);
+        simpleMailMessage.setTo(toEmail);
+        simpleMailMessage.setSubject(subject);
+        simpleMailMessage.setText(text);
+        javaMailSender.send(simpleMailMessage);
+        log.info("Email texte envoyé avec succès à {} via SMTP", toEmail);
+    }
+
+    /**
+     * Envoie un email HTML
+     * Utilise l'API Mailgun en production, SMTP en développement
+     */
+    private void deliverHtmlEmail(String toEmail, String subject, String htmlContent)
+            throws MessagingException, UnsupportedEncodingException {
         log.info("Envoi d'un email HTML à {} (Profile: {}, UseAPI: {}, MailgunService: {})",
                 toEmail, activeProfile, useApi, mailgunApiService != null ? "Disponible" : "NULL");
         
         try {
             // En production ou si useApi=true, utiliser l'API Mailgun
             if (useApi && mailgunApiService != null) {
-                log.info("====> UTILISATION DE L'API HTTP MAILGUN");
                 mailgunApiService.sendHtmlEmail(toEmail, subject, htmlContent);
-                log.info("====> RETOUR API MAILGUN OK");
                 return;
             }
             
@@ -92,7 +173,6 @@ public class SendMailService {
                 throw new MessagingException("Aucun service d'envoi d'email configuré. Configurez Mailgun API ou SMTP.");
             }
             
-            log.warn("====> FALLBACK SUR SMTP (Peut timeout sur Render!)");
             log.info("Utilisation de SMTP JavaMailSender");
             String senderName = "SendByOp";
 
@@ -107,28 +187,24 @@ public class SendMailService {
             javaMailSender.send(message);
             log.info("Email HTML envoyé avec succès à {} via SMTP", toEmail);
         } catch (IOException e) {
-            log.error("Erreur Mailgun API lors de l'envoi à {} : {}",
-                     toEmail, e.getMessage(), e);
             throw new MessagingException("Erreur lors de l'envoi de l'email via Mailgun API: " + e.getMessage(), e);
         } catch (MessagingException e) {
-            log.error("Erreur MessagingException lors de l'envoi de l'email à {} : {}",
-                     toEmail, e.getMessage(), e);
             throw e;
         } catch (Exception e) {
-            log.error("Erreur inattendue lors de l'envoi de l'email à {} : {}",
-                     toEmail, e.getMessage(), e);
             throw new MessagingException("Erreur lors de l'envoi de l'email: " + e.getMessage(), e);
         }
     }
     
     /**
-     * Envoie un email HTML avec une pièce jointe
+     * Envoie un email HTML avec une pièce jointe (SMTP)
      */
-    public void sendEmailWithAttachment(String toEmail, String subject, String htmlContent, 
-                                       byte[] attachment, String attachmentName) 
+    private void deliverEmailWithAttachment(String toEmail, String subject, String htmlContent,
+                                            byte[] attachment, String attachmentName)
             throws MessagingException, UnsupportedEncodingException {
-        log.info("Envoi d'un email avec pièce jointe à {}", toEmail);
-        
+        if (javaMailSender == null) {
+            throw new MessagingException("Aucun serveur SMTP configuré pour l'envoi d'emails avec pièce jointe.");
+        }
+
         try {
             String senderName = "SendByOp";
 
@@ -141,20 +217,13 @@ public class SendMailService {
             helper.setText(htmlContent, true);
             
             // Ajouter la pièce jointe
-            if (attachment != null && attachment.length > 0) {
-                helper.addAttachment(attachmentName, () -> new java.io.ByteArrayInputStream(attachment));
-                log.info("Pièce jointe ajoutée: {} ({} bytes)", attachmentName, attachment.length);
-            }
+            helper.addAttachment(attachmentName, () -> new java.io.ByteArrayInputStream(attachment));
 
             javaMailSender.send(message);
-            log.info("Email avec pièce jointe envoyé avec succès à {}", toEmail);
-        } catch (MessagingException e) {
-            log.error("Erreur MessagingException lors de l'envoi de l'email à {} : {}", 
-                     toEmail, e.getMessage(), e);
+            log.info("Email avec pièce jointe envoyé avec succès à {} ({} bytes)", toEmail, attachment.length);
+        } catch (MessagingException | UnsupportedEncodingException e) {
             throw e;
         } catch (Exception e) {
-            log.error("Erreur inattendue lors de l'envoi de l'email à {} : {}", 
-                     toEmail, e.getMessage(), e);
             throw new MessagingException("Erreur lors de l'envoi de l'email: " + e.getMessage(), e);
         }
     }
@@ -170,24 +239,10 @@ public class SendMailService {
     }
 
     public void simpleHtmlMessage(CustomerDto user, String content, String subject) throws MessagingException, UnsupportedEncodingException {
-        String toAddress = user.getEmail();
-        String senderName = "SendByOp";
-
-        MimeMessage message = javaMailSender.createMimeMessage();
-        MimeMessageHelper helper = new MimeMessageHelper(message);
-
-        helper.setFrom(emailFrom, senderName);
-        helper.setTo(toAddress);
-        helper.setSubject(subject);
-
         content = content.replace("[[name]]", user.getLastName() + user.getFirstName());
 
         content = content.replace("[[URLSENDBYOP]]", "www.sendbyop.com");
 
-        helper.setText(content, true);
-
-        System.out.println("send email....");
-        javaMailSender.send(message);
-        System.out.println("Email is send !");
+        sendHtmlEmail(user.getEmail(), subject, content);
     }
 }
@@ -5,15 +5,19 @@ import com.sendByOP.expedition.models.dto.RecentActivityDto;
 import com.sendByOP.expedition.models.dto.RevenueStatsDto;
 import com.sendByOP.expedition.models.dto.UserStatsDto;
 import com.sendByOP.expedition.models.entities.Booking;
-import com.sendByOP.expedition.models.entities.Customer;
 import com.sendByOP.expedition.models.enums.BookingStatus;
+import com.sendByOP.expedition.models.projections.BookingStatusAggregate;
 import com.sendByOP.expedition.repositories.BookingRepository;
 import com.sendByOP.expedition.repositories.CustomerRepository;
+import com.sendByOP.expedition.repositories.DailyBookingStatsRepository;
+import com.sendByOP.expedition.repositories.DailyStatsRepository;
 import com.sendByOP.expedition.repositories.FlightRepository;
 import com.sendByOP.expedition.repositories.UserRepository;
 import com.sendByOP.expedition.services.iServices.IStatisticsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
@@ -22,6 +26,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -36,23 +41,30 @@ public class StatisticsService implements IStatisticsService {
     private final CustomerRepository customerRepository;
     private final FlightRepository flightRepository;
     private final UserRepository userRepository;
+    private final DailyBookingStatsRepository dailyBookingStatsRepository;
+    private final DailyStatsRepository dailyStatsRepository;
 
     @Override
     public BookingStatsDto getBookingStatistics(LocalDate from, LocalDate to) {
         log.info("Fetching booking statistics from {} to {}", from, to);
 
-        // Compter toutes les réservations
-        long totalBookings = bookingRepository.count();
+        // Agrégation par statut lue depuis les agrégats journaliers (O(jours) et non O(réservations))
+        Map<BookingStatus, BookingStatusAggregate> aggregates = aggregateByStatus(from, to);
+
+        // Compter toutes les réservations de la période
+        long totalBookings = aggregates.values().stream()
+                .mapToLong(BookingStatusAggregate::getBookingCount)
+                .sum();
 
         // Compter par statut
-        long pendingConfirmation = bookingRepository.countByStatus(BookingStatus.PENDING_CONFIRMATION);
-        long confirmedUnpaid = bookingRepository.countByStatus(BookingStatus.CONFIRMED_UNPAID);
-        long confirmedPaid = bookingRepository.countByStatus(BookingStatus.CONFIRMED_PAID);
-        long delivered = bookingRepository.countByStatus(BookingStatus.DELIVERED);
-        long pickedUp = bookingRepository.countByStatus(BookingStatus.PICKED_UP);
-        long cancelledByClient = bookingRepository.countByStatus(BookingStatus.CANCELLED_BY_CLIENT);
-        long cancelledByTraveler = bookingRepository.countByStatus(BookingStatus.CANCELLED_BY_TRAVELER);
-        long cancelledPaymentTimeout = bookingRepository.countByStatus(BookingStatus.CANCELLED_PAYMENT_TIMEOUT);
+        long pendingConfirmation = countOf(aggregates, BookingStatus.PENDING_CONFIRMATION);
+        long confirmedUnpaid = countOf(aggregates, BookingStatus.CONFIRMED_UNPAID);
+        long confirmedPaid = countOf(aggregates, BookingStatus.CONFIRMED_PAID);
+        long delivered = countOf(aggregates, BookingStatus.DELIVERED);
+        long pickedUp = countOf(aggregates, BookingStatus.PICKED_UP);
+        long cancelledByClient = countOf(aggregates, BookingStatus.CANCELLED_BY_CLIENT);
+        long cancelledByTraveler = countOf(aggregates, BookingStatus.CANCELLED_BY_TRAVELER);
+        long cancelledPaymentTimeout = countOf(aggregates, BookingStatus.CANCELLED_PAYMENT_TIMEOUT);
 
         long cancelled = cancelledByClient + cancelledByTraveler + cancelledPaymentTimeout;
 
@@ -96,37 +108,17 @@ public class StatisticsService implements IStatisticsService {
     public RevenueStatsDto getRevenueStatistics(LocalDate from, LocalDate to) {
         log.info("Fetching revenue statistics from {} to {}", from, to);
 
-        // Récupérer toutes les réservations payées
-        var paidBookings = bookingRepository.findByStatus(BookingStatus.CONFIRMED_PAID);
-        var deliveredBookings = bookingRepository.findByStatus(BookingStatus.DELIVERED);
-        var pickedUpBookings = bookingRepository.findByStatus(BookingStatus.PICKED_UP);
+        // Sommes et comptes par statut lus depuis les agrégats journaliers
+        Map<BookingStatus, BookingStatusAggregate> aggregates = aggregateByStatus(from, to);
 
-        // Calculer revenus
-        BigDecimal totalRevenue = BigDecimal.ZERO;
-        for (var booking : paidBookings) {
-            if (booking.getTotalPrice() != null) {
-                totalRevenue = totalRevenue.add(booking.getTotalPrice());
-            }
-        }
-        for (var booking : deliveredBookings) {
-            if (booking.getTotalPrice() != null) {
-                totalRevenue = totalRevenue.add(booking.getTotalPrice());
-            }
-        }
-        for (var booking : pickedUpBookings) {
-            if (booking.getTotalPrice() != null) {
-                totalRevenue = totalRevenue.add(booking.getTotalPrice());
-            }
-        }
+        // Calculer revenus (réservations payées, livrées et récupérées)
+        BigDecimal pickedUpRevenue = amountOf(aggregates, BookingStatus.PICKED_UP);
+        BigDecimal totalRevenue = amountOf(aggregates, BookingStatus.CONFIRMED_PAID)
+                .add(amountOf(aggregates, BookingStatus.DELIVERED))
+                .add(pickedUpRevenue);
 
         // Revenu en attente (confirmées non payées)
-        var unpaidBookings = bookingRepository.findByStatus(BookingStatus.CONFIRMED_UNPAID);
-        BigDecimal pendingRevenue = BigDecimal.ZERO;
-        for (var booking : unpaidBookings) {
-            if (booking.getTotalPrice() != null) {
-                pendingRevenue = pendingRevenue.add(booking.getTotalPrice());
-            }
-        }
+        BigDecimal pendingRevenue = amountOf(aggregates, BookingStatus.CONFIRMED_UNPAID);
 
         // Commission (exemple: 10% de la plateforme)
         BigDecimal commissionRate = new BigDecimal("0.10");
@@ -136,17 +128,12 @@ public class StatisticsService implements IStatisticsService {
         BigDecimal totalPaidToTravelers = totalRevenue.subtract(totalCommission);
         
         // En attente de payout (PICKED_UP seulement)
-        BigDecimal pendingPayout = BigDecimal.ZERO;
-        for (var booking : pickedUpBookings) {
-            if (booking.getTotalPrice() != null) {
-                BigDecimal bookingPayout = booking.getTotalPrice()
-                        .multiply(BigDecimal.ONE.subtract(commissionRate));
-                pendingPayout = pendingPayout.add(bookingPayout);
-            }
-        }
+        BigDecimal pendingPayout = pickedUpRevenue.multiply(BigDecimal.ONE.subtract(commissionRate));
 
         // Revenu moyen
-        long paidCount = paidBookings.size() + deliveredBookings.size() + pickedUpBookings.size();
+        long paidCount = countOf(aggregates, BookingStatus.CONFIRMED_PAID)
+                + countOf(aggregates, BookingStatus.DELIVERED)
+                + countOf(aggregates, BookingStatus.PICKED_UP);
         BigDecimal averageRevenue = paidCount > 0
                 ? totalRevenue.divide(BigDecimal.valueOf(paidCount), 2, RoundingMode.HALF_UP)
                 : BigDecimal.ZERO;
@@ -158,7 +145,7 @@ public class StatisticsService implements IStatisticsService {
                 .totalPaidToTravelers(totalPaidToTravelers)
                 .pendingPayoutToTravelers(pendingPayout)
                 .averageRevenuePerBooking(averageRevenue)
-                .paidBookingsCount((long) paidCount)
+                .paidBookingsCount(paidCount)
                 .averageCommissionRate(commissionRate.multiply(BigDecimal.valueOf(100)).doubleValue())
                 .lostRevenue(BigDecimal.ZERO) // TODO: Calculer depuis annulations après paiement
                 .build();
@@ -171,41 +158,18 @@ public class StatisticsService implements IStatisticsService {
         // Compter tous les utilisateurs depuis la table User
         long totalUsers = userRepository.count();
 
-        // Calculer les nouveaux utilisateurs (dernière semaine)
-        LocalDateTime oneWeekAgo = LocalDateTime.now().minusWeeks(1);
-        long newUsers = userRepository.findAll().stream()
-                .filter(user -> {
-                    if (user.getCreatedAt() == null) return false;
-                    // Convertir Date en LocalDateTime pour comparaison
-                    LocalDateTime createdAt = user.getCreatedAt().toInstant()
-                            .atZone(java.time.ZoneId.systemDefault())
-                            .toLocalDateTime();
-                    return createdAt.isAfter(oneWeekAgo);
-                })
-                .count();
+        // Calculer les nouveaux utilisateurs (7 derniers jours, aujourd'hui inclus) depuis les agrégats journaliers
+        LocalDate today = LocalDate.now();
+        long newUsers = dailyStatsRepository.sumNewUsersBetween(today.minusDays(6), today);
+
+        // Compter les expéditeurs (customers avec au moins une réservation) - COUNT DISTINCT en base
+        long senders = bookingRepository.countDistinctCustomers();
 
         // Utilisateurs avec au moins une réservation (actifs)
-        Set<Long> activeUserIds = new HashSet<>();
-        for (var booking : bookingRepository.findAll()) {
-            if (booking.getCustomer() != null) {
-                activeUserIds.add(booking.getCustomer().getId().longValue());
-            }
-        }
-        long activeUsers = activeUserIds.size();
-
-        // Compter les voyageurs (customers avec au moins un vol)
-        long travelers = flightRepository.findAll().stream()
-                .filter(flight -> flight.getCustomer() != null)
-                .map(flight -> flight.getCustomer().getId())
-                .distinct()
-                .count();
-
-        // Compter les expéditeurs (customers avec au moins une réservation)
-        long senders = bookingRepository.findAll().stream()
-                .filter(booking -> booking.getCustomer() != null)
-                .map(booking -> booking.getCustomer().getId())
-                .distinct()
-                .count();
+        long activeUsers = senders;
+
+        // Compter les voyageurs (customers avec au moins un vol) - COUNT DISTINCT en base
+        long travelers = flightRepository.countDistinctTravelers();
 
         // Calculer taux d'utilisateurs actifs
         double activeUserRate = totalUsers > 0 
@@ -236,18 +200,7 @@ public class StatisticsService implements IStatisticsService {
         List<RecentActivityDto> activities = new ArrayList<>();
         
         // Récupérer les réservations récentes
-        List<Booking> recentBookings = bookingRepository.findAll().stream()
-                .sorted((b1, b2) -> {
-                    LocalDateTime t1 = b1.getCreatedAt() != null 
-                        ? b1.getCreatedAt().toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime()
-                        : LocalDateTime.MIN;
-                    LocalDateTime t2 = b2.getCreatedAt() != null 
-                        ? b2.getCreatedAt().toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime()
-                        : LocalDateTime.MIN;
-                    return t2.compareTo(t1);
-                })
-                .limit(limit / 2)
-                .collect(Collectors.toList());
+        List<Booking> recentBookings = recentPage(limit / 2, bookingRepository::findAllByOrderByCreatedAtDesc);
         
         for (Booking booking : recentBookings) {
             String userName = booking.getCustomer() != null 
@@ -288,17 +241,7 @@ public class StatisticsService implements IStatisticsService {
         }
         
         // Récupérer les vols récents
-        flightRepository.findAll().stream()
-                .sorted((f1, f2) -> {
-                    LocalDateTime t1 = f1.getCreatedAt() != null 
-                        ? f1.getCreatedAt().toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime()
-                        : LocalDateTime.MIN;
-                    LocalDateTime t2 = f2.getCreatedAt() != null 
-                        ? f2.getCreatedAt().toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime()
-                        : LocalDateTime.MIN;
-                    return t2.compareTo(t1);
-                })
-                .limit(limit / 3)
+        recentPage(limit / 3, flightRepository::findAllByOrderByCreatedAtDesc)
                 .forEach(flight -> {
                     String userName = flight.getCustomer() != null 
                         ? flight.getCustomer().getFirstName() + " " + flight.getCustomer().getLastName()
@@ -334,17 +277,7 @@ public class StatisticsService implements IStatisticsService {
                 });
         
         // Récupérer les nouveaux utilisateurs
-        userRepository.findAll().stream()
-                .sorted((u1, u2) -> {
-                    LocalDateTime t1 = u1.getCreatedAt() != null 
-                        ? u1.getCreatedAt().toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime()
-                        : LocalDateTime.MIN;
-                    LocalDateTime t2 = u2.getCreatedAt() != null 
-                        ? u2.getCreatedAt().toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime()
-                        : LocalDateTime.MIN;
-                    return t2.compareTo(t1);
-                })
-                .limit(limit / 4)
+        recentPage(limit / 4, userRepository::findAllByOrderByCreatedAtDesc)
                 .forEach(user -> {
                     String userName = user.getFirstName() + " " + user.getLastName();
                     String userEmail = user.getEmail();
@@ -370,4 +303,36 @@ public class StatisticsService implements IStatisticsService {
                 .limit(limit)
                 .collect(Collectors.toList());
     }
+
+    /**
+     * Charge les agrégats par statut pour la période demandée depuis daily_booking_stats.
+     * Bornes nulles = depuis le début / jusqu'à aujourd'hui ; les deux bornes sont incluses.
+     */
+    private Map<BookingStatus, BookingStatusAggregate> aggregateByStatus(LocalDate from, LocalDate to) {
+        LocalDate start = from != null ? from : LocalDate.EPOCH;
+        LocalDate end = to != null ? to : LocalDate.now();
+
+        Map<BookingStatus, BookingStatusAggregate> aggregates = new EnumMap<>(BookingStatus.class);
+        for (BookingStatusAggregate aggregate : dailyBookingStatsRepository.sumByStatusBetween(start, end)) {
+            aggregates.put(aggregate.getStatus(), aggregate);
+        }
+        return aggregates;
+    }
+
+    private long countOf(Map<BookingStatus, BookingStatusAggregate> aggregates, BookingStatus status) {
+        BookingStatusAggregate aggregate = aggregates.get(status);
+        return aggregate != null && aggregate.getBookingCount() != null ? aggregate.getBookingCount() : 0L;
+    }
+
+    private BigDecimal amountOf(Map<BookingStatus, BookingStatusAggregate> aggregates, BookingStatus status) {
+        BookingStatusAggregate aggregate = aggregates.get(status);
+        return aggregate != null && aggregate.getTotalAmount() != null ? aggregate.getTotalAmount() : BigDecimal.ZERO;
+    }
+
+    /**
+     * Exécute une requête "les N plus récents" en base ; aucune requête si N vaut 0
+     */
+    private <T> List<T> recentPage(int size, Function<Pageable, List<T>> query) {
+        return size > 0 ? query.apply(PageRequest.of(0, size)) : Collections.emptyList();
+    }
 }
@@ -0,0 +1,241 @@
+package com.sendByOP.expedition.services.impl;
+
+import com.sendByOP.expedition.migration.DataMigrationService;
+import com.sendByOP.expedition.models.dto.TravelerRatingSummaryDto;
+import com.sendByOP.expedition.models.entities.Review;
+import com.sendByOP.expedition.models.entities.TravelerRatingSummary;
+import com.sendByOP.expedition.models.projections.TravelerRatingCount;
+import com.sendByOP.expedition.repositories.ReviewRepository;
+import com.sendByOP.expedition.repositories.TravelerRatingSummaryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Résumés des notes des voyageurs (traveler_rating_summary)
+ *
+ * Chaque avis de réservation incrémente le résumé du voyageur noté dans la transaction
+ * qui enregistre l'avis ; les lectures (vols publics, profils) sont une simple lecture
+ * par clé au lieu de charger et parser tous les avis du voyageur.
+ * Les avis antérieurs aux résumés sont repris une fois au démarrage (migration de données
+ * "traveler-rating-summary"), quel que soit le contenu de la table à ce moment.
+ */
+@Slf4j
+@Service
+public class TravelerRatingService {
+
+    private final TravelerRatingSummaryRepository summaryRepository;
+    private final ReviewRepository reviewRepository;
+    private final DataMigrationService dataMigrationService;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate rebuildTransactionTemplate;
+
+    public TravelerRatingService(TravelerRatingSummaryRepository summaryRepository,
+                                 ReviewRepository reviewRepository,
+                                 DataMigrationService dataMigrationService,
+                                 PlatformTransactionManager transactionManager) {
+        this.summaryRepository = summaryRepository;
+        this.reviewRepository = reviewRepository;
+        this.dataMigrationService = dataMigrationService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // Le comptage lu après le verrou du résumé voit les avis validés par les transactions attendues
+        this.rebuildTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.rebuildTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.rebuildTransactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+    }
+
+    /**
+     * Ajoute un avis enregistré au résumé de son voyageur
+     * Doit être appelé dans la transaction qui enregistre l'avis ; sans effet pour
+     * les avis sans réservation (non comptés dans la note publique)
+     */
+    public void recordReview(Review review) {
+        if (review.getBooking() == null || review.getTransporter() == null) {
+            return;
+        }
+
+        Integer travelerId = review.getTransporter().getId();
+        double rating = parseRating(review.getRating());
+        int stars = starsOf(rating);
+
+        ensureSummaryExists(travelerId);
+        summaryRepository.addReview(travelerId, BigDecimal.valueOf(rating),
+                stars == 1 ? 1 : 0, stars == 2 ? 1 : 0, stars == 3 ? 1 : 0,
+                stars == 4 ? 1 : 0, stars == 5 ? 1 : 0, LocalDateTime.now());
+    }
+
+    /**
+     * Résumé des notes d'un voyageur (résumé vide s'il n'a reçu aucun avis)
+     */
+    public TravelerRatingSummaryDto getSummary(Integer travelerId) {
+        return summaryRepository.findById(travelerId)
+                .map(this::toDto)
+                .orElseGet(() -> toDto(TravelerRatingSummary.builder().travelerId(travelerId).build()));
+    }
+
+    /**
+     * Résumés de plusieurs voyageurs en une requête (voyageurs sans avis absents du résultat)
+     */
+    public Map<Integer, TravelerRatingSummaryDto> getSummaries(Collection<Integer> travelerIds) {
+        return summaryRepository.findAllById(travelerIds).stream()
+                .map(this::toDto)
+                .collect(Collectors.toMap(TravelerRatingSummaryDto::getTravelerId, Function.identity()));
+    }
+
+    /**
+     * Reprend les avis existants dans les résumés, une seule fois (marqueur persistant) :
+     * les avis enregistrés avant la reprise sont recomptés, pas ajoutés une seconde fois
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnce() {
+        dataMigrationService.runOnce("traveler-rating-summary", Duration.ofMinutes(30), () -> {
+            int rebuilt = rebuild();
+            log.info("Traveler rating summaries initialised for {} traveler(s)", rebuilt);
+        });
+    }
+
+    /**
+     * Recalcule tous les résumés depuis la table review
+     *
+     * Chaque résumé est recalculé dans sa propre transaction, sous le verrou de sa ligne :
+     * un avis déjà ajouté au résumé est validé avant le comptage (le verrou l'attend) et donc
+     * compté ; un avis enregistré pendant le recalcul attend le verrou et s'ajoute au résultat.
+     * Aucun avis n'est perdu ni compté deux fois, sans bloquer les autres voyageurs.
+     *
+     * @return nombre de voyageurs ayant reçu au moins un avis
+     */
+    public int rebuild() {
+        Set<Integer> reviewed = new TreeSet<>(reviewRepository.findReviewedTravelerIds());
+        Set<Integer> travelerIds = new TreeSet<>(reviewed);
+        // Résumés sans avis restants (avis supprimés) : remis à zéro
+        travelerIds.addAll(summaryRepository.findAllTravelerIds());
+
+        for (Integer travelerId : travelerIds) {
+            ensureSummaryExists(travelerId);
+            rebuildTransactionTemplate.executeWithoutResult(status -> rebuildSummary(travelerId));
+        }
+        return reviewed.size();
+    }
+
+    /**
+     * Recalcule le résumé d'un voyageur (doit être appelé dans une transaction)
+     */
+    private void rebuildSummary(Integer travelerId) {
+        TravelerRatingSummary summary = summaryRepository.findForUpdate(travelerId)
+                .orElseThrow(() -> new IllegalStateException("Rating summary missing for traveler " + travelerId));
+        summary.setRatingSum(BigDecimal.ZERO);
+        summary.setReviewCount(0L);
+        summary.setStar1Count(0L);
+        summary.setStar2Count(0L);
+        summary.setStar3Count(0L);
+        summary.setStar4Count(0L);
+        summary.setStar5Count(0L);
+        for (TravelerRatingCount row : reviewRepository.countRatingsOfTraveler(travelerId)) {
+            double rating = parseRating(row.getRating());
+            long count = row.getReviewCount();
+            summary.setRatingSum(summary.getRatingSum().add(BigDecimal.valueOf(rating * count)));
+            summary.setReviewCount(summary.getReviewCount() + count);
+            addStars(summary, starsOf(rating), count);
+        }
+        summary.setUpdatedAt(LocalDateTime.now());
+    }
+
+    /**
+     * Crée le résumé vide du voyageur dans une transaction séparée, pour que l'incrément
+     * de la transaction appelante soit toujours un UPDATE
+     */
+    private void ensureSummaryExists(Integer travelerId) {
+        if (summaryRepository.existsById(travelerId)) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!summaryRepository.existsById(travelerId)) {
+                    summaryRepository.save(TravelerRatingSummary.builder()
+                            .travelerId(travelerId)
+                            .updatedAt(LocalDateTime.now())
+                            .build());
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Créé en même temps par un autre avis
+            log.debug("Rating summary for traveler {} created concurrently", travelerId);
+        }
+    }
+
+    private TravelerRatingSummaryDto toDto(TravelerRatingSummary summary) {
+        Double averageRating = null;
+        if (summary.getReviewCount() > 0) {
+            double average = summary.getRatingSum().doubleValue() / summary.getReviewCount();
+            // Arrondir à 1 décimale
+            averageRating = Math.round(average * 10.0) / 10.0;
+        }
+
+        Map<Integer, Long> distribution = new LinkedHashMap<>();
+        distribution.put(1, summary.getStar1Count());
+        distribution.put(2, summary.getStar2Count());
+        distribution.put(3, summary.getStar3Count());
+        distribution.put(4, summary.getStar4Count());
+        distribution.put(5, summary.getStar5Count());
+
+        return TravelerRatingSummaryDto.builder()
+                .travelerId(summary.getTravelerId())
+                .averageRating(averageRating)
+                .reviewCount(summary.getReviewCount().intValue())
+                .distribution(distribution)
+                .build();
+    }
+
+    private static void addStars(TravelerRatingSummary summary, int stars, long count) {
+        switch (stars) {
+            case 1 -> summary.setStar1Count(summary.getStar1Count() + count);
+            case 2 -> summary.setStar2Count(summary.getStar2Count() + count);
+            case 3 -> summary.setStar3Count(summary.getStar3Count() + count);
+            case 4 -> summary.setStar4Count(summary.getStar4Count() + count);
+            case 5 -> summary.setStar5Count(summary.getStar5Count() + count);
+            default -> {
+                // Note absente ou invalide : comptée dans la moyenne (0) mais pas dans la répartition
+            }
+        }
+    }
+
+    /**
+     * Nombre d'étoiles d'une note (arrondie, 0 si hors de l'intervalle 1..5)
+     */
+    private static int starsOf(double rating) {
+        long stars = Math.round(rating);
+        return stars >= 1 && stars <= 5 ? (int) stars : 0;
+    }
+
+    /**
+     * Convertit une note texte en double (0 si absente ou invalide)
+     */
+    private static double parseRating(String rating) {
+        if (rating == null) {
+            return 0.0;
+        }
+        try {
+            return Double.parseDouble(rating.trim());
+        } catch (NumberFormatException e) {
+            log.warn("Invalid rating format: {}", rating);
+            return 0.0;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.sendByOP.expedition.services.impl;
 
 import com.sendByOP.expedition.models.entities.VerifyToken;
 import com.sendByOP.expedition.repositories.VerifyTokenRepository;
+import com.sendByOP.expedition.scheduling.SchedulerLockService;
 import com.sendByOP.expedition.utils.AppConstants;
 import com.sendByOP.expedition.utils.DateUse;
 import jakarta.transaction.Transactional;
@@ -10,6 +11,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import java.time.Duration;
 import java.util.Date;
 import java.util.Optional;
 
@@ -20,6 +22,7 @@ import java.util.Optional;
 public class VerifyTokenService {
 
     private final VerifyTokenRepository verifyTokenRepository;
+    private final SchedulerLockService schedulerLockService;
 
     public VerifyToken save(String email) {
         // Vérifier si un token existe déjà pour cet email
@@ -67,6 +70,10 @@ public class VerifyTokenService {
      */
     @Scheduled(cron = "0 0 2 * * *")
     public void cleanupExpiredTokens() {
+        schedulerLockService.runExclusively("cleanupExpiredTokens", Duration.ofMinutes(30), this::deleteExpiredTokens);
+    }
+
+    private void deleteExpiredTokens() {
         log.info("Démarrage du nettoyage des tokens expirés");
         try {
             Date now = new Date();
@@ -1,31 +1,304 @@
 package com.sendByOP.expedition.services.impl;
 
-import com.sendByOP.expedition.models.entities.Visite;
-import com.sendByOP.expedition.repositories.VisiteRepository;
+import com.sendByOP.expedition.models.dto.VisitStatsDto;
+import com.sendByOP.expedition.models.entities.VisitDailyUnique;
+import com.sendByOP.expedition.models.projections.VisitDayTotal;
+import com.sendByOP.expedition.repositories.VisitDailyCountRepository;
+import com.sendByOP.expedition.repositories.VisitDailyUniqueRepository;
 import com.sendByOP.expedition.services.iServices.IVisiteService;
-import jakarta.transaction.Transactional;
-import lombok.RequiredArgsConstructor;
+import com.sendByOP.expedition.utils.HyperLogLog;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-@Service
-@Transactional
-@RequiredArgsConstructor
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Comptage des visites
+ *
+ * Une page vue incrémente un compteur en mémoire (LongAdder par jour et par page) et le
+ * sketch HyperLogLog du jour ; aucune écriture en base par requête. Les compteurs sont
+ * ajoutés par lots aux totaux de visit_daily_count et les sketchs fusionnés dans
+ * visit_daily_unique à intervalle régulier. Les totaux sont servis depuis la mémoire.
+ *
+ * Les compteurs ne sont jamais remis à zéro : chacun retient la part déjà écrite en base et
+ * le flush écrit la différence, de sorte qu'un incrément concurrent d'une relève n'est ni
+ * perdu ni compté deux fois.
+ */
 @Slf4j
+@Service
 public class VisiteService implements IVisiteService {
 
-    private final VisiteRepository visiteRepository;
+    static final String DEFAULT_PAGE = "/";
+    static final String OTHER_PAGE = "(other)";
+    private static final int MAX_PAGE_LENGTH = 255;
+
+    private final VisitDailyCountRepository countRepository;
+    private final VisitDailyUniqueRepository uniqueRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxPendingPages;
+
+    private final Map<VisitKey, PendingViews> pendingViews = new ConcurrentHashMap<>();
+    private final Map<LocalDate, HyperLogLog> sketches = new ConcurrentHashMap<>();
+    private final LongAdder pendingTotal = new LongAdder();
+    private final AtomicLong persistedTotal = new AtomicLong();
+
+    public VisiteService(VisitDailyCountRepository countRepository,
+                         VisitDailyUniqueRepository uniqueRepository,
+                         JdbcTemplate jdbcTemplate,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${app.visits.max-pending-pages:1000}") int maxPendingPages) {
+        this.countRepository = countRepository;
+        this.uniqueRepository = uniqueRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxPendingPages = maxPendingPages;
+    }
 
     @Override
-    public Visite addVisitor(Visite visite) {
-        log.debug("Adding new visitor");
-        return visiteRepository.save(visite);
+    public void recordVisit(String page, String visitorKey) {
+        LocalDate today = LocalDate.now();
+        VisitKey key = new VisitKey(today, normalizePage(page));
+        PendingViews views = pendingViews.get(key);
+        if (views == null) {
+            // Pages distinctes bornées entre deux flush : le surplus est regroupé
+            if (pendingViews.size() >= maxPendingPages) {
+                key = new VisitKey(today, OTHER_PAGE);
+            }
+            views = pendingViews.computeIfAbsent(key, k -> new PendingViews());
+        }
+        views.recorded.increment();
+        pendingTotal.increment();
+
+        if (visitorKey != null && !visitorKey.isBlank()) {
+            sketches.computeIfAbsent(today, day -> new HyperLogLog()).add(visitorKey);
+        }
     }
 
     @Override
-    public int getVisitorCount() {
-        log.debug("Getting visitor count");
-        return visiteRepository.findAll().size();
+    public long getVisitorCount() {
+        return persistedTotal.get() + pendingTotal.sum();
+    }
+
+    @Override
+    public long getUniqueVisitorCountToday() {
+        HyperLogLog sketch = sketches.get(LocalDate.now());
+        return sketch != null ? sketch.estimate() : 0L;
+    }
+
+    @Override
+    public List<VisitStatsDto> getDailyStats(LocalDate from, LocalDate to) {
+        Map<LocalDate, VisitStatsDto> stats = new TreeMap<>();
+        for (VisitDayTotal total : countRepository.sumViewsByDay(from, to)) {
+            stats.put(total.getVisitDate(), VisitStatsDto.builder()
+                    .date(total.getVisitDate())
+                    .views(total.getViews())
+                    .uniqueVisitors(0L)
+                    .build());
+        }
+        for (VisitDailyUnique unique : uniqueRepository.findByVisitDateBetween(from, to)) {
+            stats.computeIfAbsent(unique.getVisitDate(), day -> VisitStatsDto.builder()
+                            .date(day).views(0L).build())
+                    .setUniqueVisitors(unique.getUniqueVisitors());
+        }
+        return new ArrayList<>(stats.values());
+    }
+
+    /**
+     * Total enregistré, historique de la table visites compris (repris par VisitHistoryMigration
+     * avant le démarrage ; un nœud qui ne l'a pas attendu se recale au premier flush)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadTotal() {
+        persistedTotal.set(countRepository.sumViews());
+    }
+
+    /**
+     * Écrit les compteurs en attente et fusionne les sketchs (chaque nœud écrit les siens)
+     * Synchronisé : le flush d'arrêt ne doit pas relever les compteurs en même temps que le
+     * flush planifié (la part déjà écrite de chaque compteur n'avance qu'ici)
+     */
+    @Scheduled(fixedDelayString = "${app.visits.flush-interval-ms:30000}")
+    public synchronized void flush() {
+        List<Drained> drained = drainPendingViews();
+        Map<VisitKey, Long> deltas = new HashMap<>();
+        drained.forEach(entry -> deltas.put(entry.key(), entry.delta()));
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                writeCounts(deltas);
+                mergeSketches();
+            });
+            long flushed = 0;
+            for (Drained entry : drained) {
+                entry.views().flushed += entry.delta();
+                flushed += entry.delta();
+            }
+            persistedTotal.set(countRepository.sumViews());
+            pendingTotal.add(-flushed);
+            if (flushed > 0) {
+                log.debug("Flushed {} page view(s) over {} day/page counter(s)", flushed, deltas.size());
+            }
+        } catch (Exception e) {
+            // La part écrite n'avance pas : les vues sont réécrites au flush suivant ; les
+            // compteurs des jours passés sont remis dans la map
+            drained.stream()
+                    .filter(Drained::removed)
+                    .forEach(entry -> pendingViews.putIfAbsent(entry.key(), entry.views()));
+            log.error("Failed to flush visit counters: {}", e.getMessage());
+        }
+        evictPastSketches();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Relève les vues non encore écrites de chaque compteur (vues comptées moins part écrite)
+     * La somme d'un LongAdder incrémenté en concurrence est une valeur que le compteur a
+     * atteinte pendant la lecture : les incréments qu'elle ne contient pas vont au flush suivant.
+     * Les compteurs des jours antérieurs à la veille, qui ne reçoivent plus de visites, sont
+     * retirés de la map avant d'être lus : un incrément ne peut pas tomber entre la lecture et le
+     * retrait. Ceux d'aujourd'hui et d'hier (visites en cours à minuit) restent en place.
+     */
+    private List<Drained> drainPendingViews() {
+        List<Drained> drained = new ArrayList<>();
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        for (VisitKey key : pendingViews.keySet()) {
+            boolean removed = key.day().isBefore(yesterday);
+            PendingViews views = removed ? pendingViews.remove(key) : pendingViews.get(key);
+            if (views == null) {
+                continue;
+            }
+            long delta = views.recorded.sum() - views.flushed;
+            if (delta > 0) {
+                drained.add(new Drained(key, views, delta, removed));
+            }
+        }
+        return drained;
+    }
+
+    /**
+     * Ajoute les compteurs aux lignes (jour, page) existantes et crée les autres, par lots
+     */
+    private void writeCounts(Map<VisitKey, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        Set<LocalDate> days = new HashSet<>();
+        deltas.keySet().forEach(key -> days.add(key.day()));
+        Set<VisitKey> existing = new HashSet<>();
+        jdbcTemplate.query("SELECT visit_date, page FROM visit_daily_count WHERE visit_date IN ("
+                        + String.join(", ", Collections.nCopies(days.size(), "?")) + ")",
+                rs -> {
+                    existing.add(new VisitKey(rs.getDate("visit_date").toLocalDate(), rs.getString("page")));
+                },
+                days.stream().map(Date::valueOf).toArray());
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> updates = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+        deltas.forEach((key, views) -> {
+            if (existing.contains(key)) {
+                updates.add(new Object[]{views, now, Date.valueOf(key.day()), key.page()});
+            } else {
+                inserts.add(new Object[]{Date.valueOf(key.day()), key.page(), views, now});
+            }
+        });
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE visit_daily_count SET views = views + ?, updated_at = ? " +
+                    "WHERE visit_date = ? AND page = ?", updates);
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO visit_daily_count (visit_date, page, views, updated_at) " +
+                    "VALUES (?, ?, ?, ?)", inserts);
+        }
+    }
+
+    /**
+     * Fusionne chaque sketch local avec celui de la base ; le sketch local reçoit en retour
+     * les visiteurs vus par les autres nœuds
+     */
+    private void mergeSketches() {
+        LocalDateTime now = LocalDateTime.now();
+        sketches.forEach((day, sketch) -> {
+            VisitDailyUnique unique = uniqueRepository.findForUpdate(day)
+                    .orElseGet(() -> VisitDailyUnique.builder().visitDate(day).build());
+            if (unique.getSketch() != null) {
+                sketch.merge(HyperLogLog.fromBytes(unique.getSketch()));
+            }
+            unique.setSketch(sketch.toBytes());
+            unique.setUniqueVisitors(sketch.estimate());
+            unique.setUpdatedAt(now);
+            uniqueRepository.save(unique);
+        });
+    }
+
+    /**
+     * Conserve le sketch de la veille jusqu'au premier flush du jour (visites tardives)
+     */
+    private void evictPastSketches() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        sketches.keySet().removeIf(day -> day.isBefore(yesterday));
     }
 
+    private static String normalizePage(String page) {
+        if (page == null || page.isBlank()) {
+            return DEFAULT_PAGE;
+        }
+        String path = page.trim();
+        int end = path.length();
+        int query = path.indexOf('?');
+        int fragment = path.indexOf('#');
+        if (query >= 0) {
+            end = Math.min(end, query);
+        }
+        if (fragment >= 0) {
+            end = Math.min(end, fragment);
+        }
+        path = path.substring(0, Math.min(end, MAX_PAGE_LENGTH));
+        return path.isEmpty() ? DEFAULT_PAGE : path;
+    }
+
+    private record VisitKey(LocalDate day, String page) {
+    }
+
+    /**
+     * Vues d'un (jour, page) comptées par ce nœud et part déjà écrite en base
+     */
+    private static final class PendingViews {
+
+        private final LongAdder recorded = new LongAdder();
+
+        /**
+         * Lue et modifiée uniquement par flush (synchronisé)
+         */
+        private long flushed;
+    }
+
+    private record Drained(VisitKey key, PendingViews views, long delta, boolean removed) {
+    }
 }
@@ -0,0 +1,43 @@
+package com.sendByOP.expedition.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Empreintes et encodage hexadécimal (clés de déduplication, index aveugles)
+ */
+public class HashUtils {
+
+    private HashUtils() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Empreinte SHA-256 (hexadécimal) d'une suite de champs
+     * Chaque champ est suivi d'un octet nul, pour que ("ab", "c") et ("a", "bc") diffèrent ;
+     * un champ null compte comme une chaîne vide.
+     */
+    public static String sha256Hex(String... fields) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String field : fields) {
+                if (field != null) {
+                    digest.update(field.getBytes(StandardCharsets.UTF_8));
+                }
+                digest.update((byte) 0);
+            }
+            return toHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+}
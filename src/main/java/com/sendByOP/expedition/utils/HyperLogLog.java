@@ -0,0 +1,102 @@
+package com.sendByOP.expedition.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Estimateur HyperLogLog du nombre d'éléments distincts (précision 12 : 4096 registres,
+ * erreur type d'environ 1,6 %, 4 Ko une fois sérialisé)
+ *
+ * Les ajouts et fusions sont sans verrou (CAS par registre). La fusion (maximum registre
+ * par registre) est idempotente : réappliquer un même sketch ne change pas l'estimation.
+ */
+public final class HyperLogLog {
+
+    public static final int PRECISION = 12;
+    public static final int REGISTER_COUNT = 1 << PRECISION;
+
+    private static final int MAX_RANK = 64 - PRECISION + 1;
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTER_COUNT);
+
+    private final AtomicIntegerArray registers = new AtomicIntegerArray(REGISTER_COUNT);
+
+    /**
+     * Sketch relu depuis sa forme sérialisée (toBytes)
+     */
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length != REGISTER_COUNT) {
+            throw new IllegalArgumentException("Expected " + REGISTER_COUNT + " HyperLogLog registers");
+        }
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = 0; i < REGISTER_COUNT; i++) {
+            sketch.registers.set(i, bytes[i]);
+        }
+        return sketch;
+    }
+
+    public void add(String value) {
+        long hash = hash64(value);
+        int index = (int) (hash >>> (64 - PRECISION));
+        int rank = Math.min(Long.numberOfLeadingZeros(hash << PRECISION) + 1, MAX_RANK);
+        raise(index, rank);
+    }
+
+    /**
+     * Ajoute à ce sketch les éléments d'un autre sketch
+     */
+    public void merge(HyperLogLog other) {
+        for (int i = 0; i < REGISTER_COUNT; i++) {
+            raise(i, other.registers.get(i));
+        }
+    }
+
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (int i = 0; i < REGISTER_COUNT; i++) {
+            int rank = registers.get(i);
+            sum += 1.0 / (1L << rank);
+            if (rank == 0) {
+                zeros++;
+            }
+        }
+        double raw = ALPHA * REGISTER_COUNT * REGISTER_COUNT / sum;
+        // Petites cardinalités : comptage linéaire sur les registres vides
+        if (raw <= 2.5 * REGISTER_COUNT && zeros > 0) {
+            return Math.round(REGISTER_COUNT * Math.log((double) REGISTER_COUNT / zeros));
+        }
+        return Math.round(raw);
+    }
+
+    public byte[] toBytes() {
+        byte[] bytes = new byte[REGISTER_COUNT];
+        for (int i = 0; i < REGISTER_COUNT; i++) {
+            bytes[i] = (byte) registers.get(i);
+        }
+        return bytes;
+    }
+
+    private void raise(int index, int rank) {
+        int current = registers.get(index);
+        while (current < rank && !registers.compareAndSet(index, current, rank)) {
+            current = registers.get(index);
+        }
+    }
+
+    /**
+     * FNV-1a 64 bits suivi du mélange final de MurmurHash3 (bits de poids fort bien répartis)
+     */
+    private static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
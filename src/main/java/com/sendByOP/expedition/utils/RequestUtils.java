@@ -0,0 +1,32 @@
+package com.sendByOP.expedition.utils;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Utilitaires sur les requêtes HTTP
+ */
+public class RequestUtils {
+
+    private RequestUtils() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * IP cliente : dernier maillon de X-Forwarded-For si l'application est derrière un proxy
+     * de confiance, sinon l'adresse de la connexion
+     * Le dernier maillon est celui ajouté par le proxy ; les précédents viennent du client et
+     * peuvent être forgés.
+     */
+    public static String clientIp(HttpServletRequest request, boolean trustForwardedFor) {
+        if (trustForwardedFor) {
+            String forwardedFor = request.getHeader("X-Forwarded-For");
+            if (forwardedFor != null) {
+                String last = forwardedFor.substring(forwardedFor.lastIndexOf(',') + 1).trim();
+                if (!last.isEmpty()) {
+                    return last;
+                }
+            }
+        }
+        return request.getRemoteAddr();
+    }
+}
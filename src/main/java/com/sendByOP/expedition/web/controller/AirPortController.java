@@ -39,6 +39,15 @@ public class AirPortController {
         return ResponseEntity.ok(airports);
     }
 
+    @Operation(summary = "Search airports", description = "Typeahead search on IATA code, airport name or city name (accent-insensitive prefix, most used airports first)")
+    @ApiResponse(responseCode = "200", description = "Matching airports, possibly empty")
+    @GetMapping("/search")
+    public ResponseEntity<List<AirportDto>> searchAirports(
+            @RequestParam("q") @Parameter(description = "Prefix of the IATA code, airport name or city name", example = "par") String query,
+            @RequestParam(defaultValue = "10") @Parameter(description = "Maximum number of results (1-20)") int limit) {
+        return ResponseEntity.ok(airportService.searchAirports(query, limit));
+    }
+
     @Operation(summary = "Get airport by ID", description = "Retrieves airport information by its ID")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved the airport")
     @ApiResponse(responseCode = "404", description = "Airport not found")
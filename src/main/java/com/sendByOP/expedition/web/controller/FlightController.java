@@ -86,6 +86,20 @@ public class FlightController {
         return ResponseEntity.ok(flights);
     }
 
+    @GetMapping("/public/search")
+    @Operation(summary = "Search valid and active flights (Public API)", 
+               description = "Filter flights by airport, city or country, departure date window, minimum available weight and maximum price per kg. "
+                       + "Results are ordered by departure date; pass nextCursor as cursor to get the following page")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved matching flights"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    })
+    public ResponseEntity<FlightSearchResultDto> searchFlights(
+            @ModelAttribute @Parameter(description = "Search filters") FlightSearchCriteria criteria) throws SendByOpException {
+        log.debug("Public API flight search request");
+        return ResponseEntity.ok(flightService.searchPublicFlights(criteria));
+    }
+
     @GetMapping("/public/{id}")
     @Operation(summary = "Get flight details by ID (Public API)", 
                description = "Retrieve detailed information about a specific flight for public viewing")
@@ -3,7 +3,7 @@ package com.sendByOP.expedition.web.controller;
 import com.sendByOP.expedition.exception.SendByOpException;
 import com.sendByOP.expedition.models.dto.WebhookPaymentNotification;
 import com.sendByOP.expedition.models.enums.PaymentMethod;
-import com.sendByOP.expedition.services.impl.PaymentService;
+import com.sendByOP.expedition.services.impl.PaymentWebhookIntakeService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -16,6 +16,9 @@ import java.util.Map;
 /**
  * Contrôleur pour recevoir les webhooks de paiement des différents providers
  * IMPORTANT: Ces endpoints doivent être accessibles sans authentification
+ *
+ * Les notifications sont enregistrées puis acquittées immédiatement ; leur traitement
+ * (transaction, réservation, facture) est asynchrone (voir PaymentWebhookDispatcher).
  */
 @RestController
 @RequestMapping("/webhooks/payment")
@@ -23,7 +26,7 @@ import java.util.Map;
 @Slf4j
 public class PaymentWebhookController {
     
-    private final PaymentService paymentService;
+    private final PaymentWebhookIntakeService webhookIntakeService;
     
     /**
      * Webhook pour Orange Money
@@ -119,7 +122,7 @@ public class PaymentWebhookController {
     }
     
     /**
-     * Méthode privée pour traiter tous les webhooks de manière uniforme
+     * Méthode privée pour recevoir tous les webhooks de manière uniforme
      */
     private ResponseEntity<Map<String, Object>> processWebhook(
             WebhookPaymentNotification notification,
@@ -138,14 +141,14 @@ public class PaymentWebhookController {
                 return ResponseEntity.badRequest().body(response);
             }
             
-            // Traiter le webhook via le service de paiement
-            paymentService.processWebhookNotification(notification, paymentMethod, signature);
+            // Enregistrer le webhook pour traitement asynchrone (les renvois sont acquittés sans retraitement)
+            boolean accepted = webhookIntakeService.receive(notification, paymentMethod, signature);
             
-            log.info("Webhook traité avec succès - Transaction: {}", 
+            log.info("Webhook {} - Transaction: {}", accepted ? "enregistré" : "déjà reçu", 
                     notification.getTransactionReference());
             
             response.put("success", true);
-            response.put("message", "Webhook traité avec succès");
+            response.put("message", accepted ? "Webhook reçu" : "Webhook déjà reçu");
             return ResponseEntity.ok(response);
             
         } catch (SendByOpException e) {
@@ -2,8 +2,10 @@ package com.sendByOP.expedition.web.controller;
 
 import com.sendByOP.expedition.exception.SendByOpException;
 import com.sendByOP.expedition.models.dto.CustomerDto;
+import com.sendByOP.expedition.models.dto.TravelerRatingSummaryDto;
 import com.sendByOP.expedition.services.FileStorageService;
 import com.sendByOP.expedition.services.iServices.ICustomerService;
+import com.sendByOP.expedition.services.iServices.IReviewService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -30,6 +32,7 @@ import java.util.Map;
 public class ProfileController {
 
     private final ICustomerService customerService;
+    private final IReviewService reviewService;
     private final FileStorageService fileStorageService;
 
     @PostMapping(value = "/upload-picture/{customerId}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -150,6 +153,10 @@ public class ProfileController {
                     ? "/api/profile/picture/" + customerId 
                     : null);
             
+            TravelerRatingSummaryDto rating = reviewService.getTravelerRatingSummary(customerId);
+            response.put("averageRating", rating.getAverageRating());
+            response.put("reviewCount", rating.getReviewCount());
+            
             return ResponseEntity.ok(response);
                     
         } catch (SendByOpException ex) {
@@ -1,6 +1,7 @@
 package com.sendByOP.expedition.web.controller;
 
 import com.sendByOP.expedition.models.dto.ReviewDto;
+import com.sendByOP.expedition.models.dto.TravelerRatingSummaryDto;
 import com.sendByOP.expedition.reponse.ResponseMessages;
 import com.sendByOP.expedition.services.iServices.IReviewService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -101,6 +102,18 @@ public class ReviewController {
         return ResponseEntity.ok(reviews);
     }
 
+    @Operation(summary = "Get rating summary for a traveler", 
+               description = "Retrieves the average rating, review count and star distribution of a traveler")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Rating summary found",
+                content = @Content(schema = @Schema(implementation = TravelerRatingSummaryDto.class)))
+    })
+    @GetMapping("/traveler/{travelerId}/summary")
+    public ResponseEntity<TravelerRatingSummaryDto> getTravelerRatingSummary(
+            @Parameter(description = "Traveler (Customer) ID") @PathVariable("travelerId") Integer travelerId) {
+        return ResponseEntity.ok(reviewService.getTravelerRatingSummary(travelerId));
+    }
+
     @Operation(summary = "Get reviews given by a customer", 
                description = "Retrieves all reviews that a customer has left on their bookings")
     @ApiResponses(value = {
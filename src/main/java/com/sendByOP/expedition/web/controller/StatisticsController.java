@@ -5,6 +5,7 @@ import com.sendByOP.expedition.models.dto.RecentActivityDto;
 import com.sendByOP.expedition.models.dto.RevenueStatsDto;
 import com.sendByOP.expedition.models.dto.UserStatsDto;
 import com.sendByOP.expedition.services.iServices.IStatisticsService;
+import com.sendByOP.expedition.services.impl.DailyStatsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -19,6 +20,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Contrôleur pour les statistiques et analytics
@@ -31,6 +33,7 @@ import java.util.List;
 public class StatisticsController {
 
     private final IStatisticsService statisticsService;
+    private final DailyStatsService dailyStatsService;
 
     /**
      * Récupérer les statistiques de réservations
@@ -138,4 +141,34 @@ public class StatisticsController {
         
         return ResponseEntity.ok(activities);
     }
+
+    /**
+     * Recalculer les agrégats journaliers sur une période
+     */
+    @PostMapping("/rollups/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+            summary = "Recalcul des agrégats journaliers",
+            description = "Recalcule les tables daily_stats / daily_booking_stats depuis les données sources (initialisation ou correction)"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Agrégats recalculés avec succès"),
+            @ApiResponse(responseCode = "401", description = "Non authentifié"),
+            @ApiResponse(responseCode = "403", description = "Non autorisé (admin requis)")
+    })
+    public ResponseEntity<Map<String, Integer>> rebuildRollups(
+            @Parameter(description = "Date de début (format: yyyy-MM-dd)")
+            @RequestParam
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+
+            @Parameter(description = "Date de fin (format: yyyy-MM-dd, défaut: aujourd'hui)")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        log.info("POST /statistics/rollups/rebuild from={} to={}", from, to);
+
+        int rebuiltDays = dailyStatsService.rebuild(from, to != null ? to : LocalDate.now());
+
+        return ResponseEntity.ok(Map.of("rebuiltDays", rebuiltDays));
+    }
 }
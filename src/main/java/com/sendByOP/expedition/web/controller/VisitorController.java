@@ -1,21 +1,28 @@
 package com.sendByOP.expedition.web.controller;
 
-import com.sendByOP.expedition.mappers.VisitorMapper;
+import com.sendByOP.expedition.config.RateLimitProperties;
+import com.sendByOP.expedition.models.dto.VisitStatsDto;
 import com.sendByOP.expedition.models.dto.VisitorDto;
 import com.sendByOP.expedition.services.iServices.IVisiteService;
+import com.sendByOP.expedition.utils.RequestUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
+import java.time.LocalDate;
+import java.util.List;
 
 @RestController
 @RequestMapping("/visitors")
@@ -25,28 +32,53 @@ import javax.validation.Valid;
 public class VisitorController {
 
     private final IVisiteService visiteService;
-    private final VisitorMapper visitorMapper;
+    private final RateLimitProperties rateLimitProperties;
 
-    @Operation(summary = "Create a new visitor", description = "Creates a new visitor in the system")
+    @Operation(summary = "Record a visit", description = "Counts a page view; the visitor is identified by IP address and user agent for the unique visitor estimate")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "201", description = "Visitor created successfully",
+        @ApiResponse(responseCode = "201", description = "Visit recorded successfully",
                 content = @Content(schema = @Schema(implementation = VisitorDto.class))),
         @ApiResponse(responseCode = "400", description = "Invalid input")
     })
     @PostMapping
-    public ResponseEntity<?> addVisitor(@Valid @RequestBody VisitorDto visitorDto) {
-        log.debug("Adding new visitor");
+    public ResponseEntity<?> addVisitor(@Valid @RequestBody VisitorDto visitorDto, HttpServletRequest request) {
+        log.debug("Recording visit");
         visitorDto.setId(null);
-        var savedVisitor = visiteService.addVisitor(visitorMapper.toEntity(visitorDto));
-        return new ResponseEntity<>(visitorMapper.toDto(savedVisitor), HttpStatus.CREATED);
+        if (visitorDto.getIpAddress() == null || visitorDto.getIpAddress().isBlank()) {
+            visitorDto.setIpAddress(RequestUtils.clientIp(request, rateLimitProperties.isTrustForwardedFor()));
+        }
+        if (visitorDto.getUserAgent() == null || visitorDto.getUserAgent().isBlank()) {
+            visitorDto.setUserAgent(request.getHeader(HttpHeaders.USER_AGENT));
+        }
+        visiteService.recordVisit(visitorDto.getPage(), visitorDto.getIpAddress() + "|" + visitorDto.getUserAgent());
+        return new ResponseEntity<>(visitorDto, HttpStatus.CREATED);
     }
 
-    @Operation(summary = "Get total visitor count", description = "Returns the total number of visitors")
+    @Operation(summary = "Get total visitor count", description = "Returns the total number of page views")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved visitor count")
     @GetMapping("/count")
-    public ResponseEntity<Integer> getVisitorCount() {
+    public ResponseEntity<Long> getVisitorCount() {
         log.debug("Getting visitor count");
         return new ResponseEntity<>(visiteService.getVisitorCount(), HttpStatus.OK);
     }
 
+    @Operation(summary = "Get today's unique visitor count", description = "Returns the estimated number of unique visitors of the current day")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved unique visitor count")
+    @GetMapping("/count/unique")
+    public ResponseEntity<Long> getUniqueVisitorCount() {
+        log.debug("Getting unique visitor count");
+        return new ResponseEntity<>(visiteService.getUniqueVisitorCountToday(), HttpStatus.OK);
+    }
+
+    @Operation(summary = "Get daily visit statistics", description = "Returns page views and estimated unique visitors per day (last 30 days by default)")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved visit statistics")
+    @GetMapping("/stats")
+    public ResponseEntity<List<VisitStatsDto>> getDailyStats(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        return new ResponseEntity<>(visiteService.getDailyStats(start, end), HttpStatus.OK);
+    }
+
 }
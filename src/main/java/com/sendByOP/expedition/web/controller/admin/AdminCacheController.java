@@ -0,0 +1,35 @@
+package com.sendByOP.expedition.web.controller.admin;
+
+import com.sendByOP.expedition.cache.CacheStatsService;
+import com.sendByOP.expedition.models.dto.CacheStatsDto;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controller admin pour le suivi des caches applicatifs
+ */
+@RestController
+@RequestMapping("/admin/cache")
+@RequiredArgsConstructor
+@Tag(name = "Admin Cache", description = "API admin pour le suivi des caches")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminCacheController {
+
+    private final CacheStatsService cacheStatsService;
+
+    @Operation(summary = "Get cache statistics", description = "Hit/miss statistics of each application cache on this node")
+    @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully")
+    @GetMapping("/stats")
+    public ResponseEntity<List<CacheStatsDto>> getCacheStats() {
+        return ResponseEntity.ok(cacheStatsService.getStats());
+    }
+}
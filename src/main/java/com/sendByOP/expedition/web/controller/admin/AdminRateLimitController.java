@@ -0,0 +1,35 @@
+package com.sendByOP.expedition.web.controller.admin;
+
+import com.sendByOP.expedition.models.dto.RateLimitStatsDto;
+import com.sendByOP.expedition.security.ratelimit.RateLimiterService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controller admin pour le suivi de la limitation de débit
+ */
+@RestController
+@RequestMapping("/admin/rate-limit")
+@RequiredArgsConstructor
+@Tag(name = "Admin Rate Limit", description = "API admin pour le suivi de la limitation de débit")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminRateLimitController {
+
+    private final RateLimiterService rateLimiterService;
+
+    @Operation(summary = "Get rate limit statistics", description = "Allowed and rejected requests per rate limit rule on this node")
+    @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully")
+    @GetMapping("/stats")
+    public ResponseEntity<List<RateLimitStatsDto>> getRateLimitStats() {
+        return ResponseEntity.ok(rateLimiterService.getStats());
+    }
+}
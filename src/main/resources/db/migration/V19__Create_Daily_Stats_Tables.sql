@@ -0,0 +1,37 @@
+-- ============================================
+-- Migration: Création des tables d'agrégats journaliers
+-- Version: V19
+-- Description: Agrégats du dashboard admin maintenus incrémentalement
+--              (DailyStatsListener) et réconciliés chaque nuit (DailyStatsService)
+-- ============================================
+
+-- Agrégats de la plateforme par jour
+CREATE TABLE IF NOT EXISTS daily_stats (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    stat_date DATE NOT NULL,
+    new_users BIGINT NOT NULL DEFAULT 0,
+    new_flights BIGINT NOT NULL DEFAULT 0,
+    updated_at DATETIME NULL,
+
+    CONSTRAINT uk_daily_stats_date UNIQUE (stat_date)
+);
+
+-- Réservations par jour de réservation et par statut courant
+CREATE TABLE IF NOT EXISTS daily_booking_stats (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    stat_date DATE NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    booking_count BIGINT NOT NULL DEFAULT 0,
+    total_amount DECIMAL(14,2) NOT NULL DEFAULT 0,
+    updated_at DATETIME NULL,
+
+    CONSTRAINT uk_daily_booking_stats_date_status UNIQUE (stat_date, status)
+);
+
+-- ============================================
+-- NOTES
+-- ============================================
+-- 1. Initialisation des agrégats pour l'historique existant :
+--    POST /statistics/rollups/rebuild?from=2023-01-01
+-- 2. La réconciliation nocturne recalcule les app.stats.reconcile-days derniers jours (défaut: 90)
+-- ============================================
@@ -0,0 +1,19 @@
+-- ============================================
+-- Migration: Index pour les tâches planifiées
+-- Version: V20
+-- Description: Index composites (statut + échéance + id) utilisés par
+--              ScheduledTasksService pour lire uniquement les lignes échues,
+--              par lots paginés sur l'id
+-- ============================================
+
+-- Expiration des vols : status = 'ACTIVE' AND arrival_date < now
+CREATE INDEX IF NOT EXISTS idx_flight_status_arrival 
+ON flight(status, arrival_date, id);
+
+-- Confirmation automatique / fermeture des avis : status IN (...) AND updated_at < deadline
+CREATE INDEX IF NOT EXISTS idx_booking_status_updated 
+ON booking(status, updated_at, id);
+
+-- Annulation automatique (BookingService) : status = 'CONFIRMED_UNPAID' AND payment_deadline < now
+CREATE INDEX IF NOT EXISTS idx_booking_status_deadline 
+ON booking(status, payment_deadline);
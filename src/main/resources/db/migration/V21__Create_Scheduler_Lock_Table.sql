@@ -0,0 +1,14 @@
+-- ============================================
+-- Migration: Verrous des tâches planifiées
+-- Version: V21
+-- Description: Une ligne par tâche (ou par shard "tache:n") ; le nœud qui
+--              passe locked_until dans le futur exécute la tâche, les autres
+--              l'ignorent jusqu'à expiration du bail
+-- ============================================
+
+CREATE TABLE IF NOT EXISTS scheduler_lock (
+    name VARCHAR(100) NOT NULL PRIMARY KEY,
+    locked_until DATETIME NOT NULL,
+    locked_at DATETIME NOT NULL,
+    locked_by VARCHAR(255) NOT NULL
+);
@@ -0,0 +1,29 @@
+-- ============================================
+-- Migration: Traitement automatique des payouts par lots
+-- Version: V22
+-- Description: Clé d'idempotence des payouts et points de contrôle
+--              du batch nocturne (PayoutService.processAutomaticPayouts)
+-- ============================================
+
+-- Clé d'idempotence : une par réservation
+ALTER TABLE payout ADD COLUMN IF NOT EXISTS idempotency_key VARCHAR(64) NULL;
+
+UPDATE payout SET idempotency_key = CONCAT('PAYOUT-', booking_id) WHERE idempotency_key IS NULL;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_payout_idempotency_key 
+ON payout(idempotency_key);
+
+-- Points de contrôle des exécutions du batch
+CREATE TABLE IF NOT EXISTS payout_batch_run (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    status VARCHAR(20) NOT NULL,
+    last_booking_id INT NOT NULL DEFAULT 0,
+    processed_count INT NOT NULL DEFAULT 0,
+    failed_count INT NOT NULL DEFAULT 0,
+    started_at DATETIME NOT NULL,
+    checkpoint_at DATETIME NULL,
+    finished_at DATETIME NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_payout_batch_run_status 
+ON payout_batch_run(status);
@@ -0,0 +1,25 @@
+-- ============================================
+-- Migration: Résumé des notes des voyageurs
+-- Version: V23
+-- Description: Somme, nombre et répartition par étoile des notes reçues,
+--              incrémentés à chaque avis de réservation (TravelerRatingService)
+-- ============================================
+
+CREATE TABLE IF NOT EXISTS traveler_rating_summary (
+    traveler_id INT NOT NULL PRIMARY KEY,
+    rating_sum DECIMAL(12,2) NOT NULL DEFAULT 0,
+    review_count BIGINT NOT NULL DEFAULT 0,
+    star1_count BIGINT NOT NULL DEFAULT 0,
+    star2_count BIGINT NOT NULL DEFAULT 0,
+    star3_count BIGINT NOT NULL DEFAULT 0,
+    star4_count BIGINT NOT NULL DEFAULT 0,
+    star5_count BIGINT NOT NULL DEFAULT 0,
+    updated_at DATETIME NULL
+);
+
+-- ============================================
+-- NOTES
+-- ============================================
+-- 1. La note étant stockée en texte libre (review.rating), l'initialisation
+--    est faite au démarrage par TravelerRatingService.backfillIfEmpty
+-- ============================================
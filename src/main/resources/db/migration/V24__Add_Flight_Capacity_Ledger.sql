@@ -0,0 +1,21 @@
+-- ============================================
+-- Migration: Registre de capacité des vols
+-- Version: V24
+-- Description: Kilos retenus par les réservations actives, réservés par
+--              UPDATE conditionnel à la création d'une réservation et libérés
+--              à son annulation (FlightCapacityService)
+-- ============================================
+
+ALTER TABLE flight ADD COLUMN IF NOT EXISTS reserved_kg DECIMAL(10,2) NOT NULL DEFAULT 0;
+
+-- Initialisation depuis les colis des réservations non annulées
+-- (faite au démarrage par FlightCapacitySeeder, ces fichiers n'étant pas exécutés)
+UPDATE flight SET reserved_kg = (
+    SELECT COALESCE(SUM(p.weight_kg), 0)
+    FROM parcel p
+    JOIN booking b ON p.reservation_id = b.id
+    WHERE b.flight_id = flight.id
+      AND b.cancelled = 0
+      AND (b.status IS NULL OR b.status NOT IN (
+          'CANCELLED_BY_CLIENT', 'CANCELLED_BY_TRAVELER', 'CANCELLED_PAYMENT_TIMEOUT', 'REFUNDED'))
+);
@@ -0,0 +1,14 @@
+-- ============================================
+-- Migration: Index de la recherche publique de vols
+-- Version: V25
+-- Description: Index composites terminés par (departure_date, id) pour la
+--              recherche FlightService.searchPublicFlights paginée par position
+-- ============================================
+
+-- Recherche sans trajet précis : status = 'ACTIVE' AND departure_date > now ORDER BY departure_date, id
+CREATE INDEX IF NOT EXISTS idx_flight_status_departure 
+ON flight(status, departure_date, id);
+
+-- Recherche par aéroports de départ / d'arrivée
+CREATE INDEX IF NOT EXISTS idx_flight_route_departure 
+ON flight(departure_airport_id, arrival_airport_id, departure_date, id);
@@ -0,0 +1,14 @@
+-- ============================================
+-- Migration: Index aveugles de l'IBAN et du BIC
+-- Version: V26
+-- Description: Colonnes HMAC déterministes pour rechercher et contrôler l'unicité
+--              des champs chiffrés sans les déchiffrer (BankInfoValidationService)
+--              Les lignes existantes sont complétées au démarrage par BankBlindIndexBackfillService
+-- ============================================
+
+ALTER TABLE bank_info ADD COLUMN IF NOT EXISTS iban_hash VARCHAR(64);
+ALTER TABLE bank_info ADD COLUMN IF NOT EXISTS bic_hash VARCHAR(64);
+
+-- Les valeurs NULL (lignes pas encore complétées) ne violent pas l'unicité
+CREATE UNIQUE INDEX IF NOT EXISTS uk_bank_info_iban_hash ON bank_info(iban_hash);
+CREATE UNIQUE INDEX IF NOT EXISTS uk_bank_info_bic_hash ON bank_info(bic_hash);
@@ -0,0 +1,18 @@
+-- ============================================
+-- Migration: Avancement du re-chiffrement des colonnes chiffrées
+-- Version: V27
+-- Description: Point de contrôle par table de ReEncryptionService (rotation de clé
+--              sans interruption : lots par id, reprise après redémarrage)
+-- ============================================
+
+CREATE TABLE IF NOT EXISTS reencryption_progress (
+    table_name VARCHAR(100) NOT NULL PRIMARY KEY,
+    key_id VARCHAR(50) NOT NULL,
+    last_id BIGINT NOT NULL DEFAULT 0,
+    processed_count BIGINT NOT NULL DEFAULT 0,
+    updated_count BIGINT NOT NULL DEFAULT 0,
+    failed_count BIGINT NOT NULL DEFAULT 0,
+    started_at TIMESTAMP NOT NULL,
+    checkpoint_at TIMESTAMP NULL,
+    finished_at TIMESTAMP NULL
+);
@@ -0,0 +1,11 @@
+-- ============================================
+-- Migration: Clés naturelles des données de référence
+-- Version: V28
+-- Description: Unicité du nom de pays, du nom de ville par pays et du code IATA,
+--              sur lesquelles repose l'import idempotent des aéroports
+--              (InternationalAirportDataLoader, relancé à chaque démarrage)
+-- ============================================
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_country_name ON country(name);
+CREATE UNIQUE INDEX IF NOT EXISTS uk_city_country_name ON city(country_id, name);
+CREATE UNIQUE INDEX IF NOT EXISTS uk_airport_iata ON airport(iata);
@@ -0,0 +1,32 @@
+-- ============================================
+-- Migration: Outbox des emails sortants
+-- Version: V29
+-- Description: Emails mis en file dans la transaction métier (EmailOutboxService)
+--              puis envoyés hors requête par EmailOutboxDispatcher, avec nouvelles
+--              tentatives espacées et abandon (DEAD) après le nombre maximal d'essais
+-- ============================================
+
+CREATE TABLE IF NOT EXISTS email_outbox (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(500) NOT NULL,
+    body TEXT NOT NULL,
+    html BOOLEAN NOT NULL DEFAULT TRUE,
+    attachment LONGBLOB,
+    attachment_name VARCHAR(255),
+    dedup_key VARCHAR(64) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME NOT NULL,
+    last_error TEXT,
+    booking_id INT,
+    notification_type VARCHAR(50),
+    created_at DATETIME NOT NULL,
+    sent_at DATETIME
+);
+
+-- Lecture des emails dus (polling du dispatcher)
+CREATE INDEX idx_email_outbox_status_next_attempt ON email_outbox(status, next_attempt_at, id);
+
+-- Déduplication à la mise en file
+CREATE INDEX idx_email_outbox_dedup ON email_outbox(dedup_key, created_at);
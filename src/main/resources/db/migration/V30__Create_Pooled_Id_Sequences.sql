@@ -0,0 +1,67 @@
+-- ============================================
+-- Migration: Séquences d'identifiants (pool de 50)
+-- Version: V30
+-- Description: booking, parcel, parcel_photo, transactions, payout et notification_log
+--              passent de IDENTITY à des séquences allouées par blocs de 50
+--              (@SequenceGenerator, optimiseur pooled de Hibernate). Les ids sont connus
+--              avant l'INSERT : Hibernate peut regrouper les INSERT en batch JDBC
+--              (hibernate.jdbc.batch_size), ce qu'IDENTITY empêche.
+--
+-- La valeur suivante de chaque séquence est la borne haute du premier bloc : elle est
+-- fixée à MAX(id) + 50 pour que le bloc commence juste après les lignes existantes.
+-- Les colonnes AUTO_INCREMENT / SERIAL existantes sont conservées (elles acceptent les ids
+-- fournis).
+--
+-- Au démarrage, IdSequenceSeeder fait cet alignement lui-même (PostgreSQL et MySQL) sur les
+-- séquences créées par ddl-auto=update, avant toute écriture, sans jamais reculer une
+-- séquence déjà en avance : ce script ne sert qu'à préparer la base à la main.
+-- ============================================
+
+-- --------------------------------------------
+-- PostgreSQL (production)
+-- --------------------------------------------
+CREATE SEQUENCE IF NOT EXISTS booking_seq INCREMENT BY 50;
+SELECT setval('booking_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM booking), false);
+
+CREATE SEQUENCE IF NOT EXISTS parcel_seq INCREMENT BY 50;
+SELECT setval('parcel_seq', (SELECT COALESCE(MAX(parcel_id), 0) + 50 FROM parcel), false);
+
+CREATE SEQUENCE IF NOT EXISTS parcel_photo_seq INCREMENT BY 50;
+SELECT setval('parcel_photo_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM parcel_photo), false);
+
+CREATE SEQUENCE IF NOT EXISTS transactions_seq INCREMENT BY 50;
+SELECT setval('transactions_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM transactions), false);
+
+CREATE SEQUENCE IF NOT EXISTS payout_seq INCREMENT BY 50;
+SELECT setval('payout_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM payout), false);
+
+CREATE SEQUENCE IF NOT EXISTS notification_log_seq INCREMENT BY 50;
+SELECT setval('notification_log_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM notification_log), false);
+
+-- --------------------------------------------
+-- MySQL (développement) : pas de séquence native, Hibernate utilise une table
+-- d'une ligne par séquence (colonne next_val). À exécuter à la place du bloc PostgreSQL :
+-- --------------------------------------------
+-- CREATE TABLE IF NOT EXISTS booking_seq (next_val BIGINT);
+-- DELETE FROM booking_seq;
+-- INSERT INTO booking_seq SELECT COALESCE(MAX(id), 0) + 50 FROM booking;
+--
+-- CREATE TABLE IF NOT EXISTS parcel_seq (next_val BIGINT);
+-- DELETE FROM parcel_seq;
+-- INSERT INTO parcel_seq SELECT COALESCE(MAX(parcel_id), 0) + 50 FROM parcel;
+--
+-- CREATE TABLE IF NOT EXISTS parcel_photo_seq (next_val BIGINT);
+-- DELETE FROM parcel_photo_seq;
+-- INSERT INTO parcel_photo_seq SELECT COALESCE(MAX(id), 0) + 50 FROM parcel_photo;
+--
+-- CREATE TABLE IF NOT EXISTS transactions_seq (next_val BIGINT);
+-- DELETE FROM transactions_seq;
+-- INSERT INTO transactions_seq SELECT COALESCE(MAX(id), 0) + 50 FROM transactions;
+--
+-- CREATE TABLE IF NOT EXISTS payout_seq (next_val BIGINT);
+-- DELETE FROM payout_seq;
+-- INSERT INTO payout_seq SELECT COALESCE(MAX(id), 0) + 50 FROM payout;
+--
+-- CREATE TABLE IF NOT EXISTS notification_log_seq (next_val BIGINT);
+-- DELETE FROM notification_log_seq;
+-- INSERT INTO notification_log_seq SELECT COALESCE(MAX(id), 0) + 50 FROM notification_log;
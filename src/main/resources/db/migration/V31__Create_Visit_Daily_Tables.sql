@@ -0,0 +1,34 @@
+-- ============================================
+-- Migration: Compteurs de visites agrégés par jour
+-- Version: V31
+-- Description: Pages vues par jour et par page (incrémentées par lots par VisiteService)
+--              et sketch HyperLogLog des visiteurs uniques du jour. La table visites
+--              n'est plus alimentée : son historique est repris par jour sous la page
+--              "(legacy)" au démarrage par VisitHistoryMigration (migration de données
+--              "visit-history", exécutée une seule fois)
+-- ============================================
+
+CREATE TABLE IF NOT EXISTS visit_daily_count (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    visit_date DATE NOT NULL,
+    page VARCHAR(255) NOT NULL,
+    views BIGINT NOT NULL DEFAULT 0,
+    updated_at DATETIME NOT NULL,
+    CONSTRAINT uk_visit_daily_count_day_page UNIQUE (visit_date, page)
+);
+
+CREATE TABLE IF NOT EXISTS visit_daily_unique (
+    visit_date DATE PRIMARY KEY,
+    sketch VARBINARY(4096) NOT NULL,
+    unique_visitors BIGINT NOT NULL DEFAULT 0,
+    updated_at DATETIME NOT NULL
+);
+
+-- Reprise de l'historique (une ligne par jour ; pas de visiteurs uniques pour le passé)
+-- Équivalent SQL de VisitHistoryMigration, rejouable
+DELETE FROM visit_daily_count WHERE page = '(legacy)';
+INSERT INTO visit_daily_count (visit_date, page, views, updated_at)
+SELECT CAST(date_v AS DATE), '(legacy)', COUNT(*), NOW()
+FROM visites
+WHERE date_v IS NOT NULL
+GROUP BY CAST(date_v AS DATE);
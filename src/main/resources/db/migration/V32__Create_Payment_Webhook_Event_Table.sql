@@ -0,0 +1,25 @@
+-- ============================================
+-- Migration: File des webhooks de paiement reçus
+-- Version: V32
+-- Description: Notifications enregistrées à la réception (PaymentWebhookIntakeService),
+--              dédupliquées par (provider, event_id), puis appliquées par
+--              PaymentWebhookDispatcher dans l'ordre de réception pour chaque transaction
+-- ============================================
+
+CREATE TABLE IF NOT EXISTS payment_webhook_event (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    provider VARCHAR(30) NOT NULL,
+    event_id VARCHAR(64) NOT NULL,
+    transaction_reference VARCHAR(100) NOT NULL,
+    payload TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME NOT NULL,
+    last_error TEXT,
+    received_at DATETIME NOT NULL,
+    processed_at DATETIME,
+    CONSTRAINT uk_payment_webhook_event UNIQUE (provider, event_id)
+);
+
+-- Lecture des notifications dues et ordre par transaction (polling du dispatcher)
+CREATE INDEX idx_payment_webhook_event_status_ref ON payment_webhook_event(status, transaction_reference, id);
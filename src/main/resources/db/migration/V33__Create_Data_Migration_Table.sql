@@ -0,0 +1,11 @@
+-- ============================================
+-- Migration: Migrations de données exécutées au démarrage
+-- Version: V33
+-- Description: Une ligne par migration de données terminée (DataMigrationService) :
+--              les copies et recalculs faits par l'application ne sont exécutés qu'une fois
+-- ============================================
+
+CREATE TABLE IF NOT EXISTS data_migration (
+    name VARCHAR(100) PRIMARY KEY,
+    completed_at DATETIME NOT NULL
+);
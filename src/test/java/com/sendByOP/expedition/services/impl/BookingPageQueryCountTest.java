@@ -0,0 +1,219 @@
+package com.sendByOP.expedition.services.impl;
+
+import com.sendByOP.expedition.models.dto.CustomerBookingDto;
+import com.sendByOP.expedition.models.entities.Airport;
+import com.sendByOP.expedition.models.entities.Booking;
+import com.sendByOP.expedition.models.entities.City;
+import com.sendByOP.expedition.models.entities.Country;
+import com.sendByOP.expedition.models.entities.Customer;
+import com.sendByOP.expedition.models.entities.Flight;
+import com.sendByOP.expedition.models.entities.Parcel;
+import com.sendByOP.expedition.models.entities.ParcelPhoto;
+import com.sendByOP.expedition.models.entities.Receiver;
+import com.sendByOP.expedition.models.enums.BookingStatus;
+import com.sendByOP.expedition.models.enums.FlightStatus;
+import com.sendByOP.expedition.reference.AirportRef;
+import com.sendByOP.expedition.reference.ReferenceDataService;
+import com.sendByOP.expedition.repositories.BookingRepository;
+import com.sendByOP.expedition.repositories.CustomerRepository;
+import com.sendByOP.expedition.repositories.FlightRepository;
+import com.sendByOP.expedition.repositories.ReceiverRepository;
+import com.sendByOP.expedition.services.FileStorageService;
+import com.sendByOP.expedition.services.iServices.INotificationService;
+import com.sendByOP.expedition.services.iServices.IPlatformSettingsService;
+import com.sendByOP.expedition.services.iServices.IReceiverService;
+import com.sendByOP.expedition.support.JpaTestConfig;
+import com.sendByOP.expedition.support.StatementCounter;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Nombre de requêtes des pages de réservations (client et voyageur) : fixe, quel que soit le
+ * nombre de réservations de la page (client, destinataire, vol, voyageur, colis et photos)
+ * Profil "test" via ACTIVE_PROFILE : base H2 de application-test.properties
+ */
+@DataJpaTest(properties = "ACTIVE_PROFILE=test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(JpaTestConfig.class)
+class BookingPageQueryCountTest {
+
+    private static final int MAX_STATEMENTS = 4;
+    private static final String SENDER_EMAIL = "sender@example.com";
+    private static final String TRAVELER_EMAIL = "traveler@example.com";
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ReceiverRepository receiverRepository;
+
+    @MockBean
+    private ReferenceDataService referenceDataService;
+
+    private StatementCounter statementCounter;
+    private BookingService bookingService;
+    private Customer sender;
+    private Flight flight;
+    private int receiverCount;
+
+    @BeforeEach
+    void setUp() {
+        when(referenceDataService.getAirport(any(Airport.class)))
+                .thenReturn(new AirportRef(1, "Airport", "AAA", 1, "City", 1, "Country"));
+
+        bookingService = new BookingService(bookingRepository, flightRepository, customerRepository,
+                receiverRepository, mock(IReceiverService.class), mock(IPlatformSettingsService.class),
+                mock(FileStorageService.class), mock(SendMailService.class), mock(INotificationService.class),
+                mock(DailyStatsService.class), mock(FlightCapacityService.class), referenceDataService,
+                mock(TransactionTemplate.class));
+        statementCounter = new StatementCounter(entityManagerFactory);
+
+        Country country = new Country();
+        country.setName("Cameroun");
+        entityManager.persist(country);
+        City city = entityManager.persist(City.builder().name("Douala").country(country).build());
+        Airport departure = entityManager.persist(Airport.builder().name("Douala").iataCode("DLA").city(city).build());
+        Airport arrival = entityManager.persist(Airport.builder().name("Yaoundé").iataCode("NSI").city(city).build());
+
+        sender = entityManager.persist(Customer.builder()
+                .firstName("Sender").lastName("Customer").email(SENDER_EMAIL).build());
+        Customer traveler = entityManager.persist(Customer.builder()
+                .firstName("Traveler").lastName("Customer").email(TRAVELER_EMAIL).build());
+        flight = entityManager.persist(Flight.builder()
+                .departureDate(Date.from(Instant.now().plus(10, ChronoUnit.DAYS)))
+                .arrivalDate(Date.from(Instant.now().plus(11, ChronoUnit.DAYS)))
+                .amountPerKg(10)
+                .kgCount(200)
+                .departureAirport(departure)
+                .arrivalAirport(arrival)
+                .customer(traveler)
+                .validationStatus(1)
+                .status(FlightStatus.ACTIVE)
+                .build());
+    }
+
+    @Test
+    void customerBookingPageRunsTheSameStatementsForAnyNumberOfBookings() throws Exception {
+        persistBookings(2);
+        clearPersistenceContext();
+        long twoBookings = statementCounter.count(() -> assertPage(
+                bookingService.getCustomerBookingsByEmailPaginated(SENDER_EMAIL, PageRequest.of(0, 20)), 2));
+
+        persistBookings(8);
+        clearPersistenceContext();
+        long tenBookings = statementCounter.count(() -> assertPage(
+                bookingService.getCustomerBookingsByEmailPaginated(SENDER_EMAIL, PageRequest.of(0, 20)), 10));
+
+        assertThat(tenBookings).isEqualTo(twoBookings);
+        assertThat(twoBookings).isLessThanOrEqualTo(MAX_STATEMENTS);
+    }
+
+    @Test
+    void travelerBookingPageRunsTheSameStatementsForAnyNumberOfBookings() throws Exception {
+        persistBookings(2);
+        clearPersistenceContext();
+        long twoBookings = statementCounter.count(() -> assertPage(
+                bookingService.getTravelerFlightBookingsPaginated(TRAVELER_EMAIL, PageRequest.of(0, 20)), 2));
+
+        persistBookings(8);
+        clearPersistenceContext();
+        long tenBookings = statementCounter.count(() -> assertPage(
+                bookingService.getTravelerFlightBookingsPaginated(TRAVELER_EMAIL, PageRequest.of(0, 20)), 10));
+
+        assertThat(tenBookings).isEqualTo(twoBookings);
+        assertThat(twoBookings).isLessThanOrEqualTo(MAX_STATEMENTS);
+    }
+
+    private Page<CustomerBookingDto> assertPage(Page<CustomerBookingDto> page, int expectedBookings) {
+        assertThat(page.getContent()).hasSize(expectedBookings);
+        assertThat(page.getContent()).allSatisfy(booking -> {
+            assertThat(booking.getCustomer().getEmail()).isEqualTo(SENDER_EMAIL);
+            assertThat(booking.getReceiver()).isNotNull();
+            assertThat(booking.getFlight().getTravelerFirstName()).isEqualTo("Traveler");
+            assertThat(booking.getParcels()).hasSize(1);
+            assertThat(booking.getParcelPhotos()).hasSize(2);
+        });
+        return page;
+    }
+
+    /**
+     * Réservations du client sur le vol, chacune avec son destinataire, un colis et deux photos
+     */
+    private void persistBookings(int count) {
+        for (int i = 0; i < count; i++) {
+            receiverCount++;
+            Receiver receiver = new Receiver();
+            receiver.setFirstName("Receiver");
+            receiver.setLastName(String.valueOf(receiverCount));
+            receiver.setEmail("receiver" + receiverCount + "@example.com");
+            receiver.setPhoneNumber("+2376000000" + receiverCount);
+            entityManager.persist(receiver);
+
+            Booking booking = new Booking();
+            booking.setCustomer(sender);
+            booking.setFlight(flight);
+            booking.setReceiver(receiver);
+            booking.setStatus(BookingStatus.CONFIRMED_PAID);
+            booking.setBookingDate(new Date());
+            booking.setTotalPrice(BigDecimal.valueOf(50));
+
+            List<Parcel> parcels = new ArrayList<>();
+            parcels.add(Parcel.builder().description("Documents").weightKg(5f).reservation(booking).build());
+            booking.setParcels(parcels);
+
+            List<ParcelPhoto> photos = new ArrayList<>();
+            for (int p = 0; p < 2; p++) {
+                photos.add(ParcelPhoto.builder()
+                        .photoUrl("parcel-photos/" + receiverCount + "-" + p + ".jpg")
+                        .displayOrder(p)
+                        .isPrimary(p == 0)
+                        .booking(booking)
+                        .build());
+            }
+            booking.setParcelPhotos(photos);
+            entityManager.persist(booking);
+        }
+    }
+
+    /**
+     * Écrit les données de test et vide le contexte : les entités sont relues depuis la base
+     */
+    private void clearPersistenceContext() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
@@ -0,0 +1,151 @@
+package com.sendByOP.expedition.services.impl;
+
+import com.sendByOP.expedition.exception.ErrorInfo;
+import com.sendByOP.expedition.exception.SendByOpException;
+import com.sendByOP.expedition.models.entities.Airport;
+import com.sendByOP.expedition.models.entities.Booking;
+import com.sendByOP.expedition.models.entities.City;
+import com.sendByOP.expedition.models.entities.Country;
+import com.sendByOP.expedition.models.entities.Customer;
+import com.sendByOP.expedition.models.entities.Flight;
+import com.sendByOP.expedition.models.entities.Parcel;
+import com.sendByOP.expedition.models.entities.Receiver;
+import com.sendByOP.expedition.models.enums.BookingStatus;
+import com.sendByOP.expedition.models.enums.FlightStatus;
+import com.sendByOP.expedition.repositories.FlightRepository;
+import com.sendByOP.expedition.repositories.ParcelRepository;
+import com.sendByOP.expedition.support.JpaTestConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Registre de capacité des vols : réservation jusqu'à la capacité, refus au-delà,
+ * libération du poids à l'annulation
+ * Profil "test" via ACTIVE_PROFILE : base H2 de application-test.properties
+ */
+@DataJpaTest(properties = "ACTIVE_PROFILE=test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(JpaTestConfig.class)
+class FlightCapacityServiceTest {
+
+    private static final int CAPACITY_KG = 20;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private ParcelRepository parcelRepository;
+
+    private FlightCapacityService flightCapacityService;
+    private Customer sender;
+    private Flight flight;
+
+    @BeforeEach
+    void setUp() {
+        flightCapacityService = new FlightCapacityService(flightRepository, parcelRepository,
+                mock(FlightCacheService.class));
+
+        Country country = new Country();
+        country.setName("Cameroun");
+        entityManager.persist(country);
+        City city = entityManager.persist(City.builder().name("Douala").country(country).build());
+        Airport departure = entityManager.persist(Airport.builder().name("Douala").iataCode("DLA").city(city).build());
+        Airport arrival = entityManager.persist(Airport.builder().name("Yaoundé").iataCode("NSI").city(city).build());
+
+        sender = entityManager.persist(Customer.builder()
+                .firstName("Sender").lastName("Customer").email("sender@example.com").build());
+        Customer traveler = entityManager.persist(Customer.builder()
+                .firstName("Traveler").lastName("Customer").email("traveler@example.com").build());
+        flight = entityManager.persist(Flight.builder()
+                .departureDate(Date.from(Instant.now().plus(10, ChronoUnit.DAYS)))
+                .arrivalDate(Date.from(Instant.now().plus(11, ChronoUnit.DAYS)))
+                .amountPerKg(10)
+                .kgCount(CAPACITY_KG)
+                .departureAirport(departure)
+                .arrivalAirport(arrival)
+                .customer(traveler)
+                .validationStatus(1)
+                .status(FlightStatus.ACTIVE)
+                .build());
+        entityManager.flush();
+    }
+
+    @Test
+    void reservesUpToTheCapacityThenRejectsTheNextReservation() throws Exception {
+        flightCapacityService.reserve(flight.getFlightId(), 12f);
+        flightCapacityService.reserve(flight.getFlightId(), 8f);
+
+        assertThat(reservedKg()).isEqualByComparingTo("20.00");
+        assertThatThrownBy(() -> flightCapacityService.reserve(flight.getFlightId(), 0.5f))
+                .isInstanceOf(SendByOpException.class)
+                .satisfies(e -> assertThat(((SendByOpException) e).getErrorInfo())
+                        .isEqualTo(ErrorInfo.INSUFFICIENT_FLIGHT_CAPACITY));
+        assertThat(reservedKg()).isEqualByComparingTo("20.00");
+    }
+
+    @Test
+    void cancellingABookingReleasesItsWeight() throws Exception {
+        Booking booking = persistBooking(15f);
+        flightCapacityService.reserve(flight.getFlightId(), 15f);
+        assertThatThrownBy(() -> flightCapacityService.reserve(flight.getFlightId(), 10f))
+                .isInstanceOf(SendByOpException.class);
+
+        booking.setStatus(BookingStatus.CANCELLED_BY_CLIENT);
+        flightCapacityService.releaseBookings(List.of(booking.getId()));
+
+        assertThat(reservedKg()).isEqualByComparingTo("0.00");
+        flightCapacityService.reserve(flight.getFlightId(), 10f);
+        assertThat(reservedKg()).isEqualByComparingTo("10.00");
+    }
+
+    /**
+     * Kilos réservés lus en base (les UPDATE du registre ne modifient pas l'entité chargée)
+     */
+    private BigDecimal reservedKg() {
+        return entityManager.getEntityManager()
+                .createQuery("SELECT f.reservedKg FROM Flight f WHERE f.flightId = :flightId", BigDecimal.class)
+                .setParameter("flightId", flight.getFlightId())
+                .getSingleResult();
+    }
+
+    private Booking persistBooking(float weightKg) {
+        Receiver receiver = new Receiver();
+        receiver.setFirstName("Receiver");
+        receiver.setLastName("Customer");
+        receiver.setEmail("receiver@example.com");
+        receiver.setPhoneNumber("+237600000001");
+        entityManager.persist(receiver);
+
+        Booking booking = new Booking();
+        booking.setCustomer(sender);
+        booking.setFlight(flight);
+        booking.setReceiver(receiver);
+        booking.setStatus(BookingStatus.CONFIRMED_UNPAID);
+        booking.setBookingDate(new Date());
+        booking.setTotalPrice(BigDecimal.valueOf(150));
+
+        List<Parcel> parcels = new ArrayList<>();
+        parcels.add(Parcel.builder().description("Documents").weightKg(weightKg).reservation(booking).build());
+        booking.setParcels(parcels);
+        return entityManager.persist(booking);
+    }
+}
@@ -0,0 +1,166 @@
+package com.sendByOP.expedition.services.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sendByOP.expedition.models.dto.WebhookPaymentNotification;
+import com.sendByOP.expedition.models.entities.PaymentWebhookEvent;
+import com.sendByOP.expedition.models.enums.PaymentMethod;
+import com.sendByOP.expedition.models.enums.WebhookEventStatus;
+import com.sendByOP.expedition.repositories.PaymentWebhookEventRepository;
+import com.sendByOP.expedition.scheduling.SchedulerLockService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Ordre de traitement des webhooks de paiement : les notifications d'une transaction sont
+ * appliquées dans l'ordre de réception, et un échec retient les suivantes de la même transaction
+ */
+class PaymentWebhookDispatcherTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final List<String> applied = Collections.synchronizedList(new ArrayList<>());
+
+    private PaymentWebhookEventRepository eventRepository;
+    private PaymentService paymentService;
+    private PaymentWebhookDispatcher dispatcher;
+    private long nextId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        eventRepository = mock(PaymentWebhookEventRepository.class);
+        paymentService = mock(PaymentService.class);
+        SchedulerLockService schedulerLockService = mock(SchedulerLockService.class);
+        when(schedulerLockService.runExclusively(anyString(), any(Duration.class), any(Runnable.class)))
+                .thenAnswer(invocation -> {
+                    invocation.<Runnable>getArgument(2).run();
+                    return true;
+                });
+        when(paymentService.applyWebhookNotification(any(WebhookPaymentNotification.class), any(PaymentMethod.class)))
+                .thenAnswer(invocation -> {
+                    WebhookPaymentNotification notification = invocation.getArgument(0);
+                    applied.add(notification.getTransactionReference() + ":" + notification.getStatus());
+                    return notification.getTransactionReference();
+                });
+
+        dispatcher = new PaymentWebhookDispatcher(eventRepository, paymentService, objectMapper,
+                schedulerLockService, mock(PlatformTransactionManager.class),
+                4, 100, MAX_ATTEMPTS, Duration.ofSeconds(10), Duration.ofMinutes(30), Duration.ofDays(30));
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void notificationsOfATransactionAreAppliedInReceptionOrder() throws Exception {
+        List<PaymentWebhookEvent> events = List.of(
+                event("TX-A", "PENDING", 0),
+                event("TX-B", "PENDING", 0),
+                event("TX-A", "PROCESSING", 0),
+                event("TX-B", "SUCCESS", 0),
+                event("TX-A", "SUCCESS", 0));
+        givenDue(events);
+
+        dispatcher.dispatch();
+
+        assertThat(appliedFor("TX-A")).containsExactly("TX-A:PENDING", "TX-A:PROCESSING", "TX-A:SUCCESS");
+        assertThat(appliedFor("TX-B")).containsExactly("TX-B:PENDING", "TX-B:SUCCESS");
+        for (PaymentWebhookEvent event : events) {
+            verify(eventRepository).markProcessed(eq(event.getId()), eq(WebhookEventStatus.PROCESSED),
+                    any(LocalDateTime.class));
+        }
+        verify(paymentService).sendInvoiceIfDue("TX-A");
+    }
+
+    @Test
+    void aFailureHoldsBackTheFollowingNotificationsOfTheSameTransactionOnly() throws Exception {
+        PaymentWebhookEvent failing = event("TX-A", "PENDING", 0);
+        PaymentWebhookEvent heldBack = event("TX-A", "SUCCESS", 0);
+        PaymentWebhookEvent other = event("TX-B", "SUCCESS", 0);
+        givenDue(List.of(failing, heldBack, other));
+        doThrow(new IllegalStateException("Provider unavailable")).when(paymentService)
+                .applyWebhookNotification(eq(notification("TX-A", "PENDING")), any(PaymentMethod.class));
+
+        dispatcher.dispatch();
+
+        verify(eventRepository).markFailed(eq(failing.getId()), eq(WebhookEventStatus.PENDING), eq(1),
+                any(LocalDateTime.class), eq("Provider unavailable"));
+        verify(eventRepository, never()).markProcessed(eq(heldBack.getId()), any(), any());
+        verify(eventRepository, never()).markFailed(eq(heldBack.getId()), any(), any(), any(), any());
+        assertThat(appliedFor("TX-A")).isEmpty();
+        assertThat(appliedFor("TX-B")).containsExactly("TX-B:SUCCESS");
+        verify(eventRepository).markProcessed(eq(other.getId()), eq(WebhookEventStatus.PROCESSED),
+                any(LocalDateTime.class));
+    }
+
+    @Test
+    void aNotificationIsAbandonedAfterTheLastAttempt() throws Exception {
+        PaymentWebhookEvent failing = event("TX-A", "SUCCESS", MAX_ATTEMPTS - 1);
+        givenDue(List.of(failing));
+        doThrow(new IllegalStateException("Unknown transaction")).when(paymentService)
+                .applyWebhookNotification(any(WebhookPaymentNotification.class), any(PaymentMethod.class));
+
+        dispatcher.dispatch();
+
+        verify(eventRepository).markFailed(eq(failing.getId()), eq(WebhookEventStatus.DEAD), eq(MAX_ATTEMPTS),
+                any(LocalDateTime.class), eq("Unknown transaction"));
+        verify(eventRepository, never()).markProcessed(anyLong(), any(), any());
+    }
+
+    private void givenDue(List<PaymentWebhookEvent> events) {
+        when(eventRepository.findDue(eq(WebhookEventStatus.PENDING), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(events, List.of());
+    }
+
+    private List<String> appliedFor(String transactionReference) {
+        synchronized (applied) {
+            return applied.stream().filter(entry -> entry.startsWith(transactionReference + ":")).toList();
+        }
+    }
+
+    private PaymentWebhookEvent event(String transactionReference, String status, int attempts) throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        return PaymentWebhookEvent.builder()
+                .id(++nextId)
+                .provider(PaymentMethod.ORANGE_MONEY)
+                .eventId("event-" + nextId)
+                .transactionReference(transactionReference)
+                .payload(objectMapper.writeValueAsString(notification(transactionReference, status)))
+                .status(WebhookEventStatus.PENDING)
+                .attempts(attempts)
+                .nextAttemptAt(now)
+                .receivedAt(now)
+                .build();
+    }
+
+    private static WebhookPaymentNotification notification(String transactionReference, String status) {
+        return WebhookPaymentNotification.builder()
+                .transactionReference(transactionReference)
+                .externalTransactionId("EXT-" + transactionReference)
+                .status(status)
+                .build();
+    }
+}
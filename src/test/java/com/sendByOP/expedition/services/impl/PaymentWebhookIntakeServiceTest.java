@@ -0,0 +1,120 @@
+package com.sendByOP.expedition.services.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sendByOP.expedition.models.dto.WebhookPaymentNotification;
+import com.sendByOP.expedition.models.entities.PaymentWebhookEvent;
+import com.sendByOP.expedition.models.enums.PaymentMethod;
+import com.sendByOP.expedition.models.events.PaymentWebhookReceivedEvent;
+import com.sendByOP.expedition.repositories.PaymentWebhookEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Déduplication des webhooks de paiement : un renvoi de la même notification par le provider
+ * est acquitté sans être enregistré ni traité une seconde fois
+ */
+class PaymentWebhookIntakeServiceTest {
+
+    private static final PaymentMethod PROVIDER = PaymentMethod.ORANGE_MONEY;
+    private static final String SIGNATURE = "signature";
+
+    /**
+     * Clés (provider, event_id) déjà enregistrées : contrainte unique de payment_webhook_event
+     */
+    private final Set<String> storedKeys = new HashSet<>();
+
+    private PaymentWebhookEventRepository eventRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private PaymentWebhookIntakeService intakeService;
+    private long nextId;
+
+    @BeforeEach
+    void setUp() {
+        eventRepository = mock(PaymentWebhookEventRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        when(eventRepository.existsByProviderAndEventId(any(PaymentMethod.class), anyString()))
+                .thenAnswer(invocation -> storedKeys.contains(
+                        key(invocation.getArgument(0), invocation.getArgument(1))));
+        when(eventRepository.saveAndFlush(any(PaymentWebhookEvent.class)))
+                .thenAnswer(invocation -> {
+                    PaymentWebhookEvent event = invocation.getArgument(0);
+                    if (!storedKeys.add(key(event.getProvider(), event.getEventId()))) {
+                        throw new DataIntegrityViolationException("uk_payment_webhook_event");
+                    }
+                    event.setId(++nextId);
+                    return event;
+                });
+
+        intakeService = new PaymentWebhookIntakeService(eventRepository, mock(PaymentService.class),
+                new ObjectMapper().registerModule(new JavaTimeModule()), eventPublisher,
+                mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void aResentNotificationIsAcknowledgedWithoutBeingStoredAgain() throws Exception {
+        WebhookPaymentNotification first = notification("SUCCESS", "Paiement reçu");
+        // Renvoi du provider : horodatage et message libre peuvent changer
+        WebhookPaymentNotification resent = notification("SUCCESS", "Paiement reçu (renvoi)");
+        resent.setTimestamp(first.getTimestamp().plusSeconds(30));
+
+        assertThat(intakeService.receive(first, PROVIDER, SIGNATURE)).isTrue();
+        assertThat(intakeService.receive(resent, PROVIDER, SIGNATURE)).isFalse();
+
+        verify(eventRepository, times(1)).saveAndFlush(any(PaymentWebhookEvent.class));
+        verify(eventPublisher, times(1)).publishEvent(any(PaymentWebhookReceivedEvent.class));
+    }
+
+    @Test
+    void aNewStatusOfTheSameTransactionIsStored() throws Exception {
+        assertThat(intakeService.receive(notification("PENDING", null), PROVIDER, SIGNATURE)).isTrue();
+        assertThat(intakeService.receive(notification("SUCCESS", null), PROVIDER, SIGNATURE)).isTrue();
+
+        verify(eventRepository, times(2)).saveAndFlush(any(PaymentWebhookEvent.class));
+        verify(eventPublisher, times(2)).publishEvent(any(PaymentWebhookReceivedEvent.class));
+    }
+
+    @Test
+    void aResendReceivedConcurrentlyIsRejectedByTheUniqueKey() throws Exception {
+        // Les deux requêtes passent la vérification avant l'insertion de l'autre
+        when(eventRepository.existsByProviderAndEventId(any(PaymentMethod.class), anyString())).thenReturn(false);
+        WebhookPaymentNotification notification = notification("SUCCESS", null);
+
+        assertThat(intakeService.receive(notification, PROVIDER, SIGNATURE)).isTrue();
+        assertThat(intakeService.receive(notification, PROVIDER, SIGNATURE)).isFalse();
+
+        verify(eventPublisher, times(1)).publishEvent(any(PaymentWebhookReceivedEvent.class));
+    }
+
+    private static WebhookPaymentNotification notification(String status, String message) {
+        return WebhookPaymentNotification.builder()
+                .transactionReference("TX-1")
+                .externalTransactionId("EXT-1")
+                .status(status)
+                .amount(BigDecimal.valueOf(5000))
+                .currency("XAF")
+                .timestamp(LocalDateTime.now())
+                .message(message)
+                .build();
+    }
+
+    private static String key(PaymentMethod provider, String eventId) {
+        return provider + ":" + eventId;
+    }
+}
@@ -0,0 +1,207 @@
+package com.sendByOP.expedition.services.impl;
+
+import com.sendByOP.expedition.mappers.AirportMapper;
+import com.sendByOP.expedition.mappers.CustomerMapper;
+import com.sendByOP.expedition.mappers.FlightMapper;
+import com.sendByOP.expedition.migration.DataMigrationService;
+import com.sendByOP.expedition.models.dto.PublicFlightDto;
+import com.sendByOP.expedition.models.entities.Airport;
+import com.sendByOP.expedition.models.entities.City;
+import com.sendByOP.expedition.models.entities.Country;
+import com.sendByOP.expedition.models.entities.Customer;
+import com.sendByOP.expedition.models.entities.Flight;
+import com.sendByOP.expedition.models.entities.Stopover;
+import com.sendByOP.expedition.models.entities.TravelerRatingSummary;
+import com.sendByOP.expedition.models.enums.FlightStatus;
+import com.sendByOP.expedition.reference.AirportRef;
+import com.sendByOP.expedition.reference.ReferenceDataService;
+import com.sendByOP.expedition.repositories.FlightRepository;
+import com.sendByOP.expedition.repositories.ReviewRepository;
+import com.sendByOP.expedition.repositories.StopoverRepository;
+import com.sendByOP.expedition.repositories.TravelerRatingSummaryRepository;
+import com.sendByOP.expedition.support.JpaTestConfig;
+import com.sendByOP.expedition.support.StatementCounter;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Nombre de requêtes des listes publiques de vols : fixe, quel que soit le nombre de vols
+ * (voyageur, escales et notes chargés pour toute la page)
+ * Profil "test" via ACTIVE_PROFILE : base H2 de application-test.properties
+ */
+@DataJpaTest(properties = "ACTIVE_PROFILE=test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(JpaTestConfig.class)
+class PublicFlightQueryCountTest {
+
+    private static final int MAX_STATEMENTS = 4;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private StopoverRepository stopoverRepository;
+
+    @Autowired
+    private TravelerRatingSummaryRepository summaryRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private ReferenceDataService referenceDataService;
+
+    private StatementCounter statementCounter;
+    private FlightService flightService;
+    private Airport departure;
+    private Airport arrival;
+    private int travelerCount;
+
+    @BeforeEach
+    void setUp() {
+        when(referenceDataService.getAirport(any(Airport.class)))
+                .thenReturn(new AirportRef(1, "Airport", "AAA", 1, "City", 1, "Country"));
+
+        TravelerRatingService travelerRatingService = new TravelerRatingService(summaryRepository,
+                reviewRepository, mock(DataMigrationService.class), transactionManager);
+        flightService = new FlightService(flightRepository, mock(FlightMapper.class), stopoverRepository,
+                travelerRatingService, mock(StopoverService.class), mock(AirportService.class),
+                mock(AirportMapper.class), mock(CustomerService.class), mock(CustomerMapper.class),
+                mock(FraudGuardService.class), mock(SendMailService.class), mock(FlightCacheService.class),
+                referenceDataService);
+        statementCounter = new StatementCounter(entityManagerFactory);
+
+        Country country = new Country();
+        country.setName("Cameroun");
+        entityManager.persist(country);
+        City city = entityManager.persist(City.builder().name("Douala").country(country).build());
+        departure = entityManager.persist(Airport.builder().name("Douala").iataCode("DLA").city(city).build());
+        arrival = entityManager.persist(Airport.builder().name("Yaoundé").iataCode("NSI").city(city).build());
+    }
+
+    @Test
+    void publicFlightPageRunsTheSameStatementsForAnyNumberOfFlights() throws Exception {
+        persistFlights(2);
+        clearPersistenceContext();
+        long twoFlights = statementCounter.count(() -> loadPage(2));
+
+        persistFlights(8);
+        clearPersistenceContext();
+        long tenFlights = statementCounter.count(() -> loadPage(10));
+
+        assertThat(tenFlights).isEqualTo(twoFlights);
+        assertThat(twoFlights).isLessThanOrEqualTo(MAX_STATEMENTS);
+    }
+
+    @Test
+    void publicFlightListRunsTheSameStatementsForAnyNumberOfFlights() throws Exception {
+        persistFlights(2);
+        clearPersistenceContext();
+        long twoFlights = statementCounter.count(() -> loadList(2));
+
+        persistFlights(8);
+        clearPersistenceContext();
+        long tenFlights = statementCounter.count(() -> loadList(10));
+
+        assertThat(tenFlights).isEqualTo(twoFlights);
+        assertThat(twoFlights).isLessThanOrEqualTo(MAX_STATEMENTS);
+    }
+
+    private Page<PublicFlightDto> loadPage(int expectedFlights) {
+        Page<PublicFlightDto> page = flightService.getPublicValidAndActiveFlights(PageRequest.of(0, 50));
+        assertThat(page.getContent()).hasSize(expectedFlights);
+        assertThat(page.getContent()).allSatisfy(flight -> {
+            assertThat(flight.getCustomerFirstName()).isNotNull();
+            assertThat(flight.getStopovers()).hasSize(2);
+            assertThat(flight.getTravelerReviewCount()).isEqualTo(3);
+        });
+        return page;
+    }
+
+    private List<PublicFlightDto> loadList(int expectedFlights) {
+        List<PublicFlightDto> flights = flightService.getPublicValidAndActiveFlights();
+        assertThat(flights).hasSize(expectedFlights);
+        return flights;
+    }
+
+    /**
+     * Vols actifs à venir, chacun avec son voyageur (résumé de notes), et deux escales
+     */
+    private void persistFlights(int count) {
+        Date departureDate = Date.from(Instant.now().plus(10, ChronoUnit.DAYS));
+        Date arrivalDate = Date.from(Instant.now().plus(11, ChronoUnit.DAYS));
+        for (int i = 0; i < count; i++) {
+            travelerCount++;
+            Customer traveler = entityManager.persist(Customer.builder()
+                    .firstName("Traveler")
+                    .lastName(String.valueOf(travelerCount))
+                    .email("traveler" + travelerCount + "@example.com")
+                    .build());
+            entityManager.persist(TravelerRatingSummary.builder()
+                    .travelerId(traveler.getId())
+                    .ratingSum(BigDecimal.valueOf(12))
+                    .reviewCount(3L)
+                    .star4Count(3L)
+                    .build());
+
+            Flight flight = entityManager.persist(Flight.builder()
+                    .departureDate(departureDate)
+                    .arrivalDate(arrivalDate)
+                    .amountPerKg(10)
+                    .kgCount(20)
+                    .departureAirport(departure)
+                    .arrivalAirport(arrival)
+                    .customer(traveler)
+                    .validationStatus(1)
+                    .cancelled(0)
+                    .status(FlightStatus.ACTIVE)
+                    .build());
+            for (int s = 0; s < 2; s++) {
+                entityManager.persist(Stopover.builder()
+                        .date(departureDate)
+                        .hour("1" + s + ":00")
+                        .airport(s == 0 ? departure : arrival)
+                        .flight(flight)
+                        .build());
+            }
+        }
+    }
+
+    /**
+     * Écrit les données de test et vide le contexte : les entités sont relues depuis la base
+     */
+    private void clearPersistenceContext() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
@@ -0,0 +1,15 @@
+package com.sendByOP.expedition.support;
+
+import com.sendByOP.expedition.security.encryption.BlindIndexService;
+import com.sendByOP.expedition.security.encryption.EncryptionService;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Beans requis par les convertisseurs et listeners JPA des entités (coordonnées bancaires
+ * chiffrées), absents du contexte réduit de @DataJpaTest
+ */
+@TestConfiguration
+@Import({EncryptionService.class, BlindIndexService.class})
+public class JpaTestConfig {
+}
@@ -0,0 +1,26 @@
+package com.sendByOP.expedition.support;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Compte les requêtes SQL préparées par Hibernate pendant une action
+ */
+public final class StatementCounter {
+
+    private final Statistics statistics;
+
+    public StatementCounter(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.statistics.setStatisticsEnabled(true);
+    }
+
+    public long count(Callable<?> action) throws Exception {
+        statistics.clear();
+        action.call();
+        return statistics.getPrepareStatementCount();
+    }
+}
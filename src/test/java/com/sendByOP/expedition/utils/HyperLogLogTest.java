@@ -0,0 +1,89 @@
+package com.sendByOP.expedition.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class HyperLogLogTest {
+
+    /**
+     * Tolérance : environ trois erreurs types (1,6 % en précision 12)
+     */
+    private static final double TOLERANCE = 0.05;
+
+    @Test
+    void emptySketchEstimatesZero() {
+        assertThat(new HyperLogLog().estimate()).isZero();
+    }
+
+    @Test
+    void estimateIsCloseToTheNumberOfDistinctValues() {
+        for (int distinct : new int[]{100, 1_000, 10_000, 100_000}) {
+            HyperLogLog sketch = new HyperLogLog();
+            for (int i = 0; i < distinct; i++) {
+                sketch.add("visitor-" + i);
+            }
+            assertThat((double) sketch.estimate())
+                    .as("estimate for %d distinct values", distinct)
+                    .isCloseTo(distinct, within(distinct * TOLERANCE));
+        }
+    }
+
+    @Test
+    void duplicatesDoNotChangeTheEstimate() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = 0; i < 5_000; i++) {
+            sketch.add("visitor-" + i);
+        }
+        long estimate = sketch.estimate();
+
+        for (int i = 0; i < 5_000; i++) {
+            sketch.add("visitor-" + i);
+        }
+
+        assertThat(sketch.estimate()).isEqualTo(estimate);
+    }
+
+    @Test
+    void mergeEstimatesTheUnionAndIsIdempotent() {
+        HyperLogLog first = new HyperLogLog();
+        HyperLogLog second = new HyperLogLog();
+        for (int i = 0; i < 6_000; i++) {
+            first.add("visitor-" + i);
+        }
+        for (int i = 4_000; i < 10_000; i++) {
+            second.add("visitor-" + i);
+        }
+
+        first.merge(second);
+        long union = first.estimate();
+        assertThat((double) union).isCloseTo(10_000, within(10_000 * TOLERANCE));
+
+        first.merge(second);
+        first.merge(first);
+        assertThat(first.estimate()).isEqualTo(union);
+    }
+
+    @Test
+    void bytesRoundTripKeepsEveryRegister() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = 0; i < 20_000; i++) {
+            sketch.add("visitor-" + i);
+        }
+
+        byte[] bytes = sketch.toBytes();
+        HyperLogLog restored = HyperLogLog.fromBytes(bytes);
+
+        assertThat(bytes).hasSize(HyperLogLog.REGISTER_COUNT);
+        assertThat(restored.toBytes()).isEqualTo(bytes);
+        assertThat(restored.estimate()).isEqualTo(sketch.estimate());
+    }
+
+    @Test
+    void fromBytesRejectsAWrongSize() {
+        assertThatThrownBy(() -> HyperLogLog.fromBytes(new byte[16]))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}